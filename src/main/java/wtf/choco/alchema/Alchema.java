@@ -1,16 +1,12 @@
 package wtf.choco.alchema;
 
 import com.google.common.base.Preconditions;
-import com.google.common.io.Files;
-import com.google.gson.Gson;
-import com.google.gson.JsonArray;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonSyntaxException;
 import org.bstats.bukkit.Metrics;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
+import org.bukkit.World;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.PluginCommand;
 import org.bukkit.command.TabCompleter;
@@ -19,8 +15,9 @@ import org.bukkit.inventory.RecipeChoice;
 import org.bukkit.inventory.ShapedRecipe;
 import org.bukkit.plugin.PluginManager;
 import org.bukkit.plugin.java.JavaPlugin;
+import org.jetbrains.annotations.ApiStatus.Internal;
 import org.jetbrains.annotations.NotNull;
-import wtf.choco.alchema.cauldron.AlchemicalCauldron;
+import org.jetbrains.annotations.Nullable;
 import wtf.choco.alchema.cauldron.CauldronManager;
 import wtf.choco.alchema.cauldron.CauldronUpdateHandler;
 import wtf.choco.alchema.command.CommandAlchema;
@@ -30,37 +27,44 @@ import wtf.choco.alchema.crafting.CauldronIngredientItemStack;
 import wtf.choco.alchema.crafting.CauldronIngredientMaterial;
 import wtf.choco.alchema.crafting.CauldronRecipeRegistry;
 import wtf.choco.alchema.crafting.CauldronRecipeResultItemStack;
+import wtf.choco.alchema.crafting.RecipeFileWatcher;
 import wtf.choco.alchema.essence.EntityEssenceData;
 import wtf.choco.alchema.essence.EntityEssenceEffectRegistry;
 import wtf.choco.alchema.integration.mmoitems.PluginIntegrationMMOItems;
 import wtf.choco.alchema.integration.mythicmobs.PluginIntegrationMythicItems;
 import wtf.choco.alchema.listener.CauldronDeathMessageListener;
 import wtf.choco.alchema.listener.CauldronManipulationListener;
+import wtf.choco.alchema.listener.CauldronWorldListener;
 import wtf.choco.alchema.listener.EmptyVialRecipeDiscoverListener;
 import wtf.choco.alchema.listener.EntityEssenceCollectionListener;
+import wtf.choco.alchema.listener.PermissionCacheListener;
 import wtf.choco.alchema.listener.UpdateReminderListener;
 import wtf.choco.alchema.listener.VialOfEssenceConsumptionListener;
 import wtf.choco.alchema.metrics.MetricsHelper;
+import wtf.choco.alchema.persistence.CauldronChunkStorage;
+import wtf.choco.alchema.persistence.CauldronShardStore;
+import wtf.choco.alchema.persistence.CauldronStorage;
+import wtf.choco.alchema.persistence.CauldronStorageType;
 import wtf.choco.alchema.util.AlchemaConstants;
+import wtf.choco.alchema.util.ItemCodecType;
+import wtf.choco.alchema.util.ItemUtil;
+import wtf.choco.alchema.util.PermissionCache;
+import wtf.choco.alchema.util.ResourceIndex;
 import wtf.choco.commons.integration.IntegrationHandler;
 import wtf.choco.commons.util.UpdateChecker;
 import wtf.choco.commons.util.UpdateChecker.UpdateReason;
 
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.nio.charset.Charset;
-import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
-import java.util.Enumeration;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.jar.JarEntry;
-import java.util.jar.JarFile;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.logging.Level;
 
 /**
  * The main plugin class of Alchema.
@@ -72,8 +76,6 @@ public final class Alchema extends JavaPlugin {
     /** The chat prefix used by Alchema */
     public static final String CHAT_PREFIX = ChatColor.DARK_PURPLE.toString() + ChatColor.BOLD + "Alchema | " + ChatColor.GRAY;
 
-    private static final Gson GSON = new Gson();
-
     private static Alchema instance;
 
     private final CauldronManager cauldronManager = new CauldronManager(this);
@@ -81,9 +83,13 @@ public final class Alchema extends JavaPlugin {
     private final EntityEssenceEffectRegistry entityEssenceEffectRegistry = new EntityEssenceEffectRegistry();
 
     private final IntegrationHandler integrationHandler = new IntegrationHandler(this);
+    private final PermissionCache permissionCache = new PermissionCache(recipeRegistry);
 
-    private File cauldronFile;
+    private CauldronStorage cauldronStorage;
+    private ResourceIndex resourceIndex;
+    private List<@NotNull String> defaultRecipePaths = Collections.emptyList();
     private File recipesDirectory;
+    private RecipeFileWatcher recipeFileWatcher;
 
     private CauldronUpdateHandler cauldronUpdateTask;
 
@@ -93,6 +99,14 @@ public final class Alchema extends JavaPlugin {
     public void onLoad() {
         instance = this; // Needs to be set here so the CauldronIngredient* keys can be defined by Alchema#key()
 
+        // Index the resources bundled in the jar once, they are listed and extracted from this index from here on
+        try {
+            this.resourceIndex = ResourceIndex.index(getFile());
+            this.defaultRecipePaths = resourceIndex.getResources("recipes").stream().map(path -> path.substring("recipes/".length())).toList();
+        } catch (IOException e) {
+            this.getLogger().log(Level.SEVERE, "Could not index the resources bundled with " + getName() + ". Default recipes will not be available", e);
+        }
+
         /*
          * These are done on load so other plugins may have the opportunity to use them as well.
          *
@@ -101,12 +115,12 @@ public final class Alchema extends JavaPlugin {
          * being loaded so it's a tad too late to be registering new ingredient types.
          */
         // Ingredient types
-        this.recipeRegistry.registerIngredientType(CauldronIngredientItemStack.KEY, CauldronIngredientItemStack::new);
-        this.recipeRegistry.registerIngredientType(CauldronIngredientMaterial.KEY, CauldronIngredientMaterial::new);
-        this.recipeRegistry.registerIngredientType(CauldronIngredientEntityEssence.KEY, object -> new CauldronIngredientEntityEssence(object, entityEssenceEffectRegistry));
+        this.recipeRegistry.registerIngredientType(CauldronIngredientItemStack.KEY, CauldronIngredientItemStack::new, CauldronIngredientItemStack::new);
+        this.recipeRegistry.registerIngredientType(CauldronIngredientMaterial.KEY, CauldronIngredientMaterial::new, CauldronIngredientMaterial::new);
+        this.recipeRegistry.registerIngredientType(CauldronIngredientEntityEssence.KEY, object -> new CauldronIngredientEntityEssence(object, entityEssenceEffectRegistry), reader -> new CauldronIngredientEntityEssence(reader, entityEssenceEffectRegistry));
 
         // Result types
-        this.recipeRegistry.registerResultType(CauldronRecipeResultItemStack.KEY, CauldronRecipeResultItemStack::new);
+        this.recipeRegistry.registerResultType(CauldronRecipeResultItemStack.KEY, CauldronRecipeResultItemStack::new, CauldronRecipeResultItemStack::new);
 
         /*
          * We're also going to handle plugin integration registrations on load just to jump the gun a bit.
@@ -127,40 +141,57 @@ public final class Alchema extends JavaPlugin {
         this.saveDefaultConfig();
         this.getConfig().options().copyDefaults(true);
 
-        // Save default recipes
+        this.cauldronManager.setMirrorBlockMetadata(getConfig().getBoolean(AlchemaConstants.CONFIG_CAULDRON_MIRROR_BLOCK_METADATA, false));
+
+        // Save default recipes in the background. Recipes are loaded once they have been saved
         this.recipesDirectory = new File(getDataFolder(), "recipes");
-        if (!recipesDirectory.exists()) {
-            this.saveDefaultDirectory("recipes", true);
+        CompletableFuture<@NotNull List<@NotNull String>> defaultRecipesFuture = CompletableFuture.completedFuture(Collections.emptyList());
+        if (!recipesDirectory.exists() && resourceIndex != null) {
+            defaultRecipesFuture = resourceIndex.extract(resourceIndex.getResources("recipes"), getDataFolder(), false).exceptionally(e -> {
+                this.getLogger().log(Level.SEVERE, "Could not save default recipes", e);
+                return Collections.emptyList();
+            });
         }
 
-        // Load cauldrons from file
-        this.cauldronFile = new File(getDataFolder(), "cauldrons.json");
-        if (cauldronFile.exists()) {
-            Bukkit.getScheduler().runTaskAsynchronously(this, () -> {
-                try (BufferedReader reader = Files.newReader(cauldronFile, Charset.defaultCharset())) {
-                    JsonArray cauldronArray = GSON.fromJson(reader, JsonArray.class);
-                    cauldronArray.forEach(element -> {
-                        if (!element.isJsonObject()) {
-                            return;
-                        }
-
-                        AlchemicalCauldron cauldron = AlchemicalCauldron.fromJson(element.getAsJsonObject(), recipeRegistry);
-                        if (cauldron == null) {
-                            this.getLogger().info("Attempted to load cauldron at a position where a cauldron was not present.");
-                            return;
-                        }
-
-                        this.cauldronManager.addCauldron(cauldron);
-                    });
-                } catch (IOException | JsonSyntaxException e) {
-                    e.printStackTrace();
-                }
-            });
+        String itemCodecName = getConfig().getString(AlchemaConstants.CONFIG_CAULDRON_PERSISTENCE_ITEM_CODEC, ItemCodecType.COMPACT.name());
+        ItemCodecType itemCodecType = ItemCodecType.getByName(itemCodecName);
+        if (itemCodecType == null) {
+            this.getLogger().warning("Unknown item codec \"" + itemCodecName + "\". Defaulting to " + ItemCodecType.COMPACT.name());
+            itemCodecType = ItemCodecType.COMPACT;
+        }
+
+        ItemUtil.setItemCodec(itemCodecType.getCodec());
+
+        // Recover cauldron state. Cauldrons themselves are loaded as their chunks load
+        String storageTypeName = getConfig().getString(AlchemaConstants.CONFIG_CAULDRON_PERSISTENCE_STORAGE, CauldronStorageType.JSON.name());
+        CauldronStorageType storageType = CauldronStorageType.getByName(storageTypeName);
+        if (storageType == null) {
+            this.getLogger().warning("Unknown cauldron storage type \"" + storageTypeName + "\". Defaulting to " + CauldronStorageType.JSON.name());
+            storageType = CauldronStorageType.JSON;
+        }
+
+        this.cauldronStorage = storageType.createStorage(this);
+
+        try {
+            this.cauldronStorage.recover();
+        } catch (IllegalStateException e) {
+            if (storageType == CauldronStorageType.JSON) {
+                throw e;
+            }
+
+            this.getLogger().log(Level.SEVERE, "Could not open " + storageType.name() + " cauldron storage. Defaulting to " + CauldronStorageType.JSON.name(), e);
+            this.cauldronStorage = CauldronStorageType.JSON.createStorage(this);
+            this.cauldronStorage.recover();
         }
+        this.cauldronManager.setChangeListener(cauldronStorage);
+
+        long autosaveInterval = Math.max(getConfig().getLong(AlchemaConstants.CONFIG_CAULDRON_PERSISTENCE_AUTOSAVE_INTERVAL, 300L), 1L) * 20L;
+        Bukkit.getScheduler().runTaskTimer(this, () -> cauldronStorage.save(), autosaveInterval, autosaveInterval);
 
         // Load cauldron recipes (asynchronously)
         this.recipeRegistry.stopAcceptingRegistrations(); // Stop accepting registrations now. We're ready to load.
-        this.recipeRegistry.loadCauldronRecipes(this, recipesDirectory).whenComplete((result, exception) -> {
+        this.recipeRegistry.setRegisterCraftingPermissions(getConfig().getBoolean(AlchemaConstants.CONFIG_RECIPES_REGISTER_CRAFTING_PERMISSIONS, false));
+        defaultRecipesFuture.thenCompose(savedRecipes -> recipeRegistry.loadCauldronRecipes(this, recipesDirectory)).whenComplete((result, exception) -> {
             if (exception != null) {
                 exception.printStackTrace();
                 return;
@@ -173,6 +204,9 @@ public final class Alchema extends JavaPlugin {
             result.getFailures().forEach(failureReport -> getLogger().warning("Failed to load recipe " + failureReport.getRecipeKey() + ". Reason: " + failureReport.getReason()));
         });
 
+        this.recipeFileWatcher = new RecipeFileWatcher(this, recipeRegistry, recipesDirectory);
+        defaultRecipesFuture.thenRun(() -> Bukkit.getScheduler().runTask(this, this::refreshRecipeFileWatcher));
+
         // Register entity essence effects
         EntityEssenceEffectRegistry.registerDefaultAlchemaEssences(entityEssenceEffectRegistry);
 
@@ -180,11 +214,16 @@ public final class Alchema extends JavaPlugin {
         PluginManager manager = Bukkit.getPluginManager();
         manager.registerEvents(new CauldronDeathMessageListener(this), this);
         manager.registerEvents(new CauldronManipulationListener(this), this);
+        manager.registerEvents(new CauldronWorldListener(this), this);
         manager.registerEvents(new EmptyVialRecipeDiscoverListener(), this);
         manager.registerEvents(this.entityEssenceLootListener = new EntityEssenceCollectionListener(this), this);
+        manager.registerEvents(new PermissionCacheListener(permissionCache), this);
         manager.registerEvents(new UpdateReminderListener(this), this);
         manager.registerEvents(new VialOfEssenceConsumptionListener(this), this);
 
+        // Load cauldrons in chunks that were loaded before Alchema was enabled
+        Bukkit.getWorlds().forEach(cauldronStorage::loadWorld);
+
         // Register commands
         this.registerCommandSafely("alchema", new CommandAlchema(this));
         this.registerCommandSafely("givevialofessence", new CommandGiveVialOfEssence(this));
@@ -232,28 +271,26 @@ public final class Alchema extends JavaPlugin {
     public void onDisable() {
         this.integrationHandler.disableIntegrations(true);
 
-        // Write all cauldrons to file
-        Collection<AlchemicalCauldron> cauldrons = cauldronManager.getCauldrons();
-        if (!cauldrons.isEmpty()) {
-            JsonArray cauldronsArray = new JsonArray();
-            cauldrons.forEach(cauldron -> cauldronsArray.add(cauldron.write(new JsonObject())));
+        // The watcher, storage and update task are not created if enabling was aborted
+        if (recipeFileWatcher != null) {
+            this.recipeFileWatcher.close();
+        }
 
-            try (PrintWriter writer = new PrintWriter(cauldronFile)) {
-                GSON.toJson(cauldronsArray, writer);
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
-        } else {
-            this.cauldronFile.delete();
+        // Save changed cauldrons and wait for them to be written
+        if (cauldronStorage != null) {
+            this.cauldronStorage.close();
         }
 
+        this.cauldronManager.setChangeListener(null);
         this.cauldronManager.clearCauldrons();
         this.recipeRegistry.clearRecipes();
         this.recipeRegistry.clearIngredientTypes();
         this.recipeRegistry.clearResultTypes();
         this.entityEssenceEffectRegistry.clearEntityEssenceData();
 
-        this.cauldronUpdateTask.cancelTask();
+        if (cauldronUpdateTask != null) {
+            this.cauldronUpdateTask.cancelTask();
+        }
 
         MetricsHelper.clearKeyWhitelists();
     }
@@ -298,6 +335,82 @@ public final class Alchema extends JavaPlugin {
         return integrationHandler;
     }
 
+    /**
+     * Get the {@link PermissionCache} instance.
+     *
+     * @return the permission cache
+     */
+    @NotNull
+    public PermissionCache getPermissionCache() {
+        return permissionCache;
+    }
+
+    /**
+     * Get the {@link CauldronStorage} in which cauldrons are persisted.
+     *
+     * @return the cauldron storage
+     */
+    @NotNull
+    public CauldronStorage getCauldronStorage() {
+        return cauldronStorage;
+    }
+
+    /**
+     * Migrate all cauldrons stored in JSON files into the chunks in which they reside and
+     * switch to {@link CauldronStorageType#CHUNK chunk storage}, persisting the choice to the
+     * configuration. Every chunk containing a stored cauldron is loaded in the process.
+     * <p>
+     * Only cauldrons in loaded worlds can be migrated. The files of cauldrons in worlds that
+     * are not loaded, or that could not be migrated, are kept.
+     *
+     * @return the amount of migrated cauldrons
+     *
+     * @throws IllegalStateException if cauldrons are not currently stored in JSON files, or if
+     * not every change to cauldrons could be written to their files, in which case nothing is
+     * migrated and cauldrons remain stored in JSON files
+     */
+    @Internal
+    public int migrateToChunkStorage() {
+        Preconditions.checkState(cauldronStorage instanceof CauldronShardStore, "Cauldrons are not stored in JSON files");
+
+        // Closing the store writes all changes such that every cauldron is in its files
+        CauldronShardStore shardStore = (CauldronShardStore) cauldronStorage;
+        if (!shardStore.closeAndCompact()) {
+            // Changes only in the journal would be lost by migrating the files. Reopen the files instead, which applies the journal to them
+            CauldronShardStore reopenedStore = new CauldronShardStore(this);
+            reopenedStore.recover();
+            Bukkit.getWorlds().forEach(reopenedStore::loadWorld);
+
+            this.cauldronStorage = reopenedStore;
+            this.cauldronManager.setChangeListener(reopenedStore);
+            throw new IllegalStateException("Not every change to cauldrons could be written to their files. Nothing was migrated");
+        }
+
+        CauldronChunkStorage chunkStorage = new CauldronChunkStorage(this);
+        this.cauldronStorage = chunkStorage;
+        this.cauldronManager.setChangeListener(chunkStorage);
+
+        int migrated = 0;
+        for (UUID worldUUID : shardStore.getStoredWorlds()) {
+            World world = Bukkit.getWorld(worldUUID);
+            if (world == null) {
+                this.getLogger().warning("Could not migrate cauldrons of unloaded world " + worldUUID + ". Their files were kept");
+                continue;
+            }
+
+            try {
+                migrated += chunkStorage.importCauldrons(world, shardStore.readWorld(worldUUID));
+                shardStore.deleteWorld(worldUUID);
+            } catch (IOException e) {
+                this.getLogger().log(Level.SEVERE, "Could not migrate cauldrons of world \"" + world.getName() + "\". Their files were kept", e);
+            }
+        }
+
+        this.getConfig().set(AlchemaConstants.CONFIG_CAULDRON_PERSISTENCE_STORAGE, CauldronStorageType.CHUNK.name());
+        this.saveConfig();
+        return migrated;
+    }
+
     /**
      * Get the directory from which Alchema's recipes are loaded.
      *
@@ -315,17 +428,45 @@ public final class Alchema extends JavaPlugin {
         this.entityEssenceLootListener.refreshBlacklists();
     }
 
+    /**
+     * Start or stop watching the recipes directory for changed recipe files according to the
+     * configuration loaded into memory.
+     */
+    public void refreshRecipeFileWatcher() {
+        if (!getConfig().getBoolean(AlchemaConstants.CONFIG_RECIPES_HOT_RELOAD, false)) {
+            this.recipeFileWatcher.close();
+            return;
+        }
+
+        try {
+            this.recipeFileWatcher.start();
+        } catch (IOException e) {
+            this.getLogger().log(Level.WARNING, "Could not watch the recipes directory. Recipe files will not be reloaded as they change", e);
+        }
+    }
+
     /**
      * Get a list of paths to the default recipes provided by Alchema.
      * <p>
      * These paths are NOT the same as those in the plugin's recipe directory. These
-     * are paths to the recipe files present in the plugin's jar file.
+     * are paths to the recipe files present in the plugin's jar file, indexed once
+     * when Alchema is loaded.
      *
      * @return the recipe paths
      */
     @NotNull
     public List<@NotNull String> getDefaultRecipePaths() {
-        return getDefaultRecipePaths("recipes");
+        return defaultRecipePaths;
+    }
+
+    /**
+     * Get the index of resources bundled in Alchema's jar file.
+     *
+     * @return the resource index. null if the jar file could not be indexed
+     */
+    @Nullable
+    public ResourceIndex getResourceIndex() {
+        return resourceIndex;
     }
 
     /**
@@ -396,35 +537,6 @@ public final class Alchema extends JavaPlugin {
         Bukkit.addRecipe(recipe);
     }
 
-    @NotNull
-    private List<@NotNull String> getDefaultRecipePaths(String path) {
-        List<String> paths = new ArrayList<>();
-
-        try (JarFile jar = new JarFile(getFile())) {
-            Enumeration<JarEntry> entries = jar.entries();
-
-            while (entries.hasMoreElements()) {
-                JarEntry entry = entries.nextElement();
-                String name = entry.getName();
-
-                if (!name.startsWith(path + "/")) {
-                    continue;
-                }
-
-                if (entry.isDirectory()) {
-                    paths.addAll(getDefaultRecipePaths(name));
-                    continue;
-                }
-
-                paths.add(name.substring("recipes/".length()));
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-
-        return paths;
-    }
-
     /**
      * Get an instance of {@link Alchema}.
      *
@@ -448,35 +560,6 @@ public final class Alchema extends JavaPlugin {
         return new NamespacedKey(instance, key);
     }
 
-    private void saveDefaultDirectory(@NotNull String directory, boolean saveChildDirectories) {
-        Preconditions.checkArgument(directory != null, "directory cannot be null");
-
-        try (JarFile jar = new JarFile(getFile())) {
-            Enumeration<JarEntry> entries = jar.entries();
-
-            while (entries.hasMoreElements()) {
-                JarEntry entry = entries.nextElement();
-                String name = entry.getName();
-
-                if (!name.startsWith(directory + "/")) {
-                    continue;
-                }
-
-                if (entry.isDirectory()) {
-                    if (saveChildDirectories) {
-                        this.saveDefaultDirectory(name, saveChildDirectories);
-                    }
-
-                    continue;
-                }
-
-                this.saveResource(name, false);
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
-    }
-
     private void registerCommandSafely(@NotNull String commandString, @NotNull CommandExecutor executor) {
         PluginCommand command = getCommand(commandString);
         if (command == null) {
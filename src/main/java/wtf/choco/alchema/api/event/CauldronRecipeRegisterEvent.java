@@ -17,6 +17,13 @@ import wtf.choco.alchema.crafting.CauldronRecipeRegistry;
  * is issued by a command executor, therefore it is recommended that registration be
  * done in an event listener for this event instead.
  * <p>
+ * Recipes should be registered to the registry provided by {@link #getRecipeRegistry()}.
+ * Recipes are loaded into a registry of their own which replaces the recipes of
+ * {@link Alchema#getRecipeRegistry()} only once loading has completed. Recipes registered
+ * to the latter while loading are carried over into the loaded recipes, but it is in use
+ * on the main thread while this event is called asynchronously and should not be modified
+ * from this event.
+ * <p>
  * By the time this event has been called, all recipes provided by Alchema will have
  * been registered already.
  *
@@ -40,7 +47,7 @@ public class CauldronRecipeRegisterEvent extends Event {
     }
 
     /**
-     * Get the {@link CauldronRecipeRegistry} instance.
+     * Get the {@link CauldronRecipeRegistry} instance into which recipes are being loaded.
      *
      * @return the recipe registry
      */
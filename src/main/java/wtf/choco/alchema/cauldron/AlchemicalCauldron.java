@@ -18,7 +18,6 @@ import org.bukkit.Sound;
 import org.bukkit.Tag;
 import org.bukkit.World;
 import org.bukkit.block.Block;
-import org.bukkit.block.BlockFace;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.block.data.Levelled;
 import org.bukkit.block.data.type.Campfire;
@@ -56,12 +55,11 @@ import wtf.choco.alchema.essence.EntityEssenceEffectRegistry;
 import wtf.choco.alchema.metrics.MetricsHelper;
 import wtf.choco.alchema.util.AlchemaConstants;
 import wtf.choco.alchema.util.AlchemaEventFactory;
+import wtf.choco.alchema.util.BlockPositionUtil;
 import wtf.choco.alchema.util.EssenceUtil;
 import wtf.choco.commons.util.MathUtil;
 import wtf.choco.commons.util.NamespacedKeyUtil;
 
-import java.lang.ref.Reference;
-import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.EnumMap;
@@ -89,17 +87,11 @@ public class AlchemicalCauldron {
         HEAT_SOURCE_BLOCKS.put(Material.SOUL_CAMPFIRE, blockData -> ((Campfire) blockData).isLit());
     }
 
-    private long heatingStartTime;
-    private boolean heatingUp = false, bubbling = false;
+    // All state is held in a CauldronStateTable. This object is only a handle to its slot
+    private CauldronStateTable table;
+    private int slot;
 
-    private UUID lastInteractedUUID;
-    private Reference<@Nullable OfflinePlayer> lastInteracted = new WeakReference<>(null);
-
-    private final Block cauldronBlock;
-    private final Block heatSourceBlock;
-    private final BoundingBox itemConsumptionBounds;
-
-    private final List<@NotNull CauldronIngredient> ingredients = new ArrayList<>();
+    private CauldronRecipeRegistry rawIngredientsRegistry; // The registry that validated the raw ingredients, if any
 
     /**
      * Construct a new {@link AlchemicalCauldron}.
@@ -109,14 +101,80 @@ public class AlchemicalCauldron {
     public AlchemicalCauldron(@NotNull Block block) {
         Preconditions.checkArgument(Tag.CAULDRONS.isTagged(block.getType()), "AlchemicalCauldron block type must be Tag.CAULDRON");
 
-        this.cauldronBlock = block;
-        this.heatSourceBlock = block.getRelative(BlockFace.DOWN);
-        this.itemConsumptionBounds = new BoundingBox(
-            block.getX() + 0.125, block.getY() + 0.125, block.getZ() + 0.125,
-            block.getX() + 1 - 0.125, block.getY() + 1 - 0.125, block.getZ() + 1 - 0.125
-        );
+        // Cauldrons not yet added to a CauldronManager hold their state in their own table
+        this.table = new CauldronStateTable(1);
+        this.slot = table.allocate(this, block.getWorld(), BlockPositionUtil.pack(block.getX(), block.getY(), block.getZ()));
+
+        this.table.setHeatingStartTime(slot, hasValidHeatSource() ? System.currentTimeMillis() : -1);
+    }
+
+    /**
+     * Move this cauldron's state into a new slot of the given table, releasing its slot in
+     * the table it currently occupies. If the cauldron is already in the given table, this
+     * method does nothing.
+     *
+     * @param target the table into which the state should be moved
+     */
+    @Internal
+    void transferTo(@NotNull CauldronStateTable target) {
+        if (table == target) {
+            return;
+        }
+
+        int newSlot = target.copyFrom(table, slot);
+        this.table.remove(slot);
+        this.assignSlot(target, newSlot);
+    }
+
+    /**
+     * Assign the table and slot occupied by this cauldron. Called by the table when this
+     * cauldron's state is moved.
+     *
+     * @param table the table
+     * @param slot the slot
+     */
+    @Internal
+    void assignSlot(@NotNull CauldronStateTable table, int slot) {
+        this.table = table;
+        this.slot = slot;
+    }
+
+    /**
+     * Check whether or not this cauldron's state is held in the given table.
+     *
+     * @param table the table
+     *
+     * @return true if held in the table, false otherwise
+     */
+    @Internal
+    boolean isHeldIn(@NotNull CauldronStateTable table) {
+        return this.table == table;
+    }
+
+    /**
+     * Get the position of this cauldron packed by {@link BlockPositionUtil#pack(int, int, int)}.
+     *
+     * @return the packed position
+     */
+    @Internal
+    long getPosition() {
+        return table.getPosition(slot);
+    }
+
+    private void notifyIngredientsChange() {
+        this.table.setMatch(slot, null, CauldronStateTable.NO_MATCH);
+
+        CauldronChangeListener changeListener = table.getChangeListener();
+        if (changeListener != null) {
+            changeListener.onIngredientsChange(this);
+        }
+    }
 
-        this.heatingStartTime = hasValidHeatSource() ? System.currentTimeMillis() : -1;
+    private void notifyHeatStateChange() {
+        CauldronChangeListener changeListener = table.getChangeListener();
+        if (changeListener != null) {
+            changeListener.onHeatStateChange(this);
+        }
     }
 
     /**
@@ -125,7 +183,7 @@ public class AlchemicalCauldron {
      * @return true if loaded, false otherwise
      */
     public boolean isLoaded() {
-        return cauldronBlock.getWorld().isChunkLoaded(cauldronBlock.getX() >> 4, cauldronBlock.getZ() >> 4);
+        return table.isLoaded(slot);
     }
 
     /**
@@ -137,7 +195,7 @@ public class AlchemicalCauldron {
      * @return true if the cauldron is valid, false otherwise
      */
     public boolean isValid() {
-        return cauldronBlock.getType() == Material.WATER_CAULDRON;
+        return getCauldronBlock().getType() == Material.WATER_CAULDRON;
     }
 
     /**
@@ -147,7 +205,8 @@ public class AlchemicalCauldron {
      */
     @NotNull
     public Block getCauldronBlock() {
-        return cauldronBlock;
+        long position = table.getPosition(slot);
+        return getWorld().getBlockAt(BlockPositionUtil.unpackX(position), BlockPositionUtil.unpackY(position), BlockPositionUtil.unpackZ(position));
     }
 
     /**
@@ -157,7 +216,7 @@ public class AlchemicalCauldron {
      */
     @NotNull
     public Location getLocation() {
-        return cauldronBlock.getLocation();
+        return new Location(getWorld(), getX(), getY(), getZ());
     }
 
     /**
@@ -166,7 +225,7 @@ public class AlchemicalCauldron {
      * @return the x coordinate
      */
     public int getX() {
-        return cauldronBlock.getX();
+        return BlockPositionUtil.unpackX(table.getPosition(slot));
     }
 
     /**
@@ -175,7 +234,7 @@ public class AlchemicalCauldron {
      * @return the y coordinate
      */
     public int getY() {
-        return cauldronBlock.getY();
+        return BlockPositionUtil.unpackY(table.getPosition(slot));
     }
 
     /**
@@ -184,7 +243,7 @@ public class AlchemicalCauldron {
      * @return the z coordinate
      */
     public int getZ() {
-        return cauldronBlock.getZ();
+        return BlockPositionUtil.unpackZ(table.getPosition(slot));
     }
 
     /**
@@ -194,7 +253,7 @@ public class AlchemicalCauldron {
      */
     @NotNull
     public World getWorld() {
-        return cauldronBlock.getWorld();
+        return table.getWorld(slot);
     }
 
     /**
@@ -209,7 +268,7 @@ public class AlchemicalCauldron {
     @ScheduledForRemoval(inVersion = "1.4.0")
     @Deprecated(since = "1.0.1.1", forRemoval = true)
     public Block getFireBlock() {
-        return heatSourceBlock;
+        return getHeatSourceBlock();
     }
 
     /**
@@ -220,7 +279,7 @@ public class AlchemicalCauldron {
      */
     @NotNull
     public Block getHeatSourceBlock() {
-        return heatSourceBlock;
+        return getWorld().getBlockAt(getHeatSourceX(), getHeatSourceY(), getHeatSourceZ());
     }
 
     /**
@@ -230,7 +289,7 @@ public class AlchemicalCauldron {
      */
     @NotNull
     public Location getHeatSourceLocation() {
-        return heatSourceBlock.getLocation();
+        return new Location(getWorld(), getHeatSourceX(), getHeatSourceY(), getHeatSourceZ());
     }
 
     /**
@@ -239,7 +298,7 @@ public class AlchemicalCauldron {
      * @return the x coordinate
      */
     public int getHeatSourceX() {
-        return heatSourceBlock.getX();
+        return getX();
     }
 
     /**
@@ -248,7 +307,7 @@ public class AlchemicalCauldron {
      * @return the y coordinate
      */
     public int getHeatSourceY() {
-        return heatSourceBlock.getY();
+        return getY() - 1;
     }
 
     /**
@@ -257,7 +316,7 @@ public class AlchemicalCauldron {
      * @return the z coordinate
      */
     public int getHeatSourceZ() {
-        return heatSourceBlock.getZ();
+        return getZ();
     }
 
     /**
@@ -268,7 +327,11 @@ public class AlchemicalCauldron {
      */
     @NotNull
     public BoundingBox getItemConsumptionBounds() {
-        return itemConsumptionBounds;
+        int x = getX(), y = getY(), z = getZ();
+        return new BoundingBox(
+            x + 0.125, y + 0.125, z + 0.125,
+            x + 1 - 0.125, y + 1 - 0.125, z + 1 - 0.125
+        );
     }
 
     /**
@@ -277,8 +340,7 @@ public class AlchemicalCauldron {
      * @param player the player to set or null if none
      */
     public void setLastInteracted(@Nullable OfflinePlayer player) {
-        this.lastInteractedUUID = (player != null) ? player.getUniqueId() : null;
-        this.lastInteracted = new WeakReference<>(player);
+        this.table.setLastInteracted(slot, (player != null) ? player.getUniqueId() : null);
     }
 
     /**
@@ -288,11 +350,8 @@ public class AlchemicalCauldron {
      */
     @Nullable
     public OfflinePlayer getLastInteracted() {
-        if (lastInteracted == null && lastInteractedUUID != null) {
-            this.lastInteracted = new WeakReference<>(Bukkit.getOfflinePlayer(lastInteractedUUID));
-        }
-
-        return (lastInteracted != null) ? lastInteracted.get() : null;
+        UUID lastInteractedUUID = getLastInteractedUUID();
+        return (lastInteractedUUID != null) ? Bukkit.getOfflinePlayer(lastInteractedUUID) : null;
     }
 
     /**
@@ -302,7 +361,7 @@ public class AlchemicalCauldron {
      */
     @Nullable
     public UUID getLastInteractedUUID() {
-        return lastInteractedUUID;
+        return table.getLastInteracted(slot);
     }
 
     /**
@@ -312,6 +371,7 @@ public class AlchemicalCauldron {
      */
     public boolean hasValidHeatSource() {
         // Quick checks for simple types
+        Block heatSourceBlock = getHeatSourceBlock();
         Material heatSourceType = heatSourceBlock.getType();
         if (HEAT_SOURCE_MATERIALS.contains(heatSourceType)) {
             return true;
@@ -328,6 +388,7 @@ public class AlchemicalCauldron {
      * @return true if heating is possible, false otherwise
      */
     public boolean canHeatUp() {
+        Block cauldronBlock = getCauldronBlock();
         if (cauldronBlock.getType() != Material.WATER_CAULDRON) {
             return false;
         }
@@ -342,12 +403,13 @@ public class AlchemicalCauldron {
      * @return true if the attempt is successful and heating has started, false otherwise
      */
     public boolean attemptToHeatUp() {
-        if (heatingUp || bubbling || !canHeatUp()) {
+        if (isHeatingUp() || isBubbling() || !canHeatUp()) {
             return false;
         }
 
-        this.heatingStartTime = System.currentTimeMillis();
-        this.heatingUp = true;
+        this.table.setHeatingStartTime(slot, System.currentTimeMillis());
+        this.table.setFlag(slot, CauldronStateTable.FLAG_HEATING_UP, true);
+        this.notifyHeatStateChange();
         return true;
     }
 
@@ -357,15 +419,20 @@ public class AlchemicalCauldron {
      * @return true if heating up, false otherwise
      */
     public boolean isHeatingUp() {
-        return heatingUp;
+        return table.hasFlag(slot, CauldronStateTable.FLAG_HEATING_UP);
     }
 
     /**
      * Stop this cauldron from heating up.
      */
     public void stopHeatingUp() {
-        this.heatingStartTime = -1;
-        this.heatingUp = false;
+        if (!isHeatingUp() && getHeatingStartTime() == -1) {
+            return;
+        }
+
+        this.table.setHeatingStartTime(slot, -1);
+        this.table.setFlag(slot, CauldronStateTable.FLAG_HEATING_UP, false);
+        this.notifyHeatStateChange();
     }
 
     /**
@@ -376,7 +443,7 @@ public class AlchemicalCauldron {
      * @return the heating start time. -1 if the cauldron is not heating up
      */
     public long getHeatingStartTime() {
-        return heatingStartTime;
+        return table.getHeatingStartTime(slot);
     }
 
     /**
@@ -385,7 +452,12 @@ public class AlchemicalCauldron {
      * @param bubbling the new bubbling state
      */
     public void setBubbling(boolean bubbling) {
-        this.bubbling = bubbling;
+        if (isBubbling() == bubbling) {
+            return;
+        }
+
+        this.table.setFlag(slot, CauldronStateTable.FLAG_BUBBLING, bubbling);
+        this.notifyHeatStateChange();
     }
 
     /**
@@ -394,7 +466,7 @@ public class AlchemicalCauldron {
      * @return true if bubbling, false otherwise
      */
     public boolean isBubbling() {
-        return bubbling;
+        return table.hasFlag(slot, CauldronStateTable.FLAG_BUBBLING);
     }
 
     /**
@@ -404,6 +476,9 @@ public class AlchemicalCauldron {
      * @param ingredient the ingredient to add
      */
     public void addIngredient(@NotNull CauldronIngredient ingredient) {
+        this.inflateIngredients();
+
+        List<@NotNull CauldronIngredient> ingredients = table.getOrCreateIngredients(slot);
         int existingIndex = -1;
 
         for (int i = 0; i < ingredients.size(); i++) {
@@ -416,10 +491,12 @@ public class AlchemicalCauldron {
 
         if (existingIndex != -1) {
             // If possible, merge existing ingredients to not overflow the cauldron with many of the same type
-            this.ingredients.set(existingIndex, ingredients.get(existingIndex).merge(ingredient));
+            ingredients.set(existingIndex, ingredients.get(existingIndex).merge(ingredient));
         } else {
-            this.ingredients.add(ingredient);
+            ingredients.add(ingredient);
         }
+
+        this.notifyIngredientsChange();
     }
 
     /**
@@ -428,6 +505,13 @@ public class AlchemicalCauldron {
      * @param recipe the recipe whose ingredients should be removed
      */
     public void removeIngredients(@NotNull CauldronRecipe recipe) {
+        this.inflateIngredients();
+
+        List<@NotNull CauldronIngredient> ingredients = table.getIngredients(slot);
+        if (ingredients == null) {
+            return;
+        }
+
         recipe.getIngredients().forEach(recipeIngredient -> {
             for (int i = 0; i < ingredients.size(); i++) {
                 CauldronIngredient cauldronIngredient = ingredients.get(i);
@@ -439,12 +523,14 @@ public class AlchemicalCauldron {
                 int cauldronIngredientAmount = cauldronIngredient.getAmount();
 
                 if (recipeIngredientAmount >= cauldronIngredientAmount) {
-                    this.ingredients.remove(i--); // Adjust value of i to the new index
+                    ingredients.remove(i--); // Adjust value of i to the new index
                 } else {
-                    this.ingredients.set(i, cauldronIngredient.adjustAmountBy(-recipeIngredientAmount));
+                    ingredients.set(i, cauldronIngredient.adjustAmountBy(-recipeIngredientAmount));
                 }
             }
         });
+
+        this.notifyIngredientsChange();
     }
 
     /**
@@ -453,7 +539,13 @@ public class AlchemicalCauldron {
      * @return true if at least one ingredient is present, false otherwise
      */
     public boolean hasIngredients() {
-        return !ingredients.isEmpty();
+        // Ingredients pending inflation are never empty, no need to inflate them
+        if (table.getRawIngredients(slot) != null) {
+            return true;
+        }
+
+        List<@NotNull CauldronIngredient> ingredients = table.getIngredients(slot);
+        return ingredients != null && !ingredients.isEmpty();
     }
 
     /**
@@ -465,7 +557,10 @@ public class AlchemicalCauldron {
     @NotNull
     @UnmodifiableView
     public List<@NotNull CauldronIngredient> getIngredients() {
-        return Collections.unmodifiableList(ingredients);
+        this.inflateIngredients();
+
+        List<@NotNull CauldronIngredient> ingredients = table.getIngredients(slot);
+        return (ingredients != null) ? Collections.unmodifiableList(ingredients) : Collections.emptyList();
     }
 
     /**
@@ -501,7 +596,7 @@ public class AlchemicalCauldron {
             }
         }
 
-        this.ingredients.clear();
+        this.clearIngredients();
         return items;
     }
 
@@ -521,7 +616,82 @@ public class AlchemicalCauldron {
      * Clear all ingredients from this cauldron.
      */
     public void clearIngredients() {
-        this.ingredients.clear();
+        boolean changed = false;
+
+        // Pending ingredients may be discarded without ever being inflated
+        if (table.getRawIngredients(slot) != null) {
+            this.table.setRawIngredients(slot, null);
+            this.rawIngredientsRegistry = null;
+            changed = true;
+        }
+
+        List<@NotNull CauldronIngredient> ingredients = table.getIngredients(slot);
+        if (ingredients != null && !ingredients.isEmpty()) {
+            ingredients.clear();
+            changed = true;
+        }
+
+        if (changed) {
+            this.notifyIngredientsChange();
+        }
+    }
+
+    /**
+     * Get the serialized ingredients of this cauldron that have not yet been inflated into
+     * {@link CauldronIngredient} instances. Ingredients read by {@link #fromJson(JsonObject, CauldronRecipeRegistry)}
+     * are held in their serialized form until they are first accessed.
+     * <p>
+     * The returned array is shared and must not be modified.
+     *
+     * @return the serialized ingredients. null if there are none or if they have already
+     * been inflated
+     */
+    @Internal
+    @Nullable
+    public JsonArray getRawIngredients() {
+        return table.getRawIngredients(slot);
+    }
+
+    private void inflateIngredients() {
+        JsonArray rawIngredients = table.getRawIngredients(slot);
+        if (rawIngredients == null) {
+            return;
+        }
+
+        this.table.setRawIngredients(slot, null);
+
+        Alchema plugin = Alchema.getInstance();
+        CauldronRecipeRegistry recipeRegistry = rawIngredientsRegistry;
+        this.rawIngredientsRegistry = null;
+        List<@NotNull CauldronIngredient> ingredients = table.getOrCreateIngredients(slot);
+
+        for (JsonElement ingredientElement : rawIngredients) {
+            JsonObject ingredientObject = ingredientElement.getAsJsonObject();
+            NamespacedKey typeKey = NamespacedKeyUtil.fromString(ingredientObject.get("type").getAsString(), plugin);
+
+            try {
+                CauldronIngredient ingredient = (typeKey != null) ? recipeRegistry.parseIngredientType(typeKey, ingredientObject) : null;
+                if (ingredient == null) {
+                    throw new JsonParseException("Could not find ingredient type with id \"" + typeKey + "\"");
+                }
+
+                ingredients.add(ingredient);
+            } catch (RuntimeException e) {
+                plugin.getLogger().warning("Discarded an ingredient of the cauldron at " + getX() + ", " + getY() + ", " + getZ() + " in " + getWorld().getName() + " that could not be read: " + e.getMessage());
+                plugin.getLogger().warning(ingredientObject.toString());
+            }
+        }
+    }
+
+    @Nullable
+    private CauldronRecipe getApplicableRecipe(@NotNull CauldronRecipeRegistry recipeRegistry) {
+        // The match is only looked up again once the ingredients change or the registry moves to another generation
+        long generation = recipeRegistry.getGeneration();
+        if (table.getMatchGeneration(slot) != generation) {
+            this.table.setMatch(slot, recipeRegistry.getApplicableRecipe(getIngredients(), true), generation);
+        }
+
+        return table.getMatchedRecipe(slot);
     }
 
     /**
@@ -532,8 +702,9 @@ public class AlchemicalCauldron {
      */
     @Internal
     void attachMetadata(@NotNull Alchema plugin) {
-        this.cauldronBlock.setMetadata(AlchemaConstants.METADATA_KEY_ALCHEMICAL_CAULDRON, new FixedMetadataValue(plugin, true));
-        this.cauldronBlock.setMetadata(AlchemaConstants.METADATA_KEY_ALCHEMICAL_CAULDRON_BUBBLING, new LazyMetadataValue(plugin, CacheStrategy.NEVER_CACHE, this::isBubbling));
+        Block cauldronBlock = getCauldronBlock();
+        cauldronBlock.setMetadata(AlchemaConstants.METADATA_KEY_ALCHEMICAL_CAULDRON, new FixedMetadataValue(plugin, true));
+        cauldronBlock.setMetadata(AlchemaConstants.METADATA_KEY_ALCHEMICAL_CAULDRON_BUBBLING, new LazyMetadataValue(plugin, CacheStrategy.NEVER_CACHE, this::isBubbling));
     }
 
     /**
@@ -544,8 +715,9 @@ public class AlchemicalCauldron {
      */
     @Internal
     void detachMetadata(@NotNull Alchema plugin) {
-        this.cauldronBlock.removeMetadata(AlchemaConstants.METADATA_KEY_ALCHEMICAL_CAULDRON, plugin);
-        this.cauldronBlock.removeMetadata(AlchemaConstants.METADATA_KEY_ALCHEMICAL_CAULDRON_BUBBLING, plugin);
+        Block cauldronBlock = getCauldronBlock();
+        cauldronBlock.removeMetadata(AlchemaConstants.METADATA_KEY_ALCHEMICAL_CAULDRON, plugin);
+        cauldronBlock.removeMetadata(AlchemaConstants.METADATA_KEY_ALCHEMICAL_CAULDRON_BUBBLING, plugin);
     }
 
     /**
@@ -619,7 +791,7 @@ public class AlchemicalCauldron {
                     // Permission check for boiling player-sourced items
                     if (itemThrower != null && itemThrower.isOnline()) {
                         Player itemThrowerOnline = itemThrower.getPlayer();
-                        if (itemThrowerOnline != null && !itemThrowerOnline.hasPermission(AlchemaConstants.PERMISSION_CRAFT)) {
+                        if (itemThrowerOnline != null && !plugin.getPermissionCache().hasPermission(itemThrowerOnline, AlchemaConstants.PERMISSION_CRAFT)) {
                             return;
                         }
                     }
@@ -701,8 +873,7 @@ public class AlchemicalCauldron {
             return;
         }
 
-        CauldronRecipeRegistry recipeRegistry = plugin.getRecipeRegistry();
-        CauldronRecipe activeRecipe = recipeRegistry.getApplicableRecipe(getIngredients(), true);
+        CauldronRecipe activeRecipe = getApplicableRecipe(plugin.getRecipeRegistry());
         if (activeRecipe == null) {
             return;
         }
@@ -711,7 +882,7 @@ public class AlchemicalCauldron {
         OfflinePlayer lastInteracted = getLastInteracted();
         if (lastInteracted != null) {
             Player player = lastInteracted.getPlayer();
-            if (player != null && !player.hasPermission(activeRecipe.getCraftingPermission())) {
+            if (player != null && !plugin.getPermissionCache().hasCraftingPermission(player, activeRecipe)) {
                 player.spigot().sendMessage(ChatMessageType.ACTION_BAR, new ComponentBuilder("You don't have permission to craft this.").color(ChatColor.RED).create());
                 this.dropIngredients(CauldronIngredientsDropEvent.Reason.NO_PERMISSION, player, true);
                 return;
@@ -764,20 +935,23 @@ public class AlchemicalCauldron {
     public JsonObject write(@NotNull JsonObject object) {
         Preconditions.checkArgument(object != null, "object cannot be null");
 
-        object.addProperty("heatingStartTime", heatingStartTime);
-        object.addProperty("heatingUp", heatingUp);
-        object.addProperty("bubbling", bubbling);
+        object.addProperty("heatingStartTime", getHeatingStartTime());
+        object.addProperty("heatingUp", isHeatingUp());
+        object.addProperty("bubbling", isBubbling());
         object.addProperty("world", getWorld().getUID().toString());
 
         JsonObject cauldronBlockObject = new JsonObject();
-        cauldronBlockObject.addProperty("x", cauldronBlock.getX());
-        cauldronBlockObject.addProperty("y", cauldronBlock.getY());
-        cauldronBlockObject.addProperty("z", cauldronBlock.getZ());
+        cauldronBlockObject.addProperty("x", getX());
+        cauldronBlockObject.addProperty("y", getY());
+        cauldronBlockObject.addProperty("z", getZ());
         object.add("cauldron", cauldronBlockObject);
 
-        if (!ingredients.isEmpty()) {
+        JsonArray rawIngredients = table.getRawIngredients(slot);
+        if (rawIngredients != null) {
+            object.add("ingredients", rawIngredients.deepCopy());
+        } else if (hasIngredients()) {
             JsonArray ingredientsArray = new JsonArray();
-            this.ingredients.forEach(ingredient -> {
+            this.getIngredients().forEach(ingredient -> {
                 JsonObject ingredientObject = ingredient.toJson();
                 ingredientObject.addProperty("type", ingredient.getKey().toString());
                 ingredientsArray.add(ingredientObject);
@@ -809,7 +983,7 @@ public class AlchemicalCauldron {
         }
 
         JsonObject cauldronBlockObject = object.has("cauldron") ? object.getAsJsonObject("cauldron") : null;
-        if (cauldronBlockObject == null) {
+        if (cauldronBlockObject == null || !cauldronBlockObject.has("x") || !cauldronBlockObject.has("y") || !cauldronBlockObject.has("z")) {
             throw new JsonParseException("Location could not be deserialized for cauldron.");
         }
 
@@ -823,13 +997,15 @@ public class AlchemicalCauldron {
         }
 
         AlchemicalCauldron cauldron = new AlchemicalCauldron(block);
-        cauldron.heatingStartTime = object.has("heatingStartTime") ? object.get("heatingStartTime").getAsLong() : -1;
-        cauldron.heatingUp = object.has("heatingUp") && object.get("heatingUp").getAsBoolean();
-        cauldron.bubbling = object.has("bubbling") && object.get("bubbling").getAsBoolean();
+        cauldron.table.setHeatingStartTime(cauldron.slot, object.has("heatingStartTime") ? object.get("heatingStartTime").getAsLong() : -1);
+        cauldron.table.setFlag(cauldron.slot, CauldronStateTable.FLAG_HEATING_UP, object.has("heatingUp") && object.get("heatingUp").getAsBoolean());
+        cauldron.table.setFlag(cauldron.slot, CauldronStateTable.FLAG_BUBBLING, object.has("bubbling") && object.get("bubbling").getAsBoolean());
 
-        // Parse ingredients
+        // Validate ingredients. They are only inflated once first accessed
         if (object.has("ingredients")) {
             JsonArray ingredientsArray = object.getAsJsonArray("ingredients");
+            JsonArray rawIngredients = new JsonArray(ingredientsArray.size());
+
             for (int i = 0; i < ingredientsArray.size(); i++) {
                 JsonElement ingredientElement = ingredientsArray.get(i);
                 if (!ingredientElement.isJsonObject()) {
@@ -846,12 +1022,16 @@ public class AlchemicalCauldron {
                     throw new JsonParseException("Invalid namespaced key \"" + typeKey + "\". Expected format is \"alchema:example\"");
                 }
 
-                CauldronIngredient ingredient = recipeRegistry.parseIngredientType(typeKey, ingredientObject);
-                if (ingredient == null) {
+                if (!recipeRegistry.getIngredientTypes().contains(typeKey)) {
                     throw new JsonParseException("Could not find ingredient type with id \"" + typeKey + "\"");
                 }
 
-                cauldron.addIngredient(ingredient);
+                rawIngredients.add(ingredientObject);
+            }
+
+            if (!rawIngredients.isEmpty()) {
+                cauldron.table.setRawIngredients(cauldron.slot, rawIngredients);
+                cauldron.rawIngredientsRegistry = recipeRegistry;
             }
         }
 
@@ -860,12 +1040,14 @@ public class AlchemicalCauldron {
 
     @Override
     public int hashCode() {
-        return 31 * (cauldronBlock == null ? 0 : cauldronBlock.hashCode());
+        return 31 * getWorld().hashCode() + Long.hashCode(table.getPosition(slot));
     }
 
     @Override
     public boolean equals(Object obj) {
-        return obj == this || (obj instanceof AlchemicalCauldron other && Objects.equals(cauldronBlock, other.cauldronBlock));
+        return obj == this || (obj instanceof AlchemicalCauldron other
+                && table.getPosition(slot) == other.table.getPosition(other.slot)
+                && Objects.equals(getWorld(), other.getWorld()));
     }
 
 }
@@ -0,0 +1,49 @@
+package wtf.choco.alchema.cauldron;
+
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * A listener notified of changes to the persistent state of {@link AlchemicalCauldron}
+ * instances managed by a {@link CauldronManager}.
+ * <p>
+ * Methods are invoked synchronously on the thread making the change, immediately after
+ * the change has been applied. Implementations should therefore be cheap and must not
+ * modify the cauldron.
+ *
+ * @author Parker Hawke - Choco
+ *
+ * @see CauldronManager#setChangeListener(CauldronChangeListener)
+ */
+@Internal
+public interface CauldronChangeListener {
+
+    /**
+     * Called when a cauldron has been added to the manager.
+     *
+     * @param cauldron the added cauldron
+     */
+    void onCauldronAdd(@NotNull AlchemicalCauldron cauldron);
+
+    /**
+     * Called when a cauldron has been removed from the manager.
+     *
+     * @param cauldron the removed cauldron
+     */
+    void onCauldronRemove(@NotNull AlchemicalCauldron cauldron);
+
+    /**
+     * Called when the ingredients of a cauldron have changed.
+     *
+     * @param cauldron the changed cauldron
+     */
+    void onIngredientsChange(@NotNull AlchemicalCauldron cauldron);
+
+    /**
+     * Called when the heating or bubbling state of a cauldron has changed.
+     *
+     * @param cauldron the changed cauldron
+     */
+    void onHeatStateChange(@NotNull AlchemicalCauldron cauldron);
+
+}
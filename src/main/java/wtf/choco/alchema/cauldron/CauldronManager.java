@@ -1,17 +1,32 @@
 package wtf.choco.alchema.cauldron;
 
 import com.google.common.base.Preconditions;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.block.Block;
+import org.bukkit.util.BoundingBox;
+import org.jetbrains.annotations.ApiStatus.Internal;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
 import org.jetbrains.annotations.UnmodifiableView;
 import wtf.choco.alchema.Alchema;
+import wtf.choco.alchema.util.AlchemaConstants;
+import wtf.choco.alchema.util.BlockPositionUtil;
 
+import java.util.AbstractCollection;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.UUID;
+import java.util.function.Predicate;
 
 /**
  * Manages instances of {@link AlchemicalCauldron} in any given world.
@@ -20,9 +35,15 @@ import java.util.Map;
  */
 public final class CauldronManager {
 
-    private final Map<Block, AlchemicalCauldron> cauldrons = new HashMap<>();
+    // Chunk coordinate bounds for spatial queries. Prevents overflow for absurdly large query bounds
+    private static final int MAX_CHUNK_COORDINATE = 1 << 21;
+
+    private final Map<@NotNull UUID, @NotNull CauldronWorldIndex> worlds = new HashMap<>();
+    private final CauldronStateTable stateTable = new CauldronStateTable();
     private final Alchema plugin;
 
+    private boolean mirrorBlockMetadata = false;
+
     /**
      * Construct a new {@link CauldronManager}.
      *
@@ -39,8 +60,39 @@ public final class CauldronManager {
      */
     public void addCauldron(@NotNull AlchemicalCauldron cauldron) {
         Preconditions.checkNotNull(cauldron, "Cannot add null alchemical cauldron");
-        this.cauldrons.put(cauldron.getCauldronBlock(), cauldron);
-        cauldron.attachMetadata(plugin);
+
+        this.add(cauldron);
+
+        CauldronChangeListener changeListener = stateTable.getChangeListener();
+        if (changeListener != null) {
+            changeListener.onCauldronAdd(cauldron);
+        }
+    }
+
+    /**
+     * Load a previously persisted {@link AlchemicalCauldron} into the world. Unlike
+     * {@link #addCauldron(AlchemicalCauldron)}, the {@link CauldronChangeListener} is not
+     * notified as the cauldron's persistent state has not changed.
+     *
+     * @param cauldron the cauldron to load
+     */
+    @Internal
+    public void loadCauldron(@NotNull AlchemicalCauldron cauldron) {
+        Preconditions.checkNotNull(cauldron, "Cannot load null alchemical cauldron");
+        this.add(cauldron);
+    }
+
+    private void add(@NotNull AlchemicalCauldron cauldron) {
+        AlchemicalCauldron previous = worlds.computeIfAbsent(cauldron.getWorld().getUID(), uuid -> new CauldronWorldIndex()).put(cauldron);
+        if (previous != null) {
+            previous.transferTo(new CauldronStateTable(1));
+        }
+
+        cauldron.transferTo(stateTable);
+
+        if (mirrorBlockMetadata) {
+            cauldron.attachMetadata(plugin);
+        }
     }
 
     /**
@@ -49,8 +101,48 @@ public final class CauldronManager {
      * @param cauldron the cauldron to remove
      */
     public void removeCauldron(@NotNull AlchemicalCauldron cauldron) {
-        this.cauldrons.remove(cauldron.getCauldronBlock());
-        cauldron.detachMetadata(plugin);
+        UUID worldUUID = cauldron.getWorld().getUID();
+        CauldronWorldIndex index = worlds.get(worldUUID);
+        if (index == null || !index.remove(cauldron)) {
+            return;
+        }
+
+        if (index.isEmpty()) {
+            this.worlds.remove(worldUUID);
+        }
+
+        if (mirrorBlockMetadata) {
+            cauldron.detachMetadata(plugin);
+        }
+
+        // Removed cauldrons keep their state (e.g. to drop ingredients), but no longer occupy the shared table
+        cauldron.transferTo(new CauldronStateTable(1));
+
+        CauldronChangeListener changeListener = stateTable.getChangeListener();
+        if (changeListener != null) {
+            changeListener.onCauldronRemove(cauldron);
+        }
+    }
+
+    /**
+     * Get an {@link AlchemicalCauldron} at the specified block coordinates in the given
+     * {@link World}. If no cauldron is present, null is returned.
+     * <p>
+     * Unlike {@link #getCauldron(Block)} and {@link #getCauldron(Location)}, this method
+     * does not require a Block or Location instance and should be preferred where the
+     * coordinates are already known.
+     *
+     * @param world the world in which to get a cauldron
+     * @param x the block x coordinate
+     * @param y the block y coordinate
+     * @param z the block z coordinate
+     *
+     * @return the alchemical cauldron at the coordinates. null if none
+     */
+    @Nullable
+    public AlchemicalCauldron getCauldron(@NotNull World world, int x, int y, int z) {
+        CauldronWorldIndex index = worlds.get(world.getUID());
+        return (index != null) ? index.get(BlockPositionUtil.pack(x, y, z)) : null;
     }
 
     /**
@@ -63,7 +155,7 @@ public final class CauldronManager {
      */
     @Nullable
     public AlchemicalCauldron getCauldron(@NotNull Block block) {
-        return cauldrons.get(block);
+        return getCauldron(block.getWorld(), block.getX(), block.getY(), block.getZ());
     }
 
     /**
@@ -76,26 +168,451 @@ public final class CauldronManager {
      */
     @Nullable
     public AlchemicalCauldron getCauldron(@NotNull Location location) {
-        return (location != null) ? getCauldron(location.getBlock()) : null;
+        if (location == null) {
+            return null;
+        }
+
+        World world = location.getWorld();
+        return (world != null) ? getCauldron(world, location.getBlockX(), location.getBlockY(), location.getBlockZ()) : null;
+    }
+
+    /**
+     * Check whether or not an {@link AlchemicalCauldron} is present at the specified block
+     * coordinates in the given {@link World}.
+     *
+     * @param world the world to check
+     * @param x the block x coordinate
+     * @param y the block y coordinate
+     * @param z the block z coordinate
+     *
+     * @return true if an alchemical cauldron is present, false otherwise
+     */
+    public boolean isAlchemicalCauldron(@NotNull World world, int x, int y, int z) {
+        return getCauldron(world, x, y, z) != null;
     }
 
     /**
-     * Get an unmodifiable collection of all {@link AlchemicalCauldron}s in this manager.
+     * Check whether or not the given {@link Block} is an {@link AlchemicalCauldron}.
+     * <p>
+     * This should be preferred over checking for the
+     * {@link AlchemaConstants#METADATA_KEY_ALCHEMICAL_CAULDRON} metadata key, which is only
+     * present if metadata mirroring is enabled.
+     *
+     * @param block the block to check
+     *
+     * @return true if the block is an alchemical cauldron, false otherwise
+     */
+    public boolean isAlchemicalCauldron(@NotNull Block block) {
+        return getCauldron(block) != null;
+    }
+
+    /**
+     * Check whether or not the {@link AlchemicalCauldron} at the specified block coordinates
+     * in the given {@link World} is bubbling.
+     *
+     * @param world the world to check
+     * @param x the block x coordinate
+     * @param y the block y coordinate
+     * @param z the block z coordinate
+     *
+     * @return true if an alchemical cauldron is present and bubbling, false otherwise
+     */
+    public boolean isBubbling(@NotNull World world, int x, int y, int z) {
+        AlchemicalCauldron cauldron = getCauldron(world, x, y, z);
+        return cauldron != null && cauldron.isBubbling();
+    }
+
+    /**
+     * Check whether or not the given {@link Block} is a bubbling {@link AlchemicalCauldron}.
+     * <p>
+     * This should be preferred over checking for the
+     * {@link AlchemaConstants#METADATA_KEY_ALCHEMICAL_CAULDRON_BUBBLING} metadata key, which
+     * is only present if metadata mirroring is enabled.
+     *
+     * @param block the block to check
+     *
+     * @return true if the block is an alchemical cauldron and bubbling, false otherwise
+     */
+    public boolean isBubbling(@NotNull Block block) {
+        AlchemicalCauldron cauldron = getCauldron(block);
+        return cauldron != null && cauldron.isBubbling();
+    }
+
+    /**
+     * Set whether or not the state of managed cauldrons should be mirrored into Bukkit's block
+     * metadata (see {@link AlchemaConstants#METADATA_KEY_ALCHEMICAL_CAULDRON} and
+     * {@link AlchemaConstants#METADATA_KEY_ALCHEMICAL_CAULDRON_BUBBLING}). Metadata is attached
+     * to or detached from all currently managed cauldrons accordingly.
+     * <p>
+     * Mirroring exists only for compatibility with plugins reading block metadata.
+     * {@link #isAlchemicalCauldron(Block)} and {@link #isBubbling(Block)} should be preferred.
+     *
+     * @param mirrorBlockMetadata whether or not to mirror block metadata
+     */
+    public void setMirrorBlockMetadata(boolean mirrorBlockMetadata) {
+        if (this.mirrorBlockMetadata == mirrorBlockMetadata) {
+            return;
+        }
+
+        this.mirrorBlockMetadata = mirrorBlockMetadata;
+
+        for (int slot = 0; slot < stateTable.size(); slot++) {
+            AlchemicalCauldron cauldron = stateTable.getHandle(slot);
+
+            if (mirrorBlockMetadata) {
+                cauldron.attachMetadata(plugin);
+            } else {
+                cauldron.detachMetadata(plugin);
+            }
+        }
+    }
+
+    /**
+     * Check whether or not the state of managed cauldrons is mirrored into Bukkit's block
+     * metadata.
+     *
+     * @return true if mirrored, false otherwise
+     *
+     * @see #setMirrorBlockMetadata(boolean)
+     */
+    public boolean isMirroringBlockMetadata() {
+        return mirrorBlockMetadata;
+    }
+
+    /**
+     * Set the {@link CauldronChangeListener} to be notified of changes to the persistent state
+     * of cauldrons in this manager, such as cauldrons being added or removed, or a change in
+     * their ingredients or heat state.
+     * <p>
+     * Cauldrons cleared by {@link #clearCauldrons()} do not notify the listener.
+     *
+     * @param changeListener the listener. null to remove
+     */
+    @Internal
+    public void setChangeListener(@Nullable CauldronChangeListener changeListener) {
+        this.stateTable.setChangeListener(changeListener);
+    }
+
+    /**
+     * Get an unmodifiable snapshot of all {@link AlchemicalCauldron}s in this manager. Cauldrons
+     * added or removed after this method returns are not reflected by the returned collection.
+     * <p>
+     * This method must be called on the main thread. To count cauldrons from another thread,
+     * use {@link #getCauldronCount()} instead.
      *
      * @return all cauldrons
      */
     @NotNull
-    @UnmodifiableView
+    @Unmodifiable
     public Collection<@NotNull AlchemicalCauldron> getCauldrons() {
-        return Collections.unmodifiableCollection(cauldrons.values());
+        return Collections.unmodifiableList(new ArrayList<>(stateTable.handles()));
+    }
+
+    /**
+     * Get the amount of {@link AlchemicalCauldron}s in this manager. Unlike
+     * {@link #getCauldrons()}, this may be called from any thread, though the count is then
+     * not guaranteed to reflect the most recent changes.
+     *
+     * @return the amount of cauldrons
+     */
+    public int getCauldronCount() {
+        return stateTable.size();
+    }
+
+    /**
+     * Get a view of all {@link AlchemicalCauldron}s in the given chunk.
+     * <p>
+     * The returned collection is lazily evaluated. Its contents are resolved each time it is
+     * iterated and will therefore reflect any cauldrons added or removed since it was created.
+     * Cauldrons must not be added or removed while it is being iterated, copy it beforehand
+     * to do so.
+     *
+     * @param world the world in which to search
+     * @param chunkX the chunk x coordinate
+     * @param chunkZ the chunk z coordinate
+     *
+     * @return all cauldrons in the chunk
+     */
+    @NotNull
+    @UnmodifiableView
+    public Collection<@NotNull AlchemicalCauldron> getCauldronsInChunk(@NotNull World world, int chunkX, int chunkZ) {
+        Preconditions.checkArgument(world != null, "world must not be null");
+        return new SpatialCauldronView(world.getUID(), chunkX, chunkZ, chunkX, chunkZ, cauldron -> true);
+    }
+
+    /**
+     * Get a view of all {@link AlchemicalCauldron}s in the given {@link Chunk}.
+     * <p>
+     * The returned collection is lazily evaluated. Its contents are resolved each time it is
+     * iterated and will therefore reflect any cauldrons added or removed since it was created.
+     * Cauldrons must not be added or removed while it is being iterated, copy it beforehand
+     * to do so.
+     *
+     * @param chunk the chunk in which to search
+     *
+     * @return all cauldrons in the chunk
+     */
+    @NotNull
+    @UnmodifiableView
+    public Collection<@NotNull AlchemicalCauldron> getCauldronsInChunk(@NotNull Chunk chunk) {
+        Preconditions.checkArgument(chunk != null, "chunk must not be null");
+        return getCauldronsInChunk(chunk.getWorld(), chunk.getX(), chunk.getZ());
+    }
+
+    /**
+     * Get a view of all {@link AlchemicalCauldron}s within the given radius of a {@link Location}.
+     * A cauldron is considered within the radius if the center of its block is no further than
+     * {@code radius} blocks away from the center.
+     * <p>
+     * The returned collection is lazily evaluated. Its contents are resolved each time it is
+     * iterated and will therefore reflect any cauldrons added or removed since it was created.
+     * Cauldrons must not be added or removed while it is being iterated, copy it beforehand
+     * to do so.
+     * Only chunks intersecting the radius are searched.
+     *
+     * @param center the center of the search. Must have a world
+     * @param radius the search radius
+     *
+     * @return all cauldrons within the radius
+     */
+    @NotNull
+    @UnmodifiableView
+    public Collection<@NotNull AlchemicalCauldron> getCauldronsInRadius(@NotNull Location center, double radius) {
+        Preconditions.checkArgument(center != null, "center must not be null");
+        Preconditions.checkArgument(center.getWorld() != null, "center must have a world");
+        Preconditions.checkArgument(radius >= 0.0, "radius must be >= 0");
+
+        double centerX = center.getX(), centerY = center.getY(), centerZ = center.getZ();
+        double radiusSquared = radius * radius;
+
+        return new SpatialCauldronView(center.getWorld().getUID(),
+            toChunkCoordinate(centerX - radius), toChunkCoordinate(centerZ - radius),
+            toChunkCoordinate(centerX + radius), toChunkCoordinate(centerZ + radius),
+            cauldron -> {
+                double distanceX = (cauldron.getX() + 0.5) - centerX;
+                double distanceY = (cauldron.getY() + 0.5) - centerY;
+                double distanceZ = (cauldron.getZ() + 0.5) - centerZ;
+                return (distanceX * distanceX) + (distanceY * distanceY) + (distanceZ * distanceZ) <= radiusSquared;
+            }
+        );
+    }
+
+    /**
+     * Get a view of all {@link AlchemicalCauldron}s within the given {@link BoundingBox}.
+     * A cauldron is considered within the bounds if the center of its block is contained
+     * by the bounds.
+     * <p>
+     * The returned collection is lazily evaluated. Its contents are resolved each time it is
+     * iterated and will therefore reflect any cauldrons added or removed since it was created.
+     * Cauldrons must not be added or removed while it is being iterated, copy it beforehand
+     * to do so.
+     * Only chunks intersecting the bounds are searched. Changes made to the bounding box after
+     * this method is called will not be reflected by the returned view.
+     *
+     * @param world the world in which to search
+     * @param bounds the bounds in which to search
+     *
+     * @return all cauldrons within the bounds
+     */
+    @NotNull
+    @UnmodifiableView
+    public Collection<@NotNull AlchemicalCauldron> getCauldronsInBoundingBox(@NotNull World world, @NotNull BoundingBox bounds) {
+        Preconditions.checkArgument(world != null, "world must not be null");
+        Preconditions.checkArgument(bounds != null, "bounds must not be null");
+
+        BoundingBox boundsCopy = bounds.clone();
+        return new SpatialCauldronView(world.getUID(),
+            toChunkCoordinate(boundsCopy.getMinX()), toChunkCoordinate(boundsCopy.getMinZ()),
+            toChunkCoordinate(boundsCopy.getMaxX()), toChunkCoordinate(boundsCopy.getMaxZ()),
+            cauldron -> boundsCopy.contains(cauldron.getX() + 0.5, cauldron.getY() + 0.5, cauldron.getZ() + 0.5)
+        );
+    }
+
+    /**
+     * Remove all alchemical cauldrons in the given world from this manager and return them.
+     * The returned cauldrons retain their state and may be serialized or re-loaded at a later
+     * time, such as when the world is loaded again. Unloading a cauldron does not notify the
+     * {@link CauldronChangeListener}.
+     *
+     * @param world the world whose cauldrons to unload
+     *
+     * @return the unloaded cauldrons. Empty if the world had no cauldrons
+     */
+    @NotNull
+    public List<@NotNull AlchemicalCauldron> unloadCauldrons(@NotNull World world) {
+        Preconditions.checkArgument(world != null, "world must not be null");
+
+        CauldronWorldIndex index = worlds.remove(world.getUID());
+        if (index == null) {
+            return Collections.emptyList();
+        }
+
+        List<@NotNull AlchemicalCauldron> unloaded = new ArrayList<>(index.size());
+        for (List<@NotNull AlchemicalCauldron> chunk : index.getChunks()) {
+            unloaded.addAll(chunk);
+        }
+
+        this.detach(unloaded);
+        return unloaded;
+    }
+
+    /**
+     * Remove all alchemical cauldrons in the given chunk from this manager and return them.
+     * The returned cauldrons retain their state and may be serialized or re-loaded at a later
+     * time, such as when the chunk is loaded again. Unloading a cauldron does not notify the
+     * {@link CauldronChangeListener}.
+     *
+     * @param world the world in which the chunk resides
+     * @param chunkX the chunk x coordinate
+     * @param chunkZ the chunk z coordinate
+     *
+     * @return the unloaded cauldrons. Empty if the chunk had no cauldrons
+     */
+    @NotNull
+    public List<@NotNull AlchemicalCauldron> unloadCauldrons(@NotNull World world, int chunkX, int chunkZ) {
+        Preconditions.checkArgument(world != null, "world must not be null");
+
+        UUID worldUUID = world.getUID();
+        CauldronWorldIndex index = worlds.get(worldUUID);
+        if (index == null) {
+            return Collections.emptyList();
+        }
+
+        List<@NotNull AlchemicalCauldron> unloaded = index.removeChunk(chunkX, chunkZ);
+        if (unloaded == null) {
+            return Collections.emptyList();
+        }
+
+        if (index.isEmpty()) {
+            this.worlds.remove(worldUUID);
+        }
+
+        this.detach(unloaded);
+        return unloaded;
+    }
+
+    private void detach(@NotNull List<@NotNull AlchemicalCauldron> cauldrons) {
+        for (AlchemicalCauldron cauldron : cauldrons) {
+            if (mirrorBlockMetadata) {
+                cauldron.detachMetadata(plugin);
+            }
+
+            cauldron.transferTo(new CauldronStateTable(1));
+        }
     }
 
     /**
      * Clear all alchemical cauldrons from the world.
      */
     public void clearCauldrons() {
-        this.cauldrons.values().forEach(cauldron -> cauldron.detachMetadata(plugin));
-        this.cauldrons.clear();
+        // Pop from the end of the table. Transferring the last slot out never moves another slot
+        while (stateTable.size() > 0) {
+            AlchemicalCauldron cauldron = stateTable.getHandle(stateTable.size() - 1);
+            if (mirrorBlockMetadata) {
+                cauldron.detachMetadata(plugin);
+            }
+
+            cauldron.transferTo(new CauldronStateTable(1));
+        }
+
+        this.worlds.clear();
+    }
+
+    /**
+     * Get the {@link CauldronStateTable} holding the state of all cauldrons in this manager.
+     *
+     * @return the state table
+     */
+    @NotNull
+    @Internal
+    CauldronStateTable getStateTable() {
+        return stateTable;
+    }
+
+    private static int toChunkCoordinate(double blockCoordinate) {
+        return Math.max(-MAX_CHUNK_COORDINATE, Math.min((int) Math.floor(blockCoordinate) >> 4, MAX_CHUNK_COORDINATE));
+    }
+
+    /*
+     * A lazily evaluated view of cauldrons within a rectangular range of chunks, further
+     * narrowed by a predicate. If the range covers more chunks than there are chunks holding
+     * cauldrons, the populated chunks are scanned instead of every chunk in the range.
+     *
+     * Iterators walk the live per-chunk lists of the world index, which are reordered and
+     * removed as cauldrons are added or removed. Neither may happen while a view is iterated.
+     */
+    private final class SpatialCauldronView extends AbstractCollection<@NotNull AlchemicalCauldron> {
+
+        private final UUID worldUUID;
+        private final int minChunkX, minChunkZ, maxChunkX, maxChunkZ;
+        private final Predicate<@NotNull AlchemicalCauldron> filter;
+
+        private SpatialCauldronView(@NotNull UUID worldUUID, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ, @NotNull Predicate<@NotNull AlchemicalCauldron> filter) {
+            this.worldUUID = worldUUID;
+            this.minChunkX = minChunkX;
+            this.minChunkZ = minChunkZ;
+            this.maxChunkX = maxChunkX;
+            this.maxChunkZ = maxChunkZ;
+            this.filter = filter;
+        }
+
+        @NotNull
+        @Override
+        public Iterator<@NotNull AlchemicalCauldron> iterator() {
+            CauldronWorldIndex index = worlds.get(worldUUID);
+            if (index == null) {
+                return Collections.emptyIterator();
+            }
+
+            Iterator<@NotNull List<@NotNull AlchemicalCauldron>> chunks;
+            long chunkArea = ((long) maxChunkX - minChunkX + 1) * ((long) maxChunkZ - minChunkZ + 1);
+
+            if (chunkArea <= index.getChunkCount()) {
+                chunks = new AbstractIterator<>() {
+
+                    private int chunkX = minChunkX, chunkZ = minChunkZ;
+
+                    @Nullable
+                    @Override
+                    protected List<@NotNull AlchemicalCauldron> computeNext() {
+                        while (chunkX <= maxChunkX) {
+                            List<@NotNull AlchemicalCauldron> chunk = index.getChunk(chunkX, chunkZ);
+
+                            if (++chunkZ > maxChunkZ) {
+                                this.chunkZ = minChunkZ;
+                                this.chunkX++;
+                            }
+
+                            if (chunk != null) {
+                                return chunk;
+                            }
+                        }
+
+                        return endOfData();
+                    }
+
+                };
+            } else {
+                chunks = Iterators.filter(index.getChunks().iterator(), chunk -> {
+                    AlchemicalCauldron any = chunk.get(0);
+                    int chunkX = any.getX() >> 4, chunkZ = any.getZ() >> 4;
+                    return chunkX >= minChunkX && chunkX <= maxChunkX && chunkZ >= minChunkZ && chunkZ <= maxChunkZ;
+                });
+            }
+
+            return Iterators.unmodifiableIterator(Iterators.filter(Iterators.concat(Iterators.transform(chunks, List::iterator)), filter::test));
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return !iterator().hasNext();
+        }
+
+        @Override
+        public int size() {
+            return Iterators.size(iterator());
+        }
+
     }
 
 }
@@ -0,0 +1,407 @@
+package wtf.choco.alchema.cauldron;
+
+import com.google.gson.JsonArray;
+import org.bukkit.World;
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import wtf.choco.alchema.crafting.CauldronIngredient;
+import wtf.choco.alchema.crafting.CauldronRecipe;
+import wtf.choco.alchema.crafting.CauldronRecipeRegistry;
+import wtf.choco.alchema.util.BlockPositionUtil;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A structure-of-arrays table holding the state of {@link AlchemicalCauldron} instances.
+ * <p>
+ * Each cauldron occupies a single slot across a set of parallel arrays such that a pass
+ * over every cauldron in the table is a linear scan rather than a walk across the heap.
+ * {@link AlchemicalCauldron} instances are thin handles referencing their table and slot.
+ * <p>
+ * Slots are not stable. When a slot is removed, the last slot in the table is moved into
+ * its place and the handle occupying it is notified of its new slot.
+ *
+ * @author Parker Hawke - Choco
+ */
+@Internal
+final class CauldronStateTable {
+
+    /** Flag set while a cauldron is heating up */
+    static final byte FLAG_HEATING_UP = 1;
+    /** Flag set while a cauldron is bubbling */
+    static final byte FLAG_BUBBLING = 1 << 1;
+
+    /** The match generation of a slot whose applicable recipe has not been looked up */
+    static final long NO_MATCH = -1;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int size = 0;
+
+    private World[] worlds;
+    private long[] positions;
+    private long[] heatingStartTimes;
+    private byte[] flags;
+    private UUID[] lastInteracted;
+    private List<@NotNull CauldronIngredient>[] ingredients;
+    private JsonArray[] rawIngredients;
+    private CauldronRecipe[] matchedRecipes;
+    private long[] matchGenerations;
+    private AlchemicalCauldron[] handles;
+
+    private CauldronChangeListener changeListener;
+
+    /**
+     * Construct a new {@link CauldronStateTable} with the given initial capacity.
+     *
+     * @param initialCapacity the initial amount of slots
+     */
+    @SuppressWarnings("unchecked")
+    CauldronStateTable(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 1);
+
+        this.worlds = new World[capacity];
+        this.positions = new long[capacity];
+        this.heatingStartTimes = new long[capacity];
+        this.flags = new byte[capacity];
+        this.lastInteracted = new UUID[capacity];
+        this.ingredients = new List[capacity];
+        this.rawIngredients = new JsonArray[capacity];
+        this.matchedRecipes = new CauldronRecipe[capacity];
+        this.matchGenerations = new long[capacity];
+        this.handles = new AlchemicalCauldron[capacity];
+    }
+
+    /**
+     * Construct a new {@link CauldronStateTable} with a default initial capacity.
+     */
+    CauldronStateTable() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Get the amount of occupied slots in this table.
+     *
+     * @return the size
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Set the listener to be notified of changes to cauldrons in this table.
+     *
+     * @param changeListener the listener. null to remove
+     */
+    void setChangeListener(@Nullable CauldronChangeListener changeListener) {
+        this.changeListener = changeListener;
+    }
+
+    /**
+     * Get the listener notified of changes to cauldrons in this table.
+     *
+     * @return the listener. null if none
+     */
+    @Nullable
+    CauldronChangeListener getChangeListener() {
+        return changeListener;
+    }
+
+    /**
+     * Allocate a new slot in this table for the given handle. All state is reset to its
+     * default values.
+     *
+     * @param handle the cauldron handle occupying the slot
+     * @param world the world in which the cauldron resides
+     * @param position the packed position of the cauldron
+     *
+     * @return the allocated slot
+     *
+     * @see BlockPositionUtil#pack(int, int, int)
+     */
+    int allocate(@NotNull AlchemicalCauldron handle, @NotNull World world, long position) {
+        this.ensureCapacity(size + 1);
+
+        int slot = size++;
+        this.worlds[slot] = world;
+        this.positions[slot] = position;
+        this.heatingStartTimes[slot] = -1;
+        this.flags[slot] = 0;
+        this.lastInteracted[slot] = null;
+        this.ingredients[slot] = null;
+        this.rawIngredients[slot] = null;
+        this.matchedRecipes[slot] = null;
+        this.matchGenerations[slot] = NO_MATCH;
+        this.handles[slot] = handle;
+        return slot;
+    }
+
+    /**
+     * Copy the state of a slot from another table into a newly allocated slot in this table.
+     * The source slot is left untouched.
+     *
+     * @param source the table from which to copy
+     * @param sourceSlot the slot in the source table
+     *
+     * @return the allocated slot in this table
+     */
+    int copyFrom(@NotNull CauldronStateTable source, int sourceSlot) {
+        int slot = allocate(source.handles[sourceSlot], source.worlds[sourceSlot], source.positions[sourceSlot]);
+        this.heatingStartTimes[slot] = source.heatingStartTimes[sourceSlot];
+        this.flags[slot] = source.flags[sourceSlot];
+        this.lastInteracted[slot] = source.lastInteracted[sourceSlot];
+        this.ingredients[slot] = source.ingredients[sourceSlot];
+        this.rawIngredients[slot] = source.rawIngredients[sourceSlot];
+        this.matchedRecipes[slot] = source.matchedRecipes[sourceSlot];
+        this.matchGenerations[slot] = source.matchGenerations[sourceSlot];
+        return slot;
+    }
+
+    /**
+     * Remove the given slot from this table. The last slot in the table (if not the slot
+     * being removed) is moved into its place.
+     *
+     * @param slot the slot to remove
+     */
+    void remove(int slot) {
+        int last = --size;
+
+        if (slot != last) {
+            this.worlds[slot] = worlds[last];
+            this.positions[slot] = positions[last];
+            this.heatingStartTimes[slot] = heatingStartTimes[last];
+            this.flags[slot] = flags[last];
+            this.lastInteracted[slot] = lastInteracted[last];
+            this.ingredients[slot] = ingredients[last];
+            this.rawIngredients[slot] = rawIngredients[last];
+            this.matchedRecipes[slot] = matchedRecipes[last];
+            this.matchGenerations[slot] = matchGenerations[last];
+            this.handles[slot] = handles[last];
+            this.handles[slot].assignSlot(this, slot);
+        }
+
+        // Release references so they may be collected
+        this.worlds[last] = null;
+        this.lastInteracted[last] = null;
+        this.ingredients[last] = null;
+        this.rawIngredients[last] = null;
+        this.matchedRecipes[last] = null;
+        this.handles[last] = null;
+    }
+
+    /**
+     * Check whether or not the chunk in which the cauldron at the given slot resides is loaded.
+     *
+     * @param slot the slot
+     *
+     * @return true if loaded, false otherwise
+     */
+    boolean isLoaded(int slot) {
+        long position = positions[slot];
+        return worlds[slot].isChunkLoaded(BlockPositionUtil.unpackX(position) >> 4, BlockPositionUtil.unpackZ(position) >> 4);
+    }
+
+    @NotNull
+    AlchemicalCauldron getHandle(int slot) {
+        return handles[slot];
+    }
+
+    @NotNull
+    World getWorld(int slot) {
+        return worlds[slot];
+    }
+
+    long getPosition(int slot) {
+        return positions[slot];
+    }
+
+    long getHeatingStartTime(int slot) {
+        return heatingStartTimes[slot];
+    }
+
+    void setHeatingStartTime(int slot, long heatingStartTime) {
+        this.heatingStartTimes[slot] = heatingStartTime;
+    }
+
+    boolean hasFlag(int slot, byte flag) {
+        return (flags[slot] & flag) != 0;
+    }
+
+    void setFlag(int slot, byte flag, boolean value) {
+        this.flags[slot] = (byte) (value ? (flags[slot] | flag) : (flags[slot] & ~flag));
+    }
+
+    @Nullable
+    UUID getLastInteracted(int slot) {
+        return lastInteracted[slot];
+    }
+
+    void setLastInteracted(int slot, @Nullable UUID uuid) {
+        this.lastInteracted[slot] = uuid;
+    }
+
+    /**
+     * Get the ingredients list at the given slot. Ingredient lists are allocated lazily,
+     * so this may return null if no ingredients have ever been added.
+     *
+     * @param slot the slot
+     *
+     * @return the ingredients. null if not yet allocated
+     */
+    @Nullable
+    List<@NotNull CauldronIngredient> getIngredients(int slot) {
+        return ingredients[slot];
+    }
+
+    /**
+     * Get the ingredients list at the given slot, allocating one if necessary.
+     *
+     * @param slot the slot
+     *
+     * @return the ingredients
+     */
+    @NotNull
+    List<@NotNull CauldronIngredient> getOrCreateIngredients(int slot) {
+        List<@NotNull CauldronIngredient> slotIngredients = ingredients[slot];
+        if (slotIngredients == null) {
+            slotIngredients = new ArrayList<>(4);
+            this.ingredients[slot] = slotIngredients;
+        }
+
+        return slotIngredients;
+    }
+
+    /**
+     * Get the serialized ingredients at the given slot that have not yet been inflated
+     * into {@link CauldronIngredient} instances. The returned array must not be modified.
+     *
+     * @param slot the slot
+     *
+     * @return the serialized ingredients. null if none are pending
+     */
+    @Nullable
+    JsonArray getRawIngredients(int slot) {
+        return rawIngredients[slot];
+    }
+
+    /**
+     * Set the serialized ingredients at the given slot to be inflated when first accessed.
+     *
+     * @param slot the slot
+     * @param rawIngredients the serialized ingredients. null if none are pending
+     */
+    void setRawIngredients(int slot, @Nullable JsonArray rawIngredients) {
+        this.rawIngredients[slot] = rawIngredients;
+    }
+
+    /**
+     * Get the recipe last found to be applicable to the ingredients at the given slot.
+     *
+     * @param slot the slot
+     *
+     * @return the matched recipe. null if none was applicable
+     *
+     * @see #getMatchGeneration(int)
+     */
+    @Nullable
+    CauldronRecipe getMatchedRecipe(int slot) {
+        return matchedRecipes[slot];
+    }
+
+    /**
+     * Get the {@link CauldronRecipeRegistry#getGeneration() registry generation} in which the
+     * matched recipe at the given slot was looked up. The match is only valid while the registry
+     * remains in this generation.
+     *
+     * @param slot the slot
+     *
+     * @return the match generation. {@link #NO_MATCH} if not looked up since the ingredients last
+     * changed
+     */
+    long getMatchGeneration(int slot) {
+        return matchGenerations[slot];
+    }
+
+    /**
+     * Set the recipe applicable to the ingredients at the given slot.
+     *
+     * @param slot the slot
+     * @param recipe the matched recipe. null if none is applicable
+     * @param generation the registry generation in which the recipe was looked up, or
+     * {@link #NO_MATCH} to discard the match
+     */
+    void setMatch(int slot, @Nullable CauldronRecipe recipe, long generation) {
+        this.matchedRecipes[slot] = recipe;
+        this.matchGenerations[slot] = generation;
+    }
+
+    /**
+     * Get a view of all handles in this table, ordered by slot.
+     *
+     * @return the handles
+     */
+    @NotNull
+    List<@NotNull AlchemicalCauldron> handles() {
+        return new AbstractList<>() {
+
+            @NotNull
+            @Override
+            public AlchemicalCauldron get(int index) {
+                if (index < 0 || index >= size) {
+                    throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+                }
+
+                return handles[index];
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+        };
+    }
+
+    /**
+     * Copy all handles in this table, ordered by slot, into the given array. If the array is
+     * too small, a new array is allocated instead. Elements following the copied handles are
+     * left untouched.
+     *
+     * @param destination the array into which handles should be copied
+     *
+     * @return the array holding the copied handles
+     */
+    @NotNull
+    AlchemicalCauldron[] copyHandles(@NotNull AlchemicalCauldron[] destination) {
+        if (destination.length < size) {
+            destination = new AlchemicalCauldron[handles.length];
+        }
+
+        System.arraycopy(handles, 0, destination, 0, size);
+        return destination;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= handles.length) {
+            return;
+        }
+
+        int newCapacity = Math.max(capacity, handles.length + (handles.length >> 1) + 1);
+        this.worlds = Arrays.copyOf(worlds, newCapacity);
+        this.positions = Arrays.copyOf(positions, newCapacity);
+        this.heatingStartTimes = Arrays.copyOf(heatingStartTimes, newCapacity);
+        this.flags = Arrays.copyOf(flags, newCapacity);
+        this.lastInteracted = Arrays.copyOf(lastInteracted, newCapacity);
+        this.ingredients = Arrays.copyOf(ingredients, newCapacity);
+        this.rawIngredients = Arrays.copyOf(rawIngredients, newCapacity);
+        this.matchedRecipes = Arrays.copyOf(matchedRecipes, newCapacity);
+        this.matchGenerations = Arrays.copyOf(matchGenerations, newCapacity);
+        this.handles = Arrays.copyOf(handles, newCapacity);
+    }
+
+}
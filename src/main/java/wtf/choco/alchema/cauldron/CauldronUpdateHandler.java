@@ -11,7 +11,6 @@ import wtf.choco.alchema.config.CauldronConfigurationContext;
 import wtf.choco.alchema.util.AlchemaConstants;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 
 /**
@@ -30,6 +29,7 @@ public final class CauldronUpdateHandler {
     private CauldronConfigurationContext cauldronConfiguration;
 
     private final List<AlchemicalCauldron> forRemoval = new ArrayList<>(4);
+    private AlchemicalCauldron[] ticking = new AlchemicalCauldron[0]; // Reused every tick
 
     private final Alchema plugin;
     private final CauldronManager cauldronManager;
@@ -42,8 +42,8 @@ public final class CauldronUpdateHandler {
     private void run() {
         this.currentTick++;
 
-        Collection<@NotNull AlchemicalCauldron> cauldrons = cauldronManager.getCauldrons();
-        if (cauldrons.isEmpty()) {
+        CauldronStateTable stateTable = cauldronManager.getStateTable();
+        if (stateTable.size() == 0) {
             return;
         }
 
@@ -67,8 +67,19 @@ public final class CauldronUpdateHandler {
             this.dirty = false;
         }
 
-        for (AlchemicalCauldron cauldron : cauldrons) {
-            if (!cauldron.isLoaded()) {
+        /*
+         * Linear pass over a copy of the state table's handles. Listeners called while updating may add or remove cauldrons,
+         * and removals move the last slot into the removed one, so the table itself would skip or revisit cauldrons
+         */
+        int count = stateTable.size();
+        this.ticking = stateTable.copyHandles(ticking);
+
+        for (int i = 0; i < count; i++) {
+            AlchemicalCauldron cauldron = ticking[i];
+            this.ticking[i] = null;
+
+            // Cauldrons removed earlier in this pass no longer occupy the table
+            if (!cauldron.isHeldIn(stateTable) || !cauldron.isLoaded()) {
                 continue;
             }
 
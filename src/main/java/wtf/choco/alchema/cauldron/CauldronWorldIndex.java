@@ -0,0 +1,173 @@
+package wtf.choco.alchema.cauldron;
+
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import wtf.choco.alchema.util.BlockPositionUtil;
+import wtf.choco.alchema.util.LongObjectHashMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * An index of all {@link AlchemicalCauldron} instances in a single world, keyed both by
+ * their packed block position and by the chunk in which they reside.
+ *
+ * @author Parker Hawke - Choco
+ */
+@Internal
+final class CauldronWorldIndex {
+
+    private final LongObjectHashMap<@NotNull AlchemicalCauldron> cauldrons = new LongObjectHashMap<>();
+    private final LongObjectHashMap<@NotNull List<@NotNull AlchemicalCauldron>> chunks = new LongObjectHashMap<>();
+
+    /**
+     * Get the cauldron at the given packed position.
+     *
+     * @param position the packed position
+     *
+     * @return the cauldron. null if none
+     */
+    @Nullable
+    AlchemicalCauldron get(long position) {
+        return cauldrons.get(position);
+    }
+
+    /**
+     * Add the given cauldron to this index, replacing any cauldron at the same position.
+     *
+     * @param cauldron the cauldron to add
+     *
+     * @return the replaced cauldron. null if none
+     */
+    @Nullable
+    AlchemicalCauldron put(@NotNull AlchemicalCauldron cauldron) {
+        AlchemicalCauldron previous = cauldrons.put(cauldron.getPosition(), cauldron);
+        if (previous == cauldron) {
+            return null;
+        }
+
+        if (previous != null) {
+            this.removeFromChunk(previous);
+        }
+
+        long chunkKey = BlockPositionUtil.packChunk(cauldron.getX() >> 4, cauldron.getZ() >> 4);
+        List<@NotNull AlchemicalCauldron> chunk = chunks.get(chunkKey);
+        if (chunk == null) {
+            chunk = new ArrayList<>(2);
+            this.chunks.put(chunkKey, chunk);
+        }
+
+        chunk.add(cauldron);
+        return previous;
+    }
+
+    /**
+     * Remove the given cauldron from this index if present.
+     *
+     * @param cauldron the cauldron to remove
+     *
+     * @return true if removed, false if the cauldron was not present
+     */
+    boolean remove(@NotNull AlchemicalCauldron cauldron) {
+        if (!cauldrons.remove(cauldron.getPosition(), cauldron)) {
+            return false;
+        }
+
+        this.removeFromChunk(cauldron);
+        return true;
+    }
+
+    /**
+     * Remove all cauldrons in the given chunk from this index.
+     *
+     * @param chunkX the chunk x coordinate
+     * @param chunkZ the chunk z coordinate
+     *
+     * @return the removed cauldrons. null if none
+     */
+    @Nullable
+    List<@NotNull AlchemicalCauldron> removeChunk(int chunkX, int chunkZ) {
+        List<@NotNull AlchemicalCauldron> chunk = chunks.remove(BlockPositionUtil.packChunk(chunkX, chunkZ));
+        if (chunk == null) {
+            return null;
+        }
+
+        for (AlchemicalCauldron cauldron : chunk) {
+            this.cauldrons.remove(cauldron.getPosition(), cauldron);
+        }
+
+        return chunk;
+    }
+
+    /**
+     * Get the cauldrons in the given chunk.
+     *
+     * @param chunkX the chunk x coordinate
+     * @param chunkZ the chunk z coordinate
+     *
+     * @return the cauldrons in the chunk. null if none
+     */
+    @Nullable
+    List<@NotNull AlchemicalCauldron> getChunk(int chunkX, int chunkZ) {
+        return chunks.get(BlockPositionUtil.packChunk(chunkX, chunkZ));
+    }
+
+    /**
+     * Get all non-empty chunk buckets in this index.
+     *
+     * @return the chunk buckets
+     */
+    @NotNull
+    Collection<@NotNull List<@NotNull AlchemicalCauldron>> getChunks() {
+        return chunks.values();
+    }
+
+    /**
+     * Get the amount of chunks containing at least one cauldron.
+     *
+     * @return the chunk count
+     */
+    int getChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Get the amount of cauldrons in this index.
+     *
+     * @return the size
+     */
+    int size() {
+        return cauldrons.size();
+    }
+
+    /**
+     * Check whether or not this index is empty.
+     *
+     * @return true if empty, false otherwise
+     */
+    boolean isEmpty() {
+        return cauldrons.isEmpty();
+    }
+
+    private void removeFromChunk(@NotNull AlchemicalCauldron cauldron) {
+        long chunkKey = BlockPositionUtil.packChunk(cauldron.getX() >> 4, cauldron.getZ() >> 4);
+        List<@NotNull AlchemicalCauldron> chunk = chunks.get(chunkKey);
+        if (chunk == null) {
+            return;
+        }
+
+        for (int i = 0; i < chunk.size(); i++) {
+            if (chunk.get(i) == cauldron) {
+                chunk.remove(i);
+                break;
+            }
+        }
+
+        if (chunk.isEmpty()) {
+            this.chunks.remove(chunkKey);
+        }
+    }
+
+}
@@ -1,12 +1,18 @@
 package wtf.choco.alchema.command;
 
 import com.google.common.base.Preconditions;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.Material;
 import org.bukkit.Sound;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabExecutor;
+import org.bukkit.enchantments.Enchantment;
 import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.PluginDescriptionFile;
 import org.bukkit.plugin.RegisteredListener;
@@ -16,23 +22,36 @@ import org.jetbrains.annotations.Nullable;
 import wtf.choco.alchema.Alchema;
 import wtf.choco.alchema.api.event.CauldronRecipeRegisterEvent;
 import wtf.choco.alchema.cauldron.CauldronUpdateHandler;
+import wtf.choco.alchema.crafting.RecipeConflictAnalysis;
 import wtf.choco.alchema.crafting.RecipeLoadFailureReport;
+import wtf.choco.alchema.crafting.RecipeLoadProfile;
+import wtf.choco.alchema.persistence.CauldronChunkStorage;
+import wtf.choco.alchema.persistence.CauldronSaveStatistics;
+import wtf.choco.alchema.persistence.CauldronShardStore;
 import wtf.choco.alchema.util.AlchemaConstants;
+import wtf.choco.alchema.util.ItemCodecBenchmark;
+import wtf.choco.alchema.util.ItemUtil;
+import wtf.choco.alchema.util.ResourceIndex;
 import wtf.choco.commons.integration.PluginIntegration;
 import wtf.choco.commons.util.UpdateChecker;
 import wtf.choco.commons.util.UpdateChecker.UpdateReason;
 import wtf.choco.commons.util.UpdateChecker.UpdateResult;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.function.Function;
+import java.util.logging.Level;
 import java.util.stream.Collectors;
 
 public final class CommandAlchema implements TabExecutor {
@@ -40,12 +59,18 @@ public final class CommandAlchema implements TabExecutor {
     private static final List<String> RELOAD_ARGS = Arrays.asList("verbose");
     private static final List<String> SAVE_FLAG_ARGS = Arrays.asList("-f");
 
+    private static final String PROFILE_FILE_NAME = "recipe-load-profile.csv";
+    private static final int PROFILE_ENTRIES_SHOWN = 5;
+
     private static final Map<String, String> BASE_ARGS = new HashMap<>();
     static {
         BASE_ARGS.put("version", null);
         BASE_ARGS.put("reload", AlchemaConstants.PERMISSION_COMMAND_RELOAD);
         BASE_ARGS.put("integrations", AlchemaConstants.PERMISSION_COMMAND_INTEGRATIONS);
         BASE_ARGS.put("saverecipe", AlchemaConstants.PERMISSION_COMMAND_SAVERECIPE);
+        BASE_ARGS.put("migratestorage", AlchemaConstants.PERMISSION_COMMAND_MIGRATESTORAGE);
+        BASE_ARGS.put("savestats", AlchemaConstants.PERMISSION_COMMAND_SAVESTATS);
+        BASE_ARGS.put("benchmark", AlchemaConstants.PERMISSION_COMMAND_BENCHMARK);
     }
 
     private final Alchema plugin;
@@ -107,13 +132,17 @@ public final class CommandAlchema implements TabExecutor {
             boolean verbose = args.length >= 2 && args[1].equalsIgnoreCase("verbose");
             boolean isPlayer = sender instanceof Player;
 
-            this.plugin.getRecipeRegistry().clearRecipes();
             this.plugin.reloadConfig();
+            this.plugin.getCauldronManager().setMirrorBlockMetadata(plugin.getConfig().getBoolean(AlchemaConstants.CONFIG_CAULDRON_MIRROR_BLOCK_METADATA, false));
             this.plugin.parseAndRegisterVialRecipe();
             this.plugin.refreshEntityBlacklists();
+            this.plugin.refreshRecipeFileWatcher();
+            this.plugin.getRecipeRegistry().setRegisterCraftingPermissions(plugin.getConfig().getBoolean(AlchemaConstants.CONFIG_RECIPES_REGISTER_CRAFTING_PERMISSIONS, false));
+            this.plugin.getPermissionCache().invalidateAll();
             CauldronUpdateHandler.get().markAsDirty();
 
-            this.plugin.getRecipeRegistry().loadCauldronRecipes(plugin, plugin.getRecipesDirectory()).whenComplete((result, exception) -> {
+            // Verbose reloads are profiled such that slow recipe files and ingredient types can be identified
+            this.plugin.getRecipeRegistry().loadCauldronRecipes(plugin, plugin.getRecipesDirectory(), verbose).whenComplete((result, exception) -> {
                 if (exception != null) {
                     sender.sendMessage(Alchema.CHAT_PREFIX + ChatColor.RED + "Something went wrong while loading recipes... check the console and report any errors to the developer of " + plugin.getName() + ".");
                     exception.printStackTrace();
@@ -154,6 +183,21 @@ public final class CommandAlchema implements TabExecutor {
                         sender.sendMessage(" - " + ChatColor.YELLOW + failureReport.getRecipeKey() + ": " + ChatColor.WHITE + failureReport.getReason());
                     }
                 });
+
+                RecipeConflictAnalysis conflictAnalysis = plugin.getRecipeRegistry().getConflictAnalysis();
+                if (conflictAnalysis != null && !conflictAnalysis.getConflicts().isEmpty()) {
+                    List<RecipeConflictAnalysis.Conflict> conflicts = conflictAnalysis.getConflicts();
+                    sender.sendMessage(Alchema.CHAT_PREFIX + ChatColor.YELLOW + "(" + conflicts.size() + ") " + ChatColor.GRAY + "recipe" + (conflicts.size() > 1 ? "s" : "") + " can never be crafted" + (verbose ? ":" : ". See the console for details."));
+
+                    if (verbose) {
+                        conflicts.forEach(conflict -> sender.sendMessage(" - " + ChatColor.YELLOW + conflict.getRecipe().getKey() + ChatColor.GRAY + " loses to " + ChatColor.YELLOW + conflict.getWinner().getKey() + ChatColor.GRAY + " (" + conflict.getType().name().toLowerCase() + ")"));
+                    }
+                }
+
+                RecipeLoadProfile profile = result.getProfile();
+                if (profile != null) {
+                    this.displayRecipeLoadProfile(sender, profile);
+                }
             });
 
             sender.sendMessage(Alchema.CHAT_PREFIX + ChatColor.GREEN + "Successfully reloaded the configuration file.");
@@ -196,22 +240,31 @@ public final class CommandAlchema implements TabExecutor {
             }
 
             boolean force = args.length >= 3 && args[2].equalsIgnoreCase("-f");
+            ResourceIndex resourceIndex = plugin.getResourceIndex();
 
             if (args[1].endsWith(".json")) {
-                if (!defaultRecipePaths.contains(args[1])) {
+                if (resourceIndex == null || !defaultRecipePaths.contains(args[1])) {
                     sender.sendMessage(Alchema.CHAT_PREFIX + "Unrecognized default recipe with path " + ChatColor.YELLOW + args[1] + ChatColor.GRAY + ". Did you spell it right?");
                     return true;
                 }
 
                 String recipePath = "recipes/" + args[1];
-                File recipeFile = new File(plugin.getDataFolder(), recipePath);
-                if (recipeFile.exists() && !force) {
-                    sender.sendMessage(Alchema.CHAT_PREFIX + "A recipe file already exists at " + ChatColor.YELLOW + recipePath + ChatColor.GRAY + ".");
-                    return true;
-                }
 
-                this.plugin.saveResource(recipePath, force);
-                sender.sendMessage(Alchema.CHAT_PREFIX + "Successfully saved the default recipe at path " + ChatColor.YELLOW + recipePath + ChatColor.GRAY + ". You must " + ChatColor.AQUA + "/" + label + " reload " + ChatColor.GRAY + "in order for changes to apply.");
+                // Recipes are copied out of the jar in the background
+                resourceIndex.extract(Collections.singletonList(recipePath), plugin.getDataFolder(), force).whenComplete((savedRecipePaths, exception) -> {
+                    if (exception != null) {
+                        sender.sendMessage(Alchema.CHAT_PREFIX + ChatColor.RED + "Could not save the default recipe at path " + ChatColor.YELLOW + recipePath + ChatColor.RED + ". Check the console for errors.");
+                        this.plugin.getLogger().log(Level.WARNING, "Could not save default recipe " + recipePath, exception);
+                        return;
+                    }
+
+                    if (savedRecipePaths.isEmpty()) {
+                        sender.sendMessage(Alchema.CHAT_PREFIX + "A recipe file already exists at " + ChatColor.YELLOW + recipePath + ChatColor.GRAY + ".");
+                        return;
+                    }
+
+                    sender.sendMessage(Alchema.CHAT_PREFIX + "Successfully saved the default recipe at path " + ChatColor.YELLOW + recipePath + ChatColor.GRAY + ". You must " + ChatColor.AQUA + "/" + label + " reload " + ChatColor.GRAY + "in order for changes to apply.");
+                });
             }
             else if (args[1].endsWith("/*")) {
                 List<String> applicableRecipePaths = new ArrayList<>(defaultRecipePaths.size());
@@ -223,34 +276,134 @@ public final class CommandAlchema implements TabExecutor {
                     }
                 });
 
-                if (applicableRecipePaths.isEmpty()) {
+                if (resourceIndex == null || applicableRecipePaths.isEmpty()) {
                     sender.sendMessage(Alchema.CHAT_PREFIX + "The path located at " + ChatColor.YELLOW + "recipes/" + recipePathDirectory + ChatColor.GRAY + " contains no recipes.");
                     return true;
                 }
 
-                int existingRecipes = 0;
-                for (String recipePath : applicableRecipePaths) {
-                    File recipeFile = new File(plugin.getDataFolder(), recipePath);
-                    if (recipeFile.exists() && !force) {
-                        existingRecipes++;
-                        continue;
+                // Recipes are copied out of the jar in bulk in the background
+                resourceIndex.extract(applicableRecipePaths, plugin.getDataFolder(), force).whenComplete((savedRecipePaths, exception) -> {
+                    if (exception != null) {
+                        sender.sendMessage(Alchema.CHAT_PREFIX + ChatColor.RED + "Could not save default recipes in the path " + ChatColor.YELLOW + "recipes/" + recipePathDirectory + ChatColor.RED + ". Check the console for errors.");
+                        this.plugin.getLogger().log(Level.WARNING, "Could not save default recipes in recipes/" + recipePathDirectory, exception);
+                        return;
                     }
 
-                    this.plugin.saveResource(recipePath, force);
-                }
-
-                int loaded = applicableRecipePaths.size() - existingRecipes;
-                if (loaded > 0) {
-                    sender.sendMessage(Alchema.CHAT_PREFIX + "Successfully saved " + ChatColor.YELLOW + "(" + loaded + ") " + ChatColor.GRAY + "default recipes" + (existingRecipes >= 1 && !force ? " (could not save " + ChatColor.RED + existingRecipes + ChatColor.GRAY + ")" : "") + ". You must " + ChatColor.AQUA + "/" + label + " reload " + ChatColor.GRAY + "in order for changes to apply.");
-                } else {
-                    sender.sendMessage(Alchema.CHAT_PREFIX + "Could not save any default recipes in the path " + ChatColor.YELLOW + "recipes/" + recipePathDirectory + ChatColor.GRAY + ". All files exist.");
-                }
+                    int loaded = savedRecipePaths.size();
+                    int existingRecipes = applicableRecipePaths.size() - loaded;
+                    if (loaded > 0) {
+                        sender.sendMessage(Alchema.CHAT_PREFIX + "Successfully saved " + ChatColor.YELLOW + "(" + loaded + ") " + ChatColor.GRAY + "default recipes" + (existingRecipes >= 1 && !force ? " (could not save " + ChatColor.RED + existingRecipes + ChatColor.GRAY + ")" : "") + ". You must " + ChatColor.AQUA + "/" + label + " reload " + ChatColor.GRAY + "in order for changes to apply.");
+                    } else {
+                        sender.sendMessage(Alchema.CHAT_PREFIX + "Could not save any default recipes in the path " + ChatColor.YELLOW + "recipes/" + recipePathDirectory + ChatColor.GRAY + ". All files exist.");
+                    }
+                });
             }
             else {
                 sender.sendMessage(Alchema.CHAT_PREFIX + "Invalid recipe path. Must end with " + ChatColor.YELLOW + ".json " + ChatColor.GRAY + "or " + ChatColor.YELLOW + "/* " + ChatColor.GRAY + ".");
             }
         }
 
+        else if (args[0].equalsIgnoreCase("migratestorage")) {
+            if (!sender.hasPermission(AlchemaConstants.PERMISSION_COMMAND_MIGRATESTORAGE)) {
+                sender.sendMessage(Alchema.CHAT_PREFIX + "You have insufficient permissions to run this command.");
+                return true;
+            }
+
+            if (plugin.getCauldronStorage() instanceof CauldronChunkStorage) {
+                sender.sendMessage(Alchema.CHAT_PREFIX + "Cauldrons are already stored in their chunks.");
+                return true;
+            }
+
+            if (!(plugin.getCauldronStorage() instanceof CauldronShardStore)) {
+                sender.sendMessage(Alchema.CHAT_PREFIX + "Cauldrons can only be migrated to their chunks from " + ChatColor.YELLOW + "JSON " + ChatColor.GRAY + "storage.");
+                return true;
+            }
+
+            sender.sendMessage(Alchema.CHAT_PREFIX + "Migrating cauldrons to their chunks. Every chunk containing a cauldron will be loaded, this may take a moment...");
+            int migrated;
+            try {
+                migrated = plugin.migrateToChunkStorage();
+            } catch (IllegalStateException e) {
+                sender.sendMessage(Alchema.CHAT_PREFIX + ChatColor.RED + "Could not migrate cauldrons. " + e.getMessage() + "." + ChatColor.GRAY + " Check the console for details.");
+                return true;
+            }
+
+            sender.sendMessage(Alchema.CHAT_PREFIX + ChatColor.GREEN + "Successfully migrated " + ChatColor.YELLOW + "(" + migrated + ") " + ChatColor.GREEN + "cauldrons. Cauldrons are now stored in their chunks." + ChatColor.GRAY + " Check the console for any that could not be migrated.");
+        }
+
+        else if (args[0].equalsIgnoreCase("savestats")) {
+            if (!sender.hasPermission(AlchemaConstants.PERMISSION_COMMAND_SAVESTATS)) {
+                sender.sendMessage(Alchema.CHAT_PREFIX + "You have insufficient permissions to run this command.");
+                return true;
+            }
+
+            if (!(plugin.getCauldronStorage() instanceof CauldronShardStore shardStore)) {
+                sender.sendMessage(Alchema.CHAT_PREFIX + "Save statistics are only recorded for " + ChatColor.YELLOW + "JSON " + ChatColor.GRAY + "storage.");
+                return true;
+            }
+
+            CauldronSaveStatistics statistics = shardStore.getLastSaveStatistics();
+            if (statistics == null) {
+                sender.sendMessage(Alchema.CHAT_PREFIX + "No cauldron save has completed yet.");
+            } else {
+                sender.sendMessage(Alchema.CHAT_PREFIX + "Last save: " + ChatColor.YELLOW + statistics.getCauldrons() + ChatColor.GRAY + " cauldrons in " + ChatColor.YELLOW + statistics.getFiles() + ChatColor.GRAY + " files.");
+                sender.sendMessage(Alchema.CHAT_PREFIX + "Captured on the main thread in " + ChatColor.YELLOW + String.format("%.2fms", statistics.getSnapshotTime() / 1_000_000.0) + ChatColor.GRAY + ", written in the background in " + ChatColor.YELLOW + String.format("%.2fms", statistics.getWriteTime() / 1_000_000.0) + ChatColor.GRAY + ".");
+            }
+
+            int skippedSaves = shardStore.getSkippedSaves();
+            sender.sendMessage(Alchema.CHAT_PREFIX + "Skipped saves: " + (skippedSaves > 0 ? ChatColor.RED : ChatColor.GREEN) + skippedSaves + ChatColor.GRAY + " (skipped while the previous save was still being written).");
+        }
+
+        else if (args[0].equalsIgnoreCase("benchmark")) {
+            if (!sender.hasPermission(AlchemaConstants.PERMISSION_COMMAND_BENCHMARK)) {
+                sender.sendMessage(Alchema.CHAT_PREFIX + "You have insufficient permissions to run this command.");
+                return true;
+            }
+
+            int iterations = (args.length >= 2) ? NumberUtils.toInt(args[1], -1) : 1000;
+            if (iterations <= 0 || iterations > 100_000) {
+                sender.sendMessage(Alchema.CHAT_PREFIX + "Iterations must be a number between " + ChatColor.YELLOW + "1 " + ChatColor.GRAY + "and " + ChatColor.YELLOW + "100000" + ChatColor.GRAY + ".");
+                return true;
+            }
+
+            // Benchmark the held item if there is one, otherwise a plain and a decorated item
+            List<ItemStack> items = new ArrayList<>(2);
+            if (sender instanceof Player player && !player.getInventory().getItemInMainHand().getType().isAir()) {
+                items.add(player.getInventory().getItemInMainHand().clone());
+            } else {
+                items.add(new ItemStack(Material.STONE, 64));
+
+                ItemStack decoratedItem = new ItemStack(Material.DIAMOND_SWORD);
+                ItemMeta decoratedItemMeta = decoratedItem.getItemMeta();
+                decoratedItemMeta.setDisplayName(ChatColor.LIGHT_PURPLE + "Alchemical Blade");
+                decoratedItemMeta.setLore(Arrays.asList(ChatColor.GRAY + "Brewed in a cauldron", ChatColor.GRAY + "Still warm"));
+                decoratedItemMeta.addEnchant(Enchantment.DAMAGE_ALL, 5, true);
+                decoratedItem.setItemMeta(decoratedItemMeta);
+                items.add(decoratedItem);
+            }
+
+            // The items are built, so encoding and decoding them no longer needs the main thread
+            sender.sendMessage(Alchema.CHAT_PREFIX + "Benchmarking item codecs...");
+            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+                List<ItemCodecBenchmark.Result> results;
+                try {
+                    results = ItemCodecBenchmark.run(items, iterations);
+                } catch (IOException e) {
+                    Bukkit.getScheduler().runTask(plugin, () -> sender.sendMessage(Alchema.CHAT_PREFIX + ChatColor.RED + "Benchmark failed: " + e.getMessage()));
+                    return;
+                }
+
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    sender.sendMessage(Alchema.CHAT_PREFIX + "Encoded and decoded " + ChatColor.YELLOW + "(" + items.size() + ") " + ChatColor.GRAY + "item" + (items.size() > 1 ? "s " : " ") + ChatColor.YELLOW + iterations + ChatColor.GRAY + " times with each item codec:");
+                    results.forEach(result -> sender.sendMessage(" - " + ChatColor.YELLOW + result.getType().name() + ChatColor.GRAY + ": "
+                            + ChatColor.AQUA + result.getBytes() + " bytes" + ChatColor.GRAY + ", encode "
+                            + ChatColor.AQUA + (result.getEncodeTime() / 1000.0) + "\u00B5s" + ChatColor.GRAY + ", decode "
+                            + ChatColor.AQUA + (result.getDecodeTime() / 1000.0) + "\u00B5s" + ChatColor.GRAY + " per item"
+                            + (ItemUtil.getItemCodec() == result.getType().getCodec() ? ChatColor.GREEN + " (active)" : "")));
+                });
+            });
+        }
+
         else {
             sender.sendMessage(Alchema.CHAT_PREFIX + "Unknown command argument, " + ChatColor.YELLOW + args[0] + ChatColor.GRAY + ".");
         }
@@ -319,6 +472,49 @@ public final class CommandAlchema implements TabExecutor {
         });
     }
 
+    private void displayRecipeLoadProfile(@NotNull CommandSender sender, @NotNull RecipeLoadProfile profile) {
+        sender.sendMessage(Alchema.CHAT_PREFIX + "Time spent per phase:");
+        for (RecipeLoadProfile.Phase phase : RecipeLoadProfile.Phase.values()) {
+            sender.sendMessage(" - " + ChatColor.YELLOW + phase.name().toLowerCase() + ChatColor.GRAY + ": " + ChatColor.AQUA + formatNanos(profile.getPhaseTime(phase)));
+        }
+
+        List<RecipeLoadProfile.FileTiming> slowestFiles = profile.getFiles().stream()
+            .sorted(Comparator.comparingLong(RecipeLoadProfile.FileTiming::getTotalTime).reversed())
+            .limit(PROFILE_ENTRIES_SHOWN)
+            .collect(Collectors.toList());
+        if (!slowestFiles.isEmpty()) {
+            sender.sendMessage(Alchema.CHAT_PREFIX + "Slowest recipe files:");
+            slowestFiles.forEach(file -> sender.sendMessage(" - " + ChatColor.YELLOW + file.getPath() + ChatColor.GRAY + ": "
+                    + ChatColor.AQUA + formatNanos(file.getTotalTime()) + ChatColor.GRAY + " (read "
+                    + ChatColor.AQUA + formatNanos(file.getReadTime()) + ChatColor.GRAY + ", parse and construct "
+                    + ChatColor.AQUA + formatNanos(file.getConstructTime()) + ChatColor.GRAY + ", "
+                    + file.getStatus().name().toLowerCase() + ")"));
+        }
+
+        List<RecipeLoadProfile.TypeTiming> slowestTypes = new ArrayList<>(profile.getIngredientTypes().values());
+        slowestTypes.addAll(profile.getResultTypes().values());
+        slowestTypes.sort(Comparator.comparingLong(RecipeLoadProfile.TypeTiming::getTime).reversed());
+        if (!slowestTypes.isEmpty()) {
+            sender.sendMessage(Alchema.CHAT_PREFIX + "Slowest ingredient and result types:");
+            slowestTypes.stream().limit(PROFILE_ENTRIES_SHOWN).forEach(type -> sender.sendMessage(" - " + ChatColor.YELLOW + type.getKey() + ChatColor.GRAY + ": "
+                    + ChatColor.AQUA + formatNanos(type.getTime()) + ChatColor.GRAY + " over "
+                    + ChatColor.YELLOW + type.getCount() + ChatColor.GRAY + " parse" + (type.getCount() != 1 ? "s" : "")));
+        }
+
+        File profileFile = new File(plugin.getDataFolder(), PROFILE_FILE_NAME);
+        try (Writer writer = Files.newBufferedWriter(profileFile.toPath())) {
+            profile.writeCsv(writer);
+            sender.sendMessage(Alchema.CHAT_PREFIX + "The full profile was exported to " + ChatColor.YELLOW + profileFile.getPath() + ChatColor.GRAY + ".");
+        } catch (IOException e) {
+            sender.sendMessage(Alchema.CHAT_PREFIX + ChatColor.RED + "Could not export the profile: " + e.getMessage());
+        }
+    }
+
+    @NotNull
+    private static String formatNanos(long nanos) {
+        return (nanos >= 1_000_000) ? String.format("%.2fms", nanos / 1_000_000.0) : (nanos / 1000) + "\u00B5s";
+    }
+
     private void displayListOfIntegrations(@NotNull CommandSender sender, @NotNull Collection<Plugin> integrations, boolean isNative) {
         this.displayListOfIntegrations(sender, integrations, Function.identity(), isNative);
     }
@@ -3,6 +3,7 @@ package wtf.choco.alchema.crafting;
 import com.google.common.base.Preconditions;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
 import org.apache.commons.lang3.StringUtils;
 import org.bukkit.Location;
 import org.bukkit.NamespacedKey;
@@ -24,6 +25,7 @@ import wtf.choco.alchema.util.AlchemaConstants;
 import wtf.choco.alchema.util.ItemUtil;
 import wtf.choco.commons.util.NamespacedKeyUtil;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -105,6 +107,51 @@ public class CauldronIngredientEntityEssence implements CauldronIngredient {
         }
     }
 
+    /**
+     * Construct a new {@link CauldronIngredientEntityEssence} streamed from the
+     * provided {@link JsonReader}.
+     *
+     * @param reader the reader from which to deserialize
+     * @param essenceEffectRegistry the effect registry
+     *
+     * @throws IOException if the reader could not be read
+     *
+     * @see StreamingParser
+     */
+    public CauldronIngredientEntityEssence(@NotNull JsonReader reader, @NotNull EntityEssenceEffectRegistry essenceEffectRegistry) throws IOException {
+        Preconditions.checkArgument(reader != null, "reader must not be null");
+        Preconditions.checkArgument(essenceEffectRegistry != null, "essenceEffectRegistry must not be null");
+
+        String entity = null;
+        int amount = 1;
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "entity" -> entity = reader.nextString();
+                case "amount" -> amount = reader.nextInt();
+                case "modifiers" -> this.modifiers = ItemUtil.parseModifiers(reader);
+                default -> reader.skipValue();
+            }
+        }
+
+        if (entity == null) {
+            throw new JsonParseException("object does not contain entity.");
+        }
+
+        NamespacedKey entityKey = NamespacedKeyUtil.fromString(entity, null);
+        if (entityKey == null) {
+            throw new JsonParseException("entity has an invalid registry key");
+        }
+
+        this.entityType = Registry.ENTITY_TYPE.get(entityKey);
+        if (entityType == null) {
+            throw new JsonParseException("Could not find entity type with id " + entityKey);
+        }
+
+        this.essenceEffectRegistry = essenceEffectRegistry;
+        this.amount = amount;
+    }
+
     @Nullable
     @Override
     public Map<Attribute, AttributeModifier> getModifiers() {
@@ -3,6 +3,7 @@ package wtf.choco.alchema.crafting;
 import com.google.common.base.Preconditions;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
 import org.bukkit.NamespacedKey;
 import org.bukkit.attribute.Attribute;
 import org.bukkit.attribute.AttributeModifier;
@@ -11,6 +12,7 @@ import org.jetbrains.annotations.NotNull;
 import wtf.choco.alchema.Alchema;
 import wtf.choco.alchema.util.ItemUtil;
 
+import java.io.IOException;
 import java.util.Base64;
 import java.util.Map;
 import java.util.Objects;
@@ -70,6 +72,37 @@ public class CauldronIngredientItemStack implements CauldronIngredient {
         }
     }
 
+    /**
+     * Construct a new {@link CauldronIngredientItemStack} streamed from the provided
+     * {@link JsonReader}.
+     *
+     * @param reader the reader from which to deserialize
+     *
+     * @throws IOException if the reader could not be read
+     *
+     * @see StreamingParser
+     */
+    public CauldronIngredientItemStack(@NotNull JsonReader reader) throws IOException {
+        String itemBase64 = null;
+        int amount = 1;
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "item_base64" -> itemBase64 = reader.nextString();
+                case "amount" -> amount = reader.nextInt();
+                case "modifiers" -> this.modifiers = ItemUtil.parseModifiers(reader);
+                default -> reader.skipValue();
+            }
+        }
+
+        if (itemBase64 == null) {
+            throw new JsonParseException("object does not contain item_base64.");
+        }
+
+        this.item = ItemUtil.deserialize(Base64.getDecoder().decode(itemBase64));
+        this.item.setAmount(Math.max(amount, 1));
+    }
+
     @NotNull
     @Override
     public NamespacedKey getKey() {
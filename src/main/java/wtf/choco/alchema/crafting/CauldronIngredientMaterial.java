@@ -3,6 +3,7 @@ package wtf.choco.alchema.crafting;
 import com.google.common.base.Preconditions;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
 import org.bukkit.attribute.Attribute;
@@ -14,6 +15,7 @@ import org.jetbrains.annotations.Nullable;
 import wtf.choco.alchema.Alchema;
 import wtf.choco.alchema.util.ItemUtil;
 
+import java.io.IOException;
 import java.util.Map;
 import java.util.Objects;
 
@@ -81,6 +83,43 @@ public class CauldronIngredientMaterial implements CauldronIngredient {
         }
     }
 
+    /**
+     * Construct a new {@link CauldronIngredientMaterial} streamed from the provided
+     * {@link JsonReader}.
+     *
+     * @param reader the reader from which to deserialize
+     *
+     * @throws IOException if the reader could not be read
+     *
+     * @see StreamingParser
+     */
+    public CauldronIngredientMaterial(@NotNull JsonReader reader) throws IOException {
+        Preconditions.checkArgument(reader != null, "reader must not be null");
+
+        String item = null;
+        int amount = 1;
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "item" -> item = reader.nextString();
+                case "amount" -> amount = reader.nextInt();
+                case "modifiers" -> this.modifiers = ItemUtil.parseModifiers(reader);
+                default -> reader.skipValue();
+            }
+        }
+
+        if (item == null) {
+            throw new JsonParseException("object does not contain item.");
+        }
+
+        this.material = Material.matchMaterial(item);
+        this.amount = amount;
+
+        if (material == null) {
+            throw new JsonParseException("Could not find material with id " + item);
+        }
+    }
+
     @NotNull
     @Override
     public NamespacedKey getKey() {
@@ -5,6 +5,9 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import org.apache.commons.lang3.StringUtils;
 import org.bukkit.NamespacedKey;
 import org.bukkit.entity.ExperienceOrb;
@@ -18,6 +21,7 @@ import wtf.choco.alchema.Alchema;
 import wtf.choco.alchema.cauldron.AlchemicalCauldron;
 import wtf.choco.commons.util.NamespacedKeyUtil;
 
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
@@ -172,17 +176,7 @@ public interface CauldronRecipe {
         }
 
         // Parse the result
-        JsonObject resultObject = object.getAsJsonObject("result");
-        NamespacedKey resultTypeKey = (resultObject.has("type") ? NamespacedKeyUtil.fromString(resultObject.get("type").getAsString(), Alchema.getInstance()) : CauldronRecipeResultItemStack.KEY);
-        if (resultTypeKey == null) {
-            throw new JsonParseException("Invalid namespaced key \"" + resultObject.get("type").getAsString() + "\". Expected format is \"alchema:example\"");
-        }
-
-        CauldronRecipeResult result = recipeRegistry.parseResultType(resultTypeKey, resultObject);
-
-        if (result == null) {
-            throw new JsonParseException("Could not find result type with id \"" + resultTypeKey + "\"");
-        }
+        CauldronRecipeResult result = parseResult(object.getAsJsonObject("result"), recipeRegistry);
 
         // Parse ingredients
         JsonArray ingredientsArray = object.getAsJsonArray("ingredients");
@@ -198,22 +192,7 @@ public interface CauldronRecipe {
                 throw new JsonParseException("ingredient at index " + i + " was a " + ingredientElement.getClass().getSimpleName() + ". Expected object");
             }
 
-            JsonObject ingredientObject = ingredientElement.getAsJsonObject();
-            if (!ingredientObject.has("type")) {
-                throw new JsonParseException("ingredient at index " + i + " does not have an ingredient type");
-            }
-
-            NamespacedKey typeKey = NamespacedKeyUtil.fromString(ingredientObject.get("type").getAsString(), Alchema.getInstance());
-            if (typeKey == null) {
-                throw new JsonParseException("Invalid namespaced key \"" + typeKey + "\". Expected format is \"alchema:example\"");
-            }
-
-            CauldronIngredient ingredient = recipeRegistry.parseIngredientType(typeKey, ingredientObject);
-            if (ingredient == null) {
-                throw new JsonParseException("Could not find ingredient type with id \"" + typeKey + "\"");
-            }
-
-            ingredients.add(ingredient);
+            ingredients.add(parseIngredient(i, ingredientElement.getAsJsonObject(), recipeRegistry));
         }
 
         int experience = object.has("experience") ? object.get("experience").getAsInt() : 0;
@@ -224,6 +203,188 @@ public interface CauldronRecipe {
         return new SimpleCauldronRecipe(key, result, name, description, comment, experience, ingredients);
     }
 
+    /**
+     * Stream the contents of the provided {@link JsonReader} into a new {@link CauldronRecipe}
+     * instance, without reading the recipe into a {@link JsonObject} first.
+     * <p>
+     * Ingredients and results whose type is their first property and has a {@link StreamingParser}
+     * registered are streamed as well. All others are read into a {@link JsonObject} of their own
+     * and parsed by their type's provider, exactly as if read by
+     * {@link #fromJson(NamespacedKey, JsonObject, CauldronRecipeRegistry)}.
+     *
+     * @param key the key of the recipe to create
+     * @param reader the reader from which to read. Must be positioned before the recipe object
+     * @param recipeRegistry the recipe registry
+     *
+     * @return the cauldron recipe
+     *
+     * @throws IOException if the reader could not be read
+     */
+    @NotNull
+    static CauldronRecipe fromJson(@NotNull NamespacedKey key, @NotNull JsonReader reader, @NotNull CauldronRecipeRegistry recipeRegistry) throws IOException {
+        Preconditions.checkArgument(key != null, "key cannot be null");
+        Preconditions.checkArgument(reader != null, "reader cannot be null");
+
+        CauldronRecipeResult result = null;
+        List<@NotNull CauldronIngredient> ingredients = null;
+        int experience = 0;
+        String name = null, description = null, comment = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "result" -> {
+                    if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                        throw new JsonParseException("Missing result object");
+                    }
+
+                    result = readResult(reader, recipeRegistry);
+                }
+                case "ingredients" -> {
+                    if (reader.peek() != JsonToken.BEGIN_ARRAY) {
+                        throw new JsonParseException("Missing ingredients array");
+                    }
+
+                    ingredients = new ArrayList<>();
+
+                    reader.beginArray();
+                    for (int i = 0; reader.hasNext(); i++) {
+                        JsonToken token = reader.peek();
+                        if (token != JsonToken.BEGIN_OBJECT) {
+                            throw new JsonParseException("ingredient at index " + i + " was a " + token + ". Expected object");
+                        }
+
+                        ingredients.add(readIngredient(i, reader, recipeRegistry));
+                    }
+                    reader.endArray();
+                }
+                case "experience" -> experience = reader.nextInt();
+                case "name" -> name = reader.nextString();
+                case "description" -> description = reader.nextString();
+                case "comment" -> comment = reader.nextString();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (result == null) {
+            throw new JsonParseException("Missing result object");
+        }
+
+        if (ingredients == null) {
+            throw new JsonParseException("Missing ingredients array");
+        }
+
+        if (ingredients.size() < 2) {
+            throw new JsonParseException("ingredients array must contain at least two ingredients");
+        }
+
+        return new SimpleCauldronRecipe(key, result, name, description, comment, experience, ingredients);
+    }
+
+    @NotNull
+    private static CauldronRecipeResult parseResult(@NotNull JsonObject resultObject, @NotNull CauldronRecipeRegistry recipeRegistry) {
+        NamespacedKey resultTypeKey = (resultObject.has("type") ? NamespacedKeyUtil.fromString(resultObject.get("type").getAsString(), Alchema.getInstance()) : CauldronRecipeResultItemStack.KEY);
+        if (resultTypeKey == null) {
+            throw new JsonParseException("Invalid namespaced key \"" + resultObject.get("type").getAsString() + "\". Expected format is \"alchema:example\"");
+        }
+
+        CauldronRecipeResult result = recipeRegistry.parseResultType(resultTypeKey, resultObject);
+
+        if (result == null) {
+            throw new JsonParseException("Could not find result type with id \"" + resultTypeKey + "\"");
+        }
+
+        return result;
+    }
+
+    @NotNull
+    private static CauldronRecipeResult readResult(@NotNull JsonReader reader, @NotNull CauldronRecipeRegistry recipeRegistry) throws IOException {
+        reader.beginObject();
+
+        // The type can only be streamed if it comes first. Otherwise it may come later or not at all, read the whole result
+        String firstName = reader.hasNext() ? reader.nextName() : null;
+        if (firstName == null || !firstName.equals("type")) {
+            CauldronRecipeResult result = parseResult(readObject(reader, firstName), recipeRegistry);
+            reader.endObject();
+            return result;
+        }
+
+        String type = reader.nextString();
+        NamespacedKey resultTypeKey = NamespacedKeyUtil.fromString(type, Alchema.getInstance());
+        if (resultTypeKey == null) {
+            throw new JsonParseException("Invalid namespaced key \"" + type + "\". Expected format is \"alchema:example\"");
+        }
+
+        CauldronRecipeResult result = recipeRegistry.parseResultType(resultTypeKey, type, reader);
+        if (result == null) {
+            throw new JsonParseException("Could not find result type with id \"" + resultTypeKey + "\"");
+        }
+
+        reader.endObject();
+        return result;
+    }
+
+    @NotNull
+    private static CauldronIngredient parseIngredient(int index, @NotNull JsonObject ingredientObject, @NotNull CauldronRecipeRegistry recipeRegistry) {
+        if (!ingredientObject.has("type")) {
+            throw new JsonParseException("ingredient at index " + index + " does not have an ingredient type");
+        }
+
+        NamespacedKey typeKey = NamespacedKeyUtil.fromString(ingredientObject.get("type").getAsString(), Alchema.getInstance());
+        if (typeKey == null) {
+            throw new JsonParseException("Invalid namespaced key \"" + ingredientObject.get("type").getAsString() + "\". Expected format is \"alchema:example\"");
+        }
+
+        CauldronIngredient ingredient = recipeRegistry.parseIngredientType(typeKey, ingredientObject);
+        if (ingredient == null) {
+            throw new JsonParseException("Could not find ingredient type with id \"" + typeKey + "\"");
+        }
+
+        return ingredient;
+    }
+
+    @NotNull
+    private static CauldronIngredient readIngredient(int index, @NotNull JsonReader reader, @NotNull CauldronRecipeRegistry recipeRegistry) throws IOException {
+        reader.beginObject();
+
+        String firstName = reader.hasNext() ? reader.nextName() : null;
+        if (firstName == null || !firstName.equals("type")) {
+            CauldronIngredient ingredient = parseIngredient(index, readObject(reader, firstName), recipeRegistry);
+            reader.endObject();
+            return ingredient;
+        }
+
+        String type = reader.nextString();
+        NamespacedKey typeKey = NamespacedKeyUtil.fromString(type, Alchema.getInstance());
+        if (typeKey == null) {
+            throw new JsonParseException("Invalid namespaced key \"" + type + "\". Expected format is \"alchema:example\"");
+        }
+
+        CauldronIngredient ingredient = recipeRegistry.parseIngredientType(typeKey, type, reader);
+        if (ingredient == null) {
+            throw new JsonParseException("Could not find ingredient type with id \"" + typeKey + "\"");
+        }
+
+        reader.endObject();
+        return ingredient;
+    }
+
+    @NotNull
+    private static JsonObject readObject(@NotNull JsonReader reader, @Nullable String firstName) throws IOException {
+        JsonObject object = new JsonObject();
+        if (firstName == null) {
+            return object;
+        }
+
+        object.add(firstName, JsonParser.parseReader(reader));
+        while (reader.hasNext()) {
+            object.add(reader.nextName(), JsonParser.parseReader(reader));
+        }
+
+        return object;
+    }
+
     /**
      * A builder for immutable {@link CauldronRecipe} instances.
      */
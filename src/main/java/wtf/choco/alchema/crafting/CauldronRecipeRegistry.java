@@ -1,15 +1,20 @@
 package wtf.choco.alchema.crafting;
 
 import com.google.common.base.Preconditions;
-import com.google.common.io.Files;
 import com.google.gson.Gson;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 import org.bukkit.Bukkit;
 import org.bukkit.NamespacedKey;
+import org.bukkit.permissions.Permissible;
 import org.bukkit.permissions.Permission;
 import org.bukkit.permissions.PermissionDefault;
 import org.bukkit.plugin.PluginManager;
+import org.bukkit.plugin.SimplePluginManager;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.jetbrains.annotations.ApiStatus.Internal;
 import org.jetbrains.annotations.NotNull;
@@ -22,19 +27,33 @@ import wtf.choco.alchema.util.AlchemaConstants;
 import wtf.choco.alchema.util.AlchemaEventFactory;
 import wtf.choco.commons.util.NamespacedKeyUtil;
 
-import java.io.BufferedReader;
+import java.io.EOFException;
 import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.charset.Charset;
+import java.nio.file.FileVisitOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
 
 /**
  * Represents a registry in which recipes and recipe types may be registered.
@@ -45,20 +64,73 @@ public class CauldronRecipeRegistry {
 
     public static final Gson GSON = new Gson();
 
+    private static final String RECIPE_BUNDLE_FILE_NAME = "recipes.bundle";
+
     private boolean acceptingRegistrations = true;
+    private boolean registerCraftingPermissions = false;
+
+    private final Set<@NotNull String> craftingPermissions = new HashSet<>();
+    private final ThreadLocal<@Nullable RecipeLoadProfile> activeProfile = new ThreadLocal<>();
+
+    private final AtomicLong generationCounter = new AtomicLong();
+    private volatile RecipeGeneration activeGeneration = new RecipeGeneration();
+
+    // Recipes registered (or unregistered, if null) directly until recipes are first loaded and while they are loading. Carried over into the loaded generation
+    private final Map<@NotNull NamespacedKey, @Nullable CauldronRecipe> directChanges = new LinkedHashMap<>();
+    private final boolean recordDirectChanges;
+    private int loadsInFlight = 0; // Guarded by directChanges
+    private boolean loaded = false; // Guarded by directChanges
+
+    private final Map<@NotNull NamespacedKey, Function<@NotNull JsonObject, ? extends @NotNull CauldronIngredient>> ingredientTypes;
+    private final Map<@NotNull NamespacedKey, Function<@NotNull JsonObject, ? extends @NotNull CauldronRecipeResult>> resultTypes;
+    private final Map<@NotNull NamespacedKey, StreamingParser<? extends @NotNull CauldronIngredient>> streamingIngredientTypes;
+    private final Map<@NotNull NamespacedKey, StreamingParser<? extends @NotNull CauldronRecipeResult>> streamingResultTypes;
 
-    private final Map<@NotNull NamespacedKey, @NotNull CauldronRecipe> recipes = new HashMap<>();
-    private final Map<@NotNull NamespacedKey, Function<@NotNull JsonObject, ? extends @NotNull CauldronIngredient>> ingredientTypes = new HashMap<>();
-    private final Map<@NotNull NamespacedKey, Function<@NotNull JsonObject, ? extends @NotNull CauldronRecipeResult>> resultTypes = new HashMap<>();
+    /**
+     * Construct a new, empty {@link CauldronRecipeRegistry}.
+     */
+    public CauldronRecipeRegistry() {
+        this.recordDirectChanges = true;
+        this.ingredientTypes = new HashMap<>();
+        this.resultTypes = new HashMap<>();
+        this.streamingIngredientTypes = new HashMap<>();
+        this.streamingResultTypes = new HashMap<>();
+    }
+
+    /**
+     * Construct a registry into which a new generation of recipes is loaded before being swapped
+     * into the given registry. Ingredient and result types are shared with it.
+     *
+     * @param target the registry into which the loaded recipes will be swapped
+     */
+    private CauldronRecipeRegistry(@NotNull CauldronRecipeRegistry target) {
+        this.acceptingRegistrations = false;
+        this.recordDirectChanges = false;
+        this.registerCraftingPermissions = target.registerCraftingPermissions;
+        this.ingredientTypes = target.ingredientTypes;
+        this.resultTypes = target.resultTypes;
+        this.streamingIngredientTypes = target.streamingIngredientTypes;
+        this.streamingResultTypes = target.streamingResultTypes;
+    }
 
     /**
      * Register a {@link CauldronRecipe} to be used by any {@link AlchemicalCauldron}.
+     * <p>
+     * Recipes registered before recipes are first loaded (e.g. in {@link JavaPlugin#onEnable()})
+     * or while recipes are being loaded are kept once loading completes. Recipes registered at
+     * any other time are replaced when recipes are next loaded and should instead be registered
+     * in the {@link CauldronRecipeRegisterEvent}.
      *
      * @param recipe the recipe to register
      */
     public void registerCauldronRecipe(@NotNull CauldronRecipe recipe) {
         Preconditions.checkNotNull(recipe, "Cannot register null recipe");
-        this.recipes.put(recipe.getKey(), recipe);
+
+        RecipeGeneration generation = activeGeneration;
+        generation.recipes.put(recipe.getKey(), recipe);
+        generation.invalidate();
+        this.generationCounter.incrementAndGet();
+        this.recordDirectChange(recipe.getKey(), recipe);
     }
 
     /**
@@ -68,7 +140,7 @@ public class CauldronRecipeRegistry {
      * @param recipe the recipe to unregister
      */
     public void unregisterCauldronRecipe(@NotNull CauldronRecipe recipe) {
-        this.recipes.remove(recipe.getKey());
+        this.unregisterCauldronRecipe(recipe.getKey());
     }
 
     /**
@@ -81,7 +153,12 @@ public class CauldronRecipeRegistry {
      */
     @Nullable
     public CauldronRecipe unregisterCauldronRecipe(@NotNull NamespacedKey key) {
-        return recipes.remove(key);
+        RecipeGeneration generation = activeGeneration;
+        CauldronRecipe recipe = generation.recipes.remove(key);
+        generation.invalidate();
+        this.generationCounter.incrementAndGet();
+        this.recordDirectChange(key, null);
+        return recipe;
     }
 
     /**
@@ -93,7 +170,7 @@ public class CauldronRecipeRegistry {
      */
     @Nullable
     public CauldronRecipe getCauldronRecipe(@NotNull NamespacedKey key) {
-        return recipes.get(key);
+        return activeGeneration.recipes.get(key);
     }
 
     /**
@@ -102,32 +179,25 @@ public class CauldronRecipeRegistry {
      *
      * @param ingredients the available ingredients
      * @param mostComplex whether or not to find the most complex applicable recipe if more than one is
-     * applicable. Note that if this value is true, all recipes will be iterated over and will result in
-     * a fixed operation time of O(n) rather than O(n) worst case.
+     * applicable. If this value is true, recipes are iterated over from most to least complex such that
+     * the first applicable recipe is returned, and among applicable recipes of equal complexity, the one
+     * with the lowest key is selected.
      *
      * @return the cauldron recipe that applies. null if none
      *
      * @see #getApplicableRecipes(List) to get a list of all applicable recipes
+     * @see RecipeConflictAnalysis
      */
     @Nullable
     public CauldronRecipe getApplicableRecipe(@NotNull List<@NotNull CauldronIngredient> ingredients, boolean mostComplex) {
-        CauldronRecipe result = null;
-
-        for (CauldronRecipe recipe : recipes.values()) {
-            if (recipe.getYieldFromIngredients(ingredients) == 0) {
-                continue;
-            }
-
-            if (!mostComplex) {
+        RecipeGeneration generation = activeGeneration;
+        for (CauldronRecipe recipe : (mostComplex ? generation.getRecipesByPriority() : generation.recipes.values())) {
+            if (recipe.getYieldFromIngredients(ingredients) != 0) {
                 return recipe;
             }
-
-            if (result == null || recipe.getComplexity() > result.getComplexity()) {
-                result = recipe;
-            }
         }
 
-        return result;
+        return null;
     }
 
     /**
@@ -161,7 +231,7 @@ public class CauldronRecipeRegistry {
     public List<@NotNull CauldronRecipe> getApplicableRecipes(@NotNull List<@NotNull CauldronIngredient> ingredients) {
         List<CauldronRecipe> applicable = new ArrayList<>();
 
-        this.recipes.values().forEach(recipe -> {
+        this.activeGeneration.recipes.values().forEach(recipe -> {
             if (recipe.getYieldFromIngredients(ingredients) == 0) {
                 return;
             }
@@ -174,22 +244,98 @@ public class CauldronRecipeRegistry {
     }
 
     /**
-     * Get a collection of all registered recipes. Changes made to the returned collection will be
-     * reflected internally to this instance.
+     * Get a collection of all registered recipes. Changes made to the registered recipes will be
+     * reflected in the returned collection until recipes are next loaded, after which it holds the
+     * recipes that were replaced.
      *
      * @return the collection of registered recipes
      */
     @NotNull
     @UnmodifiableView
     public Collection<@NotNull CauldronRecipe> getRecipes() {
-        return Collections.unmodifiableCollection(recipes.values());
+        return Collections.unmodifiableCollection(activeGeneration.recipes.values());
     }
 
     /**
      * Clear all recipes in the manager.
      */
     public void clearRecipes() {
-        this.recipes.clear();
+        RecipeGeneration generation = activeGeneration;
+        generation.recipes.keySet().forEach(key -> this.recordDirectChange(key, null));
+        generation.recipes.clear();
+        generation.invalidate();
+        this.generationCounter.incrementAndGet();
+    }
+
+    /**
+     * Get the current generation of this registry. The generation changes whenever a recipe is
+     * registered or unregistered and whenever recipes are loaded, such that anything derived from
+     * the registered recipes (e.g. the recipe applicable to a cauldron's ingredients) remains
+     * valid for as long as the generation is unchanged.
+     *
+     * @return the generation
+     */
+    public long getGeneration() {
+        return generationCounter.get();
+    }
+
+    /**
+     * Get the result of the most recent conflict analysis of the registered recipes, performed
+     * whenever recipes are loaded or recipe files change. Conflicts are logged as they are found.
+     *
+     * @return the conflict analysis. null if recipes have not yet been loaded
+     */
+    @Nullable
+    public RecipeConflictAnalysis getConflictAnalysis() {
+        return activeGeneration.conflictAnalysis;
+    }
+
+    /**
+     * Analyze the given recipes for conflicts, keep the analysis as the most recent one and log
+     * every conflict found.
+     *
+     * @param plugin the instance of Alchema (for logging purposes)
+     * @param recipes the recipes to analyze
+     *
+     * @return the analysis
+     */
+    @NotNull
+    RecipeConflictAnalysis analyzeConflicts(@NotNull Alchema plugin, @NotNull Collection<@NotNull CauldronRecipe> recipes) {
+        RecipeGeneration generation = activeGeneration;
+
+        RecipeConflictAnalysis analysis = RecipeConflictAnalysis.analyze(recipes);
+        analysis.getConflicts().forEach(conflict -> plugin.getLogger().warning(conflict.describe() + "."));
+        generation.conflictAnalysis = analysis;
+        return analysis;
+    }
+
+    /**
+     * Analyze the currently registered recipes for conflicts off the main thread and, back on
+     * the main thread, keep the analysis as the most recent one and log every conflict found.
+     * If recipes change before the analysis completes, it no longer describes the registered
+     * recipes and is discarded instead.
+     * <p>
+     * This method must be called on the main thread.
+     *
+     * @param plugin the instance of Alchema
+     */
+    void scheduleConflictAnalysis(@NotNull Alchema plugin) {
+        RecipeGeneration generation = activeGeneration;
+        long expectedGeneration = generationCounter.get();
+        List<@NotNull CauldronRecipe> recipes = new ArrayList<>(generation.recipes.values());
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            RecipeConflictAnalysis analysis = RecipeConflictAnalysis.analyze(recipes);
+
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (generationCounter.get() != expectedGeneration) {
+                    return;
+                }
+
+                analysis.getConflicts().forEach(conflict -> plugin.getLogger().warning(conflict.describe() + "."));
+                generation.conflictAnalysis = analysis;
+            });
+        });
     }
 
     /**
@@ -226,6 +372,27 @@ public class CauldronRecipeRegistry {
         this.ingredientTypes.put(key, ingredientProvider);
     }
 
+    /**
+     * Register a new type of {@link CauldronIngredient} along with a {@link StreamingParser} by which
+     * it may be parsed without first reading it into a {@link JsonObject}. The ingredient provider
+     * is still used whenever the ingredient cannot be streamed, such as when its "type" is not
+     * its first property.
+     * <p>
+     * <strong>NOTE:</strong> This method should be called in {@link JavaPlugin#onLoad()}. Registrations
+     * will no longer be accepted in {@link JavaPlugin#onEnable()} and an IllegalStateException will be
+     * thrown.
+     *
+     * @param key the ingredient key. Should match that of {@link CauldronIngredient#getKey()}
+     * @param ingredientProvider the ingredient provider
+     * @param streamingParser the streaming parser
+     */
+    public void registerIngredientType(@NotNull NamespacedKey key, @NotNull Function<@NotNull JsonObject, ? extends @NotNull CauldronIngredient> ingredientProvider, @NotNull StreamingParser<? extends @NotNull CauldronIngredient> streamingParser) {
+        Preconditions.checkArgument(streamingParser != null, "streamingParser must not be null");
+
+        this.registerIngredientType(key, ingredientProvider);
+        this.streamingIngredientTypes.put(key, streamingParser);
+    }
+
     /**
      * Parse a {@link CauldronIngredient} with the ingredient type matching the provided
      * {@link NamespacedKey} from a {@link JsonObject}.
@@ -245,7 +412,51 @@ public class CauldronRecipeRegistry {
             return null;
         }
 
-        return ingredientProvider.apply(object);
+        RecipeLoadProfile profile = activeProfile.get();
+        if (profile == null) {
+            return ingredientProvider.apply(object);
+        }
+
+        long start = System.nanoTime();
+        try {
+            return ingredientProvider.apply(object);
+        } finally {
+            profile.recordIngredientType(key, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Parse a {@link CauldronIngredient} with the ingredient type matching the provided
+     * {@link NamespacedKey} from a {@link JsonReader} positioned immediately after the
+     * ingredient's "type" property. If the ingredient type has no {@link StreamingParser},
+     * the remaining properties are read into a {@link JsonObject} and parsed by its provider.
+     *
+     * @param key the key of the ingredient type to parse
+     * @param type the value of the ingredient's "type" property
+     * @param reader the reader from which to parse the ingredient
+     *
+     * @return the parsed ingredient. null if invalid
+     *
+     * @throws IOException if the reader could not be read
+     */
+    @Nullable
+    CauldronIngredient parseIngredientType(@NotNull NamespacedKey key, @NotNull String type, @NotNull JsonReader reader) throws IOException {
+        StreamingParser<? extends @NotNull CauldronIngredient> streamingParser = streamingIngredientTypes.get(key);
+        if (streamingParser == null) {
+            return ingredientTypes.containsKey(key) ? parseIngredientType(key, readRemainingProperties(type, reader)) : null;
+        }
+
+        RecipeLoadProfile profile = activeProfile.get();
+        if (profile == null) {
+            return streamingParser.parse(reader);
+        }
+
+        long start = System.nanoTime();
+        try {
+            return streamingParser.parse(reader);
+        } finally {
+            profile.recordIngredientType(key, System.nanoTime() - start);
+        }
     }
 
     /**
@@ -264,6 +475,7 @@ public class CauldronRecipeRegistry {
      */
     public void clearIngredientTypes() {
         this.ingredientTypes.clear();
+        this.streamingIngredientTypes.clear();
     }
 
     /**
@@ -288,6 +500,27 @@ public class CauldronRecipeRegistry {
         this.resultTypes.put(key, resultProvider);
     }
 
+    /**
+     * Register a new type of {@link CauldronRecipeResult} along with a {@link StreamingParser} by which
+     * it may be parsed without first reading it into a {@link JsonObject}. The result provider is
+     * still used whenever the result cannot be streamed, such as when its "type" is not its first
+     * property.
+     * <p>
+     * <strong>NOTE:</strong> This method should be called in {@link JavaPlugin#onLoad()}. Registrations
+     * will no longer be accepted in {@link JavaPlugin#onEnable()} and an IllegalStateException will be
+     * thrown.
+     *
+     * @param key the result key. Should match that of {@link CauldronRecipeResult#getKey()}
+     * @param resultProvider the result provider
+     * @param streamingParser the streaming parser
+     */
+    public void registerResultType(@NotNull NamespacedKey key, @NotNull Function<@NotNull JsonObject, ? extends @NotNull CauldronRecipeResult> resultProvider, @NotNull StreamingParser<? extends @NotNull CauldronRecipeResult> streamingParser) {
+        Preconditions.checkArgument(streamingParser != null, "streamingParser must not be null");
+
+        this.registerResultType(key, resultProvider);
+        this.streamingResultTypes.put(key, streamingParser);
+    }
+
     /**
      * Parse a {@link CauldronRecipeResult} with the result type matching the provided {@link NamespacedKey}
      * from a {@link JsonObject}.
@@ -307,7 +540,51 @@ public class CauldronRecipeRegistry {
             return null;
         }
 
-        return resultProvider.apply(object);
+        RecipeLoadProfile profile = activeProfile.get();
+        if (profile == null) {
+            return resultProvider.apply(object);
+        }
+
+        long start = System.nanoTime();
+        try {
+            return resultProvider.apply(object);
+        } finally {
+            profile.recordResultType(key, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Parse a {@link CauldronRecipeResult} with the result type matching the provided
+     * {@link NamespacedKey} from a {@link JsonReader} positioned immediately after the
+     * result's "type" property. If the result type has no {@link StreamingParser}, the
+     * remaining properties are read into a {@link JsonObject} and parsed by its provider.
+     *
+     * @param key the key of the result type to parse
+     * @param type the value of the result's "type" property
+     * @param reader the reader from which to parse the result
+     *
+     * @return the parsed result. null if invalid
+     *
+     * @throws IOException if the reader could not be read
+     */
+    @Nullable
+    CauldronRecipeResult parseResultType(@NotNull NamespacedKey key, @NotNull String type, @NotNull JsonReader reader) throws IOException {
+        StreamingParser<? extends @NotNull CauldronRecipeResult> streamingParser = streamingResultTypes.get(key);
+        if (streamingParser == null) {
+            return resultTypes.containsKey(key) ? parseResultType(key, readRemainingProperties(type, reader)) : null;
+        }
+
+        RecipeLoadProfile profile = activeProfile.get();
+        if (profile == null) {
+            return streamingParser.parse(reader);
+        }
+
+        long start = System.nanoTime();
+        try {
+            return streamingParser.parse(reader);
+        } finally {
+            profile.recordResultType(key, System.nanoTime() - start);
+        }
     }
 
     /**
@@ -326,6 +603,7 @@ public class CauldronRecipeRegistry {
      */
     public void clearResultTypes() {
         this.resultTypes.clear();
+        this.streamingResultTypes.clear();
     }
 
     /**
@@ -340,11 +618,49 @@ public class CauldronRecipeRegistry {
      */
     @NotNull
     public CompletableFuture<@NotNull RecipeLoadResult> loadCauldronRecipes(@NotNull Alchema plugin, @NotNull File recipesDirectory) {
+        return loadCauldronRecipes(plugin, recipesDirectory, false);
+    }
+
+    /**
+     * Asynchronously load all cauldron recipes from Alchema's file system, as well as any
+     * recipes from third-party plugins listening to the {@link CauldronRecipeRegisterEvent}.
+     * The returned {@link CompletableFuture} instance provides the load result.
+     * <p>
+     * Recipes are loaded into a new generation of this registry without touching the recipes
+     * currently registered, which remain in use until loading has completed. They are then
+     * replaced by the loaded recipes on the main thread in a single step. Recipes registered or
+     * unregistered directly to this registry in the meantime, or before recipes were first
+     * loaded, are carried over into the loaded recipes.
+     * <p>
+     * If profiling, the time spent on every recipe file, ingredient type, result type and phase
+     * of loading is recorded and made available through {@link RecipeLoadResult#getProfile()}.
+     * Profiling adds a small overhead to every recipe file and should only be enabled to
+     * diagnose slow loads.
+     *
+     * @param plugin the instance of Alchema (for logging purposes)
+     * @param recipesDirectory the directory from which to load recipes
+     * @param profile whether or not to profile the load
+     *
+     * @return a CompletableFuture where the supplied value is the amount of loaded recipes
+     */
+    @NotNull
+    public CompletableFuture<@NotNull RecipeLoadResult> loadCauldronRecipes(@NotNull Alchema plugin, @NotNull File recipesDirectory, boolean profile) {
         long now = System.currentTimeMillis();
+        StandardRecipeLoadResult loadResult = new StandardRecipeLoadResult(profile ? new RecipeLoadProfile() : null);
+
+        // Recipes are loaded into a registry of their own and swapped in once complete. Until then, the current recipes remain in use
+        CauldronRecipeRegistry pendingRegistry = new CauldronRecipeRegistry(this);
 
-        return CompletableFuture.supplyAsync(() -> loadCauldronRecipesFromDirectory(plugin, new StandardRecipeLoadResult(), recipesDirectory, recipesDirectory))
+        synchronized (directChanges) {
+            // Direct changes made before this load started are replaced by it, unless recipes have never been loaded
+            if (loadsInFlight++ == 0 && loaded) {
+                this.directChanges.clear();
+            }
+        }
+
+        return CompletableFuture.supplyAsync(() -> pendingRegistry.loadCauldronRecipesFromDirectory(plugin, loadResult, recipesDirectory))
             .thenCompose(result -> {
-                CompletableFuture<RecipeLoadResult> registryEventFuture = new CompletableFuture<>();
+                CompletableFuture<StandardRecipeLoadResult> registryEventFuture = new CompletableFuture<>();
 
                 /*
                  * Events need to be called synchronously.
@@ -353,96 +669,528 @@ public class CauldronRecipeRegistry {
                  * runTask() is run on the next server tick which is done post-plugin enable.
                  */
                 Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-                    AlchemaEventFactory.callCauldronRecipeRegisterEvent(this);
+                    try {
+                        long eventStart = System.nanoTime();
+                        AlchemaEventFactory.callCauldronRecipeRegisterEvent(pendingRegistry);
+                        long conflictsStart = result.recordPhase(RecipeLoadProfile.Phase.THIRD_PARTY, eventStart);
+
+                        RecipeConflictAnalysis analysis = pendingRegistry.analyzeConflicts(plugin, new ArrayList<>(pendingRegistry.getRecipes()));
+                        long indexStart = result.recordPhase(RecipeLoadProfile.Phase.CONFLICTS, conflictsStart);
+
+                        // Everything derived from the recipes is prepared here rather than when first needed on the main thread
+                        pendingRegistry.activeGeneration.index(analysis);
+                        result.recordPhase(RecipeLoadProfile.Phase.INDEX, indexStart);
+
+                        result.setThirdParty(pendingRegistry.getRecipes().size() - result.getNative());
+                        registryEventFuture.complete(result);
+                    } catch (RuntimeException e) {
+                        registryEventFuture.completeExceptionally(e);
+                    }
+                });
 
-                    long timeToComplete = System.currentTimeMillis() - now;
+                return registryEventFuture;
+            })
+            .thenCompose(result -> {
+                CompletableFuture<RecipeLoadResult> swapFuture = new CompletableFuture<>();
+                long swapStart = System.nanoTime();
 
-                    result.setThirdParty(getRecipes().size() - result.getNative());
-                    result.setTimeToComplete(timeToComplete);
+                // Cauldrons are ticked on the main thread, so swapping there guarantees no tick sees two generations
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    this.swapGeneration(plugin, pendingRegistry.activeGeneration);
+                    result.recordPhase(RecipeLoadProfile.Phase.SWAP, swapStart);
 
-                    registryEventFuture.complete(result);
+                    result.setTimeToComplete(System.currentTimeMillis() - now);
+                    swapFuture.complete(result);
                 });
 
-                return registryEventFuture;
+                return swapFuture;
             })
 
-            // Once all recipes have been registered, create and register permissions for them all
+            // Once all recipes have been swapped in, bring their permissions up to date in one step
             .whenComplete((result, e) -> {
-                PluginManager pluginManager = Bukkit.getPluginManager();
-                Permission craftPermission = pluginManager.getPermission(AlchemaConstants.PERMISSION_CRAFT);
-                if (craftPermission == null) {
-                    return;
+                synchronized (directChanges) {
+                    if (--loadsInFlight == 0 && loaded) {
+                        this.directChanges.clear();
+                    }
                 }
 
-                boolean changed = false;
+                if (e != null) {
+                    return;
+                }
 
-                for (CauldronRecipe recipe : recipes.values()) {
-                    Permission permission = new Permission(recipe.getCraftingPermission(), "Allows a player to craft the " + recipe.getKey() + " recipe.", PermissionDefault.TRUE);
+                long permissionsStart = System.nanoTime();
+                this.updateCraftingPermissions();
+                loadResult.recordPhase(RecipeLoadProfile.Phase.PERMISSIONS, permissionsStart);
+            });
+    }
 
-                    // Add the permission to the plugin manager
-                    pluginManager.removePermission(permission);
-                    pluginManager.addPermission(permission);
+    private void swapGeneration(@NotNull Alchema plugin, @NotNull RecipeGeneration generation) {
+        int carriedOver;
 
-                    // Declare it as a child permission of "alchema.craft"
-                    craftPermission.getChildren().put(recipe.getCraftingPermission(), true);
-                    changed = true;
+        synchronized (directChanges) {
+            carriedOver = directChanges.size();
+            this.directChanges.forEach((key, recipe) -> {
+                if (recipe != null) {
+                    generation.recipes.put(key, recipe);
+                } else {
+                    generation.recipes.remove(key);
                 }
+            });
 
-                if (changed) {
-                    craftPermission.recalculatePermissibles();
+            this.loaded = true;
+        }
+
+        if (carriedOver > 0) {
+            generation.invalidate();
+            plugin.getLogger().info("Carried over " + carriedOver + " recipe change(s) made directly while recipes were loading.");
+        }
+
+        this.activeGeneration = generation;
+        this.generationCounter.incrementAndGet();
+
+        // The carried over recipes were not part of the analysis made while loading
+        if (carriedOver > 0) {
+            this.scheduleConflictAnalysis(plugin);
+        }
+    }
+
+    private void recordDirectChange(@NotNull NamespacedKey key, @Nullable CauldronRecipe recipe) {
+        if (!recordDirectChanges) {
+            return;
+        }
+
+        synchronized (directChanges) {
+            if (loadsInFlight > 0 || !loaded) {
+                this.directChanges.put(key, recipe);
+            }
+        }
+    }
+
+    /**
+     * Set whether or not a {@link Permission} should be registered for the crafting permission
+     * of every recipe.
+     * <p>
+     * Registering permissions makes them known to permission plugins, but is not required for
+     * them to take effect, as crafting permissions are resolved by
+     * {@link #hasCraftingPermission(Permissible, CauldronRecipe)} whether registered or not.
+     * Changes take effect the next time recipes are loaded.
+     *
+     * @param registerCraftingPermissions whether or not to register crafting permissions
+     */
+    public void setRegisterCraftingPermissions(boolean registerCraftingPermissions) {
+        this.registerCraftingPermissions = registerCraftingPermissions;
+    }
+
+    /**
+     * Check whether or not a {@link Permission} is registered for the crafting permission of
+     * every recipe.
+     *
+     * @return true if registered, false otherwise
+     *
+     * @see #setRegisterCraftingPermissions(boolean)
+     */
+    public boolean isRegisteringCraftingPermissions() {
+        return registerCraftingPermissions;
+    }
+
+    /**
+     * Check whether or not the given {@link Permissible} may craft the given recipe.
+     * <p>
+     * The most specific permission explicitly set on the permissible decides, starting at the
+     * {@link CauldronRecipe#getCraftingPermission() recipe's crafting permission} and walking up
+     * through its parents (e.g. "alchema.craft.alchema.upgrades" for every recipe in the upgrades
+     * directory). If none are set, "alchema.craft" decides.
+     *
+     * @param permissible the permissible to check
+     * @param recipe the recipe to check
+     *
+     * @return true if permitted to craft the recipe, false otherwise
+     */
+    public boolean hasCraftingPermission(@NotNull Permissible permissible, @NotNull CauldronRecipe recipe) {
+        Preconditions.checkArgument(permissible != null, "permissible must not be null");
+        Preconditions.checkArgument(recipe != null, "recipe must not be null");
+
+        String permission = recipe.getCraftingPermission();
+        if (permissible.isPermissionSet(permission)) {
+            return permissible.hasPermission(permission);
+        }
+
+        if (permission.startsWith(AlchemaConstants.PERMISSION_CRAFT + ".")) {
+            for (int index = permission.lastIndexOf('.'); index > AlchemaConstants.PERMISSION_CRAFT.length(); index = permission.lastIndexOf('.', index - 1)) {
+                String parentPermission = permission.substring(0, index);
+                if (permissible.isPermissionSet(parentPermission)) {
+                    return permissible.hasPermission(parentPermission);
                 }
-            });
+            }
+        }
+
+        return permissible.hasPermission(AlchemaConstants.PERMISSION_CRAFT);
     }
 
-    private StandardRecipeLoadResult loadCauldronRecipesFromDirectory(@NotNull Alchema plugin, @NotNull StandardRecipeLoadResult result, @NotNull File recipesDirectory, File subdirectory) throws JsonSyntaxException {
-        for (File recipeFile : subdirectory.listFiles(file -> file.isDirectory() || file.getName().endsWith(".json"))) {
-            if (recipeFile.isDirectory()) {
-                this.loadCauldronRecipesFromDirectory(plugin, result, recipesDirectory, recipeFile);
+    /**
+     * Bring the registered crafting permissions up to date with the registered recipes. Only
+     * permissions of recipes that were added or removed since the last update are registered
+     * or unregistered, after which permissibles are recalculated once if anything changed.
+     */
+    @SuppressWarnings("deprecation")
+    synchronized void updateCraftingPermissions() {
+        PluginManager pluginManager = Bukkit.getPluginManager();
+        Permission craftPermission = pluginManager.getPermission(AlchemaConstants.PERMISSION_CRAFT);
+        if (craftPermission == null) {
+            return;
+        }
+
+        Map<@NotNull String, @NotNull CauldronRecipe> permissions = registerCraftingPermissions ? activeGeneration.getCraftingPermissions() : Collections.emptyMap();
+
+        boolean changed = false;
+
+        for (Iterator<@NotNull String> iterator = craftingPermissions.iterator(); iterator.hasNext(); ) {
+            String permission = iterator.next();
+            if (permissions.containsKey(permission)) {
                 continue;
             }
 
-            String joinedRecipeKey = getRecipeKey(recipesDirectory, subdirectory, recipeFile);
+            pluginManager.removePermission(permission);
+            craftPermission.getChildren().remove(permission);
+            iterator.remove();
+            changed = true;
+        }
 
-            if (!NamespacedKeyUtil.isValidKey(joinedRecipeKey)) {
-                plugin.getLogger().warning("Invalid recipe file name, \"" + recipeFile.getName() + "\". Must be alphanumerical, lowercased and separated by underscores.");
+        for (Map.Entry<@NotNull String, @NotNull CauldronRecipe> entry : permissions.entrySet()) {
+            if (!craftingPermissions.add(entry.getKey())) {
                 continue;
             }
 
-            NamespacedKey key = new NamespacedKey(plugin, joinedRecipeKey);
+            Permission permission = new Permission(entry.getKey(), "Allows a player to craft the " + entry.getValue().getKey() + " recipe.", PermissionDefault.TRUE);
+
+            // Add the permission to the plugin manager. Where possible, without recalculating every permissible for each permission
+            pluginManager.removePermission(permission);
+            if (pluginManager instanceof SimplePluginManager simplePluginManager) {
+                simplePluginManager.addPermission(permission, false);
+            } else {
+                pluginManager.addPermission(permission);
+            }
+
+            // Declare it as a child permission of "alchema.craft"
+            craftPermission.getChildren().put(entry.getKey(), true);
+            changed = true;
+        }
+
+        if (changed) {
+            craftPermission.recalculatePermissibles();
+            Alchema.getInstance().getPermissionCache().invalidateAll();
+        }
+    }
+
+    @NotNull
+    private StandardRecipeLoadResult loadCauldronRecipesFromDirectory(@NotNull Alchema plugin, @NotNull StandardRecipeLoadResult result, @NotNull File recipesDirectory) {
+        Path root = recipesDirectory.toPath();
+        RecipeLoadProfile profile = result.getProfile();
+        long phaseStart = System.nanoTime();
+
+        List<@NotNull Path> recipeFiles;
+        try (Stream<@NotNull Path> paths = Files.walk(root, FileVisitOption.FOLLOW_LINKS)) {
+            recipeFiles = paths.filter(path -> path.getFileName().toString().endsWith(".json") && Files.isRegularFile(path)).sorted().collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        phaseStart = result.recordPhase(RecipeLoadProfile.Phase.SCAN, phaseStart);
 
-            try (BufferedReader reader = Files.newReader(recipeFile, Charset.defaultCharset())) {
-                JsonObject recipeObject = GSON.fromJson(reader, JsonObject.class);
-                CauldronRecipe recipe = CauldronRecipe.fromJson(key, recipeObject, this);
+        // Unchanged recipe files are loaded from the bundle written by the previous load rather than parsed again
+        File bundleFile = new File(plugin.getDataFolder(), RECIPE_BUNDLE_FILE_NAME);
+        Map<@NotNull String, RecipeBundle.@NotNull Entry> bundle = RecipeBundle.read(bundleFile);
+        phaseStart = result.recordPhase(RecipeLoadProfile.Phase.READ_BUNDLE, phaseStart);
 
-                this.registerCauldronRecipe(recipe);
+        // Files are parsed in parallel, but reported and registered in path order once all have been parsed
+        List<@NotNull ParsedRecipe> parsedRecipes = recipeFiles.parallelStream().map(recipeFile -> parseRecipe(plugin, root, recipeFile, bundle, profile)).collect(Collectors.toList());
+        phaseStart = result.recordPhase(RecipeLoadProfile.Phase.PARSE, phaseStart);
+
+        Map<@NotNull String, RecipeBundle.@NotNull Entry> entries = new LinkedHashMap<>();
+        boolean bundleChanged = false;
+
+        for (ParsedRecipe parsedRecipe : parsedRecipes) {
+            if (profile != null && parsedRecipe.timing != null) {
+                profile.recordFile(parsedRecipe.timing);
+            }
+
+            if (parsedRecipe.entry != null) {
+                entries.put(parsedRecipe.path, parsedRecipe.entry);
+                bundleChanged |= !parsedRecipe.bundled;
+            }
+
+            if (parsedRecipe.key == null) {
+                plugin.getLogger().warning("Invalid recipe file name, \"" + parsedRecipe.path.substring(parsedRecipe.path.lastIndexOf('/') + 1) + "\". Must be alphanumerical, lowercased and separated by underscores.");
+            } else if (parsedRecipe.recipe == null) {
+                result.addFailureInfo(new RecipeLoadFailureReport(parsedRecipe.key, parsedRecipe.failure));
+            } else {
+                this.registerCauldronRecipe(parsedRecipe.recipe);
                 result.setNative(result.getNative() + 1);
-            } catch (Exception e) {
-                result.addFailureInfo(new RecipeLoadFailureReport(key, e));
             }
         }
 
+        phaseStart = result.recordPhase(RecipeLoadProfile.Phase.REGISTER, phaseStart);
+
+        if (bundleChanged || entries.size() != bundle.size()) {
+            try {
+                RecipeBundle.write(bundleFile, entries);
+            } catch (IOException e) {
+                plugin.getLogger().log(Level.WARNING, "Could not write recipe bundle. Recipes will be parsed again on the next load", e);
+            }
+
+            result.recordPhase(RecipeLoadProfile.Phase.WRITE_BUNDLE, phaseStart);
+        }
+
         return result;
     }
 
-    private @NotNull String getRecipeKey(@NotNull File recipesDirectory, File subdirectory, File recipeFile) {
-        String fileName = recipeFile.getName();
+    /**
+     * Parse the given recipe file without registering it. Recipe files are parsed from
+     * scratch, regardless of the recipe bundle.
+     *
+     * @param plugin the instance of Alchema
+     * @param recipesDirectory the directory from which recipes are loaded
+     * @param recipeFile the recipe file to parse
+     *
+     * @return the parsed recipe
+     */
+    @NotNull
+    ParsedRecipe parseRecipe(@NotNull Alchema plugin, @NotNull Path recipesDirectory, @NotNull Path recipeFile) {
+        return parseRecipe(plugin, recipesDirectory, recipeFile, Collections.emptyMap(), null);
+    }
+
+    @NotNull
+    private ParsedRecipe parseRecipe(@NotNull Alchema plugin, @NotNull Path recipesDirectory, @NotNull Path recipeFile, @NotNull Map<@NotNull String, RecipeBundle.@NotNull Entry> bundle, @Nullable RecipeLoadProfile profile) {
+        String path = recipesDirectory.relativize(recipeFile).toString().replace('\\', '/');
+        String joinedRecipeKey = getRecipeKey(recipesDirectory, recipeFile);
+
+        if (!NamespacedKeyUtil.isValidKey(joinedRecipeKey)) {
+            RecipeLoadProfile.FileTiming timing = (profile != null) ? new RecipeLoadProfile.FileTiming(path, null, RecipeLoadProfile.FileTiming.Status.INVALID_NAME, 0, 0) : null;
+            return new ParsedRecipe(path, null, null, null, null, false, timing);
+        }
+
+        NamespacedKey key = new NamespacedKey(plugin, joinedRecipeKey);
+        RecipeBundle.Entry bundledEntry = bundle.get(path), entry = null;
+        boolean bundled = false, contentsBundled = false;
+
+        // Parsing happens on a worker thread of its own, so ingredient and result types report their timings to the profile through it
+        long start = System.nanoTime(), readTime = 0;
+        if (profile != null) {
+            this.activeProfile.set(profile);
+        }
+
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(recipeFile, BasicFileAttributes.class);
+            long size = attributes.size(), lastModified = attributes.lastModifiedTime().toMillis();
+
+            if (bundledEntry != null && bundledEntry.matches(size, lastModified)) {
+                entry = bundledEntry;
+                bundled = contentsBundled = true;
+            } else {
+                // The file may still have been touched without changing its contents, in which case it need not be parsed
+                byte[] bytes = Files.readAllBytes(recipeFile);
+                CRC32 checksum = new CRC32();
+                checksum.update(bytes);
+                int hash = (int) checksum.getValue();
+
+                if (bundledEntry != null && bundledEntry.matches(hash)) {
+                    entry = bundledEntry.withAttributes(size, lastModified);
+                    contentsBundled = true;
+                } else {
+                    entry = new RecipeBundle.Entry(size, lastModified, hash, new String(bytes, Charset.defaultCharset()));
+                }
+            }
+
+            readTime = System.nanoTime() - start;
+
+            // Recipes are streamed from their contents, so parsing is part of constructing the recipe
+            JsonReader reader = entry.newReader();
+            try {
+                reader.peek();
+            } catch (EOFException e) {
+                throw new JsonParseException("Empty recipe file");
+            }
+
+            CauldronRecipe recipe = CauldronRecipe.fromJson(key, reader, this);
+            if (reader.peek() != JsonToken.END_DOCUMENT) {
+                throw new JsonSyntaxException("JSON document was not fully consumed.");
+            }
+
+            RecipeLoadProfile.FileTiming timing = (profile != null) ? new RecipeLoadProfile.FileTiming(path, key, contentsBundled ? RecipeLoadProfile.FileTiming.Status.BUNDLED : RecipeLoadProfile.FileTiming.Status.PARSED, readTime, System.nanoTime() - start - readTime) : null;
+            return new ParsedRecipe(path, key, entry, recipe, null, bundled, timing);
+        } catch (Exception e) {
+            // Contents that are not yet bundled may not even be valid JSON, so they are only bundled once they load
+            if (!contentsBundled) {
+                entry = null;
+            }
+
+            RecipeLoadProfile.FileTiming timing = (profile != null) ? new RecipeLoadProfile.FileTiming(path, key, RecipeLoadProfile.FileTiming.Status.FAILED, readTime, Math.max(System.nanoTime() - start - readTime, 0)) : null;
+            return new ParsedRecipe(path, key, entry, null, e, bundled, timing);
+        } finally {
+            this.activeProfile.remove();
+        }
+    }
+
+    @NotNull
+    private static JsonObject readRemainingProperties(@NotNull String type, @NotNull JsonReader reader) throws IOException {
+        JsonObject object = new JsonObject();
+        object.addProperty("type", type);
+
+        while (reader.hasNext()) {
+            object.add(reader.nextName(), JsonParser.parseReader(reader));
+        }
+
+        return object;
+    }
+
+    /**
+     * Get the key of the recipe held in the given recipe file, without namespace. The recipe
+     * file need not exist.
+     *
+     * @param recipesDirectory the directory from which recipes are loaded
+     * @param recipeFile the recipe file
+     *
+     * @return the recipe key
+     */
+    @NotNull
+    String getRecipeKey(@NotNull Path recipesDirectory, @NotNull Path recipeFile) {
+        String fileName = recipeFile.getFileName().toString();
         fileName = fileName.substring(0, fileName.indexOf(".json"));
 
-        String joinedRecipeKey;
-        if (recipesDirectory.equals(subdirectory)) {
-            joinedRecipeKey = fileName; // The root directory is too short to substring itself + 1
-        } else {
-            /*
-             * Converts file paths to valid keys. Example:
-             *
-             * Given: File#getAbsolutePath() (C:\Users\foo\bar\baz)
-             * Parsed: bar/baz + / + fileName
-             */
-            joinedRecipeKey = subdirectory.getAbsolutePath().substring(recipesDirectory.getAbsolutePath().length() + 1).replace('\\', '/') + "/" + fileName;
+        /*
+         * Converts file paths to valid keys. Example:
+         *
+         * Given: recipes/bar/baz/fileName.json
+         * Parsed: bar/baz + / + fileName
+         */
+        Path subdirectory = recipesDirectory.relativize(recipeFile).getParent();
+        if (subdirectory == null) {
+            return fileName; // Recipes in the root directory have no prefix
         }
-        return joinedRecipeKey;
+
+        return subdirectory.toString().replace('\\', '/') + "/" + fileName;
     }
 
+    /**
+     * A complete set of registered recipes along with everything derived from them. A load
+     * builds a new generation off the main thread which then replaces the previous one whole.
+     */
+    private static final class RecipeGeneration {
+
+        private final Map<@NotNull NamespacedKey, @NotNull CauldronRecipe> recipes = new HashMap<>();
+
+        private volatile List<@NotNull CauldronRecipe> recipesByPriority;
+        private volatile Map<@NotNull String, @NotNull CauldronRecipe> craftingPermissions;
+        private volatile RecipeConflictAnalysis conflictAnalysis;
+
+        /**
+         * Prepare everything derived from the recipes of this generation in advance.
+         *
+         * @param analysis the conflict analysis of the recipes of this generation
+         */
+        private void index(@NotNull RecipeConflictAnalysis analysis) {
+            this.recipesByPriority = analysis.getPriorityOrder();
+            this.getCraftingPermissions();
+        }
+
+        /**
+         * Discard everything derived from the recipes of this generation after they changed.
+         */
+        private void invalidate() {
+            this.recipesByPriority = null;
+            this.craftingPermissions = null;
+        }
+
+        @NotNull
+        private List<@NotNull CauldronRecipe> getRecipesByPriority() {
+            List<@NotNull CauldronRecipe> recipesByPriority = this.recipesByPriority;
+            if (recipesByPriority == null) {
+                recipesByPriority = new ArrayList<>(recipes.values());
+                recipesByPriority.sort(RecipeConflictAnalysis.PRIORITY);
+                this.recipesByPriority = recipesByPriority;
+            }
+
+            return recipesByPriority;
+        }
+
+        @NotNull
+        private Map<@NotNull String, @NotNull CauldronRecipe> getCraftingPermissions() {
+            Map<@NotNull String, @NotNull CauldronRecipe> craftingPermissions = this.craftingPermissions;
+            if (craftingPermissions == null) {
+                craftingPermissions = new HashMap<>();
+                for (CauldronRecipe recipe : recipes.values()) {
+                    craftingPermissions.put(recipe.getCraftingPermission(), recipe);
+                }
+
+                this.craftingPermissions = craftingPermissions;
+            }
+
+            return craftingPermissions;
+        }
+
+    }
+
+    static final class ParsedRecipe {
+
+        private final String path;
+        private final NamespacedKey key;
+        private final RecipeBundle.Entry entry;
+        private final CauldronRecipe recipe;
+        private final Exception failure;
+        private final boolean bundled;
+        private final RecipeLoadProfile.FileTiming timing;
+
+        private ParsedRecipe(@NotNull String path, @Nullable NamespacedKey key, RecipeBundle.@Nullable Entry entry, @Nullable CauldronRecipe recipe, @Nullable Exception failure, boolean bundled, RecipeLoadProfile.@Nullable FileTiming timing) {
+            this.path = path;
+            this.key = key;
+            this.entry = entry;
+            this.recipe = recipe;
+            this.failure = failure;
+            this.bundled = bundled;
+            this.timing = timing;
+        }
+
+        /**
+         * Get the path of the recipe file relative to the recipes directory.
+         *
+         * @return the path
+         */
+        @NotNull
+        String getPath() {
+            return path;
+        }
+
+        /**
+         * Get the key of the recipe.
+         *
+         * @return the key. null if the name of the recipe file is not a valid key
+         */
+        @Nullable
+        NamespacedKey getKey() {
+            return key;
+        }
+
+        /**
+         * Get the parsed recipe.
+         *
+         * @return the recipe. null if it could not be parsed
+         */
+        @Nullable
+        CauldronRecipe getRecipe() {
+            return recipe;
+        }
+
+        /**
+         * Get the exception thrown while parsing the recipe.
+         *
+         * @return the failure. null if parsed successfully or if the key is invalid
+         */
+        @Nullable
+        Exception getFailure() {
+            return failure;
+        }
+
+    }
 
     public static class StandardRecipeLoadResult implements RecipeLoadResult {
 
@@ -450,8 +1198,11 @@ public class CauldronRecipeRegistry {
         private long timeToComplete;
 
         private final List<RecipeLoadFailureReport> failures = new ArrayList<>();
+        private final RecipeLoadProfile profile;
 
-        StandardRecipeLoadResult() { }
+        StandardRecipeLoadResult(@Nullable RecipeLoadProfile profile) {
+            this.profile = profile;
+        }
 
         private void setNative(int nativelyRegistered) {
             this.nativelyRegistered = nativelyRegistered;
@@ -490,6 +1241,21 @@ public class CauldronRecipeRegistry {
             return Collections.unmodifiableList(failures);
         }
 
+        @Nullable
+        @Override
+        public RecipeLoadProfile getProfile() {
+            return profile;
+        }
+
+        private long recordPhase(@NotNull RecipeLoadProfile.Phase phase, long start) {
+            long now = System.nanoTime();
+            if (profile != null) {
+                this.profile.recordPhase(phase, now - start);
+            }
+
+            return now;
+        }
+
     }
 
 }
@@ -2,12 +2,15 @@ package wtf.choco.alchema.crafting;
 
 import com.google.common.base.Preconditions;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
 import org.bukkit.NamespacedKey;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
 import wtf.choco.alchema.Alchema;
 import wtf.choco.alchema.util.ItemUtil;
 
+import java.io.IOException;
 import java.util.Objects;
 
 /**
@@ -57,6 +60,36 @@ public class CauldronRecipeResultItemStack implements CauldronRecipeResult {
         this.item.setAmount(object.has("amount") ? object.get("amount").getAsInt() : 1);
     }
 
+    /**
+     * Construct a new {@link CauldronRecipeResultItemStack} streamed from the
+     * provided {@link JsonReader}.
+     *
+     * @param reader the reader from which to deserialize
+     *
+     * @throws IOException if the reader could not be read
+     *
+     * @see StreamingParser
+     */
+    public CauldronRecipeResultItemStack(@NotNull JsonReader reader) throws IOException {
+        String item = null;
+        int amount = 1;
+
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "item" -> item = reader.nextString();
+                case "amount" -> amount = reader.nextInt();
+                default -> reader.skipValue();
+            }
+        }
+
+        if (item == null) {
+            throw new JsonParseException("Could not find \"item\"");
+        }
+
+        this.item = ItemUtil.parseItemStack(item);
+        this.item.setAmount(amount);
+    }
+
     @NotNull
     @Override
     public NamespacedKey getKey() {
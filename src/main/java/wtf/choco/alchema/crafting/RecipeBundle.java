@@ -0,0 +1,659 @@
+package wtf.choco.alchema.crafting;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A compiled bundle of recipe files, allowing unchanged recipe files to be loaded without
+ * reading or parsing them again.
+ * <p>
+ * A bundle holds a manifest entry for every recipe file, consisting of its path relative to
+ * the recipes directory, its size, its last modification time and a CRC32 hash of its contents,
+ * along with the parsed contents of the file. Contents are encoded as a tagged binary tree in
+ * which every property name and string value is interned in a table preceding the entries.
+ * Bundles are read into memory whole, rather than memory-mapped, such that they may be
+ * replaced while their entries are still held.
+ * <p>
+ * Recipes themselves are still constructed from the bundled contents on every load, as recipe
+ * types registered by third-party plugins can only be constructed from JSON. Bundled contents
+ * are streamed to recipes straight from their binary encoding through {@link Entry#newReader()}
+ * and are only decoded to a {@link JsonObject} for ingredient and result types that cannot be
+ * streamed.
+ *
+ * @author Parker Hawke - Choco
+ */
+final class RecipeBundle {
+
+    /** The current version of the format */
+    static final int VERSION = 1;
+
+    private static final int MAGIC = 0x414C5242; // "ALRB"
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_FALSE = 1;
+    private static final int TAG_TRUE = 2;
+    private static final int TAG_NUMBER = 3;
+    private static final int TAG_STRING = 4;
+    private static final int TAG_ARRAY = 5;
+    private static final int TAG_OBJECT = 6;
+
+    private RecipeBundle() { }
+
+    /**
+     * Read the entries of the bundle held in the given file. If the file does not exist, is
+     * of a different version or is malformed, no entries are returned.
+     *
+     * @param file the bundle file
+     *
+     * @return the entries of the bundle, keyed by path
+     */
+    @NotNull
+    static Map<@NotNull String, @NotNull Entry> read(@NotNull File file) {
+        Map<@NotNull String, @NotNull Entry> entries = new HashMap<>();
+        if (!file.exists()) {
+            return entries;
+        }
+
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+            if (buffer.getInt() != MAGIC || readVarInt(buffer) != VERSION) {
+                return entries;
+            }
+
+            String[] strings = new String[readVarInt(buffer)];
+            for (int i = 0; i < strings.length; i++) {
+                byte[] bytes = new byte[readVarInt(buffer)];
+                buffer.get(bytes);
+                strings[i] = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            int entryCount = readVarInt(buffer);
+            for (int i = 0; i < entryCount; i++) {
+                String path = strings[readVarInt(buffer)];
+                long size = buffer.getLong(), lastModified = buffer.getLong();
+                int hash = buffer.getInt();
+
+                // Contents are validated once here such that they can later be streamed without bounds checks
+                int start = buffer.position();
+                if (buffer.get(start) != TAG_OBJECT) {
+                    throw new IOException("Bundled recipe " + path + " is not an object");
+                }
+
+                skipValue(buffer, strings.length);
+                entries.put(path, new Entry(size, lastModified, hash, buffer.slice(start, buffer.position() - start), strings));
+            }
+        } catch (IOException | BufferUnderflowException | IndexOutOfBoundsException e) {
+            entries.clear(); // A malformed bundle is as good as none, every recipe file is parsed again
+        }
+
+        return entries;
+    }
+
+    /**
+     * Write the given entries to a bundle in the given file, replacing any existing bundle.
+     *
+     * @param file the bundle file
+     * @param entries the entries to write, keyed by path
+     *
+     * @throws IOException if the bundle could not be written
+     */
+    static void write(@NotNull File file, @NotNull Map<@NotNull String, @NotNull Entry> entries) throws IOException {
+        Map<@NotNull String, @NotNull Integer> strings = new LinkedHashMap<>();
+        for (Map.Entry<@NotNull String, @NotNull Entry> entry : entries.entrySet()) {
+            strings.putIfAbsent(entry.getKey(), strings.size());
+            collectStrings(strings, entry.getValue().getObject());
+        }
+
+        File temporaryFile = new File(file.getPath() + ".tmp");
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile.toPath())))) {
+            output.writeInt(MAGIC);
+            writeVarInt(output, VERSION);
+
+            writeVarInt(output, strings.size());
+            for (String string : strings.keySet()) {
+                byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+                writeVarInt(output, bytes.length);
+                output.write(bytes);
+            }
+
+            writeVarInt(output, entries.size());
+            for (Map.Entry<@NotNull String, @NotNull Entry> entry : entries.entrySet()) {
+                Entry bundled = entry.getValue();
+
+                writeVarInt(output, strings.get(entry.getKey()));
+                output.writeLong(bundled.size);
+                output.writeLong(bundled.lastModified);
+                output.writeInt(bundled.hash);
+                writeValue(output, strings, bundled.getObject());
+            }
+        }
+
+        try {
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void collectStrings(@NotNull Map<@NotNull String, @NotNull Integer> strings, @NotNull JsonElement value) {
+        if (value.isJsonObject()) {
+            value.getAsJsonObject().entrySet().forEach(property -> {
+                strings.putIfAbsent(property.getKey(), strings.size());
+                collectStrings(strings, property.getValue());
+            });
+        } else if (value.isJsonArray()) {
+            value.getAsJsonArray().forEach(element -> collectStrings(strings, element));
+        } else if (value.isJsonPrimitive() && value.getAsJsonPrimitive().isString()) {
+            strings.putIfAbsent(value.getAsString(), strings.size());
+        }
+    }
+
+    private static void writeValue(@NotNull DataOutputStream output, @NotNull Map<@NotNull String, @NotNull Integer> strings, @NotNull JsonElement value) throws IOException {
+        if (value.isJsonObject()) {
+            JsonObject object = value.getAsJsonObject();
+            output.writeByte(TAG_OBJECT);
+            writeVarInt(output, object.size());
+
+            for (Map.Entry<String, JsonElement> property : object.entrySet()) {
+                writeVarInt(output, strings.get(property.getKey()));
+                writeValue(output, strings, property.getValue());
+            }
+        } else if (value.isJsonArray()) {
+            JsonArray array = value.getAsJsonArray();
+            output.writeByte(TAG_ARRAY);
+            writeVarInt(output, array.size());
+
+            for (JsonElement element : array) {
+                writeValue(output, strings, element);
+            }
+        } else if (value.isJsonPrimitive()) {
+            JsonPrimitive primitive = value.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                output.writeByte(primitive.getAsBoolean() ? TAG_TRUE : TAG_FALSE);
+            } else if (primitive.isNumber()) {
+                // Numbers are kept in their textual form such that they are parsed exactly as they were written
+                byte[] bytes = primitive.getAsString().getBytes(StandardCharsets.UTF_8);
+                output.writeByte(TAG_NUMBER);
+                writeVarInt(output, bytes.length);
+                output.write(bytes);
+            } else {
+                output.writeByte(TAG_STRING);
+                writeVarInt(output, strings.get(primitive.getAsString()));
+            }
+        } else {
+            output.writeByte(TAG_NULL);
+        }
+    }
+
+    @NotNull
+    private static JsonElement readValue(@NotNull ByteBuffer buffer, @NotNull String[] strings) throws IOException {
+        int tag = buffer.get();
+
+        return switch (tag) {
+            case TAG_NULL -> JsonNull.INSTANCE;
+            case TAG_FALSE -> new JsonPrimitive(false);
+            case TAG_TRUE -> new JsonPrimitive(true);
+            case TAG_NUMBER -> {
+                byte[] bytes = new byte[readVarInt(buffer)];
+                buffer.get(bytes);
+                yield new JsonPrimitive(new BigDecimal(new String(bytes, StandardCharsets.UTF_8)));
+            }
+            case TAG_STRING -> new JsonPrimitive(strings[readVarInt(buffer)]);
+            case TAG_ARRAY -> {
+                int size = readVarInt(buffer);
+                JsonArray array = new JsonArray(size);
+                for (int i = 0; i < size; i++) {
+                    array.add(readValue(buffer, strings));
+                }
+
+                yield array;
+            }
+            case TAG_OBJECT -> {
+                int size = readVarInt(buffer);
+                JsonObject object = new JsonObject();
+                for (int i = 0; i < size; i++) {
+                    object.add(strings[readVarInt(buffer)], readValue(buffer, strings));
+                }
+
+                yield object;
+            }
+            default -> throw new IOException("Unknown value tag " + tag);
+        };
+    }
+
+    private static void skipValue(@NotNull ByteBuffer buffer, int stringCount) throws IOException {
+        int tag = buffer.get();
+
+        switch (tag) {
+            case TAG_NULL, TAG_FALSE, TAG_TRUE -> { }
+            case TAG_NUMBER -> {
+                int length = readVarInt(buffer);
+                if (length > buffer.remaining()) {
+                    throw new IOException("Number exceeds bundle");
+                }
+
+                buffer.position(buffer.position() + length);
+            }
+            case TAG_STRING -> readStringIndex(buffer, stringCount);
+            case TAG_ARRAY -> {
+                int size = readVarInt(buffer);
+                for (int i = 0; i < size; i++) {
+                    skipValue(buffer, stringCount);
+                }
+            }
+            case TAG_OBJECT -> {
+                int size = readVarInt(buffer);
+                for (int i = 0; i < size; i++) {
+                    readStringIndex(buffer, stringCount);
+                    skipValue(buffer, stringCount);
+                }
+            }
+            default -> throw new IOException("Unknown value tag " + tag);
+        }
+    }
+
+    private static int readStringIndex(@NotNull ByteBuffer buffer, int stringCount) throws IOException {
+        int index = readVarInt(buffer);
+        if (index >= stringCount) {
+            throw new IOException("Unknown string " + index);
+        }
+
+        return index;
+    }
+
+    private static void writeVarInt(@NotNull DataOutputStream output, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        output.writeByte(value);
+    }
+
+    private static int readVarInt(@NotNull ByteBuffer buffer) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = buffer.get();
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    throw new IOException("Negative length");
+                }
+
+                return value;
+            }
+        }
+
+        throw new IOException("Malformed variable length integer");
+    }
+
+    /**
+     * A manifest entry of a recipe file, along with its contents. Entries created for recipe
+     * files that were just read hold their text, whereas entries read from a bundle hold their
+     * binary encoding.
+     */
+    static final class Entry {
+
+        private final long size, lastModified;
+        private final int hash;
+
+        private final String text;
+        private final ByteBuffer contents;
+        private final String[] strings;
+
+        /**
+         * Construct a new {@link Entry}.
+         *
+         * @param size the size of the recipe file in bytes
+         * @param lastModified the last modification time of the recipe file in milliseconds
+         * @param hash the CRC32 hash of the contents of the recipe file
+         * @param text the contents of the recipe file
+         */
+        Entry(long size, long lastModified, int hash, @NotNull String text) {
+            this(size, lastModified, hash, text, null, null);
+        }
+
+        private Entry(long size, long lastModified, int hash, @NotNull ByteBuffer contents, @NotNull String[] strings) {
+            this(size, lastModified, hash, null, contents, strings);
+        }
+
+        private Entry(long size, long lastModified, int hash, @Nullable String text, @Nullable ByteBuffer contents, @Nullable String[] strings) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.hash = hash;
+            this.text = text;
+            this.contents = contents;
+            this.strings = strings;
+        }
+
+        /**
+         * Check whether or not the recipe file is unchanged according to its size and last
+         * modification time, in which case its contents need not be read.
+         *
+         * @param size the current size of the recipe file
+         * @param lastModified the current last modification time of the recipe file
+         *
+         * @return true if unchanged, false otherwise
+         */
+        boolean matches(long size, long lastModified) {
+            return this.size == size && this.lastModified == lastModified;
+        }
+
+        /**
+         * Check whether or not the contents of the recipe file are unchanged according to
+         * their hash.
+         *
+         * @param hash the CRC32 hash of the current contents of the recipe file
+         *
+         * @return true if unchanged, false otherwise
+         */
+        boolean matches(int hash) {
+            return this.hash == hash;
+        }
+
+        /**
+         * Get a copy of this entry with the given size and last modification time, for a
+         * recipe file that was touched without changing its contents.
+         *
+         * @param size the current size of the recipe file
+         * @param lastModified the current last modification time of the recipe file
+         *
+         * @return the updated entry
+         */
+        @NotNull
+        Entry withAttributes(long size, long lastModified) {
+            return new Entry(size, lastModified, hash, text, contents, strings);
+        }
+
+        /**
+         * Get the CRC32 hash of the contents of the recipe file.
+         *
+         * @return the hash
+         */
+        int getHash() {
+            return hash;
+        }
+
+        /**
+         * Create a new reader positioned before the contents of the recipe file. Bundled
+         * contents are read straight from their binary encoding.
+         *
+         * @return the reader
+         */
+        @NotNull
+        JsonReader newReader() {
+            if (contents != null) {
+                return new BundleJsonReader(contents.duplicate(), strings);
+            }
+
+            JsonReader reader = new JsonReader(new StringReader(text));
+            reader.setLenient(true);
+            return reader;
+        }
+
+        /**
+         * Decode the contents of the recipe file to a {@link JsonObject}.
+         *
+         * @return the contents
+         *
+         * @throws IOException if the contents could not be decoded
+         */
+        @NotNull
+        JsonObject getObject() throws IOException {
+            JsonElement object = (contents != null) ? readValue(contents.duplicate(), strings) : JsonParser.parseString(text);
+            if (!object.isJsonObject()) {
+                throw new IOException("Recipe is not an object");
+            }
+
+            return object.getAsJsonObject();
+        }
+
+    }
+
+    /**
+     * A {@link JsonReader} over the binary encoding of a single bundled value. The value must
+     * have been validated by {@link RecipeBundle#skipValue(ByteBuffer, int)} beforehand.
+     */
+    private static final class BundleJsonReader extends JsonReader {
+
+        private final ByteBuffer buffer;
+        private final String[] strings;
+
+        // Per open object or array, the amount of values left and, for objects, whether the name of the next value was read
+        private int[] remaining = new int[8];
+        private boolean[] objects = new boolean[8], nameRead = new boolean[8];
+        private int depth = 0;
+        private boolean consumed = false;
+
+        private BundleJsonReader(@NotNull ByteBuffer buffer, @NotNull String[] strings) {
+            super(Reader.nullReader());
+            this.buffer = buffer;
+            this.strings = strings;
+        }
+
+        @NotNull
+        @Override
+        public JsonToken peek() {
+            if (depth == 0) {
+                return consumed ? JsonToken.END_DOCUMENT : toToken(buffer.get(buffer.position()));
+            }
+
+            int frame = depth - 1;
+            if (objects[frame] && !nameRead[frame]) {
+                return (remaining[frame] == 0) ? JsonToken.END_OBJECT : JsonToken.NAME;
+            }
+
+            if (!objects[frame] && remaining[frame] == 0) {
+                return JsonToken.END_ARRAY;
+            }
+
+            return toToken(buffer.get(buffer.position()));
+        }
+
+        @Override
+        public boolean hasNext() {
+            JsonToken token = peek();
+            return token != JsonToken.END_OBJECT && token != JsonToken.END_ARRAY && token != JsonToken.END_DOCUMENT;
+        }
+
+        @Override
+        public void beginObject() throws IOException {
+            this.expect(JsonToken.BEGIN_OBJECT);
+            this.buffer.get();
+            this.push(readVarInt(buffer), true);
+        }
+
+        @Override
+        public void endObject() {
+            this.expect(JsonToken.END_OBJECT);
+            this.depth--;
+            this.valueConsumed();
+        }
+
+        @Override
+        public void beginArray() throws IOException {
+            this.expect(JsonToken.BEGIN_ARRAY);
+            this.buffer.get();
+            this.push(readVarInt(buffer), false);
+        }
+
+        @Override
+        public void endArray() {
+            this.expect(JsonToken.END_ARRAY);
+            this.depth--;
+            this.valueConsumed();
+        }
+
+        @NotNull
+        @Override
+        public String nextName() throws IOException {
+            this.expect(JsonToken.NAME);
+            this.nameRead[depth - 1] = true;
+            return strings[readVarInt(buffer)];
+        }
+
+        @NotNull
+        @Override
+        public String nextString() throws IOException {
+            JsonToken token = peek();
+            if (token != JsonToken.STRING && token != JsonToken.NUMBER) {
+                throw new IllegalStateException("Expected a string but was " + token);
+            }
+
+            String value;
+            if (buffer.get() == TAG_STRING) {
+                value = strings[readVarInt(buffer)];
+            } else {
+                byte[] bytes = new byte[readVarInt(buffer)];
+                this.buffer.get(bytes);
+                value = new String(bytes, StandardCharsets.UTF_8);
+            }
+
+            this.valueConsumed();
+            return value;
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            this.expect(JsonToken.BOOLEAN);
+            boolean value = (buffer.get() == TAG_TRUE);
+            this.valueConsumed();
+            return value;
+        }
+
+        @Override
+        public void nextNull() {
+            this.expect(JsonToken.NULL);
+            this.buffer.get();
+            this.valueConsumed();
+        }
+
+        @Override
+        public double nextDouble() throws IOException {
+            return Double.parseDouble(nextString());
+        }
+
+        @Override
+        public long nextLong() throws IOException {
+            String value = nextString();
+
+            try {
+                return Long.parseLong(value);
+            } catch (NumberFormatException e) {
+                double asDouble = Double.parseDouble(value);
+                if ((long) asDouble != asDouble) {
+                    throw new NumberFormatException("Expected a long but was " + value);
+                }
+
+                return (long) asDouble;
+            }
+        }
+
+        @Override
+        public int nextInt() throws IOException {
+            long value = nextLong();
+            if ((int) value != value) {
+                throw new NumberFormatException("Expected an int but was " + value);
+            }
+
+            return (int) value;
+        }
+
+        @Override
+        public void skipValue() throws IOException {
+            JsonToken token = peek();
+            if (token == JsonToken.NAME) {
+                this.nextName();
+                return;
+            }
+
+            if (token == JsonToken.END_OBJECT || token == JsonToken.END_ARRAY || token == JsonToken.END_DOCUMENT) {
+                throw new IllegalStateException("Expected a value but was " + token);
+            }
+
+            RecipeBundle.skipValue(buffer, strings.length);
+            this.valueConsumed();
+        }
+
+        @Override
+        public void close() { }
+
+        @NotNull
+        @Override
+        public String toString() {
+            return "BundleJsonReader";
+        }
+
+        private void expect(@NotNull JsonToken expected) {
+            JsonToken token = peek();
+            if (token != expected) {
+                throw new IllegalStateException("Expected " + expected + " but was " + token);
+            }
+        }
+
+        private void push(int size, boolean object) {
+            if (depth == remaining.length) {
+                this.remaining = Arrays.copyOf(remaining, depth * 2);
+                this.objects = Arrays.copyOf(objects, depth * 2);
+                this.nameRead = Arrays.copyOf(nameRead, depth * 2);
+            }
+
+            this.remaining[depth] = size;
+            this.objects[depth] = object;
+            this.nameRead[depth] = false;
+            this.depth++;
+        }
+
+        private void valueConsumed() {
+            if (depth == 0) {
+                this.consumed = true;
+                return;
+            }
+
+            int frame = depth - 1;
+            this.remaining[frame]--;
+            this.nameRead[frame] = false;
+        }
+
+        @NotNull
+        private static JsonToken toToken(int tag) {
+            return switch (tag) {
+                case TAG_NULL -> JsonToken.NULL;
+                case TAG_FALSE, TAG_TRUE -> JsonToken.BOOLEAN;
+                case TAG_NUMBER -> JsonToken.NUMBER;
+                case TAG_STRING -> JsonToken.STRING;
+                case TAG_ARRAY -> JsonToken.BEGIN_ARRAY;
+                case TAG_OBJECT -> JsonToken.BEGIN_OBJECT;
+                default -> throw new IllegalStateException("Unknown value tag " + tag);
+            };
+        }
+
+    }
+
+}
@@ -0,0 +1,293 @@
+package wtf.choco.alchema.crafting;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An analysis of which recipes overlap with one another and which of them win when more
+ * than one is applicable to the ingredients in a cauldron.
+ * <p>
+ * Two recipes overlap if they share at least one similar ingredient. A recipe is applicable
+ * whenever another is if each of its ingredients is similar to an ingredient of the other in
+ * equal or greater quantity. Of all applicable recipes, the one first in
+ * {@link #getPriorityOrder() priority order} wins, being the most complex recipe and, among
+ * recipes of equal complexity, the one with the lowest key. A recipe that loses to another
+ * recipe applicable whenever it is can therefore never be crafted and is reported as a
+ * {@link Conflict}.
+ * <p>
+ * Overlaps are found between ingredients of the same material, or of the same ingredient type
+ * for ingredients without an item representation. Third-party ingredient types similar to
+ * ingredients of a different material are not taken into account.
+ *
+ * @author Parker Hawke - Choco
+ */
+public final class RecipeConflictAnalysis {
+
+    /**
+     * The order in which recipes are matched, most complex first and, among recipes of equal
+     * complexity, by key.
+     */
+    static final Comparator<@NotNull CauldronRecipe> PRIORITY = Comparator.comparingInt(CauldronRecipe::getComplexity).reversed().thenComparing(recipe -> recipe.getKey().toString());
+
+    private final List<@NotNull CauldronRecipe> priorityOrder;
+    private final Map<@NotNull NamespacedKey, @NotNull Set<@NotNull NamespacedKey>> overlaps;
+    private final Map<@NotNull NamespacedKey, @NotNull CauldronRecipe> winners;
+    private final List<@NotNull Conflict> conflicts;
+
+    private RecipeConflictAnalysis(@NotNull List<@NotNull CauldronRecipe> priorityOrder, @NotNull Map<@NotNull NamespacedKey, @NotNull Set<@NotNull NamespacedKey>> overlaps, @NotNull Map<@NotNull NamespacedKey, @NotNull CauldronRecipe> winners, @NotNull List<@NotNull Conflict> conflicts) {
+        this.priorityOrder = priorityOrder;
+        this.overlaps = overlaps;
+        this.winners = winners;
+        this.conflicts = conflicts;
+    }
+
+    /**
+     * Analyze the given recipes.
+     *
+     * @param recipes the recipes to analyze
+     *
+     * @return the analysis
+     */
+    @NotNull
+    public static RecipeConflictAnalysis analyze(@NotNull Collection<@NotNull CauldronRecipe> recipes) {
+        Preconditions.checkArgument(recipes != null, "recipes must not be null");
+
+        List<@NotNull CauldronRecipe> priorityOrder = new ArrayList<>(recipes);
+        priorityOrder.sort(PRIORITY);
+
+        // Group recipes by the materials of their ingredients such that only recipes sharing a group need be compared
+        Map<@NotNull Object, @NotNull Set<@NotNull CauldronRecipe>> groups = new HashMap<>();
+        Map<@NotNull CauldronRecipe, @NotNull Set<@NotNull Object>> recipeGroups = new HashMap<>();
+        for (CauldronRecipe recipe : priorityOrder) {
+            for (CauldronIngredient ingredient : recipe.getIngredients()) {
+                ItemStack item = ingredient.asItemStack();
+                Object group = (item != null) ? item.getType() : ingredient.getKey();
+
+                groups.computeIfAbsent(group, key -> new LinkedHashSet<>()).add(recipe);
+                recipeGroups.computeIfAbsent(recipe, key -> new HashSet<>()).add(group);
+            }
+        }
+
+        Map<@NotNull NamespacedKey, @NotNull Set<@NotNull NamespacedKey>> overlaps = new LinkedHashMap<>();
+        Map<@NotNull NamespacedKey, @NotNull CauldronRecipe> winners = new LinkedHashMap<>();
+        List<@NotNull Conflict> conflicts = new ArrayList<>();
+
+        for (CauldronRecipe recipe : priorityOrder) {
+            Set<@NotNull CauldronRecipe> candidates = new LinkedHashSet<>();
+            for (Object group : recipeGroups.getOrDefault(recipe, Collections.emptySet())) {
+                candidates.addAll(groups.get(group));
+            }
+
+            candidates.remove(recipe);
+
+            Set<@NotNull NamespacedKey> overlappingKeys = new LinkedHashSet<>();
+            CauldronRecipe winner = recipe;
+
+            for (CauldronRecipe other : candidates) {
+                if (!sharesIngredient(recipe, other)) {
+                    continue;
+                }
+
+                overlappingKeys.add(other.getKey());
+
+                // Whatever ingredients craft this recipe also craft the other. If it takes priority, this recipe never wins
+                if (PRIORITY.compare(other, winner) < 0 && isApplicableWhenever(other, recipe)) {
+                    winner = other;
+                }
+            }
+
+            if (!overlappingKeys.isEmpty()) {
+                overlaps.put(recipe.getKey(), Collections.unmodifiableSet(overlappingKeys));
+            }
+
+            winners.put(recipe.getKey(), winner);
+            if (winner != recipe) {
+                conflicts.add(new Conflict(recipe, winner, winner.getComplexity() > recipe.getComplexity() ? ConflictType.SHADOWED : ConflictType.TIED));
+            }
+        }
+
+        return new RecipeConflictAnalysis(Collections.unmodifiableList(priorityOrder), Collections.unmodifiableMap(overlaps), Collections.unmodifiableMap(winners), Collections.unmodifiableList(conflicts));
+    }
+
+    /**
+     * Get every analyzed recipe in the order in which they are matched. The first applicable
+     * recipe in this order is the most complex applicable recipe.
+     *
+     * @return the recipes in priority order
+     */
+    @NotNull
+    @Unmodifiable
+    public List<@NotNull CauldronRecipe> getPriorityOrder() {
+        return priorityOrder;
+    }
+
+    /**
+     * Get the keys of all recipes sharing at least one similar ingredient with the given recipe.
+     *
+     * @param key the key of the recipe
+     *
+     * @return the keys of overlapping recipes. If none, an empty set is returned
+     */
+    @NotNull
+    @Unmodifiable
+    public Set<@NotNull NamespacedKey> getOverlappingRecipes(@NotNull NamespacedKey key) {
+        Preconditions.checkArgument(key != null, "key must not be null");
+        return overlaps.getOrDefault(key, Collections.emptySet());
+    }
+
+    /**
+     * Get the recipe crafted from a cauldron holding exactly the ingredients of the given recipe.
+     *
+     * @param key the key of the recipe
+     *
+     * @return the winning recipe, being the given recipe itself unless it conflicts with another.
+     * null if the recipe was not analyzed
+     */
+    @Nullable
+    public CauldronRecipe getWinner(@NotNull NamespacedKey key) {
+        Preconditions.checkArgument(key != null, "key must not be null");
+        return winners.get(key);
+    }
+
+    /**
+     * Get all recipes that can never be crafted, along with the recipes by which they are
+     * overruled, in priority order.
+     *
+     * @return the conflicts. If none, an empty list is returned
+     */
+    @NotNull
+    @Unmodifiable
+    public List<@NotNull Conflict> getConflicts() {
+        return conflicts;
+    }
+
+    private static boolean sharesIngredient(@NotNull CauldronRecipe recipe, @NotNull CauldronRecipe other) {
+        for (CauldronIngredient ingredient : recipe.getIngredients()) {
+            for (CauldronIngredient otherIngredient : other.getIngredients()) {
+                if (ingredient.isSimilar(otherIngredient) || otherIngredient.isSimilar(ingredient)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isApplicableWhenever(@NotNull CauldronRecipe recipe, @NotNull CauldronRecipe other) {
+        if (recipe.getIngredients().isEmpty()) {
+            return false;
+        }
+
+        for (CauldronIngredient ingredient : recipe.getIngredients()) {
+            boolean satisfied = false;
+
+            for (CauldronIngredient otherIngredient : other.getIngredients()) {
+                if (ingredient.isSimilar(otherIngredient) && otherIngredient.getAmount() >= ingredient.getAmount()) {
+                    satisfied = true;
+                    break;
+                }
+            }
+
+            if (!satisfied) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Represents a recipe that can never be crafted because another recipe is applicable
+     * whenever it is and takes priority over it.
+     */
+    public static final class Conflict {
+
+        private final CauldronRecipe recipe, winner;
+        private final ConflictType type;
+
+        private Conflict(@NotNull CauldronRecipe recipe, @NotNull CauldronRecipe winner, @NotNull ConflictType type) {
+            this.recipe = recipe;
+            this.winner = winner;
+            this.type = type;
+        }
+
+        /**
+         * Get the recipe that can never be crafted.
+         *
+         * @return the recipe
+         */
+        @NotNull
+        public CauldronRecipe getRecipe() {
+            return recipe;
+        }
+
+        /**
+         * Get the recipe crafted in its place.
+         *
+         * @return the winning recipe
+         */
+        @NotNull
+        public CauldronRecipe getWinner() {
+            return winner;
+        }
+
+        /**
+         * Get the type of this conflict.
+         *
+         * @return the conflict type
+         */
+        @NotNull
+        public ConflictType getType() {
+            return type;
+        }
+
+        /**
+         * Describe this conflict as a human-readable string.
+         *
+         * @return the description
+         */
+        @NotNull
+        public String describe() {
+            return switch (type) {
+                case SHADOWED -> "Recipe " + recipe.getKey() + " can never be crafted. Its ingredients also craft the more complex recipe " + winner.getKey() + " (complexity " + winner.getComplexity() + " > " + recipe.getComplexity() + ")";
+                case TIED -> "Recipe " + recipe.getKey() + " can never be crafted. Its ingredients also craft recipe " + winner.getKey() + " of equal complexity (" + recipe.getComplexity() + "), which takes priority by key";
+            };
+        }
+
+    }
+
+    /**
+     * Represents the reason for which a recipe can never be crafted.
+     */
+    public enum ConflictType {
+
+        /**
+         * Another recipe applicable whenever the recipe is is more complex.
+         */
+        SHADOWED,
+
+        /**
+         * Another recipe applicable whenever the recipe is is of equal complexity and takes
+         * priority by key.
+         */
+        TIED;
+
+    }
+
+}
@@ -0,0 +1,267 @@
+package wtf.choco.alchema.crafting;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.Bukkit;
+import org.bukkit.NamespacedKey;
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.NotNull;
+import wtf.choco.alchema.Alchema;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Watches the recipes directory for recipe files being created, modified or deleted and
+ * applies only those changes to a {@link CauldronRecipeRegistry}, registering and
+ * unregistering recipes and their crafting permissions without a full reload.
+ * <p>
+ * Changed files are parsed on a watcher thread once writes to them have settled, after which
+ * all changes are applied at once on the main thread. A recipe file that fails to parse leaves
+ * its previously loaded recipe in place. Changes applied while all recipes are being reloaded
+ * are carried over into the reloaded recipes rather than being lost when they are swapped in.
+ * <p>
+ * <strong>NOTE:</strong>This class it not a part of Alchema's API contract and may
+ * be subject to breakages without prior warning.
+ *
+ * @author Parker Hawke - Choco
+ */
+@Internal
+public final class RecipeFileWatcher {
+
+    private static final long SETTLE_MILLIS = 250L;
+
+    private WatchService watchService;
+    private Thread thread;
+
+    private final Map<@NotNull WatchKey, @NotNull Path> directories = new ConcurrentHashMap<>();
+
+    private final Alchema plugin;
+    private final CauldronRecipeRegistry recipeRegistry;
+    private final Path recipesDirectory;
+    private final String namespace;
+
+    /**
+     * Construct a new {@link RecipeFileWatcher}.
+     *
+     * @param plugin the instance of Alchema
+     * @param recipeRegistry the registry to which changes should be applied
+     * @param recipesDirectory the directory to watch
+     */
+    public RecipeFileWatcher(@NotNull Alchema plugin, @NotNull CauldronRecipeRegistry recipeRegistry, @NotNull File recipesDirectory) {
+        Preconditions.checkArgument(plugin != null, "plugin must not be null");
+        Preconditions.checkArgument(recipeRegistry != null, "recipeRegistry must not be null");
+        Preconditions.checkArgument(recipesDirectory != null, "recipesDirectory must not be null");
+
+        this.plugin = plugin;
+        this.recipeRegistry = recipeRegistry;
+        this.recipesDirectory = recipesDirectory.toPath();
+        this.namespace = plugin.getName().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Start watching the recipes directory. If already started, this method does nothing.
+     *
+     * @throws IOException if the recipes directory could not be watched
+     */
+    public void start() throws IOException {
+        if (watchService != null) {
+            return;
+        }
+
+        this.watchService = recipesDirectory.getFileSystem().newWatchService();
+
+        try {
+            this.registerDirectories(recipesDirectory);
+        } catch (IOException e) {
+            this.close();
+            throw e;
+        }
+
+        this.thread = new Thread(this::watch, "Alchema Recipe Watcher");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Stop watching the recipes directory. Changes not yet applied are discarded.
+     */
+    public void close() {
+        if (watchService == null) {
+            return;
+        }
+
+        try {
+            this.watchService.close();
+        } catch (IOException e) {
+            this.plugin.getLogger().log(Level.WARNING, "Could not close recipe watcher", e);
+        }
+
+        if (thread != null) {
+            this.thread.interrupt();
+        }
+
+        this.directories.clear();
+        this.watchService = null;
+        this.thread = null;
+    }
+
+    /**
+     * Check whether or not the recipes directory is being watched.
+     *
+     * @return true if watching, false otherwise
+     */
+    public boolean isWatching() {
+        return watchService != null;
+    }
+
+    private void watch() {
+        WatchService watchService = this.watchService;
+
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                Set<@NotNull Path> changedFiles = new LinkedHashSet<>();
+                boolean overflowed = false;
+
+                // Editors often save a file in several steps. Gather events until they settle and handle each file once
+                do {
+                    Path directory = directories.get(key);
+
+                    for (WatchEvent<?> event : key.pollEvents()) {
+                        if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                            overflowed = true;
+                            continue;
+                        }
+
+                        if (directory == null) {
+                            continue;
+                        }
+
+                        Path path = directory.resolve((Path) event.context());
+                        if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                            try {
+                                this.registerDirectories(path);
+
+                                // Files may have been moved in along with the directory, none of which raise events
+                                changedFiles.addAll(walk(path, Files::isRegularFile));
+                            } catch (IOException e) {
+                                // The directory was deleted again before it could be watched, its deletion is handled all the same
+                            }
+                        }
+
+                        changedFiles.add(path);
+                    }
+
+                    if (!key.reset()) {
+                        this.directories.remove(key);
+                    }
+                } while ((key = watchService.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null);
+
+                List<CauldronRecipeRegistry.@NotNull ParsedRecipe> parsedRecipes = new ArrayList<>();
+                List<@NotNull Path> deletedFiles = new ArrayList<>();
+
+                for (Path path : changedFiles) {
+                    if (Files.isRegularFile(path)) {
+                        if (path.getFileName().toString().endsWith(".json")) {
+                            parsedRecipes.add(recipeRegistry.parseRecipe(plugin, recipesDirectory, path));
+                        }
+                    } else if (!Files.exists(path)) {
+                        deletedFiles.add(path);
+                    }
+                }
+
+                boolean incomplete = overflowed;
+                if (!parsedRecipes.isEmpty() || !deletedFiles.isEmpty() || incomplete) {
+                    Bukkit.getScheduler().runTask(plugin, () -> apply(parsedRecipes, deletedFiles, incomplete));
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Closed, stop watching
+        }
+    }
+
+    private void apply(@NotNull List<CauldronRecipeRegistry.@NotNull ParsedRecipe> parsedRecipes, @NotNull List<@NotNull Path> deletedFiles, boolean overflowed) {
+        if (overflowed) {
+            this.plugin.getLogger().warning("Too many recipe files changed at once to reload them all. Use /alchema reload to reload every recipe.");
+        }
+
+        // A deleted path may have been a recipe file or a directory of recipe files. Unregister both
+        for (Path deletedFile : deletedFiles) {
+            String recipeKey = deletedFile.getFileName().toString().endsWith(".json") ? recipeRegistry.getRecipeKey(recipesDirectory, deletedFile) : null;
+            String directoryPrefix = recipesDirectory.relativize(deletedFile).toString().replace('\\', '/') + "/";
+
+            for (CauldronRecipe recipe : new ArrayList<>(recipeRegistry.getRecipes())) {
+                NamespacedKey key = recipe.getKey();
+                if (!key.getNamespace().equals(namespace) || (!key.getKey().equals(recipeKey) && !key.getKey().startsWith(directoryPrefix))) {
+                    continue;
+                }
+
+                this.recipeRegistry.unregisterCauldronRecipe(recipe);
+                this.plugin.getLogger().info("Unloaded recipe " + key + ".");
+            }
+        }
+
+        for (CauldronRecipeRegistry.ParsedRecipe parsedRecipe : parsedRecipes) {
+            NamespacedKey key = parsedRecipe.getKey();
+            CauldronRecipe recipe = parsedRecipe.getRecipe();
+
+            if (key == null) {
+                String path = parsedRecipe.getPath();
+                this.plugin.getLogger().warning("Invalid recipe file name, \"" + path.substring(path.lastIndexOf('/') + 1) + "\". Must be alphanumerical, lowercased and separated by underscores.");
+                continue;
+            }
+
+            if (recipe == null) {
+                Exception failure = parsedRecipe.getFailure();
+                this.plugin.getLogger().warning("Failed to reload recipe " + key + ". Reason: " + (failure != null ? failure.getLocalizedMessage() : "unknown") + ". The previously loaded version remains in use.");
+                continue;
+            }
+
+            boolean replaced = recipeRegistry.getCauldronRecipe(key) != null;
+            this.recipeRegistry.registerCauldronRecipe(recipe);
+            this.plugin.getLogger().info((replaced ? "Reloaded" : "Loaded") + " recipe " + key + ".");
+        }
+
+        this.recipeRegistry.updateCraftingPermissions();
+
+        // Changed recipes may conflict with others
+        this.recipeRegistry.scheduleConflictAnalysis(plugin);
+    }
+
+    private void registerDirectories(@NotNull Path root) throws IOException {
+        for (Path directory : walk(root, Files::isDirectory)) {
+            this.directories.put(directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE), directory);
+        }
+    }
+
+    @NotNull
+    private static List<@NotNull Path> walk(@NotNull Path root, @NotNull Predicate<@NotNull Path> filter) throws IOException {
+        try (Stream<@NotNull Path> paths = Files.walk(root, FileVisitOption.FOLLOW_LINKS)) {
+            return paths.filter(filter).collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+}
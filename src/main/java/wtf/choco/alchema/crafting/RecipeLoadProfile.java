@@ -0,0 +1,353 @@
+package wtf.choco.alchema.crafting;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.NamespacedKey;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnmodifiableView;
+import wtf.choco.alchema.Alchema;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A breakdown of where time was spent loading recipes, as recorded when profiling is enabled
+ * in {@link CauldronRecipeRegistry#loadCauldronRecipes(Alchema, File, boolean)}. All times are
+ * in nanoseconds.
+ *
+ * @author Parker Hawke - Choco
+ */
+public final class RecipeLoadProfile {
+
+    private final Map<@NotNull Phase, @NotNull Long> phaseTimes = Collections.synchronizedMap(new EnumMap<>(Phase.class));
+    private final List<@NotNull FileTiming> files = Collections.synchronizedList(new ArrayList<>());
+    private final Map<@NotNull NamespacedKey, @NotNull TypeTiming> ingredientTypes = new ConcurrentHashMap<>();
+    private final Map<@NotNull NamespacedKey, @NotNull TypeTiming> resultTypes = new ConcurrentHashMap<>();
+
+    RecipeLoadProfile() { }
+
+    void recordPhase(@NotNull Phase phase, long time) {
+        this.phaseTimes.merge(phase, time, Long::sum);
+    }
+
+    void recordFile(@NotNull FileTiming file) {
+        this.files.add(file);
+    }
+
+    void recordIngredientType(@NotNull NamespacedKey key, long time) {
+        this.ingredientTypes.computeIfAbsent(key, TypeTiming::new).record(time);
+    }
+
+    void recordResultType(@NotNull NamespacedKey key, long time) {
+        this.resultTypes.computeIfAbsent(key, TypeTiming::new).record(time);
+    }
+
+    /**
+     * Get the time spent in the given phase of loading.
+     *
+     * @param phase the phase
+     *
+     * @return the time spent, or 0 if the phase was not reached
+     */
+    public long getPhaseTime(@NotNull Phase phase) {
+        Preconditions.checkArgument(phase != null, "phase must not be null");
+        return phaseTimes.getOrDefault(phase, 0L);
+    }
+
+    /**
+     * Get the timings of every recipe file, in the order in which they were registered.
+     *
+     * @return the file timings
+     */
+    @NotNull
+    @UnmodifiableView
+    public List<@NotNull FileTiming> getFiles() {
+        return Collections.unmodifiableList(files);
+    }
+
+    /**
+     * Get the timings of every ingredient type parsed while constructing recipes.
+     *
+     * @return the ingredient type timings, keyed by ingredient type
+     */
+    @NotNull
+    @UnmodifiableView
+    public Map<@NotNull NamespacedKey, @NotNull TypeTiming> getIngredientTypes() {
+        return Collections.unmodifiableMap(ingredientTypes);
+    }
+
+    /**
+     * Get the timings of every result type parsed while constructing recipes.
+     *
+     * @return the result type timings, keyed by result type
+     */
+    @NotNull
+    @UnmodifiableView
+    public Map<@NotNull NamespacedKey, @NotNull TypeTiming> getResultTypes() {
+        return Collections.unmodifiableMap(resultTypes);
+    }
+
+    /**
+     * Write this profile as CSV to the given writer. Each row is either a phase, a recipe file,
+     * an ingredient type or a result type, as identified by its first column. Times are written
+     * in microseconds.
+     *
+     * @param writer the writer to which the CSV should be written
+     *
+     * @throws IOException if the CSV could not be written
+     */
+    public void writeCsv(@NotNull Writer writer) throws IOException {
+        Preconditions.checkArgument(writer != null, "writer must not be null");
+
+        writer.write("section,name,count,read_us,construct_us,total_us,status\n");
+
+        for (Phase phase : Phase.values()) {
+            writeRow(writer, "phase", phase.name().toLowerCase(), 1, -1, -1, getPhaseTime(phase), "");
+        }
+
+        synchronized (files) {
+            for (FileTiming file : files) {
+                writeRow(writer, "file", file.getPath(), 1, file.getReadTime(), file.getConstructTime(), file.getTotalTime(), file.getStatus().name().toLowerCase());
+            }
+        }
+
+        for (TypeTiming type : ingredientTypes.values()) {
+            writeRow(writer, "ingredient_type", type.getKey().toString(), type.getCount(), -1, type.getTime(), type.getTime(), "");
+        }
+
+        for (TypeTiming type : resultTypes.values()) {
+            writeRow(writer, "result_type", type.getKey().toString(), type.getCount(), -1, type.getTime(), type.getTime(), "");
+        }
+    }
+
+    private static void writeRow(@NotNull Writer writer, @NotNull String section, @NotNull String name, long count, long readTime, long constructTime, long totalTime, @NotNull String status) throws IOException {
+        // Names are file paths and namespaced keys, but quote them regardless in case a path holds a comma
+        writer.write(section + ",\"" + name.replace("\"", "\"\"") + "\"," + count + "," + toMicros(readTime) + "," + toMicros(constructTime) + "," + toMicros(totalTime) + "," + status + "\n");
+    }
+
+    @NotNull
+    private static String toMicros(long time) {
+        return (time < 0) ? "" : String.valueOf(time / 1000);
+    }
+
+    /**
+     * A phase of loading recipes.
+     */
+    public enum Phase {
+
+        /**
+         * Walking the recipes directory for recipe files.
+         */
+        SCAN,
+
+        /**
+         * Reading the recipe bundle.
+         */
+        READ_BUNDLE,
+
+        /**
+         * Reading, parsing and constructing every recipe file, in parallel.
+         */
+        PARSE,
+
+        /**
+         * Registering the constructed recipes to the registry.
+         */
+        REGISTER,
+
+        /**
+         * Writing the recipe bundle, if any recipe file changed.
+         */
+        WRITE_BUNDLE,
+
+        /**
+         * Registering recipes from third-party plugins.
+         */
+        THIRD_PARTY,
+
+        /**
+         * Analyzing the registered recipes for conflicts.
+         */
+        CONFLICTS,
+
+        /**
+         * Preparing the recipe match order and crafting permissions of the loaded recipes.
+         */
+        INDEX,
+
+        /**
+         * Swapping the loaded recipes into the registry on the main thread, including waiting
+         * for the next server tick.
+         */
+        SWAP,
+
+        /**
+         * Updating crafting permissions.
+         */
+        PERMISSIONS;
+
+    }
+
+    /**
+     * The timings of a single recipe file.
+     */
+    public static final class FileTiming {
+
+        private final String path;
+        private final NamespacedKey key;
+        private final Status status;
+        private final long readTime, constructTime;
+
+        FileTiming(@NotNull String path, @Nullable NamespacedKey key, @NotNull Status status, long readTime, long constructTime) {
+            this.path = path;
+            this.key = key;
+            this.status = status;
+            this.readTime = readTime;
+            this.constructTime = constructTime;
+        }
+
+        /**
+         * Get the path of the recipe file relative to the recipes directory.
+         *
+         * @return the path
+         */
+        @NotNull
+        public String getPath() {
+            return path;
+        }
+
+        /**
+         * Get the key of the recipe.
+         *
+         * @return the key. null if the name of the recipe file is not a valid key
+         */
+        @Nullable
+        public NamespacedKey getKey() {
+            return key;
+        }
+
+        /**
+         * Get the status with which the recipe file was loaded.
+         *
+         * @return the status
+         */
+        @NotNull
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * Get the time spent reading and hashing the recipe file, including checking whether
+         * or not it changed since it was bundled.
+         *
+         * @return the read time
+         */
+        public long getReadTime() {
+            return readTime;
+        }
+
+        /**
+         * Get the time spent parsing and constructing the recipe, including its ingredients and
+         * result. Recipes are streamed from their contents while being constructed, so parsing
+         * is not timed separately.
+         *
+         * @return the construct time
+         */
+        public long getConstructTime() {
+            return constructTime;
+        }
+
+        /**
+         * Get the total time spent on the recipe file.
+         *
+         * @return the total time
+         */
+        public long getTotalTime() {
+            return readTime + constructTime;
+        }
+
+        /**
+         * The status with which a recipe file was loaded.
+         */
+        public enum Status {
+
+            /**
+             * The recipe file was parsed.
+             */
+            PARSED,
+
+            /**
+             * The contents of the recipe file were loaded from the recipe bundle.
+             */
+            BUNDLED,
+
+            /**
+             * The recipe file could not be loaded.
+             */
+            FAILED,
+
+            /**
+             * The name of the recipe file is not a valid key.
+             */
+            INVALID_NAME;
+
+        }
+
+    }
+
+    /**
+     * The accumulated timings of an ingredient or result type.
+     */
+    public static final class TypeTiming {
+
+        private final NamespacedKey key;
+        private final LongAdder count = new LongAdder(), time = new LongAdder();
+
+        private TypeTiming(@NotNull NamespacedKey key) {
+            this.key = key;
+        }
+
+        private void record(long time) {
+            this.count.increment();
+            this.time.add(time);
+        }
+
+        /**
+         * Get the key of the ingredient or result type.
+         *
+         * @return the key
+         */
+        @NotNull
+        public NamespacedKey getKey() {
+            return key;
+        }
+
+        /**
+         * Get the amount of times the type was parsed.
+         *
+         * @return the parse count
+         */
+        public long getCount() {
+            return count.sum();
+        }
+
+        /**
+         * Get the total time spent parsing the type.
+         *
+         * @return the total time
+         */
+        public long getTime() {
+            return time.sum();
+        }
+
+    }
+
+}
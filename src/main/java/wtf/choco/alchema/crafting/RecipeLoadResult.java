@@ -2,6 +2,7 @@ package wtf.choco.alchema.crafting;
 
 import org.jetbrains.annotations.ApiStatus.NonExtendable;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.Unmodifiable;
 import wtf.choco.alchema.Alchema;
 
@@ -54,4 +55,14 @@ public interface RecipeLoadResult {
      */
     long getTimeToComplete();
 
+    /**
+     * Get the profile recorded while loading recipes, if profiling was enabled.
+     *
+     * @return the profile. null if not profiled
+     *
+     * @see CauldronRecipeRegistry#loadCauldronRecipes(Alchema, File, boolean)
+     */
+    @Nullable
+    RecipeLoadProfile getProfile();
+
 }
@@ -0,0 +1,53 @@
+package wtf.choco.alchema.crafting;
+
+import com.google.gson.JsonObject;
+import com.google.gson.stream.JsonReader;
+import org.bukkit.NamespacedKey;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.function.Function;
+
+/**
+ * Parses an ingredient or result type directly from a {@link JsonReader}, without first reading
+ * its properties into a {@link JsonObject}. Streaming parsers may optionally be registered
+ * alongside an ingredient or result type's {@link Function} provider, which remains in use
+ * whenever a type cannot be streamed.
+ * <p>
+ * When called, the reader is positioned within the object of the ingredient or result,
+ * immediately after its "type" property. Implementations must consume every remaining property
+ * of the object, skipping unknown properties with {@link JsonReader#skipValue()}, but must not
+ * consume the end of the object itself. For example:
+ * <pre>
+ * while (reader.hasNext()) {
+ *     switch (reader.nextName()) {
+ *         case "item" -&gt; item = reader.nextString();
+ *         case "amount" -&gt; amount = reader.nextInt();
+ *         default -&gt; reader.skipValue();
+ *     }
+ * }
+ * </pre>
+ *
+ * @param <T> the type of ingredient or result parsed
+ *
+ * @author Parker Hawke - Choco
+ *
+ * @see CauldronRecipeRegistry#registerIngredientType(NamespacedKey, Function, StreamingParser)
+ * @see CauldronRecipeRegistry#registerResultType(NamespacedKey, Function, StreamingParser)
+ */
+@FunctionalInterface
+public interface StreamingParser<T> {
+
+    /**
+     * Parse the remaining properties of an ingredient or result.
+     *
+     * @param reader the reader from which to parse
+     *
+     * @return the parsed ingredient or result
+     *
+     * @throws IOException if the reader could not be read
+     */
+    @NotNull
+    T parse(@NotNull JsonReader reader) throws IOException;
+
+}
@@ -46,7 +46,7 @@ public final class MythicMobsIntegrationListener implements Listener {
 
     @EventHandler
     private void onRecipeRegister(CauldronRecipeRegisterEvent event) {
-        integration.registerUpgrades();
+        integration.registerUpgrades(event.getRecipeRegistry());
     }
 
     @EventHandler
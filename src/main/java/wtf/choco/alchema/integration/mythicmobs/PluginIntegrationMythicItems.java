@@ -13,6 +13,7 @@ import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 import wtf.choco.alchema.Alchema;
 import wtf.choco.alchema.crafting.CauldronRecipe;
+import wtf.choco.alchema.crafting.CauldronRecipeRegistry;
 import wtf.choco.commons.integration.PluginIntegration;
 
 import java.io.File;
@@ -62,7 +63,7 @@ public final class PluginIntegrationMythicItems implements PluginIntegration {
         alchema.getLogger().info("Registered foreign result type: " + CauldronRecipeResultMythicItem.key);
     }
 
-    private void loadUpgradeRecipes(@NotNull Alchema plugin, YamlConfiguration config) {
+    private void loadUpgradeRecipes(@NotNull Alchema plugin, @NotNull CauldronRecipeRegistry recipeRegistry, YamlConfiguration config) {
         List<CauldronRecipe> recipes = new ArrayList<>();
         for (String key : config.getKeys(false)) {
             MythicItem upgradeItem = mythicPlugin.getItemManager().getItem(key).orElse(null);
@@ -154,7 +155,7 @@ public final class PluginIntegrationMythicItems implements PluginIntegration {
         }
 
         for (CauldronRecipe recipe : recipes) {
-            plugin.getRecipeRegistry().registerCauldronRecipe(recipe);
+            recipeRegistry.registerCauldronRecipe(recipe);
         }
 
         CauldronRecipe random = recipes.stream().findAny().get();
@@ -163,12 +164,12 @@ public final class PluginIntegrationMythicItems implements PluginIntegration {
         plugin.getLogger().info("Registered " + recipes.size() + " recipe upgradeables into items! [" + recipes.stream().map(r -> r.getName().get()).collect(Collectors.joining(",")) + "]");
     }
 
-    public void registerUpgrades() {
+    public void registerUpgrades(@NotNull CauldronRecipeRegistry recipeRegistry) {
         Alchema alchema = Alchema.getInstance();
 
         File upgradeFile = new File(alchema.getRecipesDirectory(), "upgrades.yml");
         if (upgradeFile.exists()) {
-            loadUpgradeRecipes(alchema, YamlConfiguration.loadConfiguration(upgradeFile));
+            loadUpgradeRecipes(alchema, recipeRegistry, YamlConfiguration.loadConfiguration(upgradeFile));
         }
     }
 
@@ -41,7 +41,7 @@ public final class CauldronManipulationListener implements Listener {
     private void onCauldronLevelChange(CauldronLevelChangeEvent event) {
         Block block = event.getBlock();
         CauldronManager manager = plugin.getCauldronManager();
-        AlchemicalCauldron cauldron = manager.getCauldron(block);
+        AlchemicalCauldron cauldron = manager.getCauldron(block.getWorld(), block.getX(), block.getY(), block.getZ());
         BlockData blockData = event.getNewState().getBlockData();
         Material newMaterial = blockData.getMaterial();
 
@@ -63,7 +63,7 @@ public final class CauldronManipulationListener implements Listener {
         }
 
         CauldronManager manager = plugin.getCauldronManager();
-        AlchemicalCauldron cauldron = manager.getCauldron(block);
+        AlchemicalCauldron cauldron = manager.getCauldron(block.getWorld(), block.getX(), block.getY(), block.getZ());
         if (cauldron == null) {
             return;
         }
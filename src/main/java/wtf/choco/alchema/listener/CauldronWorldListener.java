@@ -0,0 +1,46 @@
+package wtf.choco.alchema.listener;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldLoadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import wtf.choco.alchema.Alchema;
+
+/**
+ * Loads and unloads cauldrons from the active cauldron storage as chunks and worlds load
+ * and unload.
+ *
+ * @author Parker Hawke - Choco
+ */
+public final class CauldronWorldListener implements Listener {
+
+    private final Alchema plugin;
+
+    public CauldronWorldListener(Alchema plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    private void onChunkLoad(ChunkLoadEvent event) {
+        this.plugin.getCauldronStorage().loadChunk(event.getChunk());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    private void onChunkUnload(ChunkUnloadEvent event) {
+        this.plugin.getCauldronStorage().unloadChunk(event.getChunk());
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    private void onWorldLoad(WorldLoadEvent event) {
+        this.plugin.getCauldronStorage().loadWorld(event.getWorld());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    private void onWorldUnload(WorldUnloadEvent event) {
+        this.plugin.getCauldronStorage().unloadWorld(event.getWorld());
+    }
+
+}
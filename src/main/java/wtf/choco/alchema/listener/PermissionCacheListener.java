@@ -0,0 +1,35 @@
+package wtf.choco.alchema.listener;
+
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import wtf.choco.alchema.util.PermissionCache;
+
+public final class PermissionCacheListener implements Listener {
+
+    private final PermissionCache permissionCache;
+
+    public PermissionCacheListener(PermissionCache permissionCache) {
+        this.permissionCache = permissionCache;
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    private void onJoin(PlayerJoinEvent event) {
+        this.permissionCache.invalidate(event.getPlayer());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    private void onQuit(PlayerQuitEvent event) {
+        this.permissionCache.invalidate(event.getPlayer());
+    }
+
+    // Permission plugins commonly recalculate permissions per world
+    @EventHandler(priority = EventPriority.MONITOR)
+    private void onChangeWorld(PlayerChangedWorldEvent event) {
+        this.permissionCache.invalidate(event.getPlayer());
+    }
+
+}
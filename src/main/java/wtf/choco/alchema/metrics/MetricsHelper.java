@@ -43,7 +43,7 @@ public final class MetricsHelper {
      * @param plugin the plugin instance
      */
     public static void registerCustomCharts(@NotNull Metrics metrics, @NotNull Alchema plugin) {
-        metrics.addCustomChart(new SimplePie("loaded_cauldrons", () -> String.valueOf(plugin.getCauldronManager().getCauldrons().size())));
+        metrics.addCustomChart(new SimplePie("loaded_cauldrons", () -> String.valueOf(plugin.getCauldronManager().getCauldronCount())));
         metrics.addCustomChart(new SimplePie("cauldron_recipes", () -> String.valueOf(plugin.getRecipeRegistry().getRecipes().size())));
         metrics.addCustomChart(new SingleLineChart("cauldron_crafts", MetricsHelper::getSuccessfulCraftsAndReset));
         metrics.addCustomChart(new AdvancedPie("cauldron_recipe_ingredient_types", () -> calculateCauldronRecipeIngredientTypes(plugin.getRecipeRegistry(), shouldAnonymizeRecipeTypes(plugin))));
@@ -0,0 +1,644 @@
+package wtf.choco.alchema.persistence;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import wtf.choco.alchema.cauldron.AlchemicalCauldron;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * A compact, versioned binary encoding of serialized cauldrons as written by
+ * {@link AlchemicalCauldron#write(JsonObject)}.
+ * <p>
+ * An encoded stream begins with a header holding a table of every distinct string and world
+ * in the stream, after which strings and worlds are referenced by their index. Coordinates
+ * are written as variable length integers, x and z relative to those of the previous cauldron,
+ * ingredient types as indices into the string table and base64 encoded properties of
+ * ingredients (such as serialized items) as raw bytes. Ingredient properties are otherwise
+ * encoded generically such that ingredients of any type survive a round trip.
+ * <p>
+ * Streams are read and written through NIO channels with a fixed size buffer and are never
+ * held in memory entirely.
+ *
+ * @author Parker Hawke - Choco
+ */
+final class CauldronBinaryFormat {
+
+    /** The current version of the format */
+    static final int VERSION = 1;
+
+    private static final int MAGIC = 0x414C4343; // "ALCC"
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private static final int FLAG_HEATING_UP = 1;
+    private static final int FLAG_BUBBLING = 1 << 1;
+    private static final int FLAG_HEATING_START_TIME = 1 << 2;
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_FALSE = 1;
+    private static final int TAG_TRUE = 2;
+    private static final int TAG_LONG = 3;
+    private static final int TAG_DOUBLE = 4;
+    private static final int TAG_STRING = 5;
+    private static final int TAG_BYTES = 6;
+    private static final int TAG_ARRAY = 7;
+    private static final int TAG_OBJECT = 8;
+
+    private static final String BASE64_SUFFIX = "_base64";
+
+    private CauldronBinaryFormat() { }
+
+    /**
+     * Write the given serialized cauldrons to the given channel.
+     *
+     * @param channel the channel to which the cauldrons should be written
+     * @param records the serialized cauldrons to write
+     *
+     * @throws IOException if the cauldrons could not be written, or if a cauldron is malformed
+     */
+    static void write(@NotNull WritableByteChannel channel, @NotNull JsonArray records) throws IOException {
+        Map<@NotNull String, @NotNull Integer> strings = new LinkedHashMap<>();
+        Map<@NotNull String, @NotNull Integer> worlds = new LinkedHashMap<>();
+
+        // First pass, collect the tables which must precede the records
+        for (JsonElement element : records) {
+            JsonObject record = asObject(element);
+            worlds.putIfAbsent(getString(record, "world"), worlds.size());
+
+            JsonArray ingredients = record.getAsJsonArray("ingredients");
+            if (ingredients == null) {
+                continue;
+            }
+
+            for (JsonElement ingredient : ingredients) {
+                collectStrings(strings, asObject(ingredient));
+            }
+        }
+
+        Output output = new Output(channel);
+        output.writeInt(MAGIC);
+        output.writeVarInt(VERSION);
+
+        output.writeVarInt(strings.size());
+        for (String string : strings.keySet()) {
+            output.writeString(string);
+        }
+
+        output.writeVarInt(worlds.size());
+        for (String world : worlds.keySet()) {
+            UUID worldUUID;
+            try {
+                worldUUID = UUID.fromString(world);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Malformed world UUID " + world, e);
+            }
+
+            output.writeLong(worldUUID.getMostSignificantBits());
+            output.writeLong(worldUUID.getLeastSignificantBits());
+        }
+
+        output.writeVarInt(records.size());
+
+        int previousX = 0, previousZ = 0;
+        for (JsonElement element : records) {
+            JsonObject record = element.getAsJsonObject();
+            JsonObject cauldronBlockObject = record.getAsJsonObject("cauldron");
+            if (cauldronBlockObject == null) {
+                throw new IOException("Cauldron without a position");
+            }
+
+            int x = getInt(cauldronBlockObject, "x"), y = getInt(cauldronBlockObject, "y"), z = getInt(cauldronBlockObject, "z");
+
+            output.writeVarInt(worlds.get(getString(record, "world")));
+            output.writeSignedVarInt(x - previousX);
+            output.writeSignedVarInt(y);
+            output.writeSignedVarInt(z - previousZ);
+            previousX = x;
+            previousZ = z;
+
+            long heatingStartTime = record.has("heatingStartTime") ? record.get("heatingStartTime").getAsLong() : -1;
+            int flags = 0;
+            if (record.has("heatingUp") && record.get("heatingUp").getAsBoolean()) {
+                flags |= FLAG_HEATING_UP;
+            }
+            if (record.has("bubbling") && record.get("bubbling").getAsBoolean()) {
+                flags |= FLAG_BUBBLING;
+            }
+            if (heatingStartTime != -1) {
+                flags |= FLAG_HEATING_START_TIME;
+            }
+
+            output.writeByte(flags);
+            if (heatingStartTime != -1) {
+                output.writeVarLong(heatingStartTime);
+            }
+
+            JsonArray ingredients = record.getAsJsonArray("ingredients");
+            if (ingredients == null) {
+                output.writeVarInt(0);
+                continue;
+            }
+
+            output.writeVarInt(ingredients.size());
+            for (JsonElement ingredientElement : ingredients) {
+                JsonObject ingredient = ingredientElement.getAsJsonObject();
+                output.writeVarInt(strings.get(getString(ingredient, "type")));
+                output.writeVarInt(ingredient.size() - 1);
+
+                for (Map.Entry<String, JsonElement> property : ingredient.entrySet()) {
+                    if (property.getKey().equals("type")) {
+                        continue;
+                    }
+
+                    output.writeVarInt(strings.get(property.getKey()));
+                    writeValue(output, strings, property.getKey(), property.getValue());
+                }
+            }
+        }
+
+        output.flush();
+    }
+
+    /**
+     * Read serialized cauldrons from the given channel and pass each of them to the given
+     * consumer as it is read.
+     * <p>
+     * Every length and count read from the stream is checked against the amount of bytes left
+     * in it before anything is allocated for it, such that a corrupt stream is rejected rather
+     * than exhausting memory.
+     *
+     * @param channel the channel from which to read
+     * @param length the length of the stream in bytes
+     * @param consumer the consumer to which serialized cauldrons should be passed
+     *
+     * @throws IOException if the cauldrons could not be read, or if the stream is malformed or
+     * of an unsupported version
+     */
+    static void read(@NotNull ReadableByteChannel channel, long length, @NotNull Consumer<@NotNull JsonObject> consumer) throws IOException {
+        Input input = new Input(channel, length);
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not a cauldron stream");
+        }
+
+        int version = input.readVarInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported cauldron stream version " + version + " (expected " + VERSION + ")");
+        }
+
+        String[] strings = new String[input.readLength()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = input.readString();
+        }
+
+        JsonPrimitive[] worlds = new JsonPrimitive[input.readLength()];
+        for (int i = 0; i < worlds.length; i++) {
+            worlds[i] = new JsonPrimitive(new UUID(input.readLong(), input.readLong()).toString());
+        }
+
+        int count = input.readLength();
+        int previousX = 0, previousZ = 0;
+        for (int i = 0; i < count; i++) {
+            JsonObject record = new JsonObject();
+            JsonPrimitive world = lookup(worlds, input.readVarInt());
+
+            int x = previousX + input.readSignedVarInt();
+            int y = input.readSignedVarInt();
+            int z = previousZ + input.readSignedVarInt();
+            previousX = x;
+            previousZ = z;
+
+            int flags = input.readByte();
+            record.addProperty("heatingStartTime", (flags & FLAG_HEATING_START_TIME) != 0 ? input.readVarLong() : -1L);
+            record.addProperty("heatingUp", (flags & FLAG_HEATING_UP) != 0);
+            record.addProperty("bubbling", (flags & FLAG_BUBBLING) != 0);
+            record.add("world", world);
+
+            JsonObject cauldronBlockObject = new JsonObject();
+            cauldronBlockObject.addProperty("x", x);
+            cauldronBlockObject.addProperty("y", y);
+            cauldronBlockObject.addProperty("z", z);
+            record.add("cauldron", cauldronBlockObject);
+
+            int ingredientCount = input.readLength();
+            if (ingredientCount > 0) {
+                JsonArray ingredients = new JsonArray(ingredientCount);
+                for (int j = 0; j < ingredientCount; j++) {
+                    String type = lookup(strings, input.readVarInt());
+                    JsonObject ingredient = readObject(input, strings);
+                    ingredient.addProperty("type", type);
+                    ingredients.add(ingredient);
+                }
+
+                record.add("ingredients", ingredients);
+            }
+
+            consumer.accept(record);
+        }
+    }
+
+    /**
+     * Encode the given serialized cauldrons to a byte array.
+     *
+     * @param records the serialized cauldrons to encode
+     *
+     * @return the encoded bytes
+     *
+     * @throws IOException if a cauldron is malformed
+     */
+    @NotNull
+    static byte[] toByteArray(@NotNull JsonArray records) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        write(Channels.newChannel(output), records);
+        return output.toByteArray();
+    }
+
+    /**
+     * Decode serialized cauldrons from the given byte array.
+     *
+     * @param bytes the bytes to decode
+     * @param consumer the consumer to which serialized cauldrons should be passed
+     *
+     * @throws IOException if the bytes are malformed
+     */
+    static void fromByteArray(@NotNull byte[] bytes, @NotNull Consumer<@NotNull JsonObject> consumer) throws IOException {
+        read(Channels.newChannel(new ByteArrayInputStream(bytes)), bytes.length, consumer);
+    }
+
+    private static void collectStrings(@NotNull Map<@NotNull String, @NotNull Integer> strings, @NotNull JsonObject object) throws IOException {
+        for (Map.Entry<String, JsonElement> property : object.entrySet()) {
+            strings.putIfAbsent(property.getKey(), strings.size());
+            collectStrings(strings, property.getKey(), property.getValue());
+        }
+    }
+
+    private static void collectStrings(@NotNull Map<@NotNull String, @NotNull Integer> strings, @NotNull String name, @NotNull JsonElement value) throws IOException {
+        if (value.isJsonObject()) {
+            collectStrings(strings, value.getAsJsonObject());
+        }
+        else if (value.isJsonArray()) {
+            for (JsonElement element : value.getAsJsonArray()) {
+                collectStrings(strings, name, element);
+            }
+        }
+        else if (value.isJsonPrimitive() && value.getAsJsonPrimitive().isString() && decodeBase64(name, value.getAsString()) == null) {
+            strings.putIfAbsent(value.getAsString(), strings.size());
+        }
+    }
+
+    private static void writeValue(@NotNull Output output, @NotNull Map<@NotNull String, @NotNull Integer> strings, @NotNull String name, @NotNull JsonElement value) throws IOException {
+        if (value.isJsonNull()) {
+            output.writeByte(TAG_NULL);
+        }
+        else if (value.isJsonObject()) {
+            JsonObject object = value.getAsJsonObject();
+            output.writeByte(TAG_OBJECT);
+            output.writeVarInt(object.size());
+
+            for (Map.Entry<String, JsonElement> property : object.entrySet()) {
+                output.writeVarInt(strings.get(property.getKey()));
+                writeValue(output, strings, property.getKey(), property.getValue());
+            }
+        }
+        else if (value.isJsonArray()) {
+            JsonArray array = value.getAsJsonArray();
+            output.writeByte(TAG_ARRAY);
+            output.writeVarInt(array.size());
+
+            for (JsonElement element : array) {
+                writeValue(output, strings, name, element);
+            }
+        }
+        else {
+            JsonPrimitive primitive = value.getAsJsonPrimitive();
+            if (primitive.isBoolean()) {
+                output.writeByte(primitive.getAsBoolean() ? TAG_TRUE : TAG_FALSE);
+            }
+            else if (primitive.isNumber()) {
+                try {
+                    long number = Long.parseLong(primitive.getAsString());
+                    output.writeByte(TAG_LONG);
+                    output.writeVarLong((number << 1) ^ (number >> 63));
+                } catch (NumberFormatException e) {
+                    output.writeByte(TAG_DOUBLE);
+                    output.writeLong(Double.doubleToRawLongBits(primitive.getAsDouble()));
+                }
+            }
+            else {
+                byte[] bytes = decodeBase64(name, primitive.getAsString());
+                if (bytes != null) {
+                    output.writeByte(TAG_BYTES);
+                    output.writeBytes(bytes);
+                } else {
+                    output.writeByte(TAG_STRING);
+                    output.writeVarInt(strings.get(primitive.getAsString()));
+                }
+            }
+        }
+    }
+
+    @NotNull
+    private static JsonObject readObject(@NotNull Input input, @NotNull String[] strings) throws IOException {
+        JsonObject object = new JsonObject();
+
+        int size = input.readLength();
+        for (int i = 0; i < size; i++) {
+            object.add(lookup(strings, input.readVarInt()), readValue(input, strings));
+        }
+
+        return object;
+    }
+
+    @NotNull
+    private static JsonElement readValue(@NotNull Input input, @NotNull String[] strings) throws IOException {
+        int tag = input.readByte();
+
+        return switch (tag) {
+            case TAG_NULL -> JsonNull.INSTANCE;
+            case TAG_FALSE -> new JsonPrimitive(false);
+            case TAG_TRUE -> new JsonPrimitive(true);
+            case TAG_LONG -> {
+                long number = input.readVarLong();
+                yield new JsonPrimitive((number >>> 1) ^ -(number & 1));
+            }
+            case TAG_DOUBLE -> new JsonPrimitive(Double.longBitsToDouble(input.readLong()));
+            case TAG_STRING -> new JsonPrimitive(lookup(strings, input.readVarInt()));
+            case TAG_BYTES -> new JsonPrimitive(Base64.getEncoder().encodeToString(input.readBytes()));
+            case TAG_ARRAY -> {
+                int size = input.readLength();
+                JsonArray array = new JsonArray(size);
+                for (int i = 0; i < size; i++) {
+                    array.add(readValue(input, strings));
+                }
+
+                yield array;
+            }
+            case TAG_OBJECT -> readObject(input, strings);
+            default -> throw new IOException("Unknown value tag " + tag);
+        };
+    }
+
+    @NotNull
+    private static JsonObject asObject(@NotNull JsonElement element) throws IOException {
+        if (!element.isJsonObject()) {
+            throw new IOException("Expected an object, got " + element);
+        }
+
+        return element.getAsJsonObject();
+    }
+
+    @NotNull
+    private static String getString(@NotNull JsonObject object, @NotNull String property) throws IOException {
+        JsonElement element = object.get(property);
+        if (element == null || !element.isJsonPrimitive()) {
+            throw new IOException("Missing string property \"" + property + "\"");
+        }
+
+        return element.getAsString();
+    }
+
+    private static int getInt(@NotNull JsonObject object, @NotNull String property) throws IOException {
+        JsonElement element = object.get(property);
+        if (element == null || !element.isJsonPrimitive() || !element.getAsJsonPrimitive().isNumber()) {
+            throw new IOException("Missing integer property \"" + property + "\"");
+        }
+
+        return element.getAsInt();
+    }
+
+    @Nullable
+    private static byte[] decodeBase64(@NotNull String name, @NotNull String value) {
+        if (!name.endsWith(BASE64_SUFFIX)) {
+            return null;
+        }
+
+        try {
+            byte[] bytes = Base64.getDecoder().decode(value);
+
+            // Only encode as raw bytes if the value is canonical such that it survives a round trip
+            return Base64.getEncoder().encodeToString(bytes).equals(value) ? bytes : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @NotNull
+    private static <T> T lookup(@NotNull T[] table, int index) throws IOException {
+        if (index < 0 || index >= table.length) {
+            throw new IOException("Table index " + index + " out of bounds (" + table.length + ")");
+        }
+
+        return table[index];
+    }
+
+    private static final class Output {
+
+        private final WritableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+        private Output(@NotNull WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        private void writeByte(int value) throws IOException {
+            this.ensureCapacity(1);
+            this.buffer.put((byte) value);
+        }
+
+        private void writeInt(int value) throws IOException {
+            this.ensureCapacity(Integer.BYTES);
+            this.buffer.putInt(value);
+        }
+
+        private void writeLong(long value) throws IOException {
+            this.ensureCapacity(Long.BYTES);
+            this.buffer.putLong(value);
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            this.writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        private void writeSignedVarInt(int value) throws IOException {
+            this.writeVarInt((value << 1) ^ (value >> 31));
+        }
+
+        private void writeVarLong(long value) throws IOException {
+            this.ensureCapacity(10);
+
+            while ((value & ~0x7FL) != 0) {
+                this.buffer.put((byte) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+
+            this.buffer.put((byte) value);
+        }
+
+        private void writeBytes(@NotNull byte[] bytes) throws IOException {
+            this.writeVarInt(bytes.length);
+
+            int offset = 0;
+            while (offset < bytes.length) {
+                if (!buffer.hasRemaining()) {
+                    this.flush();
+                }
+
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                this.buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        private void writeString(@NotNull String value) throws IOException {
+            this.writeBytes(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void ensureCapacity(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                this.flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            this.buffer.flip();
+            while (buffer.hasRemaining()) {
+                this.channel.write(buffer);
+            }
+
+            this.buffer.clear();
+        }
+
+    }
+
+    private static final class Input {
+
+        private final ReadableByteChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).flip();
+        private long unread; // Bytes of the stream not yet read into the buffer
+
+        private Input(@NotNull ReadableByteChannel channel, long length) {
+            this.channel = channel;
+            this.unread = length;
+        }
+
+        private int readByte() throws IOException {
+            this.require(1);
+            return buffer.get() & 0xFF;
+        }
+
+        private int readInt() throws IOException {
+            this.require(Integer.BYTES);
+            return buffer.getInt();
+        }
+
+        private long readLong() throws IOException {
+            this.require(Long.BYTES);
+            return buffer.getLong();
+        }
+
+        private int readVarInt() throws IOException {
+            long value = readVarLong();
+            if ((value >>> 32) != 0) {
+                throw new IOException("Variable length integer too large");
+            }
+
+            return (int) value;
+        }
+
+        private int readSignedVarInt() throws IOException {
+            int value = readVarInt();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        // Every element of a length takes up at least one byte, so none may exceed the bytes remaining
+        private int readLength() throws IOException {
+            int length = readVarInt();
+            if (length < 0) {
+                throw new IOException("Negative length " + length);
+            }
+
+            long remaining = unread + buffer.remaining();
+            if (length > remaining) {
+                throw new IOException("Length " + length + " exceeds the " + remaining + " remaining bytes");
+            }
+
+            return length;
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < Long.SIZE; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+
+            throw new IOException("Variable length integer too long");
+        }
+
+        @NotNull
+        private byte[] readBytes() throws IOException {
+            byte[] bytes = new byte[readLength()];
+
+            int offset = 0;
+            while (offset < bytes.length) {
+                if (!buffer.hasRemaining()) {
+                    this.require(1);
+                }
+
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                this.buffer.get(bytes, offset, length);
+                offset += length;
+            }
+
+            return bytes;
+        }
+
+        @NotNull
+        private String readString() throws IOException {
+            return new String(readBytes(), StandardCharsets.UTF_8);
+        }
+
+        private void require(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+
+            this.buffer.compact();
+            try {
+                while (buffer.position() < bytes) {
+                    int read = channel.read(buffer);
+                    if (read < 0) {
+                        throw new EOFException("Unexpected end of cauldron stream");
+                    }
+
+                    this.unread -= read;
+                }
+            } finally {
+                this.buffer.flip();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,362 @@
+package wtf.choco.alchema.persistence;
+
+import com.google.common.base.Preconditions;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import wtf.choco.alchema.Alchema;
+import wtf.choco.alchema.cauldron.AlchemicalCauldron;
+import wtf.choco.alchema.cauldron.CauldronManager;
+import wtf.choco.alchema.util.BlockPositionUtil;
+import wtf.choco.alchema.util.LongObjectHashMap;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Level;
+
+/**
+ * A storage persisting {@link AlchemicalCauldron AlchemicalCauldrons} in the
+ * {@link PersistentDataContainer} of the chunk in which they reside.
+ * <p>
+ * Cauldrons are read from their chunk when it loads and written back to it in the
+ * {@link CauldronBinaryFormat binary format} when it unloads, such that they are saved to disk
+ * by the server alongside the chunk itself. No files are written by this storage and there is
+ * nothing to recover on startup. Only chunks whose cauldrons have changed are written, either
+ * when they unload or when {@link #save() saving}.
+ * <p>
+ * This storage is not thread-safe and must only be used from the main thread.
+ *
+ * @author Parker Hawke - Choco
+ */
+public final class CauldronChunkStorage implements CauldronStorage {
+
+    private final Map<@NotNull UUID, @NotNull LongObjectHashMap<@NotNull ChunkState>> worlds = new HashMap<>();
+
+    private final Alchema plugin;
+    private final NamespacedKey key;
+
+    /**
+     * Construct a new {@link CauldronChunkStorage}.
+     *
+     * @param plugin the plugin instance
+     */
+    public CauldronChunkStorage(@NotNull Alchema plugin) {
+        Preconditions.checkArgument(plugin != null, "plugin must not be null");
+
+        this.plugin = plugin;
+        this.key = new NamespacedKey(plugin, "cauldrons");
+    }
+
+    /**
+     * Does nothing. Cauldrons are saved with their chunk, so no state is left behind by the
+     * last shutdown.
+     */
+    @Override
+    public void recover() { }
+
+    /**
+     * Load all cauldrons stored in the given chunk.
+     *
+     * @param chunk the chunk to load
+     */
+    @Override
+    public void loadChunk(@NotNull Chunk chunk) {
+        Preconditions.checkArgument(chunk != null, "chunk must not be null");
+
+        PersistentDataContainer container = chunk.getPersistentDataContainer();
+        if (!container.has(key)) {
+            return;
+        }
+
+        World world = chunk.getWorld();
+        List<@NotNull JsonObject> records = new ArrayList<>();
+
+        try {
+            byte[] cauldronData = container.get(key, PersistentDataType.BYTE_ARRAY);
+            if (cauldronData == null) {
+                throw new IOException("Cauldrons are not stored as a byte array");
+            }
+
+            CauldronBinaryFormat.fromByteArray(cauldronData, records::add);
+        } catch (IOException | IllegalArgumentException e) {
+            // Never overwrite cauldrons that could not be read
+            this.plugin.getLogger().severe("Could not read cauldrons in chunk (" + chunk.getX() + ", " + chunk.getZ() + ") of world \"" + world.getName() + "\". Changes to cauldrons in this chunk will not be saved");
+            this.getOrCreateState(world.getUID(), chunk.getX(), chunk.getZ()).writable = false;
+            return;
+        }
+
+        // Retain records that failed to load so they are not lost. They will be attempted again when the chunk next loads
+        List<@NotNull JsonObject> failedRecords = new ArrayList<>();
+        boolean discarded = CauldronRecords.load(plugin, world, records, failedRecords);
+
+        if (discarded || !failedRecords.isEmpty()) {
+            ChunkState state = getOrCreateState(world.getUID(), chunk.getX(), chunk.getZ());
+            state.dirty |= discarded;
+            state.failedRecords = failedRecords.isEmpty() ? null : failedRecords;
+        }
+    }
+
+    /**
+     * Write the given chunk's cauldrons to it if they have changed and unload them.
+     *
+     * @param chunk the chunk to unload
+     */
+    @Override
+    public void unloadChunk(@NotNull Chunk chunk) {
+        Preconditions.checkArgument(chunk != null, "chunk must not be null");
+
+        World world = chunk.getWorld();
+        int chunkX = chunk.getX(), chunkZ = chunk.getZ();
+
+        LongObjectHashMap<@NotNull ChunkState> chunks = worlds.get(world.getUID());
+        if (chunks != null) {
+            ChunkState state = chunks.remove(BlockPositionUtil.packChunk(chunkX, chunkZ));
+            if (state != null && state.dirty) {
+                this.write(chunk, state);
+            }
+
+            if (chunks.isEmpty()) {
+                this.worlds.remove(world.getUID());
+            }
+        }
+
+        this.plugin.getCauldronManager().unloadCauldrons(world, chunkX, chunkZ);
+    }
+
+    /**
+     * Load the cauldrons in all loaded chunks of the given world.
+     *
+     * @param world the world to load
+     */
+    @Override
+    public void loadWorld(@NotNull World world) {
+        Preconditions.checkArgument(world != null, "world must not be null");
+
+        for (Chunk chunk : world.getLoadedChunks()) {
+            this.loadChunk(chunk);
+        }
+    }
+
+    /**
+     * Write all changed cauldrons in the given world to their chunks and unload them.
+     *
+     * @param world the world to unload
+     */
+    @Override
+    public void unloadWorld(@NotNull World world) {
+        Preconditions.checkArgument(world != null, "world must not be null");
+
+        LongObjectHashMap<@NotNull ChunkState> chunks = worlds.remove(world.getUID());
+        if (chunks != null) {
+            this.save(world, chunks);
+        }
+
+        this.plugin.getCauldronManager().unloadCauldrons(world);
+    }
+
+    /**
+     * Write the cauldrons of all changed chunks to their chunks. The chunks themselves are
+     * written to disk by the server when it next saves them.
+     */
+    @Override
+    public void save() {
+        for (Map.Entry<@NotNull UUID, @NotNull LongObjectHashMap<@NotNull ChunkState>> entry : worlds.entrySet()) {
+            World world = Bukkit.getWorld(entry.getKey());
+            if (world != null) {
+                this.save(world, entry.getValue());
+            }
+        }
+
+        // Only chunks that still have to be written or that hold unreadable cauldrons are worth tracking
+        this.worlds.values().removeIf(chunks -> {
+            List<@NotNull ChunkState> clean = new ArrayList<>();
+            for (ChunkState state : chunks.values()) {
+                if (!state.dirty && state.writable && state.failedRecords == null) {
+                    clean.add(state);
+                }
+            }
+
+            clean.forEach(state -> chunks.remove(BlockPositionUtil.packChunk(state.chunkX, state.chunkZ)));
+            return chunks.isEmpty();
+        });
+    }
+
+    /**
+     * Write the cauldrons of all changed chunks to their chunks.
+     */
+    @Override
+    public void close() {
+        this.save();
+        this.worlds.clear();
+    }
+
+    /**
+     * Import the given serialized cauldrons into the chunks in which they reside. Affected
+     * chunks are loaded if necessary and their cauldrons are loaded into the
+     * {@link CauldronManager}. Cauldrons already present in the cauldron manager take
+     * precedence over imported cauldrons at the same position.
+     * <p>
+     * This is intended to migrate cauldrons from another {@link CauldronStorage}, and must only
+     * be called once this storage is listening for cauldron changes.
+     *
+     * @param world the world in which the cauldrons reside
+     * @param records the serialized cauldrons to import
+     *
+     * @return the amount of imported cauldrons that were loaded and written to their chunk
+     *
+     * @throws IOException if a record does not specify its position
+     */
+    public int importCauldrons(@NotNull World world, @NotNull List<@NotNull JsonObject> records) throws IOException {
+        Preconditions.checkArgument(world != null, "world must not be null");
+        Preconditions.checkArgument(records != null, "records must not be null");
+
+        LongObjectHashMap<@NotNull List<@NotNull JsonObject>> chunks = new LongObjectHashMap<>();
+        for (JsonObject record : records) {
+            long position;
+            try {
+                position = CauldronRecords.getPosition(record);
+            } catch (JsonParseException e) {
+                throw new IOException("Cauldron without a position in world \"" + world.getName() + "\"", e);
+            }
+
+            long chunkKey = BlockPositionUtil.packChunk(BlockPositionUtil.unpackX(position) >> 4, BlockPositionUtil.unpackZ(position) >> 4);
+            List<@NotNull JsonObject> chunkRecords = chunks.get(chunkKey);
+            if (chunkRecords == null) {
+                chunkRecords = new ArrayList<>(2);
+                chunks.put(chunkKey, chunkRecords);
+            }
+
+            chunkRecords.add(record);
+        }
+
+        int imported = 0;
+        for (List<@NotNull JsonObject> chunkRecords : chunks.values()) {
+            long position = CauldronRecords.getPosition(chunkRecords.get(0));
+            Chunk chunk = world.getChunkAt(BlockPositionUtil.unpackX(position) >> 4, BlockPositionUtil.unpackZ(position) >> 4);
+
+            ChunkState state = getOrCreateState(world.getUID(), chunk.getX(), chunk.getZ());
+            if (!state.writable) {
+                this.plugin.getLogger().warning("Could not import cauldrons into chunk (" + chunk.getX() + ", " + chunk.getZ() + ") of world \"" + world.getName() + "\", its existing cauldrons could not be read");
+                continue;
+            }
+
+            // Only count cauldrons actually loaded, not those skipped, discarded or that failed to load
+            Collection<@NotNull AlchemicalCauldron> cauldrons = plugin.getCauldronManager().getCauldronsInChunk(chunk);
+            int previousCount = cauldrons.size();
+
+            List<@NotNull JsonObject> failedRecords = (state.failedRecords != null) ? state.failedRecords : new ArrayList<>();
+            CauldronRecords.load(plugin, world, chunkRecords, failedRecords);
+            state.failedRecords = failedRecords.isEmpty() ? null : failedRecords;
+
+            this.write(chunk, state);
+            if (!state.dirty) {
+                imported += cauldrons.size() - previousCount;
+            }
+        }
+
+        return imported;
+    }
+
+    @Override
+    public void onCauldronAdd(@NotNull AlchemicalCauldron cauldron) {
+        this.markDirty(cauldron);
+    }
+
+    @Override
+    public void onCauldronRemove(@NotNull AlchemicalCauldron cauldron) {
+        this.markDirty(cauldron);
+    }
+
+    @Override
+    public void onIngredientsChange(@NotNull AlchemicalCauldron cauldron) {
+        this.markDirty(cauldron);
+    }
+
+    @Override
+    public void onHeatStateChange(@NotNull AlchemicalCauldron cauldron) {
+        this.markDirty(cauldron);
+    }
+
+    private void markDirty(@NotNull AlchemicalCauldron cauldron) {
+        this.getOrCreateState(cauldron.getWorld().getUID(), cauldron.getX() >> 4, cauldron.getZ() >> 4).dirty = true;
+    }
+
+    private void save(@NotNull World world, @NotNull LongObjectHashMap<@NotNull ChunkState> chunks) {
+        for (ChunkState state : chunks.values()) {
+            if (state.dirty && world.isChunkLoaded(state.chunkX, state.chunkZ)) {
+                this.write(world.getChunkAt(state.chunkX, state.chunkZ), state);
+            }
+        }
+    }
+
+    private void write(@NotNull Chunk chunk, @NotNull ChunkState state) {
+        if (!state.writable) {
+            return;
+        }
+
+        JsonArray records = new JsonArray();
+        this.plugin.getCauldronManager().getCauldronsInChunk(chunk).forEach(cauldron -> records.add(cauldron.write(new JsonObject())));
+        if (state.failedRecords != null) {
+            state.failedRecords.forEach(records::add);
+        }
+
+        PersistentDataContainer container = chunk.getPersistentDataContainer();
+        if (records.isEmpty()) {
+            container.remove(key);
+            state.dirty = false;
+            return;
+        }
+
+        try {
+            container.set(key, PersistentDataType.BYTE_ARRAY, CauldronBinaryFormat.toByteArray(records));
+            state.dirty = false;
+        } catch (IOException e) {
+            this.plugin.getLogger().log(Level.SEVERE, "Could not write cauldrons in chunk (" + chunk.getX() + ", " + chunk.getZ() + ") of world \"" + chunk.getWorld().getName() + "\"", e);
+        }
+    }
+
+    @NotNull
+    private ChunkState getOrCreateState(@NotNull UUID worldUUID, int chunkX, int chunkZ) {
+        LongObjectHashMap<@NotNull ChunkState> chunks = worlds.computeIfAbsent(worldUUID, uuid -> new LongObjectHashMap<>());
+        long chunkKey = BlockPositionUtil.packChunk(chunkX, chunkZ);
+
+        ChunkState state = chunks.get(chunkKey);
+        if (state == null) {
+            state = new ChunkState(chunkX, chunkZ);
+            chunks.put(chunkKey, state);
+        }
+
+        return state;
+    }
+
+    private static final class ChunkState {
+
+        private final int chunkX, chunkZ;
+
+        @Nullable
+        private List<@NotNull JsonObject> failedRecords;
+
+        private boolean dirty = false;
+        private boolean writable = true;
+
+        private ChunkState(int chunkX, int chunkZ) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+    }
+
+}
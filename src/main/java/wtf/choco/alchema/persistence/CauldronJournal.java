@@ -0,0 +1,470 @@
+package wtf.choco.alchema.persistence;
+
+import com.google.common.base.Preconditions;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import wtf.choco.alchema.cauldron.AlchemicalCauldron;
+import wtf.choco.alchema.cauldron.CauldronChangeListener;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * An append-only journal of changes made to {@link AlchemicalCauldron AlchemicalCauldrons},
+ * periodically compacted into snapshot files.
+ * <p>
+ * Each change (a cauldron being added or removed, or a change to its ingredients or heat
+ * state) is appended to the journal as a single line of JSON. Changes are written to disk in
+ * batches by a dedicated writer thread, so at most the last unwritten batch is lost in the
+ * event of a crash. Most changes are serialized on the thread making them, but changed
+ * ingredients are captured as a {@link CauldronSnapshot} and serialized by the writer thread.
+ * Upon {@link #compact(Map) compaction}, the snapshot files holding the changed cauldrons are
+ * written and the journal is truncated.
+ * <p>
+ * On startup, {@link #recover()} must be called before {@link #start()} in order to replay
+ * the journal on top of the last snapshots.
+ *
+ * @author Parker Hawke - Choco
+ */
+public final class CauldronJournal implements CauldronChangeListener {
+
+    private static final Gson GSON = new Gson();
+
+    private static final String OP_ADD = "add";
+    private static final String OP_REMOVE = "remove";
+    private static final String OP_INGREDIENTS = "ingredients";
+    private static final String OP_HEAT = "heat";
+
+    private static final int MAX_BATCH_SIZE = 1024;
+    private static final Object CLOSE = new Object();
+
+    private final BlockingQueue<@NotNull Object> queue = new LinkedBlockingQueue<>();
+
+    private volatile Thread writerThread;
+    private long recoveredLength = -1;
+
+    private FileOutputStream journalOutput;
+    private Writer journalWriter;
+
+    private final File journalFile;
+    private final Logger logger;
+
+    /**
+     * Construct a new {@link CauldronJournal}.
+     *
+     * @param journalFile the file to which changes are appended
+     * @param logger the logger to which write failures are reported
+     */
+    public CauldronJournal(@NotNull File journalFile, @NotNull Logger logger) {
+        Preconditions.checkArgument(journalFile != null, "journalFile must not be null");
+        Preconditions.checkArgument(logger != null, "logger must not be null");
+
+        this.journalFile = journalFile;
+        this.logger = logger;
+    }
+
+    /**
+     * Read all entries from the journal in the order in which they were written. If the
+     * journal ends with an incomplete entry (such as one that was being written during a
+     * crash), the remainder of the journal is discarded.
+     * <p>
+     * Entries should be applied with {@link #apply(Map, JsonObject)} on top of the last
+     * snapshots. This must be invoked before {@link #start()}.
+     *
+     * @return the journaled entries
+     *
+     * @throws IOException if the journal could not be read
+     */
+    @NotNull
+    public List<@NotNull JsonObject> recover() throws IOException {
+        Preconditions.checkState(writerThread == null, "Cannot recover a journal that has already been started");
+
+        List<@NotNull JsonObject> entries = new ArrayList<>();
+        if (!journalFile.exists()) {
+            return entries;
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(journalFile.toPath(), StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            long validLength = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+
+                if (!line.isBlank()) {
+                    try {
+                        JsonObject entry = JsonParser.parseString(line).getAsJsonObject();
+                        getKey(entry); // Validate that the entry identifies a cauldron
+                        entries.add(entry);
+                    } catch (JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+                        // Cut the incomplete entry off when started, otherwise new entries would be appended after it
+                        this.logger.warning("Discarding incomplete cauldron journal from line " + lineNumber + " onward");
+                        this.recoveredLength = validLength;
+                        break;
+                    }
+                }
+
+                validLength += line.getBytes(StandardCharsets.UTF_8).length + 1;
+            }
+        }
+
+        return entries;
+    }
+
+    /**
+     * Delete the journal file. This may be used once all recovered entries have been written
+     * to their snapshots and must be invoked before {@link #start()}.
+     *
+     * @throws IOException if the journal could not be deleted
+     */
+    public void discard() throws IOException {
+        Preconditions.checkState(writerThread == null, "Cannot discard a journal that has already been started");
+
+        Files.deleteIfExists(journalFile.toPath());
+        this.recoveredLength = -1;
+    }
+
+    /**
+     * Start the writer thread. Changes recorded before the journal was started are written
+     * once it has started.
+     *
+     * @throws IOException if the journal file could not be opened
+     */
+    public synchronized void start() throws IOException {
+        Preconditions.checkState(writerThread == null, "Journal has already been started");
+
+        File parent = journalFile.getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+
+        this.journalOutput = new FileOutputStream(journalFile, true);
+        if (recoveredLength >= 0) {
+            this.journalOutput.getChannel().truncate(recoveredLength);
+        }
+
+        this.journalWriter = new BufferedWriter(new OutputStreamWriter(journalOutput, StandardCharsets.UTF_8));
+
+        Thread thread = new Thread(this::run, "Alchema Cauldron Journal");
+        thread.setDaemon(true);
+        thread.start();
+        this.writerThread = thread;
+    }
+
+    /**
+     * Compact the journal by writing the given snapshot files, after which the journal is
+     * truncated. Snapshots are written by the writer thread once all previously journaled
+     * changes have been written. The given snapshots must therefore reflect every change
+     * journaled so far.
+     * <p>
+     * The journal must have been {@link #start() started}, otherwise compacting before recovery
+     * has completed could overwrite snapshots with partial state.
+     *
+     * @param snapshots the snapshots to write, keyed by the file to which they are written.
+     * Empty snapshots delete their file. Snapshots are serialized by the writer thread
+     *
+     * @return a future completed with the time in nanoseconds taken to serialize and write
+     * all snapshots once they have been written, or completed exceptionally if any snapshot
+     * could not be written
+     */
+    @NotNull
+    CompletableFuture<@NotNull Long> compact(@NotNull Map<@NotNull File, @NotNull ShardSnapshot> snapshots) {
+        Preconditions.checkArgument(snapshots != null, "snapshots must not be null");
+        Preconditions.checkState(writerThread != null, "Cannot compact a journal that has not been started");
+
+        Compaction compaction = new Compaction(snapshots);
+        this.queue.add(compaction);
+        return compaction.future;
+    }
+
+    /**
+     * Check whether or not this journal has been started.
+     *
+     * @return true if started, false otherwise
+     */
+    public boolean isStarted() {
+        return writerThread != null;
+    }
+
+    /**
+     * Close this journal, waiting for all pending changes to be written.
+     */
+    public void close() {
+        Thread thread = writerThread;
+        if (thread == null) {
+            return;
+        }
+
+        this.queue.add(CLOSE);
+
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void onCauldronAdd(@NotNull AlchemicalCauldron cauldron) {
+        JsonObject entry = new JsonObject();
+        entry.addProperty("op", OP_ADD);
+        this.append(cauldron.write(entry));
+    }
+
+    @Override
+    public void onCauldronRemove(@NotNull AlchemicalCauldron cauldron) {
+        this.append(createEntry(OP_REMOVE, cauldron));
+    }
+
+    @Override
+    public void onIngredientsChange(@NotNull AlchemicalCauldron cauldron) {
+        // Serializing every ingredient on each change is left to the writer thread
+        this.queue.add(CauldronSnapshot.of(cauldron));
+    }
+
+    @Override
+    public void onHeatStateChange(@NotNull AlchemicalCauldron cauldron) {
+        JsonObject entry = createEntry(OP_HEAT, cauldron);
+        entry.addProperty("heatingStartTime", cauldron.getHeatingStartTime());
+        entry.addProperty("heatingUp", cauldron.isHeatingUp());
+        entry.addProperty("bubbling", cauldron.isBubbling());
+        this.append(entry);
+    }
+
+    private void append(@NotNull JsonObject entry) {
+        this.queue.add(GSON.toJson(entry));
+    }
+
+    /**
+     * Apply a journaled entry to the serialized cauldrons it affects.
+     *
+     * @param cauldrons the serialized cauldrons, keyed by {@link #getKey(JsonObject)}
+     * @param entry the entry to apply
+     *
+     * @throws JsonParseException if the entry is malformed
+     */
+    static void apply(@NotNull Map<@NotNull String, @NotNull JsonObject> cauldrons, @NotNull JsonObject entry) {
+        JsonElement opElement = entry.get("op");
+        if (opElement == null) {
+            throw new JsonParseException("Journal entry is missing an op");
+        }
+
+        String op = opElement.getAsString();
+        String key = getKey(entry);
+
+        if (op.equals(OP_ADD)) {
+            entry.remove("op");
+            cauldrons.put(key, entry);
+            return;
+        }
+
+        if (op.equals(OP_REMOVE)) {
+            cauldrons.remove(key);
+            return;
+        }
+
+        JsonObject cauldron = cauldrons.get(key);
+        if (cauldron == null) {
+            return;
+        }
+
+        if (op.equals(OP_INGREDIENTS)) {
+            if (entry.has("ingredients")) {
+                cauldron.add("ingredients", entry.get("ingredients"));
+            } else {
+                cauldron.remove("ingredients");
+            }
+        } else if (op.equals(OP_HEAT)) {
+            cauldron.add("heatingStartTime", entry.get("heatingStartTime"));
+            cauldron.add("heatingUp", entry.get("heatingUp"));
+            cauldron.add("bubbling", entry.get("bubbling"));
+        }
+    }
+
+    private void run() {
+        List<@NotNull Object> batch = new ArrayList<>();
+        boolean running = true;
+
+        while (running) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+
+            this.queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+
+            try {
+                for (Object entry : batch) {
+                    if (entry == CLOSE) {
+                        running = false;
+                        break;
+                    }
+
+                    if (entry instanceof Compaction compaction) {
+                        this.flush();
+
+                        // Only truncate the journal if every snapshot was written, otherwise the changes are still needed
+                        try {
+                            long start = System.nanoTime();
+                            this.writeSnapshots(compaction.snapshots);
+                            this.journalOutput.getChannel().truncate(0);
+                            compaction.future.complete(System.nanoTime() - start);
+                        } catch (IOException e) {
+                            this.logger.log(Level.SEVERE, "Could not compact the cauldron journal", e);
+                            compaction.future.completeExceptionally(e);
+                        }
+
+                        continue;
+                    }
+
+                    if (entry instanceof CauldronSnapshot snapshot) {
+                        String ingredientsEntry = serializeIngredients(snapshot);
+                        if (ingredientsEntry != null) {
+                            this.journalWriter.write(ingredientsEntry);
+                            this.journalWriter.write('\n');
+                        }
+
+                        continue;
+                    }
+
+                    this.journalWriter.write((String) entry);
+                    this.journalWriter.write('\n');
+                }
+
+                this.flush();
+            } catch (IOException e) {
+                this.logger.log(Level.SEVERE, "Could not write to the cauldron journal", e);
+            }
+
+            batch.clear();
+        }
+
+        try {
+            this.journalWriter.close();
+        } catch (IOException e) {
+            this.logger.log(Level.SEVERE, "Could not close the cauldron journal", e);
+        }
+    }
+
+    private void flush() throws IOException {
+        this.journalWriter.flush();
+        this.journalOutput.getChannel().force(false);
+    }
+
+    private void writeSnapshots(@NotNull Map<@NotNull File, @NotNull ShardSnapshot> snapshots) throws IOException {
+        IOException failure = null;
+
+        // Attempt to write every snapshot, even if one fails
+        for (Map.Entry<@NotNull File, @NotNull ShardSnapshot> snapshot : snapshots.entrySet()) {
+            try {
+                ShardFile.write(snapshot.getKey(), snapshot.getValue().toJson());
+            } catch (IOException | RuntimeException e) {
+                // Ingredients are serialized on this thread, a misbehaving ingredient type must not kill it
+                IOException exception = (e instanceof IOException ioException) ? ioException : new IOException("Could not serialize cauldrons for " + snapshot.getKey().getName(), e);
+                if (failure == null) {
+                    failure = exception;
+                } else {
+                    failure.addSuppressed(exception);
+                }
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    @Nullable
+    private String serializeIngredients(@NotNull CauldronSnapshot snapshot) {
+        JsonObject entry = createEntry(OP_INGREDIENTS, snapshot.getWorldUUID(), snapshot.getX(), snapshot.getY(), snapshot.getZ());
+
+        try {
+            JsonArray ingredients = snapshot.ingredientsToJson();
+            if (ingredients != null) {
+                entry.add("ingredients", ingredients);
+            }
+        } catch (RuntimeException e) {
+            // Ingredients are serialized on this thread, a misbehaving ingredient type must not kill it
+            this.logger.log(Level.SEVERE, "Could not serialize the ingredients of cauldron " + getKey(entry) + " to the cauldron journal", e);
+            return null;
+        }
+
+        return GSON.toJson(entry);
+    }
+
+    @NotNull
+    private static JsonObject createEntry(@NotNull String op, @NotNull AlchemicalCauldron cauldron) {
+        return createEntry(op, cauldron.getWorld().getUID().toString(), cauldron.getX(), cauldron.getY(), cauldron.getZ());
+    }
+
+    @NotNull
+    private static JsonObject createEntry(@NotNull String op, @NotNull String worldUUID, int x, int y, int z) {
+        JsonObject entry = new JsonObject();
+        entry.addProperty("op", op);
+        entry.addProperty("world", worldUUID);
+
+        JsonObject cauldronBlockObject = new JsonObject();
+        cauldronBlockObject.addProperty("x", x);
+        cauldronBlockObject.addProperty("y", y);
+        cauldronBlockObject.addProperty("z", z);
+        entry.add("cauldron", cauldronBlockObject);
+
+        return entry;
+    }
+
+    /**
+     * Get a key uniquely identifying the cauldron described by the given serialized cauldron
+     * or journal entry.
+     *
+     * @param object the serialized cauldron or journal entry
+     *
+     * @return the key
+     *
+     * @throws JsonParseException if the object does not identify a cauldron
+     */
+    @NotNull
+    static String getKey(@NotNull JsonObject object) {
+        JsonElement worldElement = object.get("world");
+        JsonObject cauldronBlockObject = object.has("cauldron") ? object.getAsJsonObject("cauldron") : null;
+        if (worldElement == null || cauldronBlockObject == null) {
+            throw new JsonParseException("Cauldron is missing its world or position");
+        }
+
+        return worldElement.getAsString() + ':' + cauldronBlockObject.get("x").getAsInt() + ',' + cauldronBlockObject.get("y").getAsInt() + ',' + cauldronBlockObject.get("z").getAsInt();
+    }
+
+    private static final class Compaction {
+
+        private final Map<@NotNull File, @NotNull ShardSnapshot> snapshots;
+        private final CompletableFuture<@NotNull Long> future = new CompletableFuture<>();
+
+        private Compaction(@NotNull Map<@NotNull File, @NotNull ShardSnapshot> snapshots) {
+            this.snapshots = snapshots;
+        }
+
+    }
+
+}
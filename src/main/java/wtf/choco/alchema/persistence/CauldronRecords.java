@@ -0,0 +1,92 @@
+package wtf.choco.alchema.persistence;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+import wtf.choco.alchema.Alchema;
+import wtf.choco.alchema.cauldron.AlchemicalCauldron;
+import wtf.choco.alchema.cauldron.CauldronManager;
+import wtf.choco.alchema.util.BlockPositionUtil;
+
+import java.util.Collection;
+
+/**
+ * Utility methods to load serialized cauldron records into the {@link CauldronManager}.
+ *
+ * @author Parker Hawke - Choco
+ */
+final class CauldronRecords {
+
+    private CauldronRecords() { }
+
+    /**
+     * Load the given serialized cauldrons into the cauldron manager. Records at positions
+     * already holding a cauldron are skipped, and records that could not be parsed are added
+     * to the given collection so they may be retained and attempted again later.
+     *
+     * @param plugin the plugin instance
+     * @param world the world in which the cauldrons reside
+     * @param records the records to load
+     * @param failedRecords the collection to which records that failed to load are added
+     *
+     * @return true if any record was discarded because its cauldron no longer exists
+     */
+    static boolean load(@NotNull Alchema plugin, @NotNull World world, @NotNull Iterable<@NotNull JsonObject> records, @NotNull Collection<@NotNull JsonObject> failedRecords) {
+        CauldronManager cauldronManager = plugin.getCauldronManager();
+        boolean discarded = false;
+
+        for (JsonObject record : records) {
+            try {
+                long position = getPosition(record);
+                if (cauldronManager.isAlchemicalCauldron(world, BlockPositionUtil.unpackX(position), BlockPositionUtil.unpackY(position), BlockPositionUtil.unpackZ(position))) {
+                    continue; // Superseded by a newer cauldron
+                }
+
+                AlchemicalCauldron cauldron = AlchemicalCauldron.fromJson(record, plugin.getRecipeRegistry());
+                if (cauldron == null) {
+                    plugin.getLogger().info("Attempted to load cauldron at a position where a cauldron was not present.");
+                    discarded = true;
+                    continue;
+                }
+
+                cauldronManager.loadCauldron(cauldron);
+            } catch (JsonParseException | IllegalStateException | IllegalArgumentException e) {
+                plugin.getLogger().warning("Could not load cauldron in world \"" + world.getName() + "\": " + e.getMessage());
+                failedRecords.add(record);
+            }
+        }
+
+        return discarded;
+    }
+
+    /**
+     * Get the block position of the given serialized cauldron.
+     *
+     * @param record the serialized cauldron
+     *
+     * @return the block position, packed by {@link BlockPositionUtil#pack(int, int, int)}
+     *
+     * @throws JsonParseException if the record does not specify a complete position
+     */
+    static long getPosition(@NotNull JsonObject record) {
+        JsonElement cauldronElement = record.get("cauldron");
+        if (cauldronElement == null || !cauldronElement.isJsonObject()) {
+            throw new JsonParseException("Location could not be deserialized for cauldron.");
+        }
+
+        JsonObject cauldronBlockObject = cauldronElement.getAsJsonObject();
+        return BlockPositionUtil.pack(getCoordinate(cauldronBlockObject, "x"), getCoordinate(cauldronBlockObject, "y"), getCoordinate(cauldronBlockObject, "z"));
+    }
+
+    private static int getCoordinate(@NotNull JsonObject cauldronBlockObject, @NotNull String axis) {
+        JsonElement coordinateElement = cauldronBlockObject.get(axis);
+        if (coordinateElement == null || !coordinateElement.isJsonPrimitive() || !coordinateElement.getAsJsonPrimitive().isNumber()) {
+            throw new JsonParseException("Location could not be deserialized for cauldron, missing " + axis + " coordinate.");
+        }
+
+        return coordinateElement.getAsInt();
+    }
+
+}
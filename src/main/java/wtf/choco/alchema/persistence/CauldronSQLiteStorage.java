@@ -0,0 +1,625 @@
+package wtf.choco.alchema.persistence;
+
+import com.google.common.base.Preconditions;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import wtf.choco.alchema.Alchema;
+import wtf.choco.alchema.cauldron.AlchemicalCauldron;
+import wtf.choco.alchema.cauldron.CauldronManager;
+import wtf.choco.alchema.util.AlchemaConstants;
+import wtf.choco.alchema.util.BlockPositionUtil;
+import wtf.choco.alchema.util.LongObjectHashMap;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import java.util.logging.Level;
+
+/**
+ * A storage persisting {@link AlchemicalCauldron AlchemicalCauldrons} in an embedded SQLite
+ * database, {@code cauldrons.db} in the plugin's data folder, such that they may be queried
+ * outside of the game.
+ * <p>
+ * Every cauldron is a row keyed by its world and position and indexed by its world and chunk.
+ * The cauldrons of a chunk are read from the database when it loads and loaded into the
+ * {@link CauldronManager} on the main thread under the same per-tick quota as other storages.
+ * Only cauldrons that have changed are written, captured on the main thread when saving or
+ * when their chunk unloads, and upserted or deleted as a single batched transaction. All
+ * access to the database itself happens on a dedicated thread.
+ * <p>
+ * Changes that could not be written are attempted again by the next write, unless a newer
+ * change to the same cauldron has replaced them. Cauldrons stored in JSON files are imported
+ * into the database when it is opened, and their files deleted.
+ * <p>
+ * The SQLite driver bundled with the server is used. The database is opened in WAL mode so
+ * that it may be read by other processes while the server is running.
+ * <p>
+ * This storage is not thread-safe and must only be used from the main thread.
+ *
+ * @author Parker Hawke - Choco
+ */
+public final class CauldronSQLiteStorage implements CauldronStorage {
+
+    private static final String DATABASE_FILE_NAME = "cauldrons.db";
+
+    private static final String SQL_CREATE_TABLE = "CREATE TABLE IF NOT EXISTS cauldrons ("
+            + "world TEXT NOT NULL, "
+            + "x INTEGER NOT NULL, "
+            + "y INTEGER NOT NULL, "
+            + "z INTEGER NOT NULL, "
+            + "chunk_x INTEGER NOT NULL, "
+            + "chunk_z INTEGER NOT NULL, "
+            + "heating_start_time INTEGER NOT NULL, "
+            + "heating_up INTEGER NOT NULL, "
+            + "bubbling INTEGER NOT NULL, "
+            + "ingredients TEXT, "
+            + "PRIMARY KEY (world, x, y, z))";
+    private static final String SQL_CREATE_CHUNK_INDEX = "CREATE INDEX IF NOT EXISTS cauldrons_by_chunk ON cauldrons (world, chunk_x, chunk_z)";
+    private static final String SQL_SELECT_CHUNK = "SELECT x, y, z, heating_start_time, heating_up, bubbling, ingredients FROM cauldrons WHERE world = ? AND chunk_x = ? AND chunk_z = ?";
+    private static final String SQL_UPSERT = "INSERT INTO cauldrons (world, x, y, z, chunk_x, chunk_z, heating_start_time, heating_up, bubbling, ingredients) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT (world, x, y, z) DO UPDATE SET heating_start_time = excluded.heating_start_time, heating_up = excluded.heating_up, bubbling = excluded.bubbling, ingredients = excluded.ingredients";
+    private static final String SQL_DELETE = "DELETE FROM cauldrons WHERE world = ? AND x = ? AND y = ? AND z = ?";
+
+    // Changed cauldrons not yet captured. true if they should be written, false if they should be deleted
+    private final Map<@NotNull AlchemicalCauldron, @NotNull Boolean> changes = new HashMap<>();
+
+    // Chunks whose cauldrons are being read. A read is discarded if its chunk unloads before it completes
+    private final Map<@NotNull UUID, @NotNull LongObjectHashMap<@NotNull ChunkRead>> reads = new HashMap<>();
+    private final Queue<@NotNull ChunkRead> completedReads = new ConcurrentLinkedQueue<>();
+    private BukkitTask loadTask;
+
+    private final ExecutorService database = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Alchema Cauldron Database");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Only accessed by the database thread
+    private Connection connection;
+    private PreparedStatement selectChunkStatement, upsertStatement, deleteStatement;
+    private final Map<@NotNull String, @NotNull Object> failedWrites = new LinkedHashMap<>(); // CauldronSnapshot or Removal by position
+
+    // Whether failed writes are to be attempted again even if no cauldrons have changed
+    private volatile boolean retryPending = false;
+
+    private final Alchema plugin;
+    private final File file;
+    private final int loadQuota;
+
+    /**
+     * Construct a new {@link CauldronSQLiteStorage}.
+     *
+     * @param plugin the plugin instance
+     */
+    public CauldronSQLiteStorage(@NotNull Alchema plugin) {
+        Preconditions.checkArgument(plugin != null, "plugin must not be null");
+
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), DATABASE_FILE_NAME);
+        this.loadQuota = Math.max(plugin.getConfig().getInt(AlchemaConstants.CONFIG_CAULDRON_PERSISTENCE_LOADS_PER_TICK, 256), 1);
+    }
+
+    /**
+     * Open the database, creating its table if it does not yet exist, and import any
+     * cauldrons stored in JSON files. Every write is a transaction of its own, so there is
+     * nothing else to recover.
+     *
+     * @throws IllegalStateException if the database could not be opened or cauldrons stored in
+     * JSON files could not be imported
+     */
+    @Override
+    public void recover() {
+        try {
+            this.database.submit(() -> {
+                this.open();
+                return null;
+            }).get();
+
+            this.importShardStore();
+        } catch (ExecutionException e) {
+            this.database.execute(this::closeDatabase);
+            this.database.shutdown();
+            throw new IllegalStateException("Could not open cauldron database " + file.getPath(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            this.database.execute(this::closeDatabase);
+            this.database.shutdown();
+            throw new IllegalStateException("Interrupted while opening cauldron database " + file.getPath(), e);
+        } catch (IllegalStateException e) {
+            this.database.execute(this::closeDatabase);
+            this.database.shutdown();
+            throw e;
+        }
+
+        this.loadTask = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+    }
+
+    /**
+     * Read the cauldrons of the given chunk from the database in the background. They are
+     * loaded on the main thread once read.
+     *
+     * @param chunk the chunk to load
+     */
+    @Override
+    public void loadChunk(@NotNull Chunk chunk) {
+        Preconditions.checkArgument(chunk != null, "chunk must not be null");
+
+        ChunkRead read = new ChunkRead(chunk.getWorld().getUID(), chunk.getX(), chunk.getZ());
+        this.reads.computeIfAbsent(read.worldUUID, uuid -> new LongObjectHashMap<>()).put(BlockPositionUtil.packChunk(read.chunkX, read.chunkZ), read);
+
+        read.records = CompletableFuture.supplyAsync(() -> select(read), database);
+        read.records.whenComplete((records, e) -> completedReads.add(read));
+    }
+
+    /**
+     * Capture the changed cauldrons of the given chunk to be written in the background and
+     * unload them.
+     *
+     * @param chunk the chunk to unload
+     */
+    @Override
+    public void unloadChunk(@NotNull Chunk chunk) {
+        Preconditions.checkArgument(chunk != null, "chunk must not be null");
+
+        World world = chunk.getWorld();
+        LongObjectHashMap<@NotNull ChunkRead> chunkReads = reads.get(world.getUID());
+        if (chunkReads != null) {
+            chunkReads.remove(BlockPositionUtil.packChunk(chunk.getX(), chunk.getZ()));
+
+            if (chunkReads.isEmpty()) {
+                this.reads.remove(world.getUID());
+            }
+        }
+
+        CauldronManager cauldronManager = plugin.getCauldronManager();
+        List<@NotNull CauldronSnapshot> upserts = new ArrayList<>();
+        for (AlchemicalCauldron cauldron : cauldronManager.getCauldronsInChunk(chunk)) {
+            if (changes.get(cauldron) == Boolean.TRUE) {
+                this.changes.remove(cauldron);
+                upserts.add(CauldronSnapshot.of(cauldron));
+            }
+        }
+
+        if (!upserts.isEmpty()) {
+            this.submitWrite(upserts, Collections.emptyList());
+        }
+
+        cauldronManager.unloadCauldrons(world, chunk.getX(), chunk.getZ());
+    }
+
+    /**
+     * Read the cauldrons in all loaded chunks of the given world.
+     *
+     * @param world the world to load
+     */
+    @Override
+    public void loadWorld(@NotNull World world) {
+        Preconditions.checkArgument(world != null, "world must not be null");
+
+        for (Chunk chunk : world.getLoadedChunks()) {
+            this.loadChunk(chunk);
+        }
+    }
+
+    /**
+     * Capture all changed cauldrons in the given world to be written in the background and
+     * unload them.
+     *
+     * @param world the world to unload
+     */
+    @Override
+    public void unloadWorld(@NotNull World world) {
+        Preconditions.checkArgument(world != null, "world must not be null");
+
+        this.reads.remove(world.getUID());
+        this.captureChanges(cauldron -> cauldron.getWorld().equals(world));
+        this.plugin.getCauldronManager().unloadCauldrons(world);
+    }
+
+    /**
+     * Capture all changed cauldrons to be written in the background.
+     */
+    @Override
+    public void save() {
+        this.captureChanges(cauldron -> true);
+    }
+
+    /**
+     * Write all changed cauldrons and close the database, waiting for all writes to complete.
+     * Reads that have yet to complete are discarded.
+     */
+    @Override
+    public void close() {
+        if (loadTask != null) {
+            this.loadTask.cancel();
+            this.loadTask = null;
+        }
+
+        this.save();
+        this.database.execute(this::closeDatabase);
+        this.database.shutdown();
+
+        try {
+            if (!database.awaitTermination(1, TimeUnit.MINUTES)) {
+                this.plugin.getLogger().severe("Timed out while writing cauldrons to the database. Recent changes may have been lost");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        this.reads.clear();
+        this.completedReads.clear();
+    }
+
+    @Override
+    public void onCauldronAdd(@NotNull AlchemicalCauldron cauldron) {
+        this.markChanged(cauldron, true);
+    }
+
+    @Override
+    public void onCauldronRemove(@NotNull AlchemicalCauldron cauldron) {
+        this.markChanged(cauldron, false);
+    }
+
+    @Override
+    public void onIngredientsChange(@NotNull AlchemicalCauldron cauldron) {
+        this.markChanged(cauldron, true);
+    }
+
+    @Override
+    public void onHeatStateChange(@NotNull AlchemicalCauldron cauldron) {
+        this.markChanged(cauldron, true);
+    }
+
+    private void markChanged(@NotNull AlchemicalCauldron cauldron, boolean write) {
+        // Cauldrons are equal by position. Replace the key too, it may be a cauldron placed where a removed one was
+        this.changes.remove(cauldron);
+        this.changes.put(cauldron, write);
+    }
+
+    private void captureChanges(@NotNull Predicate<@NotNull AlchemicalCauldron> filter) {
+        List<@NotNull CauldronSnapshot> upserts = new ArrayList<>();
+        List<@NotNull Removal> removals = new ArrayList<>();
+
+        this.changes.entrySet().removeIf(entry -> {
+            AlchemicalCauldron cauldron = entry.getKey();
+            if (!filter.test(cauldron)) {
+                return false;
+            }
+
+            if (entry.getValue()) {
+                upserts.add(CauldronSnapshot.of(cauldron));
+            } else {
+                removals.add(new Removal(cauldron.getWorld().getUID().toString(), cauldron.getX(), cauldron.getY(), cauldron.getZ()));
+            }
+
+            return true;
+        });
+
+        if (!upserts.isEmpty() || !removals.isEmpty() || retryPending) {
+            this.submitWrite(upserts, removals);
+        }
+    }
+
+    private void importShardStore() throws ExecutionException, InterruptedException {
+        CauldronShardStore shardStore = new CauldronShardStore(plugin);
+        if (!shardStore.hasStoredCauldrons()) {
+            return;
+        }
+
+        // Recovering and closing the store applies its journal and older files to its shards
+        shardStore.recover();
+        shardStore.close();
+
+        if (!shardStore.isRecovered()) {
+            throw new IllegalStateException("Could not recover cauldrons stored in JSON files to import them into the database. Their files were kept");
+        }
+
+        Set<@NotNull UUID> worldUUIDs = shardStore.getStoredWorlds();
+        List<@NotNull CauldronSnapshot> upserts = new ArrayList<>();
+        for (UUID worldUUID : worldUUIDs) {
+            try {
+                for (JsonObject record : shardStore.readWorld(worldUUID)) {
+                    upserts.add(CauldronSnapshot.fromJson(worldUUID.toString(), record));
+                }
+            } catch (IOException | RuntimeException e) {
+                throw new IllegalStateException("Could not read cauldrons of world " + worldUUID + " stored in JSON files to import them into the database. Their files were kept", e);
+            }
+        }
+
+        // Files are only deleted once every cauldron has been imported in a single transaction. They are kept otherwise, so nothing is to be retried
+        boolean imported = database.submit(() -> {
+            if (write(upserts, Collections.emptyList())) {
+                return true;
+            }
+
+            this.failedWrites.clear();
+            this.retryPending = false;
+            return false;
+        }).get();
+
+        if (!imported) {
+            throw new IllegalStateException("Could not import cauldrons stored in JSON files into the database. Their files were kept");
+        }
+
+        for (UUID worldUUID : worldUUIDs) {
+            try {
+                shardStore.deleteWorld(worldUUID);
+            } catch (IOException e) {
+                this.plugin.getLogger().log(Level.SEVERE, "Could not delete the JSON files of cauldrons in world " + worldUUID + " once imported into the database. They must be deleted manually, otherwise they will be imported again", e);
+            }
+        }
+
+        this.plugin.getLogger().info("Imported " + upserts.size() + " cauldrons stored in JSON files into the database");
+    }
+
+    private void submitWrite(@NotNull List<@NotNull CauldronSnapshot> upserts, @NotNull List<@NotNull Removal> removals) {
+        this.database.execute(() -> write(upserts, removals));
+    }
+
+    private void tick() {
+        int quota = loadQuota;
+
+        ChunkRead read;
+        while (quota > 0 && (read = completedReads.poll()) != null) {
+            quota -= complete(read);
+        }
+    }
+
+    private int complete(@NotNull ChunkRead read) {
+        LongObjectHashMap<@NotNull ChunkRead> chunkReads = reads.get(read.worldUUID);
+        if (chunkReads == null || !chunkReads.remove(BlockPositionUtil.packChunk(read.chunkX, read.chunkZ), read)) {
+            return 0; // The chunk unloaded before its cauldrons were read. They are still in the database
+        }
+
+        if (chunkReads.isEmpty()) {
+            this.reads.remove(read.worldUUID);
+        }
+
+        World world = Bukkit.getWorld(read.worldUUID);
+        if (world == null) {
+            return 0;
+        }
+
+        List<@NotNull JsonObject> records;
+        try {
+            records = read.records.join();
+        } catch (CompletionException e) {
+            this.plugin.getLogger().log(Level.SEVERE, "Could not read cauldrons in chunk (" + read.chunkX + ", " + read.chunkZ + ") of world \"" + world.getName() + "\" from the database", e.getCause());
+            return 0;
+        }
+
+        // Rows that failed to load are left untouched to be attempted again when the chunk next loads
+        Set<@NotNull JsonObject> failedRecords = Collections.newSetFromMap(new IdentityHashMap<>());
+        if (!CauldronRecords.load(plugin, world, records, failedRecords)) {
+            return records.size();
+        }
+
+        // Rows of cauldrons that no longer exist are deleted
+        CauldronManager cauldronManager = plugin.getCauldronManager();
+        List<@NotNull Removal> removals = new ArrayList<>();
+        for (JsonObject record : records) {
+            JsonObject cauldronBlockObject = record.getAsJsonObject("cauldron");
+            int x = cauldronBlockObject.get("x").getAsInt(), y = cauldronBlockObject.get("y").getAsInt(), z = cauldronBlockObject.get("z").getAsInt();
+
+            if (!failedRecords.contains(record) && !cauldronManager.isAlchemicalCauldron(world, x, y, z)) {
+                removals.add(new Removal(record.get("world").getAsString(), x, y, z));
+            }
+        }
+
+        if (!removals.isEmpty()) {
+            this.submitWrite(Collections.emptyList(), removals);
+        }
+
+        return records.size();
+    }
+
+    private void open() throws SQLException, ClassNotFoundException {
+        Class.forName("org.sqlite.JDBC"); // Bundled with the server, but not necessarily registered with the DriverManager
+
+        this.connection = DriverManager.getConnection("jdbc:sqlite:" + file.getAbsolutePath());
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode = WAL");
+            statement.execute("PRAGMA synchronous = NORMAL");
+            statement.execute("PRAGMA busy_timeout = 5000"); // Other processes may be writing to the database
+            statement.execute(SQL_CREATE_TABLE);
+            statement.execute(SQL_CREATE_CHUNK_INDEX);
+        }
+
+        this.selectChunkStatement = connection.prepareStatement(SQL_SELECT_CHUNK);
+        this.upsertStatement = connection.prepareStatement(SQL_UPSERT);
+        this.deleteStatement = connection.prepareStatement(SQL_DELETE);
+    }
+
+    @NotNull
+    private List<@NotNull JsonObject> select(@NotNull ChunkRead read) {
+        List<@NotNull JsonObject> records = new ArrayList<>();
+        String worldUUID = read.worldUUID.toString();
+
+        try {
+            this.selectChunkStatement.setString(1, worldUUID);
+            this.selectChunkStatement.setInt(2, read.chunkX);
+            this.selectChunkStatement.setInt(3, read.chunkZ);
+
+            try (ResultSet result = selectChunkStatement.executeQuery()) {
+                while (result.next()) {
+                    JsonObject record = new JsonObject();
+                    record.addProperty("heatingStartTime", result.getLong("heating_start_time"));
+                    record.addProperty("heatingUp", result.getBoolean("heating_up"));
+                    record.addProperty("bubbling", result.getBoolean("bubbling"));
+                    record.addProperty("world", worldUUID);
+
+                    JsonObject cauldronBlockObject = new JsonObject();
+                    cauldronBlockObject.addProperty("x", result.getInt("x"));
+                    cauldronBlockObject.addProperty("y", result.getInt("y"));
+                    cauldronBlockObject.addProperty("z", result.getInt("z"));
+                    record.add("cauldron", cauldronBlockObject);
+
+                    String ingredients = result.getString("ingredients");
+                    if (ingredients != null) {
+                        record.add("ingredients", JsonParser.parseString(ingredients).getAsJsonArray());
+                    }
+
+                    records.add(record);
+                }
+            }
+        } catch (SQLException | JsonParseException | IllegalStateException e) {
+            throw new CompletionException(e);
+        }
+
+        return records;
+    }
+
+    private boolean write(@NotNull List<@NotNull CauldronSnapshot> upserts, @NotNull List<@NotNull Removal> removals) {
+        // Changes that failed to be written before are written with these, unless these replace them
+        if (!failedWrites.isEmpty()) {
+            upserts.forEach(cauldron -> failedWrites.remove(getKey(cauldron.getWorldUUID(), cauldron.getX(), cauldron.getY(), cauldron.getZ())));
+            removals.forEach(removal -> failedWrites.remove(getKey(removal.worldUUID, removal.x, removal.y, removal.z)));
+
+            upserts = new ArrayList<>(upserts);
+            removals = new ArrayList<>(removals);
+            for (Object change : failedWrites.values()) {
+                if (change instanceof CauldronSnapshot cauldron) {
+                    upserts.add(cauldron);
+                } else {
+                    removals.add((Removal) change);
+                }
+            }
+
+            this.failedWrites.clear();
+        }
+
+        try {
+            this.connection.setAutoCommit(false);
+
+            for (CauldronSnapshot cauldron : upserts) {
+                JsonArray ingredients = cauldron.ingredientsToJson();
+
+                this.upsertStatement.setString(1, cauldron.getWorldUUID());
+                this.upsertStatement.setInt(2, cauldron.getX());
+                this.upsertStatement.setInt(3, cauldron.getY());
+                this.upsertStatement.setInt(4, cauldron.getZ());
+                this.upsertStatement.setInt(5, cauldron.getX() >> 4);
+                this.upsertStatement.setInt(6, cauldron.getZ() >> 4);
+                this.upsertStatement.setLong(7, cauldron.getHeatingStartTime());
+                this.upsertStatement.setBoolean(8, cauldron.isHeatingUp());
+                this.upsertStatement.setBoolean(9, cauldron.isBubbling());
+                this.upsertStatement.setString(10, (ingredients != null) ? ingredients.toString() : null);
+                this.upsertStatement.addBatch();
+            }
+
+            for (Removal removal : removals) {
+                this.deleteStatement.setString(1, removal.worldUUID);
+                this.deleteStatement.setInt(2, removal.x);
+                this.deleteStatement.setInt(3, removal.y);
+                this.deleteStatement.setInt(4, removal.z);
+                this.deleteStatement.addBatch();
+            }
+
+            this.upsertStatement.executeBatch();
+            this.deleteStatement.executeBatch();
+            this.connection.commit();
+            this.retryPending = false;
+            return true;
+        } catch (SQLException | RuntimeException e) {
+            this.plugin.getLogger().log(Level.SEVERE, "Could not write " + upserts.size() + " cauldrons and delete " + removals.size() + " cauldrons in the database. These changes will be attempted again on the next save", e);
+
+            try {
+                this.upsertStatement.clearBatch();
+                this.deleteStatement.clearBatch();
+                this.connection.rollback();
+            } catch (SQLException ignored) { }
+
+            upserts.forEach(cauldron -> failedWrites.put(getKey(cauldron.getWorldUUID(), cauldron.getX(), cauldron.getY(), cauldron.getZ()), cauldron));
+            removals.forEach(removal -> failedWrites.put(getKey(removal.worldUUID, removal.x, removal.y, removal.z), removal));
+            this.retryPending = true;
+            return false;
+        } finally {
+            try {
+                this.connection.setAutoCommit(true); // Reads should not hold a transaction open
+            } catch (SQLException ignored) { }
+        }
+    }
+
+    @NotNull
+    private static String getKey(@NotNull String worldUUID, int x, int y, int z) {
+        return worldUUID + ":" + x + "," + y + "," + z;
+    }
+
+    private void closeDatabase() {
+        if (connection == null) {
+            return;
+        }
+
+        if (!failedWrites.isEmpty()) {
+            this.plugin.getLogger().severe("Could not write " + failedWrites.size() + " cauldron changes to the database. These changes have been lost");
+        }
+
+        try {
+            this.connection.close();
+        } catch (SQLException e) {
+            this.plugin.getLogger().log(Level.WARNING, "Could not close the cauldron database", e);
+        }
+    }
+
+    private static final class ChunkRead {
+
+        private final UUID worldUUID;
+        private final int chunkX, chunkZ;
+
+        private CompletableFuture<@NotNull List<@NotNull JsonObject>> records;
+
+        private ChunkRead(@NotNull UUID worldUUID, int chunkX, int chunkZ) {
+            this.worldUUID = worldUUID;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+    }
+
+    private static final class Removal {
+
+        private final String worldUUID;
+        private final int x, y, z;
+
+        private Removal(@NotNull String worldUUID, int x, int y, int z) {
+            this.worldUUID = worldUUID;
+            this.x = x;
+            this.y = y;
+            this.z = z;
+        }
+
+    }
+
+}
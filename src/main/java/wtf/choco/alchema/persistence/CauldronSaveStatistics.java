@@ -0,0 +1,69 @@
+package wtf.choco.alchema.persistence;
+
+/**
+ * Timings of a completed save of a {@link CauldronStorage}.
+ *
+ * @author Parker Hawke - Choco
+ */
+public final class CauldronSaveStatistics {
+
+    private final int cauldrons, files;
+    private final long snapshotTime, writeTime;
+
+    /**
+     * Construct a new {@link CauldronSaveStatistics}.
+     *
+     * @param cauldrons the amount of saved cauldrons
+     * @param files the amount of written files
+     * @param snapshotTime the time in nanoseconds spent capturing cauldrons on the main thread
+     * @param writeTime the time in nanoseconds spent serializing and writing cauldrons in the background
+     */
+    public CauldronSaveStatistics(int cauldrons, int files, long snapshotTime, long writeTime) {
+        this.cauldrons = cauldrons;
+        this.files = files;
+        this.snapshotTime = snapshotTime;
+        this.writeTime = writeTime;
+    }
+
+    /**
+     * Get the amount of saved cauldrons.
+     *
+     * @return the cauldron count
+     */
+    public int getCauldrons() {
+        return cauldrons;
+    }
+
+    /**
+     * Get the amount of written files.
+     *
+     * @return the file count
+     */
+    public int getFiles() {
+        return files;
+    }
+
+    /**
+     * Get the time in nanoseconds spent capturing cauldrons on the main thread.
+     *
+     * @return the snapshot time
+     */
+    public long getSnapshotTime() {
+        return snapshotTime;
+    }
+
+    /**
+     * Get the time in nanoseconds spent serializing and writing cauldrons in the background.
+     *
+     * @return the write time
+     */
+    public long getWriteTime() {
+        return writeTime;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CauldronSaveStatistics[cauldrons=%d, files=%d, snapshotTime=%dus, writeTime=%dms]", cauldrons, files, snapshotTime / 1000, writeTime / 1_000_000);
+    }
+
+}
@@ -0,0 +1,815 @@
+package wtf.choco.alchema.persistence;
+
+import com.google.common.base.Preconditions;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.bukkit.scheduler.BukkitTask;
+import org.bukkit.util.BoundingBox;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import wtf.choco.alchema.Alchema;
+import wtf.choco.alchema.cauldron.AlchemicalCauldron;
+import wtf.choco.alchema.cauldron.CauldronManager;
+import wtf.choco.alchema.util.AlchemaConstants;
+import wtf.choco.alchema.util.BlockPositionUtil;
+import wtf.choco.alchema.util.LongObjectHashMap;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.logging.Level;
+
+/**
+ * A store persisting {@link AlchemicalCauldron AlchemicalCauldrons} in shards, one per world
+ * and region of 32x32 chunks, which are loaded lazily as chunks load.
+ * <p>
+ * Shards are held in {@code cauldrons/<world uuid>/r.<region x>.<region z>.a.dat} and
+ * {@code .b.dat}, two checksummed copies written alternately such that a crash while writing
+ * never corrupts the previous copy. When a chunk loads, the shard of its region is read if not
+ * already in memory, and only the cauldrons in that chunk are loaded into the
+ * {@link CauldronManager}. Cauldrons in chunks that are not loaded remain serialized until
+ * their chunk loads, and a shard is released once none of its chunks are loaded. Changes are
+ * recorded in a {@link CauldronJournal} and mark their shard as dirty such that only dirty
+ * shards are written when {@link #save() saving}.
+ * <p>
+ * Shard files are read and decoded on a loader thread such that loading chunks never waits on
+ * disk. Their records are handed back to the main thread, where cauldrons are validated against
+ * their blocks and registered a bounded amount at a time every tick.
+ * <p>
+ * This store is not thread-safe and must only be used from the main thread.
+ *
+ * @author Parker Hawke - Choco
+ */
+public final class CauldronShardStore implements CauldronStorage {
+
+    private static final int REGION_SHIFT = 5; // 32x32 chunks
+    private static final int REGION_MASK = (1 << REGION_SHIFT) - 1;
+    private static final int BLOCK_REGION_SHIFT = REGION_SHIFT + 4;
+
+    private static final String SHARD_EXTENSION = ".dat";
+
+    private final Map<@NotNull UUID, @NotNull LongObjectHashMap<@NotNull Shard>> worlds = new HashMap<>();
+
+    // Snapshots handed to the journal but not yet written. Read in place of their (stale) file
+    private final Map<@NotNull File, @NotNull ShardSnapshot> unwrittenSnapshots = new ConcurrentHashMap<>();
+
+    // Shards are read by the loader thread and their records merged, then their cauldrons loaded, by the main thread
+    private final ExecutorService reader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Alchema Cauldron Loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Queue<@NotNull Shard> completedReads = new ConcurrentLinkedQueue<>();
+    private final Queue<@NotNull ChunkLoad> chunkLoads = new ArrayDeque<>();
+    private BukkitTask loadTask;
+
+    private CompletableFuture<?> inFlightSave;
+    private volatile CauldronSaveStatistics lastSaveStatistics;
+    private int skippedSaves = 0;
+    private boolean recovered = false;
+
+    private final Alchema plugin;
+    private final File directory, legacyFile, journalFile;
+    private final CauldronJournal journal;
+    private final int loadQuota;
+
+    /**
+     * Construct a new {@link CauldronShardStore}.
+     *
+     * @param plugin the plugin instance
+     */
+    public CauldronShardStore(@NotNull Alchema plugin) {
+        Preconditions.checkArgument(plugin != null, "plugin must not be null");
+
+        this.plugin = plugin;
+
+        File dataFolder = plugin.getDataFolder();
+        this.directory = new File(dataFolder, "cauldrons");
+        this.legacyFile = new File(dataFolder, "cauldrons.json");
+        this.journalFile = new File(dataFolder, "cauldrons.journal");
+        this.journal = new CauldronJournal(journalFile, plugin.getLogger());
+        this.loadQuota = Math.max(plugin.getConfig().getInt(AlchemaConstants.CONFIG_CAULDRON_PERSISTENCE_LOADS_PER_TICK, 256), 1);
+    }
+
+    /**
+     * Recover from the last shutdown by applying the journal to the shards it affects, and
+     * start journaling. The {@code cauldrons.json} file written by previous versions of Alchema
+     * is migrated into shards. Only shards affected by the journal or by migration are read.
+     * <p>
+     * If recovery fails, the journal is retained and journaling is not started so as not to
+     * overwrite any persisted state. Changes made until the next successful recovery are lost.
+     */
+    @Override
+    public void recover() {
+        if (loadTask == null) {
+            this.loadTask = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+
+        Map<@NotNull File, @NotNull Map<@NotNull String, @NotNull JsonObject>> shards = new HashMap<>();
+
+        try {
+            // The journal was written relative to the legacy snapshot, so the snapshot must be imported first
+            if (legacyFile.exists()) {
+                this.importRecords(shards, JsonFiles.read(legacyFile));
+            }
+
+            for (JsonObject entry : journal.recover()) {
+                try {
+                    CauldronJournal.apply(getShardRecords(shards, entry), entry);
+                } catch (JsonParseException | IllegalStateException | IllegalArgumentException | UnsupportedOperationException e) {
+                    this.plugin.getLogger().warning("Skipping malformed cauldron journal entry: " + e.getMessage());
+                }
+            }
+
+            for (Map.Entry<@NotNull File, @NotNull Map<@NotNull String, @NotNull JsonObject>> shard : shards.entrySet()) {
+                JsonArray records = new JsonArray(shard.getValue().size());
+                shard.getValue().values().forEach(records::add);
+                ShardFile.write(shard.getKey(), records);
+            }
+
+            this.journal.discard();
+            this.legacyFile.delete();
+            this.recovered = true;
+        } catch (IOException e) {
+            this.plugin.getLogger().log(Level.SEVERE, "Could not recover cauldrons. Changes to cauldrons will not be saved until this is resolved", e);
+            return;
+        }
+
+        try {
+            this.journal.start();
+        } catch (IOException e) {
+            this.plugin.getLogger().log(Level.SEVERE, "Could not open the cauldron journal. Changes to cauldrons will not be saved", e);
+        }
+    }
+
+    /**
+     * Load all cauldrons in the given chunk, reading the shard of its region if necessary.
+     * Shards are read in the background and cauldrons are loaded on the main thread over
+     * the following ticks, no more than the configured amount per tick.
+     *
+     * @param chunk the chunk to load
+     */
+    @Override
+    public void loadChunk(@NotNull Chunk chunk) {
+        Preconditions.checkArgument(chunk != null, "chunk must not be null");
+
+        World world = chunk.getWorld();
+        int chunkX = chunk.getX(), chunkZ = chunk.getZ();
+
+        Shard shard = getOrLoadShard(world.getUID(), chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT);
+        shard.loadedChunks.set(getLocalChunkIndex(chunkX, chunkZ));
+
+        // If the shard is still being read, the chunk is queued once the read completes
+        if (shard.read == null && shard.pending.containsKey(BlockPositionUtil.packChunk(chunkX, chunkZ))) {
+            this.chunkLoads.add(new ChunkLoad(shard, chunkX, chunkZ));
+        }
+    }
+
+    /**
+     * Unload all cauldrons in the given chunk, releasing the shard of its region if none of
+     * its chunks remain loaded and it has no unsaved changes.
+     *
+     * @param chunk the chunk to unload
+     */
+    @Override
+    public void unloadChunk(@NotNull Chunk chunk) {
+        Preconditions.checkArgument(chunk != null, "chunk must not be null");
+
+        World world = chunk.getWorld();
+        int chunkX = chunk.getX(), chunkZ = chunk.getZ();
+
+        LongObjectHashMap<@NotNull Shard> shards = worlds.get(world.getUID());
+        long regionKey = BlockPositionUtil.packChunk(chunkX >> REGION_SHIFT, chunkZ >> REGION_SHIFT);
+        Shard shard = (shards != null) ? shards.get(regionKey) : null;
+        if (shard == null) {
+            return;
+        }
+
+        List<@NotNull AlchemicalCauldron> cauldrons = plugin.getCauldronManager().unloadCauldrons(world, chunkX, chunkZ);
+        shard.loadedChunks.clear(getLocalChunkIndex(chunkX, chunkZ));
+
+        // A clean shard is identical to its file, so its cauldrons needn't be serialized if it is released
+        if (shard.loadedChunks.isEmpty() && !shard.dirty) {
+            this.releaseShard(world.getUID(), shards, regionKey);
+            return;
+        }
+
+        if (cauldrons.isEmpty()) {
+            return;
+        }
+
+        long chunkKey = BlockPositionUtil.packChunk(chunkX, chunkZ);
+        List<@NotNull JsonObject> records = shard.pending.get(chunkKey);
+        if (records == null) {
+            records = new ArrayList<>(cauldrons.size());
+            shard.pending.put(chunkKey, records);
+        } else {
+            // Records not yet loaded when the chunk unloaded are superseded by cauldrons placed in their stead
+            Set<@NotNull Long> positions = new HashSet<>();
+            cauldrons.forEach(cauldron -> positions.add(BlockPositionUtil.pack(cauldron.getX(), cauldron.getY(), cauldron.getZ())));
+            records.removeIf(record -> positions.contains(getPosition(record)));
+        }
+
+        for (AlchemicalCauldron cauldron : cauldrons) {
+            records.add(cauldron.write(new JsonObject()));
+        }
+    }
+
+    /**
+     * Load the cauldrons in all loaded chunks of the given world.
+     *
+     * @param world the world to load
+     */
+    @Override
+    public void loadWorld(@NotNull World world) {
+        Preconditions.checkArgument(world != null, "world must not be null");
+
+        for (Chunk chunk : world.getLoadedChunks()) {
+            this.loadChunk(chunk);
+        }
+    }
+
+    /**
+     * Save and unload all cauldrons in the given world and release its shards.
+     *
+     * @param world the world to unload
+     */
+    @Override
+    public void unloadWorld(@NotNull World world) {
+        Preconditions.checkArgument(world != null, "world must not be null");
+
+        this.awaitReads();
+        this.snapshotAndCompact();
+        this.plugin.getCauldronManager().unloadCauldrons(world);
+        this.worlds.remove(world.getUID());
+    }
+
+    /**
+     * Save all dirty shards in the background. The state of their cauldrons is captured on
+     * the calling thread, then serialized and written by the journal's writer thread, after
+     * which the journal is compacted.
+     * <p>
+     * If the previous save is still being written, this save is skipped and its shards remain
+     * dirty to be saved by the next one.
+     */
+    @Override
+    public void save() {
+        if (inFlightSave != null && !inFlightSave.isDone()) {
+            this.skippedSaves++;
+            this.plugin.getLogger().warning("Skipping cauldron autosave, the previous save is still being written. Consider increasing the autosave interval");
+            return;
+        }
+
+        this.snapshotAndCompact();
+    }
+
+    /**
+     * Save all dirty shards and close the journal, waiting for all changes to be written.
+     */
+    @Override
+    public void close() {
+        this.closeAndCompact();
+    }
+
+    /**
+     * Save all dirty shards and close the journal, waiting for all changes to be written, and
+     * report whether every change made its way into the shards.
+     * <p>
+     * If not, because recovery failed, a shard could not be read or a snapshot could not be
+     * written, changes remain in the journal only and are applied to the shards by the next
+     * successful {@link #recover() recovery}.
+     *
+     * @return true if every change was written to the shards, false otherwise
+     */
+    public boolean closeAndCompact() {
+        if (loadTask != null) {
+            this.loadTask.cancel();
+            this.loadTask = null;
+        }
+
+        this.awaitReads();
+        boolean compacted = snapshotAndCompact();
+        this.journal.close();
+        this.reader.shutdown();
+        this.worlds.clear();
+        this.chunkLoads.clear();
+
+        // Closing the journal waited for the compaction, which removes the snapshots it wrote
+        return compacted && unwrittenSnapshots.isEmpty();
+    }
+
+    /**
+     * Get the statistics of the last completed save.
+     *
+     * @return the last save statistics. null if no save has completed yet
+     */
+    @Nullable
+    public CauldronSaveStatistics getLastSaveStatistics() {
+        return lastSaveStatistics;
+    }
+
+    /**
+     * Get the amount of saves that were skipped because the previous save was still being
+     * written.
+     *
+     * @return the amount of skipped saves
+     */
+    public int getSkippedSaves() {
+        return skippedSaves;
+    }
+
+    // Returns false if changes could not be included in the compaction. Whether it succeeds is known once the journal writes it
+    private boolean snapshotAndCompact() {
+        if (!journal.isStarted()) {
+            return false;
+        }
+
+        /*
+         * Compacting truncates the journal, so every dirty shard must be included. Wait for shards
+         * still being read, and keep the journal for as long as a dirty shard cannot be written as
+         * it is then the only copy of that shard's changes
+         */
+        for (LongObjectHashMap<@NotNull Shard> shards : worlds.values()) {
+            for (Shard shard : shards.values()) {
+                if (shard.dirty && (shard.read != null || !shard.writable)) {
+                    return false;
+                }
+            }
+        }
+
+        long start = System.nanoTime();
+
+        // Snapshots of a compaction that failed are still needed, the journal holding their changes is truncated by this one
+        Map<@NotNull File, @NotNull ShardSnapshot> snapshots = new HashMap<>(unwrittenSnapshots);
+
+        for (Iterator<Map.Entry<@NotNull UUID, @NotNull LongObjectHashMap<@NotNull Shard>>> worldIterator = worlds.entrySet().iterator(); worldIterator.hasNext(); ) {
+            Map.Entry<@NotNull UUID, @NotNull LongObjectHashMap<@NotNull Shard>> worldEntry = worldIterator.next();
+            UUID worldUUID = worldEntry.getKey();
+            World world = Bukkit.getWorld(worldUUID);
+
+            List<@NotNull Shard> releasable = new ArrayList<>();
+            for (Shard shard : worldEntry.getValue().values()) {
+                if (shard.dirty && shard.writable) {
+                    snapshots.put(getShardFile(worldUUID, shard.regionX, shard.regionZ), snapshot(world, shard));
+                    shard.dirty = false;
+                }
+
+                if (shard.loadedChunks.isEmpty() && !shard.dirty) {
+                    releasable.add(shard);
+                }
+            }
+
+            LongObjectHashMap<@NotNull Shard> shards = worldEntry.getValue();
+            releasable.forEach(shard -> shards.remove(BlockPositionUtil.packChunk(shard.regionX, shard.regionZ)));
+            if (shards.isEmpty()) {
+                worldIterator.remove();
+            }
+        }
+
+        if (snapshots.isEmpty()) {
+            return true;
+        }
+
+        long snapshotTime = System.nanoTime() - start;
+        int cauldrons = snapshots.values().stream().mapToInt(ShardSnapshot::size).sum();
+
+        this.unwrittenSnapshots.putAll(snapshots);
+        this.inFlightSave = journal.compact(snapshots).whenComplete((writeTime, e) -> {
+            if (e != null) {
+                return; // Snapshots remain unwritten and are written again by the next compaction
+            }
+
+            // Only the snapshots written are removed. A newer snapshot of the same shard taken in the meantime remains unwritten
+            snapshots.forEach(unwrittenSnapshots::remove);
+            this.lastSaveStatistics = new CauldronSaveStatistics(cauldrons, snapshots.size(), snapshotTime, writeTime);
+        });
+        return true;
+    }
+
+    /**
+     * Check whether this store was {@link #recover() recovered} successfully, in which case
+     * every stored cauldron is in its shards.
+     *
+     * @return true if recovered, false otherwise
+     */
+    public boolean isRecovered() {
+        return recovered;
+    }
+
+    /**
+     * Check whether any cauldrons are stored, be it in shards, in the journal or in files
+     * written by previous versions of Alchema.
+     *
+     * @return true if cauldrons are stored, false otherwise
+     */
+    public boolean hasStoredCauldrons() {
+        return legacyFile.exists() || journalFile.length() > 0 || !getStoredWorlds().isEmpty();
+    }
+
+    /**
+     * Get the UUIDs of all worlds for which cauldrons are stored.
+     *
+     * @return the world UUIDs
+     */
+    @NotNull
+    public Set<@NotNull UUID> getStoredWorlds() {
+        Set<@NotNull UUID> worldUUIDs = new HashSet<>();
+
+        File[] worldDirectories = directory.listFiles(File::isDirectory);
+        if (worldDirectories == null) {
+            return worldUUIDs;
+        }
+
+        for (File worldDirectory : worldDirectories) {
+            try {
+                worldUUIDs.add(UUID.fromString(worldDirectory.getName()));
+            } catch (IllegalArgumentException e) {
+                // Not a world directory
+            }
+        }
+
+        return worldUUIDs;
+    }
+
+    /**
+     * Read all stored cauldrons of the given world. This store should be {@link #close() closed}
+     * beforehand such that all changes have been written.
+     *
+     * @param worldUUID the UUID of the world whose cauldrons to read
+     *
+     * @return the serialized cauldrons
+     *
+     * @throws IOException if a shard could not be read
+     */
+    @NotNull
+    public List<@NotNull JsonObject> readWorld(@NotNull UUID worldUUID) throws IOException {
+        Preconditions.checkArgument(worldUUID != null, "worldUUID must not be null");
+
+        List<@NotNull JsonObject> records = new ArrayList<>();
+
+        File[] files = new File(directory, worldUUID.toString()).listFiles((parent, name) -> name.startsWith("r."));
+        if (files == null) {
+            return records;
+        }
+
+        // Both slots of a shard file are listed, but only its newest copy is read
+        Set<@NotNull File> shardFiles = new LinkedHashSet<>();
+        for (File file : files) {
+            File shardFile = ShardFile.getShardFile(file, SHARD_EXTENSION);
+            if (shardFile != null) {
+                shardFiles.add(shardFile);
+            }
+        }
+
+        for (File shardFile : shardFiles) {
+            ShardFile.read(shardFile, records::add);
+        }
+
+        return records;
+    }
+
+    /**
+     * Delete all stored cauldrons of the given world.
+     *
+     * @param worldUUID the UUID of the world whose cauldrons to delete
+     *
+     * @throws IOException if a shard could not be deleted
+     */
+    public void deleteWorld(@NotNull UUID worldUUID) throws IOException {
+        Preconditions.checkArgument(worldUUID != null, "worldUUID must not be null");
+
+        File worldDirectory = new File(directory, worldUUID.toString());
+        File[] files = worldDirectory.listFiles();
+        if (files == null) {
+            return;
+        }
+
+        for (File file : files) {
+            Files.deleteIfExists(file.toPath());
+        }
+
+        Files.deleteIfExists(worldDirectory.toPath());
+    }
+
+    @Override
+    public void onCauldronAdd(@NotNull AlchemicalCauldron cauldron) {
+        this.markDirty(cauldron);
+        this.journal.onCauldronAdd(cauldron);
+    }
+
+    @Override
+    public void onCauldronRemove(@NotNull AlchemicalCauldron cauldron) {
+        this.markDirty(cauldron);
+        this.journal.onCauldronRemove(cauldron);
+    }
+
+    @Override
+    public void onIngredientsChange(@NotNull AlchemicalCauldron cauldron) {
+        this.markDirty(cauldron);
+        this.journal.onIngredientsChange(cauldron);
+    }
+
+    @Override
+    public void onHeatStateChange(@NotNull AlchemicalCauldron cauldron) {
+        this.markDirty(cauldron);
+        this.journal.onHeatStateChange(cauldron);
+    }
+
+    private void markDirty(@NotNull AlchemicalCauldron cauldron) {
+        this.getOrLoadShard(cauldron.getWorld().getUID(), cauldron.getX() >> BLOCK_REGION_SHIFT, cauldron.getZ() >> BLOCK_REGION_SHIFT).dirty = true;
+    }
+
+    @NotNull
+    private Shard getOrLoadShard(@NotNull UUID worldUUID, int regionX, int regionZ) {
+        LongObjectHashMap<@NotNull Shard> shards = worlds.computeIfAbsent(worldUUID, uuid -> new LongObjectHashMap<>());
+        long regionKey = BlockPositionUtil.packChunk(regionX, regionZ);
+
+        Shard shard = shards.get(regionKey);
+        if (shard != null) {
+            return shard;
+        }
+
+        shard = new Shard(worldUUID, regionX, regionZ);
+        shards.put(regionKey, shard);
+
+        File file = getShardFile(worldUUID, regionX, regionZ);
+        Shard loadingShard = shard;
+
+        ShardSnapshot snapshot = unwrittenSnapshots.get(file);
+        if (snapshot != null) {
+            snapshot.toJson().forEach(record -> addPending(loadingShard.pending, record.getAsJsonObject()));
+            return shard;
+        }
+
+        if (!ShardFile.exists(file)) {
+            return shard;
+        }
+
+        // Files are read and decoded on the loader thread. Records are merged into the shard on the main thread
+        shard.read = CompletableFuture.supplyAsync(() -> readShard(file), reader);
+        shard.read.whenComplete((records, e) -> completedReads.add(loadingShard));
+        return shard;
+    }
+
+    @NotNull
+    private LongObjectHashMap<@NotNull List<@NotNull JsonObject>> readShard(@NotNull File file) {
+        LongObjectHashMap<@NotNull List<@NotNull JsonObject>> records = new LongObjectHashMap<>();
+
+        try {
+            ShardFile.read(file, record -> addPending(records, record));
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+
+        return records;
+    }
+
+    private void completeRead(@NotNull Shard shard) {
+        CompletableFuture<@NotNull LongObjectHashMap<@NotNull List<@NotNull JsonObject>>> read = shard.read;
+        if (read == null || !isCurrent(shard)) {
+            return; // Already merged, or released while it was being read
+        }
+
+        shard.read = null;
+
+        LongObjectHashMap<@NotNull List<@NotNull JsonObject>> records;
+        try {
+            records = read.join();
+        } catch (CompletionException e) {
+            // Never overwrite a shard that could not be read, it would lose every cauldron not loaded from it
+            this.plugin.getLogger().log(Level.SEVERE, "Could not read cauldron shard " + getShardFile(shard.worldUUID, shard.regionX, shard.regionZ).getPath() + ". Changes to cauldrons in this region are kept in the journal, which will not be compacted until this is resolved", e.getCause());
+            shard.pending.clear();
+            shard.writable = false;
+            return;
+        }
+
+        // Records serialized while the shard was being read (i.e. cauldrons placed in a chunk that has since unloaded) are newer
+        for (List<@NotNull JsonObject> chunkRecords : records.values()) {
+            for (JsonObject record : chunkRecords) {
+                List<@NotNull JsonObject> existing = shard.pending.get(getChunkKey(record));
+                long position = getPosition(record);
+                if (existing == null || existing.stream().noneMatch(other -> getPosition(other) == position)) {
+                    this.addPending(shard.pending, record);
+                }
+            }
+        }
+
+        for (int index = shard.loadedChunks.nextSetBit(0); index >= 0; index = shard.loadedChunks.nextSetBit(index + 1)) {
+            int chunkX = (shard.regionX << REGION_SHIFT) | (index >> REGION_SHIFT), chunkZ = (shard.regionZ << REGION_SHIFT) | (index & REGION_MASK);
+            if (shard.pending.containsKey(BlockPositionUtil.packChunk(chunkX, chunkZ))) {
+                this.chunkLoads.add(new ChunkLoad(shard, chunkX, chunkZ));
+            }
+        }
+    }
+
+    private void awaitReads() {
+        List<@NotNull Shard> loadingShards = new ArrayList<>();
+        for (LongObjectHashMap<@NotNull Shard> shards : worlds.values()) {
+            for (Shard shard : shards.values()) {
+                if (shard.read != null) {
+                    loadingShards.add(shard);
+                }
+            }
+        }
+
+        for (Shard shard : loadingShards) {
+            shard.read.handle((records, e) -> null).join();
+            this.completeRead(shard);
+        }
+    }
+
+    private void tick() {
+        Shard completedShard;
+        while ((completedShard = completedReads.poll()) != null) {
+            this.completeRead(completedShard);
+        }
+
+        int quota = loadQuota;
+        while (quota > 0 && !chunkLoads.isEmpty()) {
+            quota -= materialize(chunkLoads.poll());
+        }
+    }
+
+    private int materialize(@NotNull ChunkLoad load) {
+        Shard shard = load.shard;
+        if (!isCurrent(shard) || !shard.loadedChunks.get(getLocalChunkIndex(load.chunkX, load.chunkZ))) {
+            return 0; // The chunk unloaded before its turn, its records remain pending
+        }
+
+        World world = Bukkit.getWorld(shard.worldUUID);
+        long chunkKey = BlockPositionUtil.packChunk(load.chunkX, load.chunkZ);
+        List<@NotNull JsonObject> records = (world != null) ? shard.pending.remove(chunkKey) : null;
+        if (records == null) {
+            return 0;
+        }
+
+        // Retain records that failed to load so they are not lost. They will be attempted again when the chunk next loads
+        List<@NotNull JsonObject> failedRecords = new ArrayList<>();
+        if (CauldronRecords.load(plugin, world, records, failedRecords)) {
+            shard.dirty = true;
+        }
+
+        if (!failedRecords.isEmpty()) {
+            shard.pending.put(chunkKey, failedRecords);
+        }
+
+        return records.size();
+    }
+
+    private boolean isCurrent(@NotNull Shard shard) {
+        LongObjectHashMap<@NotNull Shard> shards = worlds.get(shard.worldUUID);
+        return shards != null && shards.get(BlockPositionUtil.packChunk(shard.regionX, shard.regionZ)) == shard;
+    }
+
+    private static void addPending(@NotNull LongObjectHashMap<@NotNull List<@NotNull JsonObject>> pending, @NotNull JsonObject record) {
+        long chunkKey = getChunkKey(record);
+
+        List<@NotNull JsonObject> chunkRecords = pending.get(chunkKey);
+        if (chunkRecords == null) {
+            chunkRecords = new ArrayList<>(2);
+            pending.put(chunkKey, chunkRecords);
+        }
+
+        chunkRecords.add(record);
+    }
+
+    private static long getChunkKey(@NotNull JsonObject record) {
+        JsonObject cauldronBlockObject = record.getAsJsonObject("cauldron");
+        return BlockPositionUtil.packChunk(cauldronBlockObject.get("x").getAsInt() >> 4, cauldronBlockObject.get("z").getAsInt() >> 4);
+    }
+
+    private static long getPosition(@NotNull JsonObject record) {
+        JsonObject cauldronBlockObject = record.getAsJsonObject("cauldron");
+        return BlockPositionUtil.pack(cauldronBlockObject.get("x").getAsInt(), cauldronBlockObject.get("y").getAsInt(), cauldronBlockObject.get("z").getAsInt());
+    }
+
+    private void releaseShard(@NotNull UUID worldUUID, @NotNull LongObjectHashMap<@NotNull Shard> shards, long regionKey) {
+        shards.remove(regionKey);
+        if (shards.isEmpty()) {
+            this.worlds.remove(worldUUID);
+        }
+    }
+
+    @NotNull
+    private ShardSnapshot snapshot(@Nullable World world, @NotNull Shard shard) {
+        List<@NotNull JsonObject> records = new ArrayList<>();
+        for (List<@NotNull JsonObject> chunkRecords : shard.pending.values()) {
+            records.addAll(chunkRecords);
+        }
+
+        List<@NotNull CauldronSnapshot> cauldrons = new ArrayList<>();
+        if (world != null) {
+            int minX = shard.regionX << BLOCK_REGION_SHIFT, minZ = shard.regionZ << BLOCK_REGION_SHIFT;
+            BoundingBox bounds = new BoundingBox(minX, world.getMinHeight(), minZ, minX + (1 << BLOCK_REGION_SHIFT), world.getMaxHeight(), minZ + (1 << BLOCK_REGION_SHIFT));
+            this.plugin.getCauldronManager().getCauldronsInBoundingBox(world, bounds).forEach(cauldron -> cauldrons.add(CauldronSnapshot.of(cauldron)));
+        }
+
+        return new ShardSnapshot(records, cauldrons);
+    }
+
+    private void importRecords(@NotNull Map<@NotNull File, @NotNull Map<@NotNull String, @NotNull JsonObject>> shards, @Nullable JsonArray records) throws IOException {
+        if (records == null) {
+            return;
+        }
+
+        for (JsonElement element : records) {
+            try {
+                JsonObject record = element.getAsJsonObject();
+                this.getShardRecords(shards, record).put(CauldronJournal.getKey(record), record);
+            } catch (JsonParseException | IllegalStateException | IllegalArgumentException | UnsupportedOperationException e) {
+                this.plugin.getLogger().warning("Skipping malformed cauldron: " + e.getMessage());
+            }
+        }
+    }
+
+    @NotNull
+    private Map<@NotNull String, @NotNull JsonObject> getShardRecords(@NotNull Map<@NotNull File, @NotNull Map<@NotNull String, @NotNull JsonObject>> shards, @NotNull JsonObject object) throws IOException {
+        JsonObject cauldronBlockObject = object.getAsJsonObject("cauldron");
+        File file = getShardFile(
+            UUID.fromString(object.get("world").getAsString()),
+            cauldronBlockObject.get("x").getAsInt() >> BLOCK_REGION_SHIFT,
+            cauldronBlockObject.get("z").getAsInt() >> BLOCK_REGION_SHIFT
+        );
+
+        Map<@NotNull String, @NotNull JsonObject> records = shards.get(file);
+        if (records != null) {
+            return records;
+        }
+
+        records = new LinkedHashMap<>();
+        shards.put(file, records);
+
+        Map<@NotNull String, @NotNull JsonObject> existing = records;
+        ShardFile.read(file, record -> existing.put(CauldronJournal.getKey(record), record));
+        return records;
+    }
+
+    @NotNull
+    private File getShardFile(@NotNull UUID worldUUID, int regionX, int regionZ) {
+        return new File(new File(directory, worldUUID.toString()), "r." + regionX + "." + regionZ + SHARD_EXTENSION);
+    }
+
+    private static int getLocalChunkIndex(int chunkX, int chunkZ) {
+        return ((chunkX & REGION_MASK) << REGION_SHIFT) | (chunkZ & REGION_MASK);
+    }
+
+    private static final class Shard {
+
+        private final UUID worldUUID;
+        private final int regionX, regionZ;
+        private final BitSet loadedChunks = new BitSet(1 << (REGION_SHIFT * 2));
+        private final LongObjectHashMap<@NotNull List<@NotNull JsonObject>> pending = new LongObjectHashMap<>();
+
+        // The in-flight read of this shard's file. null once its records have been merged into pending
+        @Nullable
+        private CompletableFuture<@NotNull LongObjectHashMap<@NotNull List<@NotNull JsonObject>>> read;
+
+        private boolean dirty = false;
+        private boolean writable = true;
+
+        private Shard(@NotNull UUID worldUUID, int regionX, int regionZ) {
+            this.worldUUID = worldUUID;
+            this.regionX = regionX;
+            this.regionZ = regionZ;
+        }
+
+    }
+
+    private static final class ChunkLoad {
+
+        private final Shard shard;
+        private final int chunkX, chunkZ;
+
+        private ChunkLoad(@NotNull Shard shard, int chunkX, int chunkZ) {
+            this.shard = shard;
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+    }
+
+}
@@ -0,0 +1,165 @@
+package wtf.choco.alchema.persistence;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import wtf.choco.alchema.cauldron.AlchemicalCauldron;
+import wtf.choco.alchema.crafting.CauldronIngredient;
+
+import java.util.List;
+
+/**
+ * An immutable copy of the persisted state of an {@link AlchemicalCauldron}. Snapshots are
+ * cheap to capture on the main thread and may be serialized on any thread.
+ *
+ * @author Parker Hawke - Choco
+ */
+final class CauldronSnapshot {
+
+    private final String worldUUID;
+    private final int x, y, z;
+    private final long heatingStartTime;
+    private final boolean heatingUp, bubbling;
+    private final List<@NotNull CauldronIngredient> ingredients;
+    private final JsonArray rawIngredients;
+
+    private CauldronSnapshot(@NotNull AlchemicalCauldron cauldron) {
+        this.worldUUID = cauldron.getWorld().getUID().toString();
+        this.x = cauldron.getX();
+        this.y = cauldron.getY();
+        this.z = cauldron.getZ();
+        this.heatingStartTime = cauldron.getHeatingStartTime();
+        this.heatingUp = cauldron.isHeatingUp();
+        this.bubbling = cauldron.isBubbling();
+
+        // Ingredients not yet inflated are never modified and may be shared as is. Otherwise,
+        // ingredients are immutable and only the list itself must be copied
+        this.rawIngredients = cauldron.getRawIngredients();
+        this.ingredients = (rawIngredients == null) ? List.copyOf(cauldron.getIngredients()) : List.of();
+    }
+
+    private CauldronSnapshot(@NotNull String worldUUID, @NotNull JsonObject record) {
+        JsonObject cauldronBlockObject = record.getAsJsonObject("cauldron");
+
+        this.worldUUID = worldUUID;
+        this.x = cauldronBlockObject.get("x").getAsInt();
+        this.y = cauldronBlockObject.get("y").getAsInt();
+        this.z = cauldronBlockObject.get("z").getAsInt();
+        this.heatingStartTime = record.has("heatingStartTime") ? record.get("heatingStartTime").getAsLong() : -1;
+        this.heatingUp = record.has("heatingUp") && record.get("heatingUp").getAsBoolean();
+        this.bubbling = record.has("bubbling") && record.get("bubbling").getAsBoolean();
+        this.rawIngredients = record.has("ingredients") ? record.getAsJsonArray("ingredients") : null;
+        this.ingredients = List.of();
+    }
+
+    /**
+     * Capture a snapshot of the given cauldron.
+     *
+     * @param cauldron the cauldron to capture
+     *
+     * @return the snapshot
+     */
+    @NotNull
+    static CauldronSnapshot of(@NotNull AlchemicalCauldron cauldron) {
+        return new CauldronSnapshot(cauldron);
+    }
+
+    /**
+     * Create a snapshot of the given serialized cauldron, as written by
+     * {@link AlchemicalCauldron#write(JsonObject)}. Its ingredients are not deserialized.
+     *
+     * @param worldUUID the UUID of the world in which the cauldron resides
+     * @param record the serialized cauldron
+     *
+     * @return the snapshot
+     *
+     * @throws RuntimeException if the record does not specify its position
+     */
+    @NotNull
+    static CauldronSnapshot fromJson(@NotNull String worldUUID, @NotNull JsonObject record) {
+        return new CauldronSnapshot(worldUUID, record);
+    }
+
+    @NotNull
+    String getWorldUUID() {
+        return worldUUID;
+    }
+
+    int getX() {
+        return x;
+    }
+
+    int getY() {
+        return y;
+    }
+
+    int getZ() {
+        return z;
+    }
+
+    long getHeatingStartTime() {
+        return heatingStartTime;
+    }
+
+    boolean isHeatingUp() {
+        return heatingUp;
+    }
+
+    boolean isBubbling() {
+        return bubbling;
+    }
+
+    /**
+     * Serialize the ingredients of this snapshot.
+     *
+     * @return the serialized ingredients. null if there are none
+     */
+    @Nullable
+    JsonArray ingredientsToJson() {
+        if (rawIngredients != null) {
+            return rawIngredients;
+        }
+
+        if (ingredients.isEmpty()) {
+            return null;
+        }
+
+        JsonArray ingredientsArray = new JsonArray(ingredients.size());
+        for (CauldronIngredient ingredient : ingredients) {
+            JsonObject ingredientObject = ingredient.toJson();
+            ingredientObject.addProperty("type", ingredient.getKey().toString());
+            ingredientsArray.add(ingredientObject);
+        }
+
+        return ingredientsArray;
+    }
+
+    /**
+     * Serialize this snapshot in the same format as {@link AlchemicalCauldron#write(JsonObject)}.
+     *
+     * @return the serialized cauldron
+     */
+    @NotNull
+    JsonObject toJson() {
+        JsonObject object = new JsonObject();
+        object.addProperty("heatingStartTime", heatingStartTime);
+        object.addProperty("heatingUp", heatingUp);
+        object.addProperty("bubbling", bubbling);
+        object.addProperty("world", worldUUID);
+
+        JsonObject cauldronBlockObject = new JsonObject();
+        cauldronBlockObject.addProperty("x", x);
+        cauldronBlockObject.addProperty("y", y);
+        cauldronBlockObject.addProperty("z", z);
+        object.add("cauldron", cauldronBlockObject);
+
+        JsonArray ingredientsArray = ingredientsToJson();
+        if (ingredientsArray != null) {
+            object.add("ingredients", ingredientsArray);
+        }
+
+        return object;
+    }
+
+}
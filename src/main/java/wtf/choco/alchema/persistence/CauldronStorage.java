@@ -0,0 +1,67 @@
+package wtf.choco.alchema.persistence;
+
+import org.bukkit.Chunk;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+import wtf.choco.alchema.cauldron.AlchemicalCauldron;
+import wtf.choco.alchema.cauldron.CauldronChangeListener;
+import wtf.choco.alchema.cauldron.CauldronManager;
+
+/**
+ * Represents a means of persisting {@link AlchemicalCauldron AlchemicalCauldrons}. Cauldrons
+ * are loaded into and unloaded from the {@link CauldronManager} alongside the chunks in which
+ * they reside, and the storage is notified of every change made to them such that it may
+ * track what must be saved.
+ * <p>
+ * Implementations are not required to be thread-safe and must only be used from the main thread.
+ *
+ * @author Parker Hawke - Choco
+ */
+public interface CauldronStorage extends CauldronChangeListener {
+
+    /**
+     * Recover any state left behind by the last shutdown. This is called once before any
+     * chunk is loaded.
+     */
+    void recover();
+
+    /**
+     * Load all cauldrons in the given chunk.
+     *
+     * @param chunk the chunk to load
+     */
+    void loadChunk(@NotNull Chunk chunk);
+
+    /**
+     * Save if necessary and unload all cauldrons in the given chunk.
+     *
+     * @param chunk the chunk to unload
+     */
+    void unloadChunk(@NotNull Chunk chunk);
+
+    /**
+     * Load the cauldrons in all loaded chunks of the given world.
+     *
+     * @param world the world to load
+     */
+    void loadWorld(@NotNull World world);
+
+    /**
+     * Save and unload all cauldrons in the given world.
+     *
+     * @param world the world to unload
+     */
+    void unloadWorld(@NotNull World world);
+
+    /**
+     * Save all cauldrons that have changed since they were last saved.
+     */
+    void save();
+
+    /**
+     * Save all changed cauldrons and release any resources held by this storage. The
+     * storage must not be used after it has been closed.
+     */
+    void close();
+
+}
@@ -0,0 +1,76 @@
+package wtf.choco.alchema.persistence;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import wtf.choco.alchema.Alchema;
+
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * Represents the available types of {@link CauldronStorage}.
+ *
+ * @author Parker Hawke - Choco
+ */
+public enum CauldronStorageType {
+
+    /**
+     * Cauldrons are stored in JSON files in the plugin's data folder.
+     *
+     * @see CauldronShardStore
+     */
+    JSON(CauldronShardStore::new),
+
+    /**
+     * Cauldrons are stored in the chunk in which they reside.
+     *
+     * @see CauldronChunkStorage
+     */
+    CHUNK(CauldronChunkStorage::new),
+
+    /**
+     * Cauldrons are stored in an SQLite database in the plugin's data folder.
+     *
+     * @see CauldronSQLiteStorage
+     */
+    SQLITE(CauldronSQLiteStorage::new);
+
+    private final Function<@NotNull Alchema, @NotNull CauldronStorage> constructor;
+
+    private CauldronStorageType(@NotNull Function<@NotNull Alchema, @NotNull CauldronStorage> constructor) {
+        this.constructor = constructor;
+    }
+
+    /**
+     * Create a new storage of this type.
+     *
+     * @param plugin the plugin instance
+     *
+     * @return the storage
+     */
+    @NotNull
+    public CauldronStorage createStorage(@NotNull Alchema plugin) {
+        return constructor.apply(plugin);
+    }
+
+    /**
+     * Get the storage type with the given name, case insensitively.
+     *
+     * @param name the name of the storage type
+     *
+     * @return the storage type. null if none
+     */
+    @Nullable
+    public static CauldronStorageType getByName(@Nullable String name) {
+        if (name == null) {
+            return null;
+        }
+
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,49 @@
+package wtf.choco.alchema.persistence;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParseException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * Utility methods to read JSON arrays of serialized cauldrons written by previous versions
+ * of Alchema.
+ *
+ * @author Parker Hawke - Choco
+ */
+final class JsonFiles {
+
+    private static final Gson GSON = new Gson();
+
+    private JsonFiles() { }
+
+    /**
+     * Read a JSON array from the given file.
+     *
+     * @param file the file to read
+     *
+     * @return the array. null if the file does not exist
+     *
+     * @throws IOException if the file could not be read or is malformed
+     */
+    @Nullable
+    static JsonArray read(@NotNull File file) throws IOException {
+        if (!file.exists()) {
+            return null;
+        }
+
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            return GSON.fromJson(reader, JsonArray.class);
+        } catch (JsonParseException e) {
+            throw new IOException("Malformed cauldron file " + file.getName(), e);
+        }
+    }
+
+}
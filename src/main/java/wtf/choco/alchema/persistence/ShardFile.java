@@ -0,0 +1,373 @@
+package wtf.choco.alchema.persistence;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Utility methods to read and write shard files. A shard file is stored as two alternating
+ * slots, each holding a header followed by the cauldrons in the {@link CauldronBinaryFormat
+ * binary format}. The header holds a sequence number incremented with every write, and the
+ * length and CRC32 checksum of the cauldrons.
+ * <p>
+ * Each write overwrites the slot not holding the newest valid copy in place and writes its
+ * header last, so the newest valid copy is never touched. Reads pick the slot with the highest
+ * sequence number and verify its checksum while streaming its cauldrons, falling back to the
+ * other slot if it turns out to be incomplete or corrupt. A crash while writing therefore loses
+ * at most the write in progress, without writing to a temporary file and renaming it.
+ *
+ * @author Parker Hawke - Choco
+ */
+final class ShardFile {
+
+    private static final int MAGIC = 0x414C4353; // "ALCS"
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES;
+
+    private static final String[] SLOT_NAMES = { "a", "b" };
+
+    private ShardFile() { }
+
+    /**
+     * Check whether or not either slot of the given shard file exists.
+     *
+     * @param file the shard file
+     *
+     * @return true if it exists, false otherwise
+     */
+    static boolean exists(@NotNull File file) {
+        for (String slotName : SLOT_NAMES) {
+            if (getSlotFile(file, slotName).exists()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Get the shard file to which the given slot file belongs.
+     *
+     * @param file the file
+     * @param extension the extension of shard files, including the leading period
+     *
+     * @return the shard file. null if the file is not a slot of a shard file
+     */
+    @Nullable
+    static File getShardFile(@NotNull File file, @NotNull String extension) {
+        String name = file.getName();
+        if (!name.endsWith(extension)) {
+            return null;
+        }
+
+        String baseName = name.substring(0, name.length() - extension.length());
+        for (String slotName : SLOT_NAMES) {
+            if (baseName.endsWith("." + slotName)) {
+                return new File(file.getParentFile(), baseName.substring(0, baseName.length() - slotName.length() - 1) + extension);
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Read the newest valid copy of the given shard file. Cauldrons are only passed to the
+     * consumer once the copy from which they were read has been verified in its entirety.
+     *
+     * @param file the shard file
+     * @param consumer the consumer to which serialized cauldrons should be passed
+     *
+     * @return true if the shard file was read, false if it does not exist
+     *
+     * @throws IOException if the shard file exists but no copy of it could be read
+     */
+    static boolean read(@NotNull File file, @NotNull Consumer<@NotNull JsonObject> consumer) throws IOException {
+        IOException failure = null;
+
+        for (Slot slot : readSlots(file)) {
+            if (slot.header == null) {
+                continue;
+            }
+
+            List<@NotNull JsonObject> records = new ArrayList<>();
+            try (FileChannel channel = FileChannel.open(slot.file.toPath(), StandardOpenOption.READ)) {
+                channel.position(HEADER_SIZE);
+
+                VerifyingChannel verifyingChannel = new VerifyingChannel(channel, slot.header.length);
+                CauldronBinaryFormat.read(verifyingChannel, slot.header.length, records::add);
+                verifyingChannel.verify(slot.header.checksum);
+            } catch (IOException e) {
+                IOException exception = new IOException("Invalid cauldron file " + slot.file.getName() + ": " + e.getMessage(), e);
+                if (failure == null) {
+                    failure = exception;
+                } else {
+                    failure.addSuppressed(exception);
+                }
+
+                continue; // Fall back to the older copy
+            }
+
+            records.forEach(consumer);
+            return true;
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+
+        return false;
+    }
+
+    /**
+     * Write serialized cauldrons to the given shard file, overwriting the slot not holding its
+     * newest intact copy. The cauldrons of the newest slot are verified against its checksum
+     * first, such that a slot whose header reached the disk but whose cauldrons did not is
+     * overwritten rather than the older, intact copy. The slot is synced to disk before this
+     * method returns. If there are no cauldrons, the shard file is deleted instead.
+     *
+     * @param file the shard file
+     * @param records the serialized cauldrons to write
+     *
+     * @throws IOException if the shard file could not be written
+     */
+    static void write(@NotNull File file, @NotNull JsonArray records) throws IOException {
+        if (records.isEmpty()) {
+            delete(file);
+            return;
+        }
+
+        File parent = file.getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+
+        // Slots are ordered newest first, so the last slot is either invalid or the oldest valid copy
+        Slot[] slots = readSlots(file);
+        Slot newest = slots[0], target = slots[slots.length - 1];
+        long sequence = (newest.header != null) ? newest.header.sequence + 1 : 1;
+
+        // A torn newest copy is read as the older one, which must then be kept
+        if (newest.header != null && !isIntact(newest)) {
+            target = newest;
+        }
+
+        try (FileChannel channel = FileChannel.open(target.file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // Reserve the header. It is written once the cauldrons have been written in full
+            channel.write(ByteBuffer.allocate(HEADER_SIZE));
+
+            ChecksummingChannel checksummingChannel = new ChecksummingChannel(channel);
+            CauldronBinaryFormat.write(checksummingChannel, records);
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putLong(sequence).putLong(checksummingChannel.length).putInt((int) checksummingChannel.checksum.getValue()).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Delete both slots of the given shard file.
+     *
+     * @param file the shard file
+     *
+     * @throws IOException if the shard file could not be deleted
+     */
+    static void delete(@NotNull File file) throws IOException {
+        for (String slotName : SLOT_NAMES) {
+            Files.deleteIfExists(getSlotFile(file, slotName).toPath());
+        }
+    }
+
+    private static boolean isIntact(@NotNull Slot slot) {
+        try (FileChannel channel = FileChannel.open(slot.file.toPath(), StandardOpenOption.READ)) {
+            channel.position(HEADER_SIZE);
+            new VerifyingChannel(channel, slot.header.length).verify(slot.header.checksum);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @NotNull
+    private static Slot[] readSlots(@NotNull File file) {
+        Slot[] slots = new Slot[SLOT_NAMES.length];
+        for (int i = 0; i < slots.length; i++) {
+            File slotFile = getSlotFile(file, SLOT_NAMES[i]);
+            slots[i] = new Slot(slotFile, readHeader(slotFile));
+        }
+
+        // Newest valid slot first, invalid slots last
+        Arrays.sort(slots, Comparator.comparingLong(slot -> (slot.header != null) ? -slot.header.sequence : Long.MAX_VALUE));
+        return slots;
+    }
+
+    @Nullable
+    private static Header readHeader(@NotNull File slotFile) {
+        if (!slotFile.exists()) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(slotFile.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    return null;
+                }
+            }
+
+            buffer.flip();
+            if (buffer.getInt() != MAGIC) {
+                return null;
+            }
+
+            Header header = new Header(buffer.getLong(), buffer.getLong(), buffer.getInt());
+            return (header.sequence > 0 && header.length == channel.size() - HEADER_SIZE) ? header : null;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @NotNull
+    private static File getSlotFile(@NotNull File file, @NotNull String slotName) {
+        String name = file.getName();
+        int extensionIndex = name.lastIndexOf('.');
+        String slotFileName = (extensionIndex > 0) ? name.substring(0, extensionIndex) + "." + slotName + name.substring(extensionIndex) : name + "." + slotName;
+        return new File(file.getParentFile(), slotFileName);
+    }
+
+    private static final class Slot {
+
+        private final File file;
+        private final Header header;
+
+        private Slot(@NotNull File file, @Nullable Header header) {
+            this.file = file;
+            this.header = header;
+        }
+
+    }
+
+    private static final class Header {
+
+        private final long sequence, length;
+        private final int checksum;
+
+        private Header(long sequence, long length, int checksum) {
+            this.sequence = sequence;
+            this.length = length;
+            this.checksum = checksum;
+        }
+
+    }
+
+    private static final class ChecksummingChannel implements WritableByteChannel {
+
+        private final WritableByteChannel channel;
+        private final CRC32 checksum = new CRC32();
+        private long length = 0;
+
+        private ChecksummingChannel(@NotNull WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public int write(@NotNull ByteBuffer source) throws IOException {
+            int position = source.position();
+            int written = channel.write(source);
+
+            this.checksum.update(source.duplicate().position(position).limit(position + written));
+            this.length += written;
+            return written;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.channel.close();
+        }
+
+    }
+
+    private static final class VerifyingChannel implements ReadableByteChannel {
+
+        private final ReadableByteChannel channel;
+        private final CRC32 checksum = new CRC32();
+        private long remaining;
+
+        private VerifyingChannel(@NotNull ReadableByteChannel channel, long length) {
+            this.channel = channel;
+            this.remaining = length;
+        }
+
+        @Override
+        public int read(@NotNull ByteBuffer destination) throws IOException {
+            if (remaining <= 0) {
+                return -1;
+            }
+
+            int position = destination.position();
+            ByteBuffer limited = destination.duplicate();
+            if (limited.remaining() > remaining) {
+                limited.limit(position + (int) remaining);
+            }
+
+            int read = channel.read(limited);
+            if (read <= 0) {
+                return read;
+            }
+
+            this.checksum.update(destination.duplicate().position(position).limit(position + read));
+            destination.position(position + read);
+            this.remaining -= read;
+            return read;
+        }
+
+        private void verify(int expectedChecksum) throws IOException {
+            // Trailing bytes not consumed by the cauldron stream are covered by the checksum all the same
+            ByteBuffer buffer = ByteBuffer.allocate(4096);
+            while (read(buffer.clear()) > 0) { }
+
+            if (remaining > 0) {
+                throw new IOException("Truncated");
+            }
+
+            if ((int) checksum.getValue() != expectedChecksum) {
+                throw new IOException("Checksum mismatch");
+            }
+        }
+
+        @Override
+        public boolean isOpen() {
+            return channel.isOpen();
+        }
+
+        @Override
+        public void close() throws IOException {
+            this.channel.close();
+        }
+
+    }
+
+}
@@ -0,0 +1,53 @@
+package wtf.choco.alchema.persistence;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * An immutable snapshot of the contents of a shard, consisting of the already serialized
+ * cauldrons of unloaded chunks and {@link CauldronSnapshot snapshots} of loaded cauldrons.
+ *
+ * @author Parker Hawke - Choco
+ */
+final class ShardSnapshot {
+
+    private final List<@NotNull JsonObject> records;
+    private final List<@NotNull CauldronSnapshot> cauldrons;
+
+    /**
+     * Construct a new {@link ShardSnapshot}. The given lists must not be modified afterwards.
+     *
+     * @param records the serialized cauldrons. These must not be modified afterwards either
+     * @param cauldrons the cauldron snapshots
+     */
+    ShardSnapshot(@NotNull List<@NotNull JsonObject> records, @NotNull List<@NotNull CauldronSnapshot> cauldrons) {
+        this.records = records;
+        this.cauldrons = cauldrons;
+    }
+
+    /**
+     * Get the amount of cauldrons in this snapshot.
+     *
+     * @return the cauldron count
+     */
+    int size() {
+        return records.size() + cauldrons.size();
+    }
+
+    /**
+     * Serialize all cauldrons in this snapshot.
+     *
+     * @return the serialized cauldrons
+     */
+    @NotNull
+    JsonArray toJson() {
+        JsonArray array = new JsonArray(size());
+        this.records.forEach(array::add);
+        this.cauldrons.forEach(cauldron -> array.add(cauldron.toJson()));
+        return array;
+    }
+
+}
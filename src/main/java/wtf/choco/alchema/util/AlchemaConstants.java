@@ -16,10 +16,18 @@ import java.util.List;
 public final class AlchemaConstants {
 
     // Metadata keys
-    /** A metadata key used by Alchema to denote that a block is an alchemical cauldron */
+    /**
+     * A metadata key used by Alchema to denote that a block is an alchemical cauldron. Only
+     * set if {@link #CONFIG_CAULDRON_MIRROR_BLOCK_METADATA} is enabled. Prefer
+     * {@link wtf.choco.alchema.cauldron.CauldronManager#isAlchemicalCauldron(org.bukkit.block.Block)}
+     */
     public static final String METADATA_KEY_ALCHEMICAL_CAULDRON = "alchema:alchemical_cauldron";
 
-    /** A metadata key used by Alchema to denote whether or not an alchemical cauldron is bubbling */
+    /**
+     * A metadata key used by Alchema to denote whether or not an alchemical cauldron is bubbling.
+     * Only set if {@link #CONFIG_CAULDRON_MIRROR_BLOCK_METADATA} is enabled. Prefer
+     * {@link wtf.choco.alchema.cauldron.CauldronManager#isBubbling(org.bukkit.block.Block)}
+     */
     public static final String METADATA_KEY_ALCHEMICAL_CAULDRON_BUBBLING = "alchema:alchemical_cauldron_bubbling";
 
     /** A metadata key used by Alchema to denote that an entity was damaged by a cauldron */
@@ -58,6 +66,12 @@ public final class AlchemaConstants {
     /** Configuration path, Metrics.AnonymousCustomRecipeTypes */
     public static final String CONFIG_METRICS_ANONYMOUS_CUSTOM_RECIPE_TYPES = "Metrics.AnonymousCustomRecipeTypes";
 
+    /** Configuration path, Recipes.HotReload */
+    public static final String CONFIG_RECIPES_HOT_RELOAD = "Recipes.HotReload";
+
+    /** Configuration path, Recipes.RegisterCraftingPermissions */
+    public static final String CONFIG_RECIPES_REGISTER_CRAFTING_PERMISSIONS = "Recipes.RegisterCraftingPermissions";
+
     /** Configuration path, Cauldron.ItemSearchInterval */
     public static final String CONFIG_CAULDRON_ITEM_SEARCH_INTERVAL = "Cauldron.ItemSearchInterval";
 
@@ -94,6 +108,21 @@ public final class AlchemaConstants {
     /** Configuration path, Cauldron.Sound.SuccessfulCraftVolume */
     public static final String CONFIG_CAULDRON_SOUND_SUCCESSFUL_CRAFT_VOLUME = "Cauldron.Sound.SuccessfulCraftVolume";
 
+    /** Configuration path, Cauldron.MirrorBlockMetadata */
+    public static final String CONFIG_CAULDRON_MIRROR_BLOCK_METADATA = "Cauldron.MirrorBlockMetadata";
+
+    /** Configuration path, Cauldron.Persistence.AutosaveInterval */
+    public static final String CONFIG_CAULDRON_PERSISTENCE_AUTOSAVE_INTERVAL = "Cauldron.Persistence.AutosaveInterval";
+
+    /** Configuration path, Cauldron.Persistence.Storage */
+    public static final String CONFIG_CAULDRON_PERSISTENCE_STORAGE = "Cauldron.Persistence.Storage";
+
+    /** Configuration path, Cauldron.Persistence.LoadsPerTick */
+    public static final String CONFIG_CAULDRON_PERSISTENCE_LOADS_PER_TICK = "Cauldron.Persistence.LoadsPerTick";
+
+    /** Configuration path, Cauldron.Persistence.ItemCodec */
+    public static final String CONFIG_CAULDRON_PERSISTENCE_ITEM_CODEC = "Cauldron.Persistence.ItemCodec";
+
     /** Configuration path, VialOfEssence.MaximumEssence */
     public static final String CONFIG_VIAL_OF_ESSENCE_MAXIMUM_ESSENCE = "VialOfEssence.MaximumEssence";
 
@@ -168,6 +197,15 @@ public final class AlchemaConstants {
     /** Permission node, alchema.command.saverecipe, grants access to /alchema saverecipe */
     public static final String PERMISSION_COMMAND_SAVERECIPE = "alchema.command.saverecipe";
 
+    /** Permission node, alchema.command.migratestorage, grants access to /alchema migratestorage */
+    public static final String PERMISSION_COMMAND_MIGRATESTORAGE = "alchema.command.migratestorage";
+
+    /** Permission node, alchema.command.savestats, grants access to /alchema savestats */
+    public static final String PERMISSION_COMMAND_SAVESTATS = "alchema.command.savestats";
+
+    /** Permission node, alchema.command.benchmark, grants access to /alchema benchmark */
+    public static final String PERMISSION_COMMAND_BENCHMARK = "alchema.command.benchmark";
+
     /** Permission node, alchema.command.givevialofessence, grants access to /givevialofessence */
     public static final String PERMISSION_COMMAND_GIVE_VIAL_OF_ESSENCE = "alchema.command.givevialofessence";
 
@@ -0,0 +1,77 @@
+package wtf.choco.alchema.util;
+
+import org.jetbrains.annotations.ApiStatus.Internal;
+
+/**
+ * A utility class to pack block coordinates into a single primitive {@code long}.
+ * <p>
+ * Coordinates are packed with 26 bits for the x and z axes and 12 bits for the y axis,
+ * which is more than sufficient to cover the maximum bounds of a Minecraft world. Chunk
+ * coordinates may be packed similarly with {@link #packChunk(int, int)}.
+ *
+ * @author Parker Hawke - Choco
+ */
+@Internal
+public final class BlockPositionUtil {
+
+    private BlockPositionUtil() { }
+
+    /**
+     * Pack the given block coordinates into a single long.
+     *
+     * @param x the block x coordinate
+     * @param y the block y coordinate
+     * @param z the block z coordinate
+     *
+     * @return the packed position
+     */
+    public static long pack(int x, int y, int z) {
+        return ((x & 0x3FFFFFFL) << 38) | ((z & 0x3FFFFFFL) << 12) | (y & 0xFFFL);
+    }
+
+    /**
+     * Get the block x coordinate from a position packed by {@link #pack(int, int, int)}.
+     *
+     * @param position the packed position
+     *
+     * @return the x coordinate
+     */
+    public static int unpackX(long position) {
+        return (int) (position >> 38);
+    }
+
+    /**
+     * Get the block y coordinate from a position packed by {@link #pack(int, int, int)}.
+     *
+     * @param position the packed position
+     *
+     * @return the y coordinate
+     */
+    public static int unpackY(long position) {
+        return (int) (position << 52 >> 52);
+    }
+
+    /**
+     * Get the block z coordinate from a position packed by {@link #pack(int, int, int)}.
+     *
+     * @param position the packed position
+     *
+     * @return the z coordinate
+     */
+    public static int unpackZ(long position) {
+        return (int) (position << 26 >> 38);
+    }
+
+    /**
+     * Pack the given chunk coordinates into a single long.
+     *
+     * @param chunkX the chunk x coordinate
+     * @param chunkZ the chunk z coordinate
+     *
+     * @return the packed chunk key
+     */
+    public static long packChunk(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+}
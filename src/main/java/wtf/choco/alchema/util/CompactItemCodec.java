@@ -0,0 +1,427 @@
+package wtf.choco.alchema.util;
+
+import org.bukkit.configuration.serialization.ConfigurationSerializable;
+import org.bukkit.configuration.serialization.ConfigurationSerialization;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * An {@link ItemCodec} writing the {@link ConfigurationSerializable serialized form} of items
+ * (the same map that is written to YAML) as tagged binary values. Nested serializable values
+ * are written with their alias and deserialized bottom up, just as they would be from YAML,
+ * and numeric values retain their exact type.
+ * <p>
+ * An encoded item begins with a magic byte followed by a flags byte. If compression is enabled
+ * and it saves space, the payload is deflated and preceded by its inflated length. Buffers,
+ * {@link Deflater Deflaters} and {@link Inflater Inflaters} are reused per thread.
+ *
+ * @author Parker Hawke - Choco
+ */
+final class CompactItemCodec implements ItemCodec {
+
+    // Java serialization streams, as written by LegacyItemCodec, begin with 0xAC
+    private static final byte MAGIC = (byte) 0xA1;
+
+    private static final int FLAG_DEFLATED = 1;
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_FALSE = 1;
+    private static final int TAG_TRUE = 2;
+    private static final int TAG_BYTE = 3;
+    private static final int TAG_SHORT = 4;
+    private static final int TAG_INT = 5;
+    private static final int TAG_LONG = 6;
+    private static final int TAG_FLOAT = 7;
+    private static final int TAG_DOUBLE = 8;
+    private static final int TAG_STRING = 9;
+    private static final int TAG_LIST = 10;
+    private static final int TAG_MAP = 11;
+    private static final int TAG_SERIALIZABLE = 12;
+
+    private static final ThreadLocal<Buffers> BUFFERS = ThreadLocal.withInitial(Buffers::new);
+
+    private final boolean compress;
+
+    /**
+     * Construct a new {@link CompactItemCodec}.
+     *
+     * @param compress whether or not to compress encoded items. Compressed items are decoded
+     * regardless of this value
+     */
+    CompactItemCodec(boolean compress) {
+        this.compress = compress;
+    }
+
+    @Override
+    public byte[] encode(@NotNull ItemStack itemStack) throws IOException {
+        Buffers buffers = BUFFERS.get();
+        Output payload = buffers.payload;
+        payload.reset();
+        payload.writeValue(itemStack);
+
+        if (compress) {
+            Deflater deflater = buffers.deflater;
+            deflater.reset();
+            deflater.setInput(payload.array(), 0, payload.size());
+            deflater.finish();
+
+            Output output = buffers.output;
+            output.reset();
+            output.write(MAGIC);
+            output.write(FLAG_DEFLATED);
+            output.writeVarInt(payload.size());
+
+            byte[] chunk = buffers.chunk;
+            while (!deflater.finished() && output.size() < payload.size() + 2) {
+                output.write(chunk, 0, deflater.deflate(chunk));
+            }
+
+            // Only keep the compressed form if it is actually smaller
+            if (deflater.finished() && output.size() < payload.size() + 2) {
+                return output.toByteArray();
+            }
+        }
+
+        byte[] bytes = new byte[payload.size() + 2];
+        bytes[0] = MAGIC;
+        System.arraycopy(payload.array(), 0, bytes, 2, payload.size());
+        return bytes;
+    }
+
+    @NotNull
+    @Override
+    public ItemStack decode(byte[] bytes) throws IOException {
+        if (!canDecode(bytes) || bytes.length < 2) {
+            throw new IOException("Not a compact item");
+        }
+
+        Input input = new Input(bytes, 2, bytes.length);
+        if ((bytes[1] & FLAG_DEFLATED) != 0) {
+            int length = input.readVarInt();
+            byte[] inflated = BUFFERS.get().inflate(bytes, input.position, bytes.length - input.position, length);
+            input = new Input(inflated, 0, length);
+        }
+
+        Object value = input.readValue();
+        if (!(value instanceof ItemStack itemStack)) {
+            throw new IOException("Expected an ItemStack, got " + (value != null ? value.getClass().getName() : "null"));
+        }
+
+        return itemStack;
+    }
+
+    @Override
+    public boolean canDecode(byte[] bytes) {
+        return bytes.length >= 1 && bytes[0] == MAGIC;
+    }
+
+    private static final class Buffers {
+
+        private final Output payload = new Output();
+        private final Output output = new Output();
+        private final byte[] chunk = new byte[1024];
+
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final Inflater inflater = new Inflater();
+
+        private byte[] inflated = new byte[1024];
+
+        private byte[] inflate(byte[] bytes, int offset, int length, int inflatedLength) throws IOException {
+            if (inflatedLength < 0) {
+                throw new IOException("Negative inflated length");
+            }
+
+            if (inflated.length < inflatedLength) {
+                this.inflated = new byte[Math.max(inflatedLength, inflated.length * 2)];
+            }
+
+            this.inflater.reset();
+            this.inflater.setInput(bytes, offset, length);
+
+            try {
+                int read = 0;
+                while (read < inflatedLength && !inflater.finished()) {
+                    int inflatedNow = inflater.inflate(inflated, read, inflatedLength - read);
+                    if (inflatedNow == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        throw new EOFException("Truncated compressed item");
+                    }
+
+                    read += inflatedNow;
+                }
+
+                if (read != inflatedLength) {
+                    throw new IOException("Expected " + inflatedLength + " inflated bytes, got " + read);
+                }
+            } catch (DataFormatException e) {
+                throw new IOException(e);
+            }
+
+            return inflated;
+        }
+
+    }
+
+    private static final class Output extends ByteArrayOutputStream {
+
+        private Output() {
+            super(256);
+        }
+
+        private byte[] array() {
+            return buf;
+        }
+
+        private void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                this.write((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+
+            this.write(value);
+        }
+
+        private void writeVarLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                this.write((int) (value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+
+            this.write((int) value);
+        }
+
+        private void writeFixedLong(long value) {
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                this.write((int) (value >>> shift));
+            }
+        }
+
+        private void writeString(@NotNull String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            this.writeVarInt(bytes.length);
+            this.write(bytes, 0, bytes.length);
+        }
+
+        private void writeValue(@Nullable Object value) throws IOException {
+            if (value == null) {
+                this.write(TAG_NULL);
+            }
+            else if (value instanceof Boolean booleanValue) {
+                this.write(booleanValue ? TAG_TRUE : TAG_FALSE);
+            }
+            else if (value instanceof String string) {
+                this.write(TAG_STRING);
+                this.writeString(string);
+            }
+            else if (value instanceof Integer intValue) {
+                this.write(TAG_INT);
+                this.writeVarInt((intValue << 1) ^ (intValue >> 31));
+            }
+            else if (value instanceof Long longValue) {
+                this.write(TAG_LONG);
+                this.writeVarLong((longValue << 1) ^ (longValue >> 63));
+            }
+            else if (value instanceof Double doubleValue) {
+                this.write(TAG_DOUBLE);
+                this.writeFixedLong(Double.doubleToRawLongBits(doubleValue));
+            }
+            else if (value instanceof Float floatValue) {
+                this.write(TAG_FLOAT);
+                this.writeVarInt(Float.floatToRawIntBits(floatValue));
+            }
+            else if (value instanceof Short shortValue) {
+                this.write(TAG_SHORT);
+                this.writeVarInt((shortValue << 1) ^ (shortValue >> 31));
+            }
+            else if (value instanceof Byte byteValue) {
+                this.write(TAG_BYTE);
+                this.write(byteValue);
+            }
+            else if (value instanceof ConfigurationSerializable serializable) {
+                this.write(TAG_SERIALIZABLE);
+                this.writeString(ConfigurationSerialization.getAlias(serializable.getClass()));
+                this.writeMap(serializable.serialize());
+            }
+            else if (value instanceof Map<?, ?> map) {
+                this.write(TAG_MAP);
+                this.writeMap(map);
+            }
+            else if (value instanceof Collection<?> collection) {
+                this.write(TAG_LIST);
+                this.writeVarInt(collection.size());
+
+                for (Object element : collection) {
+                    this.writeValue(element);
+                }
+            }
+            else {
+                throw new IOException("Cannot encode value of type " + value.getClass().getName());
+            }
+        }
+
+        private void writeMap(@NotNull Map<?, ?> map) throws IOException {
+            this.writeVarInt(map.size());
+
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!(entry.getKey() instanceof String key)) {
+                    throw new IOException("Cannot encode map key of type " + (entry.getKey() != null ? entry.getKey().getClass().getName() : "null"));
+                }
+
+                this.writeString(key);
+                this.writeValue(entry.getValue());
+            }
+        }
+
+    }
+
+    private static final class Input {
+
+        private final byte[] bytes;
+        private final int limit;
+        private int position;
+
+        private Input(byte[] bytes, int position, int limit) {
+            this.bytes = bytes;
+            this.position = position;
+            this.limit = limit;
+        }
+
+        private int readByte() throws IOException {
+            if (position >= limit) {
+                throw new EOFException();
+            }
+
+            return bytes[position++] & 0xFF;
+        }
+
+        private int readVarInt() throws IOException {
+            int value = 0;
+
+            for (int shift = 0; shift < 35; shift += 7) {
+                int read = readByte();
+                value |= (read & 0x7F) << shift;
+
+                if ((read & 0x80) == 0) {
+                    return value;
+                }
+            }
+
+            throw new IOException("VarInt too long");
+        }
+
+        private long readVarLong() throws IOException {
+            long value = 0;
+
+            for (int shift = 0; shift < 70; shift += 7) {
+                int read = readByte();
+                value |= (long) (read & 0x7F) << shift;
+
+                if ((read & 0x80) == 0) {
+                    return value;
+                }
+            }
+
+            throw new IOException("VarLong too long");
+        }
+
+        private long readFixedLong() throws IOException {
+            long value = 0;
+            for (int i = 0; i < 8; i++) {
+                value = (value << 8) | readByte();
+            }
+
+            return value;
+        }
+
+        private int readLength() throws IOException {
+            int length = readVarInt();
+            if (length < 0 || length > limit - position) {
+                throw new IOException("Invalid length " + length);
+            }
+
+            return length;
+        }
+
+        @NotNull
+        private String readString() throws IOException {
+            int length = readLength();
+            String value = new String(bytes, position, length, StandardCharsets.UTF_8);
+            this.position += length;
+            return value;
+        }
+
+        @Nullable
+        private Object readValue() throws IOException {
+            int tag = readByte();
+
+            return switch (tag) {
+                case TAG_NULL -> null;
+                case TAG_FALSE -> false;
+                case TAG_TRUE -> true;
+                case TAG_BYTE -> (byte) readByte();
+                case TAG_SHORT -> {
+                    int value = readVarInt();
+                    yield (short) ((value >>> 1) ^ -(value & 1));
+                }
+                case TAG_INT -> {
+                    int value = readVarInt();
+                    yield (value >>> 1) ^ -(value & 1);
+                }
+                case TAG_LONG -> {
+                    long value = readVarLong();
+                    yield (value >>> 1) ^ -(value & 1);
+                }
+                case TAG_FLOAT -> Float.intBitsToFloat(readVarInt());
+                case TAG_DOUBLE -> Double.longBitsToDouble(readFixedLong());
+                case TAG_STRING -> readString();
+                case TAG_LIST -> {
+                    int size = readLength(); // Every element is at least one byte
+                    List<Object> list = new ArrayList<>(size);
+                    for (int i = 0; i < size; i++) {
+                        list.add(readValue());
+                    }
+
+                    yield list;
+                }
+                case TAG_MAP -> readMap(new LinkedHashMap<>());
+                case TAG_SERIALIZABLE -> {
+                    Map<String, Object> map = new LinkedHashMap<>();
+                    map.put(ConfigurationSerialization.SERIALIZED_TYPE_KEY, readString());
+
+                    ConfigurationSerializable value = ConfigurationSerialization.deserializeObject(readMap(map));
+                    if (value == null) {
+                        throw new IOException("Could not deserialize value of type " + map.get(ConfigurationSerialization.SERIALIZED_TYPE_KEY));
+                    }
+
+                    yield value;
+                }
+                default -> throw new IOException("Unknown tag " + tag + " at offset " + (position - 1));
+            };
+        }
+
+        @NotNull
+        private Map<String, Object> readMap(@NotNull Map<String, Object> map) throws IOException {
+            int size = readLength(); // Every entry is at least two bytes
+            for (int i = 0; i < size; i++) {
+                map.put(readString(), readValue());
+            }
+
+            return map;
+        }
+
+    }
+
+}
@@ -0,0 +1,56 @@
+package wtf.choco.alchema.util;
+
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+
+/**
+ * Represents an encoding of {@link ItemStack ItemStacks} as bytes. Implementations must be
+ * safe for use by multiple threads.
+ * <p>
+ * <strong>NOTE:</strong>This class it not a part of Alchema's API contract and may
+ * be subject to breakages without prior warning.
+ *
+ * @author Parker Hawke - Choco
+ *
+ * @see ItemCodecType
+ * @see ItemUtil#serialize(ItemStack)
+ */
+@Internal
+public interface ItemCodec {
+
+    /**
+     * Encode the given {@link ItemStack}.
+     *
+     * @param itemStack the item to encode
+     *
+     * @return the encoded item
+     *
+     * @throws IOException if the item could not be encoded
+     */
+    byte[] encode(@NotNull ItemStack itemStack) throws IOException;
+
+    /**
+     * Decode an {@link ItemStack} previously encoded by this codec.
+     *
+     * @param bytes the encoded item
+     *
+     * @return the decoded item
+     *
+     * @throws IOException if the item could not be decoded
+     */
+    @NotNull
+    ItemStack decode(byte[] bytes) throws IOException;
+
+    /**
+     * Check whether or not the given bytes appear to have been encoded by this codec.
+     *
+     * @param bytes the encoded item
+     *
+     * @return true if decodable by this codec, false otherwise
+     */
+    boolean canDecode(byte[] bytes);
+
+}
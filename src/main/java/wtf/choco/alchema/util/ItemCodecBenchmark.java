@@ -0,0 +1,149 @@
+package wtf.choco.alchema.util;
+
+import com.google.common.base.Preconditions;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A simple benchmark comparing the size and speed of each {@link ItemCodecType}. Items may
+ * only be serialized with a server present, so this is run in-game rather than as a test.
+ * <p>
+ * <strong>NOTE:</strong>This class it not a part of Alchema's API contract and may
+ * be subject to breakages without prior warning.
+ *
+ * @author Parker Hawke - Choco
+ */
+@Internal
+public final class ItemCodecBenchmark {
+
+    private ItemCodecBenchmark() { }
+
+    /**
+     * Encode and decode each of the given items with every {@link ItemCodecType}.
+     *
+     * @param items the items to encode and decode
+     * @param iterations the amount of times to encode and decode each item, after an equal
+     * amount of warmup iterations
+     *
+     * @return the result of each codec type, in declaration order
+     *
+     * @throws IOException if any codec could not encode or decode any of the items
+     */
+    @NotNull
+    public static List<@NotNull Result> run(@NotNull List<@NotNull ItemStack> items, int iterations) throws IOException {
+        Preconditions.checkArgument(items != null && !items.isEmpty(), "items must not be null or empty");
+        Preconditions.checkArgument(iterations > 0, "iterations must be positive");
+
+        List<@NotNull Result> results = new ArrayList<>();
+
+        for (ItemCodecType type : ItemCodecType.values()) {
+            ItemCodec codec = type.getCodec();
+
+            byte[][] encoded = new byte[items.size()][];
+            int bytes = 0;
+            for (int i = 0; i < items.size(); i++) {
+                encoded[i] = codec.encode(items.get(i));
+                bytes += encoded[i].length;
+
+                if (!codec.decode(encoded[i]).equals(items.get(i))) {
+                    throw new IOException(type.name() + " did not decode an identical item: " + items.get(i));
+                }
+            }
+
+            // Warm up before measuring
+            measureEncode(codec, items, iterations);
+            measureDecode(codec, encoded, iterations);
+
+            long encodeTime = measureEncode(codec, items, iterations);
+            long decodeTime = measureDecode(codec, encoded, iterations);
+            long operations = (long) iterations * items.size();
+
+            results.add(new Result(type, bytes, encodeTime / operations, decodeTime / operations));
+        }
+
+        return results;
+    }
+
+    private static long measureEncode(@NotNull ItemCodec codec, @NotNull List<@NotNull ItemStack> items, int iterations) throws IOException {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (ItemStack item : items) {
+                codec.encode(item);
+            }
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    private static long measureDecode(@NotNull ItemCodec codec, byte[][] encoded, int iterations) throws IOException {
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            for (byte[] bytes : encoded) {
+                codec.decode(bytes);
+            }
+        }
+
+        return System.nanoTime() - start;
+    }
+
+    /**
+     * The result of benchmarking a single {@link ItemCodecType}.
+     */
+    public static final class Result {
+
+        private final ItemCodecType type;
+        private final int bytes;
+        private final long encodeTime, decodeTime;
+
+        private Result(@NotNull ItemCodecType type, int bytes, long encodeTime, long decodeTime) {
+            this.type = type;
+            this.bytes = bytes;
+            this.encodeTime = encodeTime;
+            this.decodeTime = decodeTime;
+        }
+
+        /**
+         * Get the benchmarked codec type.
+         *
+         * @return the codec type
+         */
+        @NotNull
+        public ItemCodecType getType() {
+            return type;
+        }
+
+        /**
+         * Get the total size in bytes of all encoded items.
+         *
+         * @return the encoded size
+         */
+        public int getBytes() {
+            return bytes;
+        }
+
+        /**
+         * Get the average time in nanoseconds spent encoding a single item.
+         *
+         * @return the encode time
+         */
+        public long getEncodeTime() {
+            return encodeTime;
+        }
+
+        /**
+         * Get the average time in nanoseconds spent decoding a single item.
+         *
+         * @return the decode time
+         */
+        public long getDecodeTime() {
+            return decodeTime;
+        }
+
+    }
+
+}
@@ -0,0 +1,75 @@
+package wtf.choco.alchema.util;
+
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Locale;
+
+/**
+ * Represents the available types of {@link ItemCodec}.
+ *
+ * @author Parker Hawke - Choco
+ */
+@Internal
+public enum ItemCodecType {
+
+    /**
+     * Items are written with Java object serialization. Bulky and slow, but able to encode
+     * any item.
+     *
+     * @see LegacyItemCodec
+     */
+    LEGACY(new LegacyItemCodec()),
+
+    /**
+     * Items are written as a compact tagged binary encoding of their serialized form.
+     *
+     * @see CompactItemCodec
+     */
+    COMPACT(new CompactItemCodec(false)),
+
+    /**
+     * Items are written as {@link #COMPACT} and additionally compressed where it saves space.
+     *
+     * @see CompactItemCodec
+     */
+    COMPRESSED(new CompactItemCodec(true));
+
+    private final ItemCodec codec;
+
+    private ItemCodecType(@NotNull ItemCodec codec) {
+        this.codec = codec;
+    }
+
+    /**
+     * Get the codec of this type.
+     *
+     * @return the codec
+     */
+    @NotNull
+    public ItemCodec getCodec() {
+        return codec;
+    }
+
+    /**
+     * Get the codec type with the given name, case insensitively.
+     *
+     * @param name the name of the codec type
+     *
+     * @return the codec type. null if none
+     */
+    @Nullable
+    public static ItemCodecType getByName(@Nullable String name) {
+        if (name == null) {
+            return null;
+        }
+
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+}
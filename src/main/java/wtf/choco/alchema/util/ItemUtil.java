@@ -1,23 +1,20 @@
 package wtf.choco.alchema.util;
 
+import com.google.common.base.Preconditions;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
-import org.apache.commons.lang3.math.NumberUtils;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.attribute.Attribute;
 import org.bukkit.attribute.AttributeModifier;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
-import org.bukkit.permissions.PermissionAttachmentInfo;
-import org.bukkit.util.io.BukkitObjectInputStream;
-import org.bukkit.util.io.BukkitObjectOutputStream;
 import org.jetbrains.annotations.ApiStatus.Internal;
 import org.jetbrains.annotations.NotNull;
 import wtf.choco.alchema.Alchema;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
@@ -34,8 +31,31 @@ import java.util.Map;
 @Internal
 public final class ItemUtil {
 
+    private static volatile ItemCodec itemCodec = ItemCodecType.COMPACT.getCodec();
+
     private ItemUtil() { }
 
+    /**
+     * Set the {@link ItemCodec} with which items are serialized by {@link #serialize(ItemStack)}.
+     * Items serialized by any built-in codec remain deserializable regardless of this codec.
+     *
+     * @param codec the codec
+     */
+    public static void setItemCodec(@NotNull ItemCodec codec) {
+        Preconditions.checkArgument(codec != null, "codec must not be null");
+        itemCodec = codec;
+    }
+
+    /**
+     * Get the {@link ItemCodec} with which items are serialized by {@link #serialize(ItemStack)}.
+     *
+     * @return the codec
+     */
+    @NotNull
+    public static ItemCodec getItemCodec() {
+        return itemCodec;
+    }
+
     /**
      * Serialize an {@link ItemStack} as a byte array.
      *
@@ -44,13 +64,21 @@ public final class ItemUtil {
      * @return the serialized item stack
      */
     public static byte[] serialize(@NotNull ItemStack itemStack) {
-        try (ByteArrayOutputStream byteArrayStream = new ByteArrayOutputStream();
-                BukkitObjectOutputStream outputStream = new BukkitObjectOutputStream(byteArrayStream)) {
-            outputStream.writeObject(itemStack);
-            return byteArrayStream.toByteArray();
-        } catch (IOException e) {
-            return new byte[0];
+        ItemCodec codec = itemCodec;
+
+        try {
+            return codec.encode(itemStack);
+        } catch (IOException | RuntimeException e) {
+            // Items holding values the codec cannot encode can still be serialized by Java serialization
+            ItemCodec legacyCodec = ItemCodecType.LEGACY.getCodec();
+            if (codec != legacyCodec) {
+                try {
+                    return legacyCodec.encode(itemStack);
+                } catch (IOException ignored) { }
+            }
         }
+
+        return new byte[0];
     }
 
     /**
@@ -62,14 +90,23 @@ public final class ItemUtil {
      */
     @NotNull
     public static ItemStack deserialize(byte[] bytes) {
-        try (ByteArrayInputStream byteArrayStream = new ByteArrayInputStream(bytes);
-                BukkitObjectInputStream inputStream = new BukkitObjectInputStream(byteArrayStream)) {
-            Object read = inputStream.readObject();
-
-            if (read instanceof ItemStack itemStack) {
-                return itemStack;
+        ItemCodec codec = itemCodec;
+        if (!codec.canDecode(bytes)) {
+            codec = null;
+
+            for (ItemCodecType type : ItemCodecType.values()) {
+                if (type.getCodec().canDecode(bytes)) {
+                    codec = type.getCodec();
+                    break;
+                }
             }
-        } catch (IOException | ClassNotFoundException ignored) { }
+        }
+
+        if (codec != null) {
+            try {
+                return codec.decode(bytes);
+            } catch (IOException | RuntimeException ignored) { }
+        }
 
         return new ItemStack(Material.AIR);
     }
@@ -89,43 +126,35 @@ public final class ItemUtil {
             throw new JsonParseException("Could not find \"item\"");
         }
 
-        String resultString = object.get("item").getAsString();
-        ItemStack result;
+        ItemStack result = parseItemStack(object.get("item").getAsString());
+        if (object.has("amount")) {
+            result.setAmount(Math.max(object.get("amount").getAsInt(), 1));
+        }
 
-        try {
-            result = Bukkit.getItemFactory().createItemStack(resultString);
+        return result;
+    }
 
-            if (object.has("amount")) {
-                result.setAmount(Math.max(object.get("amount").getAsInt(), 1));
-            }
+    /**
+     * Parse an {@link ItemStack} from a /give-formatted item stack string.
+     *
+     * @param item the /give-formatted item stack string
+     *
+     * @return the deserialized ItemStack
+     */
+    @NotNull
+    public static ItemStack parseItemStack(@NotNull String item) {
+        try {
+            return Bukkit.getItemFactory().createItemStack(item);
         } catch (IllegalArgumentException e) {
-            throw new JsonParseException("Malformatted \"item\" input. Got: \"" + resultString + "\"");
+            throw new JsonParseException("Malformatted \"item\" input. Got: \"" + item + "\"");
         }
-
-        return result;
     }
 
     public static int getMaxUpgrades(Player player) {
-        int highestMultiplier = 1;
         if (player == null)
-            return highestMultiplier;
-
-        for (PermissionAttachmentInfo info : player.getEffectivePermissions()) {
-            if (!info.getValue())
-                continue;
-
-            String perm = info.getPermission();
-            if (!perm.startsWith(AlchemaConstants.PERMISSION_UPGRADES))
-                continue;
-
-            String multi = perm.replace(AlchemaConstants.PERMISSION_UPGRADES, "");
-            int m = NumberUtils.toInt(multi, 0);
+            return 1;
 
-            if (m > highestMultiplier) {
-                highestMultiplier = m;
-            }
-        }
-        return highestMultiplier;
+        return Alchema.getInstance().getPermissionCache().getMaxUpgrades(player);
     }
 
     public static JsonObject toJsonModifiers(Map<Attribute, AttributeModifier> modifiers) {
@@ -172,4 +201,10 @@ public final class ItemUtil {
         return mods;
     }
 
+    @NotNull
+    public static Map<Attribute, AttributeModifier> parseModifiers(@NotNull JsonReader reader) {
+        // Modifiers are few and small, read them as a tree
+        return parseModifiers(JsonParser.parseReader(reader).getAsJsonObject());
+    }
+
 }
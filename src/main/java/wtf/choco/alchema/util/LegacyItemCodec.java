@@ -0,0 +1,53 @@
+package wtf.choco.alchema.util;
+
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.util.io.BukkitObjectInputStream;
+import org.bukkit.util.io.BukkitObjectOutputStream;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectStreamConstants;
+
+/**
+ * An {@link ItemCodec} writing items with {@link BukkitObjectOutputStream}. This was the only
+ * encoding prior to the introduction of codecs and must remain readable.
+ *
+ * @author Parker Hawke - Choco
+ */
+final class LegacyItemCodec implements ItemCodec {
+
+    @Override
+    public byte[] encode(@NotNull ItemStack itemStack) throws IOException {
+        try (ByteArrayOutputStream byteArrayStream = new ByteArrayOutputStream();
+                BukkitObjectOutputStream outputStream = new BukkitObjectOutputStream(byteArrayStream)) {
+            outputStream.writeObject(itemStack);
+            outputStream.flush();
+            return byteArrayStream.toByteArray();
+        }
+    }
+
+    @NotNull
+    @Override
+    public ItemStack decode(byte[] bytes) throws IOException {
+        try (ByteArrayInputStream byteArrayStream = new ByteArrayInputStream(bytes);
+                BukkitObjectInputStream inputStream = new BukkitObjectInputStream(byteArrayStream)) {
+            Object read = inputStream.readObject();
+
+            if (read instanceof ItemStack itemStack) {
+                return itemStack;
+            }
+
+            throw new IOException("Expected an ItemStack, got " + (read != null ? read.getClass().getName() : "null"));
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    @Override
+    public boolean canDecode(byte[] bytes) {
+        return bytes.length >= 2 && (short) (((bytes[0] & 0xFF) << 8) | (bytes[1] & 0xFF)) == ObjectStreamConstants.STREAM_MAGIC;
+    }
+
+}
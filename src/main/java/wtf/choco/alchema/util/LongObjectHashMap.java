@@ -0,0 +1,337 @@
+package wtf.choco.alchema.util;
+
+import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.ApiStatus.Internal;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.UnmodifiableView;
+
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A map of primitive {@code long} keys to non-null object values backed by an open
+ * addressing hash table with linear probing. Unlike a {@code HashMap<Long, V>}, keys
+ * are never boxed and no entry objects are allocated.
+ * <p>
+ * This map is not thread-safe.
+ *
+ * @param <V> the type of values
+ *
+ * @author Parker Hawke - Choco
+ */
+@Internal
+public final class LongObjectHashMap<V> {
+
+    private static final int DEFAULT_CAPACITY = 16;
+    private static final float LOAD_FACTOR = 0.6F;
+
+    private long[] keys;
+    private Object[] values; // A null value denotes an empty bucket
+    private int mask;
+    private int resizeThreshold;
+
+    private int size = 0;
+    private int modCount = 0;
+
+    /**
+     * Construct a new {@link LongObjectHashMap} with the given expected amount of entries.
+     *
+     * @param expectedSize the amount of entries expected to be held in this map
+     */
+    public LongObjectHashMap(int expectedSize) {
+        Preconditions.checkArgument(expectedSize >= 0, "expectedSize must be >= 0");
+        this.allocate(tableSizeFor((int) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR)));
+    }
+
+    /**
+     * Construct a new {@link LongObjectHashMap} with a default capacity.
+     */
+    public LongObjectHashMap() {
+        this.allocate(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Get the value mapped to the given key.
+     *
+     * @param key the key
+     *
+     * @return the mapped value. null if none
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int index = indexFor(key);
+
+        Object value;
+        while ((value = values[index]) != null) {
+            if (keys[index] == key) {
+                return (V) value;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        return null;
+    }
+
+    /**
+     * Check whether or not a value is mapped to the given key.
+     *
+     * @param key the key
+     *
+     * @return true if present, false otherwise
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Map the given value to the given key, replacing any existing value.
+     *
+     * @param key the key
+     * @param value the value. Must not be null
+     *
+     * @return the previously mapped value. null if none
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V put(long key, @NotNull V value) {
+        Preconditions.checkArgument(value != null, "value must not be null");
+
+        int index = indexFor(key);
+
+        Object existing;
+        while ((existing = values[index]) != null) {
+            if (keys[index] == key) {
+                this.values[index] = value;
+                return (V) existing;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        this.keys[index] = key;
+        this.values[index] = value;
+        this.modCount++;
+
+        if (++size > resizeThreshold) {
+            this.allocate(values.length << 1);
+        }
+
+        return null;
+    }
+
+    /**
+     * Remove the value mapped to the given key.
+     *
+     * @param key the key
+     *
+     * @return the removed value. null if none was mapped
+     */
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        int index = indexFor(key);
+
+        Object value;
+        while ((value = values[index]) != null) {
+            if (keys[index] == key) {
+                this.removeAt(index);
+                return (V) value;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        return null;
+    }
+
+    /**
+     * Remove the given key only if it is mapped to the given value (by identity).
+     *
+     * @param key the key
+     * @param value the expected value
+     *
+     * @return true if removed, false otherwise
+     */
+    public boolean remove(long key, @NotNull V value) {
+        int index = indexFor(key);
+
+        Object existing;
+        while ((existing = values[index]) != null) {
+            if (keys[index] == key) {
+                if (existing != value) {
+                    return false;
+                }
+
+                this.removeAt(index);
+                return true;
+            }
+
+            index = (index + 1) & mask;
+        }
+
+        return false;
+    }
+
+    /**
+     * Get the amount of entries in this map.
+     *
+     * @return the size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check whether or not this map is empty.
+     *
+     * @return true if empty, false otherwise
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Remove all entries from this map.
+     */
+    public void clear() {
+        if (size == 0) {
+            return;
+        }
+
+        Arrays.fill(values, null);
+        this.size = 0;
+        this.modCount++;
+    }
+
+    /**
+     * Get a view of the values in this map. The returned collection is backed by this map.
+     *
+     * @return the values
+     */
+    @NotNull
+    @UnmodifiableView
+    public Collection<@NotNull V> values() {
+        return new AbstractCollection<>() {
+
+            @NotNull
+            @Override
+            public Iterator<@NotNull V> iterator() {
+                return new ValueIterator();
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+        };
+    }
+
+    // Backward shift deletion. Avoids tombstones by moving subsequent entries in the probe sequence back
+    private void removeAt(int index) {
+        int hole = index;
+        int next = (hole + 1) & mask;
+
+        while (values[next] != null) {
+            int ideal = indexFor(keys[next]);
+
+            // Move the entry into the hole if its ideal bucket is not cyclically within (hole, next]
+            if (((next - ideal) & mask) >= ((next - hole) & mask)) {
+                this.keys[hole] = keys[next];
+                this.values[hole] = values[next];
+                hole = next;
+            }
+
+            next = (next + 1) & mask;
+        }
+
+        this.values[hole] = null;
+        this.size--;
+        this.modCount++;
+    }
+
+    private void allocate(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+
+        this.keys = new long[capacity];
+        this.values = new Object[capacity];
+        this.mask = capacity - 1;
+        this.resizeThreshold = (int) (capacity * LOAD_FACTOR);
+
+        if (oldValues == null) {
+            return;
+        }
+
+        for (int i = 0; i < oldValues.length; i++) {
+            if (oldValues[i] == null) {
+                continue;
+            }
+
+            int index = indexFor(oldKeys[i]);
+            while (values[index] != null) {
+                index = (index + 1) & mask;
+            }
+
+            this.keys[index] = oldKeys[i];
+            this.values[index] = oldValues[i];
+        }
+    }
+
+    private int indexFor(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static int tableSizeFor(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        return Math.max(size, 2);
+    }
+
+    private final class ValueIterator implements Iterator<V> {
+
+        private int index = -1;
+        private int nextIndex = findNext(0);
+        private final int expectedModCount = modCount;
+
+        @Override
+        public boolean hasNext() {
+            return nextIndex < values.length;
+        }
+
+        @NotNull
+        @Override
+        @SuppressWarnings("unchecked")
+        public V next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            this.index = nextIndex;
+            this.nextIndex = findNext(index + 1);
+            return (V) values[index];
+        }
+
+        private int findNext(int from) {
+            int i = from;
+            while (i < values.length && values[i] == null) {
+                i++;
+            }
+
+            return i;
+        }
+
+    }
+
+}
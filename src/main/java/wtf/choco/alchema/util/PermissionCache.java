@@ -0,0 +1,169 @@
+package wtf.choco.alchema.util;
+
+import com.google.common.base.Preconditions;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.bukkit.entity.Player;
+import org.bukkit.permissions.PermissionAttachmentInfo;
+import org.jetbrains.annotations.NotNull;
+import wtf.choco.alchema.crafting.CauldronRecipe;
+import wtf.choco.alchema.crafting.CauldronRecipeRegistry;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A cache of permission decisions made for online players, such that crafting checks made
+ * for every absorbed item and every craft do not resolve the same permissions repeatedly.
+ * <p>
+ * Bukkit does not announce when a player's permissions are recalculated. Decisions of a player
+ * are therefore discarded when they join, quit or change worlds, when their operator status
+ * changes, when Alchema reloads or changes the permissions it registers, and otherwise once
+ * they are a few seconds old such that changes made by permission plugins take effect shortly.
+ * <p>
+ * This cache must only be queried from the main thread.
+ *
+ * @author Parker Hawke - Choco
+ */
+public final class PermissionCache {
+
+    private static final long EXPIRY_MILLIS = 5000L;
+
+    private final Map<@NotNull UUID, @NotNull Decisions> decisions = new ConcurrentHashMap<>();
+
+    private final CauldronRecipeRegistry recipeRegistry;
+
+    /**
+     * Construct a new {@link PermissionCache}.
+     *
+     * @param recipeRegistry the recipe registry by which crafting permissions are resolved
+     */
+    public PermissionCache(@NotNull CauldronRecipeRegistry recipeRegistry) {
+        Preconditions.checkArgument(recipeRegistry != null, "recipeRegistry must not be null");
+        this.recipeRegistry = recipeRegistry;
+    }
+
+    /**
+     * Check whether or not the given player has the given permission.
+     *
+     * @param player the player to check
+     * @param permission the permission to check
+     *
+     * @return true if the player has the permission, false otherwise
+     *
+     * @see Player#hasPermission(String)
+     */
+    public boolean hasPermission(@NotNull Player player, @NotNull String permission) {
+        Preconditions.checkArgument(player != null, "player must not be null");
+        Preconditions.checkArgument(permission != null, "permission must not be null");
+
+        return getDecisions(player).permissions.computeIfAbsent(permission, player::hasPermission);
+    }
+
+    /**
+     * Check whether or not the given player may craft the given recipe.
+     *
+     * @param player the player to check
+     * @param recipe the recipe to check
+     *
+     * @return true if permitted to craft the recipe, false otherwise
+     *
+     * @see CauldronRecipeRegistry#hasCraftingPermission(org.bukkit.permissions.Permissible, CauldronRecipe)
+     */
+    public boolean hasCraftingPermission(@NotNull Player player, @NotNull CauldronRecipe recipe) {
+        Preconditions.checkArgument(player != null, "player must not be null");
+        Preconditions.checkArgument(recipe != null, "recipe must not be null");
+
+        return getDecisions(player).craftingPermissions.computeIfAbsent(recipe.getCraftingPermission(), permission -> recipeRegistry.hasCraftingPermission(player, recipe));
+    }
+
+    /**
+     * Get the maximum amount of upgrades the given player may apply to an item, as granted
+     * by the highest "alchema.upgrades.&lt;amount&gt;" permission they have. At least 1.
+     *
+     * @param player the player to check
+     *
+     * @return the maximum amount of upgrades
+     */
+    public int getMaxUpgrades(@NotNull Player player) {
+        Preconditions.checkArgument(player != null, "player must not be null");
+
+        Decisions decisions = getDecisions(player);
+        if (decisions.maxUpgrades < 0) {
+            decisions.maxUpgrades = computeMaxUpgrades(player);
+        }
+
+        return decisions.maxUpgrades;
+    }
+
+    /**
+     * Discard all decisions made for the given player.
+     *
+     * @param player the player whose decisions to discard
+     */
+    public void invalidate(@NotNull Player player) {
+        Preconditions.checkArgument(player != null, "player must not be null");
+        this.decisions.remove(player.getUniqueId());
+    }
+
+    /**
+     * Discard all decisions made for every player. This method may be called from any thread.
+     */
+    public void invalidateAll() {
+        this.decisions.clear();
+    }
+
+    @NotNull
+    private Decisions getDecisions(@NotNull Player player) {
+        long now = System.currentTimeMillis();
+        boolean op = player.isOp();
+
+        Decisions decisions = this.decisions.get(player.getUniqueId());
+        if (decisions == null || decisions.op != op || now - decisions.creationTime >= EXPIRY_MILLIS) {
+            decisions = new Decisions(op, now);
+            this.decisions.put(player.getUniqueId(), decisions);
+        }
+
+        return decisions;
+    }
+
+    private static int computeMaxUpgrades(@NotNull Player player) {
+        int highestMultiplier = 1;
+
+        for (PermissionAttachmentInfo info : player.getEffectivePermissions()) {
+            if (!info.getValue()) {
+                continue;
+            }
+
+            String permission = info.getPermission();
+            if (!permission.startsWith(AlchemaConstants.PERMISSION_UPGRADES)) {
+                continue;
+            }
+
+            int multiplier = NumberUtils.toInt(permission.substring(AlchemaConstants.PERMISSION_UPGRADES.length()), 0);
+            if (multiplier > highestMultiplier) {
+                highestMultiplier = multiplier;
+            }
+        }
+
+        return highestMultiplier;
+    }
+
+    private static final class Decisions {
+
+        private final boolean op;
+        private final long creationTime;
+
+        private final Map<@NotNull String, @NotNull Boolean> permissions = new HashMap<>();
+        private final Map<@NotNull String, @NotNull Boolean> craftingPermissions = new HashMap<>();
+        private int maxUpgrades = -1;
+
+        private Decisions(boolean op, long creationTime) {
+            this.op = op;
+            this.creationTime = creationTime;
+        }
+
+    }
+
+}
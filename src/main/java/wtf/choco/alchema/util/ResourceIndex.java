@@ -0,0 +1,136 @@
+package wtf.choco.alchema.util;
+
+import com.google.common.base.Preconditions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * An index of the resources bundled in a plugin's jar file, read once such that the jar need
+ * not be enumerated every time its resources are listed.
+ * <p>
+ * Resources are extracted in bulk through a zip {@link FileSystem} on a background thread,
+ * opening the jar once for all resources rather than once per resource.
+ *
+ * @author Parker Hawke - Choco
+ */
+public final class ResourceIndex {
+
+    private final Path jarFile;
+    private final List<@NotNull String> resources;
+
+    private ResourceIndex(@NotNull Path jarFile, @NotNull List<@NotNull String> resources) {
+        this.jarFile = jarFile;
+        this.resources = resources;
+    }
+
+    /**
+     * Index the resources bundled in the given jar file. Only its central directory is read.
+     *
+     * @param jarFile the jar file to index
+     *
+     * @return the index
+     *
+     * @throws IOException if the jar file could not be read
+     */
+    @NotNull
+    public static ResourceIndex index(@NotNull File jarFile) throws IOException {
+        Preconditions.checkArgument(jarFile != null, "jarFile must not be null");
+
+        List<@NotNull String> resources = new ArrayList<>();
+        try (ZipFile zipFile = new ZipFile(jarFile)) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (!entry.isDirectory()) {
+                    resources.add(entry.getName());
+                }
+            }
+        }
+
+        Collections.sort(resources);
+        return new ResourceIndex(jarFile.toPath(), Collections.unmodifiableList(resources));
+    }
+
+    /**
+     * Get the paths of all resources in the given directory and its subdirectories.
+     *
+     * @param directory the directory, relative to the root of the jar file and without a
+     * trailing slash
+     *
+     * @return the resource paths, relative to the root of the jar file
+     */
+    @NotNull
+    @Unmodifiable
+    public List<@NotNull String> getResources(@NotNull String directory) {
+        Preconditions.checkArgument(directory != null, "directory must not be null");
+
+        String prefix = directory + "/";
+        return resources.stream().filter(resource -> resource.startsWith(prefix)).toList();
+    }
+
+    /**
+     * Asynchronously extract the given resources to the given directory, keeping their paths
+     * relative to it.
+     *
+     * @param resources the paths of the resources to extract, relative to the root of the jar file
+     * @param destination the directory to which resources should be extracted
+     * @param replace whether or not to replace files that already exist
+     *
+     * @return a CompletableFuture where the supplied value is the paths of the resources that
+     * were extracted, excluding those not replaced
+     */
+    @NotNull
+    public CompletableFuture<@NotNull List<@NotNull String>> extract(@NotNull Collection<@NotNull String> resources, @NotNull File destination, boolean replace) {
+        Preconditions.checkArgument(resources != null, "resources must not be null");
+        Preconditions.checkArgument(destination != null, "destination must not be null");
+
+        List<@NotNull String> requestedResources = new ArrayList<>(resources);
+        Path destinationDirectory = destination.toPath();
+
+        return CompletableFuture.supplyAsync(() -> {
+            List<@NotNull String> extracted = new ArrayList<>(requestedResources.size());
+
+            try (FileSystem jarFileSystem = FileSystems.newFileSystem(jarFile)) {
+                for (String resource : requestedResources) {
+                    Path target = destinationDirectory.resolve(resource);
+                    Files.createDirectories(target.getParent());
+
+                    try {
+                        if (replace) {
+                            Files.copy(jarFileSystem.getPath(resource), target, StandardCopyOption.REPLACE_EXISTING);
+                        } else {
+                            Files.copy(jarFileSystem.getPath(resource), target);
+                        }
+                    } catch (FileAlreadyExistsException e) {
+                        continue;
+                    }
+
+                    extracted.add(resource);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            return extracted;
+        });
+    }
+
+}
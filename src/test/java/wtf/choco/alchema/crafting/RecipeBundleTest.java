@@ -0,0 +1,174 @@
+package wtf.choco.alchema.crafting;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/*
+ * Tests:
+ * - testRoundTrip(): Ensure that bundled recipe contents decode to the same JSON as the recipe file they were written from
+ * - testStreamingRoundTrip(): Ensure that bundled recipe contents read through a JsonReader are the same as those of the recipe file
+ * - testManifestMatching(): Ensure that entries match recipe files by size and last modification time, or by hash, and survive a round trip
+ * - testMalformedBundle(): Ensure that missing, truncated, differently versioned and foreign files hold no entries
+ */
+class RecipeBundleTest {
+
+    private static final String RECIPE = """
+            {
+                "name": "Recipe \\u00e9",
+                "comment": null,
+                "experience": 10,
+                "chance": 0.25,
+                "large": 12345678901234567890,
+                "exponent": 1e3,
+                "enabled": true,
+                "hidden": false,
+                "result": { "type": "alchema:item", "item": "minecraft:diamond", "amount": -1 },
+                "ingredients": [
+                    { "type": "alchema:material", "item": "minecraft:diamond" },
+                    { "type": "alchema:material", "item": "minecraft:stick", "tags": [] },
+                    [ 1, "minecraft:diamond", {} ]
+                ]
+            }
+            """;
+
+    private static final String OTHER_RECIPE = "{ \"result\": { \"type\": \"alchema:item\", \"item\": \"minecraft:stick\" } }";
+
+    @TempDir
+    File directory;
+
+    @Test
+    void testRoundTrip() throws IOException {
+        Map<@NotNull String, RecipeBundle.@NotNull Entry> bundle = this.writeAndRead(Map.of("recipe.json", RECIPE, "nested/other.json", OTHER_RECIPE));
+
+        Assertions.assertEquals(2, bundle.size());
+        Assertions.assertEquals(JsonParser.parseString(RECIPE), bundle.get("recipe.json").getObject());
+        Assertions.assertEquals(JsonParser.parseString(OTHER_RECIPE), bundle.get("nested/other.json").getObject());
+
+        // Contents are decoded anew every time and must not be consumed by decoding
+        Assertions.assertEquals(bundle.get("recipe.json").getObject(), bundle.get("recipe.json").getObject());
+    }
+
+    @Test
+    void testStreamingRoundTrip() throws IOException {
+        RecipeBundle.Entry textEntry = createEntry(RECIPE, 0L);
+        RecipeBundle.Entry bundledEntry = this.writeAndRead(Map.of("recipe.json", RECIPE)).get("recipe.json");
+
+        JsonElement expected = JsonParser.parseString(RECIPE);
+        Assertions.assertEquals(expected, read(textEntry.newReader()));
+        Assertions.assertEquals(expected, read(bundledEntry.newReader()));
+        Assertions.assertEquals(expected, read(bundledEntry.newReader())); // Each reader streams from the start
+
+        JsonReader reader = bundledEntry.newReader();
+        reader.beginObject();
+        Assertions.assertEquals("name", reader.nextName());
+        Assertions.assertEquals("Recipe é", reader.nextString());
+        Assertions.assertEquals("comment", reader.nextName());
+        reader.nextNull();
+        Assertions.assertEquals("experience", reader.nextName());
+        Assertions.assertEquals(10, reader.nextInt());
+        Assertions.assertEquals("chance", reader.nextName());
+        Assertions.assertEquals(0.25, reader.nextDouble());
+
+        // Skipping the remaining values must leave the reader at the end of the object
+        while (reader.hasNext()) {
+            reader.nextName();
+            reader.skipValue();
+        }
+
+        reader.endObject();
+    }
+
+    @Test
+    void testManifestMatching() throws IOException {
+        RecipeBundle.Entry entry = createEntry(RECIPE, 1_000L);
+        int hash = hash(RECIPE);
+        long size = RECIPE.getBytes(StandardCharsets.UTF_8).length;
+
+        Assertions.assertTrue(entry.matches(size, 1_000L));
+        Assertions.assertFalse(entry.matches(size, 2_000L));
+        Assertions.assertFalse(entry.matches(size + 1, 1_000L));
+        Assertions.assertTrue(entry.matches(hash));
+        Assertions.assertFalse(entry.matches(hash(OTHER_RECIPE)));
+
+        // A touched file keeps its hash and contents, but takes on its new attributes
+        RecipeBundle.Entry touched = entry.withAttributes(size, 2_000L);
+        Assertions.assertTrue(touched.matches(size, 2_000L));
+        Assertions.assertFalse(touched.matches(size, 1_000L));
+        Assertions.assertEquals(hash, touched.getHash());
+        Assertions.assertEquals(entry.getObject(), touched.getObject());
+
+        File file = new File(directory, "recipes.bundle");
+        RecipeBundle.write(file, Map.of("recipe.json", touched));
+
+        RecipeBundle.Entry bundled = RecipeBundle.read(file).get("recipe.json");
+        Assertions.assertNotNull(bundled);
+        Assertions.assertTrue(bundled.matches(size, 2_000L));
+        Assertions.assertTrue(bundled.matches(hash));
+        Assertions.assertEquals(hash, bundled.getHash());
+    }
+
+    @Test
+    void testMalformedBundle() throws IOException {
+        File file = new File(directory, "recipes.bundle");
+        Assertions.assertTrue(RecipeBundle.read(file).isEmpty());
+
+        RecipeBundle.write(file, Map.of("recipe.json", createEntry(RECIPE, 0L)));
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        Assertions.assertEquals(1, RecipeBundle.read(file).size());
+
+        Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 1));
+        Assertions.assertTrue(RecipeBundle.read(file).isEmpty());
+
+        // The version follows the magic number
+        byte[] versioned = bytes.clone();
+        versioned[4] = (byte) (RecipeBundle.VERSION + 1);
+        Files.write(file.toPath(), versioned);
+        Assertions.assertTrue(RecipeBundle.read(file).isEmpty());
+
+        Files.writeString(file.toPath(), RECIPE);
+        Assertions.assertTrue(RecipeBundle.read(file).isEmpty());
+    }
+
+    @NotNull
+    private Map<@NotNull String, RecipeBundle.@NotNull Entry> writeAndRead(@NotNull Map<@NotNull String, @NotNull String> recipes) throws IOException {
+        Map<@NotNull String, RecipeBundle.@NotNull Entry> entries = new LinkedHashMap<>();
+        recipes.forEach((path, text) -> entries.put(path, createEntry(text, 0L)));
+
+        File file = new File(directory, "recipes.bundle");
+        RecipeBundle.write(file, entries);
+        return RecipeBundle.read(file);
+    }
+
+    @NotNull
+    private static RecipeBundle.Entry createEntry(@NotNull String text, long lastModified) {
+        return new RecipeBundle.Entry(text.getBytes(StandardCharsets.UTF_8).length, lastModified, hash(text), text);
+    }
+
+    @NotNull
+    private static JsonElement read(@NotNull JsonReader reader) throws IOException {
+        try (reader) {
+            return JsonParser.parseReader(reader);
+        }
+    }
+
+    private static int hash(@NotNull String text) {
+        CRC32 crc = new CRC32();
+        crc.update(text.getBytes(StandardCharsets.UTF_8));
+        return (int) crc.getValue();
+    }
+
+}
@@ -0,0 +1,203 @@
+package wtf.choco.alchema.crafting;
+
+import com.google.gson.JsonObject;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Tests:
+ * - testPriorityOrder(): Ensure that recipes are ordered by descending complexity and, among recipes of equal complexity, by key
+ * - testShadowed(): Ensure that a recipe whose ingredients also craft a more complex recipe is reported as shadowed by it
+ * - testTied(): Ensure that of two recipes with the same ingredients and complexity, the one with the higher key is reported as tied
+ * - testOverlapWithoutConflict(): Ensure that recipes sharing ingredients without one always crafting the other overlap but do not conflict
+ * - testIndependentRecipes(): Ensure that recipes without similar ingredients neither overlap nor conflict
+ */
+class RecipeConflictAnalysisTest {
+
+    @Test
+    void testPriorityOrder() {
+        CauldronRecipe b = recipe("b", ingredient("stone", 2));
+        CauldronRecipe a = recipe("a", ingredient("dirt", 1), ingredient("sand", 1));
+        CauldronRecipe c = recipe("c", ingredient("gravel", 3));
+        CauldronRecipe d = recipe("d", ingredient("clay", 1));
+
+        RecipeConflictAnalysis analysis = RecipeConflictAnalysis.analyze(List.of(d, b, a, c));
+        Assertions.assertIterableEquals(List.of(c, a, b, d), analysis.getPriorityOrder());
+    }
+
+    @Test
+    void testShadowed() {
+        // The essence is worth more than its amount, so a single one outweighs two plain ingredients
+        CauldronRecipe plain = recipe("plain", ingredient("essence", 1), ingredient("stone", 1));
+        CauldronRecipe complex = recipe("complex", ingredient("essence", 1, 5));
+
+        RecipeConflictAnalysis analysis = RecipeConflictAnalysis.analyze(List.of(plain, complex));
+
+        Assertions.assertEquals(1, analysis.getConflicts().size());
+        RecipeConflictAnalysis.Conflict conflict = analysis.getConflicts().get(0);
+        Assertions.assertSame(plain, conflict.getRecipe());
+        Assertions.assertSame(complex, conflict.getWinner());
+        Assertions.assertEquals(RecipeConflictAnalysis.ConflictType.SHADOWED, conflict.getType());
+
+        Assertions.assertSame(complex, analysis.getWinner(plain.getKey()));
+        Assertions.assertSame(complex, analysis.getWinner(complex.getKey()));
+    }
+
+    @Test
+    void testTied() {
+        CauldronRecipe first = recipe("first", ingredient("stone", 2), ingredient("dirt", 1));
+        CauldronRecipe second = recipe("second", ingredient("dirt", 1), ingredient("stone", 2));
+
+        RecipeConflictAnalysis analysis = RecipeConflictAnalysis.analyze(List.of(second, first));
+
+        Assertions.assertEquals(1, analysis.getConflicts().size());
+        RecipeConflictAnalysis.Conflict conflict = analysis.getConflicts().get(0);
+        Assertions.assertSame(second, conflict.getRecipe());
+        Assertions.assertSame(first, conflict.getWinner());
+        Assertions.assertEquals(RecipeConflictAnalysis.ConflictType.TIED, conflict.getType());
+
+        Assertions.assertSame(first, analysis.getWinner(second.getKey()));
+        Assertions.assertSame(first, analysis.getWinner(first.getKey()));
+    }
+
+    @Test
+    void testOverlapWithoutConflict() {
+        CauldronRecipe simple = recipe("simple", ingredient("stone", 1));
+        CauldronRecipe complex = recipe("complex", ingredient("stone", 1), ingredient("dirt", 1));
+        CauldronRecipe larger = recipe("larger", ingredient("stone", 4)); // More stone than the simple recipe holds
+
+        RecipeConflictAnalysis analysis = RecipeConflictAnalysis.analyze(List.of(simple, complex, larger));
+
+        // The complex recipe requires dirt and the larger one more stone, neither is crafted whenever the simple recipe is
+        Assertions.assertTrue(analysis.getConflicts().isEmpty());
+        Assertions.assertSame(simple, analysis.getWinner(simple.getKey()));
+        Assertions.assertSame(complex, analysis.getWinner(complex.getKey()));
+        Assertions.assertSame(larger, analysis.getWinner(larger.getKey()));
+
+        Assertions.assertEquals(Set.of(complex.getKey(), larger.getKey()), analysis.getOverlappingRecipes(simple.getKey()));
+        Assertions.assertEquals(Set.of(simple.getKey(), larger.getKey()), analysis.getOverlappingRecipes(complex.getKey()));
+    }
+
+    @Test
+    void testIndependentRecipes() {
+        CauldronRecipe stone = recipe("stone", ingredient("stone", 1));
+        CauldronRecipe dirt = recipe("dirt", ingredient("dirt", 1));
+        CauldronRecipe empty = recipe("empty");
+
+        RecipeConflictAnalysis analysis = RecipeConflictAnalysis.analyze(List.of(stone, dirt, empty));
+
+        Assertions.assertTrue(analysis.getConflicts().isEmpty());
+        Assertions.assertTrue(analysis.getOverlappingRecipes(stone.getKey()).isEmpty());
+        Assertions.assertTrue(analysis.getOverlappingRecipes(empty.getKey()).isEmpty());
+        Assertions.assertSame(empty, analysis.getWinner(empty.getKey()));
+        Assertions.assertNull(analysis.getWinner(new NamespacedKey("alchema_test", "unknown")));
+    }
+
+    @NotNull
+    private static CauldronRecipe recipe(@NotNull String key, @NotNull CauldronIngredient... ingredients) {
+        CauldronRecipe.Builder builder = CauldronRecipe.builder(new NamespacedKey("alchema_test", key), new TestResult());
+        for (CauldronIngredient ingredient : ingredients) {
+            builder.addIngredient(ingredient);
+        }
+
+        return builder.build();
+    }
+
+    @NotNull
+    private static CauldronIngredient ingredient(@NotNull String name, int amount) {
+        return new TestIngredient(name, amount, amount);
+    }
+
+    @NotNull
+    private static CauldronIngredient ingredient(@NotNull String name, int amount, int complexity) {
+        return new TestIngredient(name, amount, complexity);
+    }
+
+    // An ingredient without an item representation, similar to ingredients of the same name
+    private static final class TestIngredient implements CauldronIngredient {
+
+        private final NamespacedKey key;
+        private final int amount, complexity;
+
+        private TestIngredient(@NotNull String name, int amount, int complexity) {
+            this.key = new NamespacedKey("alchema_test", name);
+            this.amount = amount;
+            this.complexity = complexity;
+        }
+
+        @NotNull
+        @Override
+        public NamespacedKey getKey() {
+            return key;
+        }
+
+        @Override
+        public int getAmount() {
+            return amount;
+        }
+
+        @Override
+        public int getComplexity() {
+            return complexity;
+        }
+
+        @Nullable
+        @Override
+        public ItemStack asItemStack() {
+            return null;
+        }
+
+        @Override
+        public boolean isSimilar(@NotNull CauldronIngredient other) {
+            return other instanceof TestIngredient && key.equals(other.getKey());
+        }
+
+        @NotNull
+        @Override
+        public CauldronIngredient merge(@NotNull CauldronIngredient other) {
+            return new TestIngredient(key.getKey(), amount + other.getAmount(), complexity + other.getComplexity());
+        }
+
+        @NotNull
+        @Override
+        public CauldronIngredient adjustAmountBy(int amount) {
+            return new TestIngredient(key.getKey(), this.amount + amount, complexity + amount);
+        }
+
+        @NotNull
+        @Override
+        public JsonObject toJson() {
+            return new JsonObject();
+        }
+
+    }
+
+    private static final class TestResult implements CauldronRecipeResult {
+
+        @NotNull
+        @Override
+        public NamespacedKey getKey() {
+            return new NamespacedKey("alchema_test", "result");
+        }
+
+        @Override
+        public int getAmount() {
+            return 1;
+        }
+
+        @NotNull
+        @Override
+        public ItemStack asItemStack() {
+            throw new UnsupportedOperationException("Results are not crafted in this test");
+        }
+
+    }
+
+}
@@ -0,0 +1,156 @@
+package wtf.choco.alchema.persistence;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+import java.util.UUID;
+
+/*
+ * Tests:
+ * - testRoundTrip(): Ensure that cauldrons across several worlds, with negative coordinates and ingredients of every value type, survive a round trip
+ * - testBase64RoundTrip(): Ensure that base64 encoded properties survive a round trip, whether or not they are encoded as raw bytes
+ * - testEmpty(): Ensure that an empty array of cauldrons survives a round trip
+ * - testMalformed(): Ensure that streams with a wrong magic number, an unsupported version, that are truncated or hold lengths longer than themselves are rejected
+ */
+class CauldronBinaryFormatTest {
+
+    private static final String WORLD = UUID.randomUUID().toString(), OTHER_WORLD = UUID.randomUUID().toString();
+
+    @Test
+    void testRoundTrip() throws IOException {
+        JsonArray records = new JsonArray();
+        records.add(createCauldron(WORLD, 0, 64, 0, -1L, false, false));
+        records.add(createCauldron(OTHER_WORLD, -29_999_999, -64, 29_999_999, 123_456_789L, true, false));
+        records.add(createCauldron(WORLD, 15, 319, -16, 0L, false, true));
+
+        JsonObject ingredient = new JsonObject();
+        ingredient.addProperty("type", "alchema:material");
+        ingredient.addProperty("material", "DIAMOND");
+        ingredient.addProperty("amount", 3);
+        ingredient.addProperty("negative", -42L);
+        ingredient.addProperty("large", Long.MIN_VALUE);
+        ingredient.addProperty("fraction", 0.5);
+        ingredient.addProperty("flag", true);
+        ingredient.add("nothing", JsonNull.INSTANCE);
+
+        JsonObject nested = new JsonObject();
+        nested.addProperty("material", "STONE");
+        JsonArray array = new JsonArray();
+        array.add(1);
+        array.add("DIAMOND");
+        array.add(nested);
+        ingredient.add("nested", nested);
+        ingredient.add("array", array);
+
+        JsonObject essence = new JsonObject();
+        essence.addProperty("type", "alchema:entity_essence");
+        essence.addProperty("entity", "minecraft:zombie");
+
+        JsonArray ingredients = new JsonArray();
+        ingredients.add(ingredient);
+        ingredients.add(essence);
+        records.get(1).getAsJsonObject().add("ingredients", ingredients);
+
+        Assertions.assertEquals(records, roundTrip(records));
+    }
+
+    @Test
+    void testBase64RoundTrip() throws IOException {
+        byte[] small = { 0, 1, 2, (byte) 0xFF };
+        byte[] large = new byte[100_000]; // Larger than the buffer through which streams are read and written
+        new Random(0).nextBytes(large);
+
+        JsonArray ingredients = new JsonArray();
+        ingredients.add(createItemIngredient(Base64.getEncoder().encodeToString(small)));
+        ingredients.add(createItemIngredient(Base64.getEncoder().encodeToString(large)));
+        ingredients.add(createItemIngredient("not base64!")); // Written as a string instead
+        ingredients.add(createItemIngredient("AQ")); // Not canonical (unpadded), written as a string instead
+        ingredients.add(createItemIngredient(""));
+
+        JsonObject cauldron = createCauldron(WORLD, 1, 2, 3, -1L, false, false);
+        cauldron.add("ingredients", ingredients);
+
+        JsonArray records = new JsonArray();
+        records.add(cauldron);
+
+        JsonArray read = roundTrip(records);
+        Assertions.assertEquals(records, read);
+
+        String largeEncoded = read.get(0).getAsJsonObject().getAsJsonArray("ingredients").get(1).getAsJsonObject().get("item_base64").getAsString();
+        Assertions.assertArrayEquals(large, Base64.getDecoder().decode(largeEncoded));
+    }
+
+    @Test
+    void testEmpty() throws IOException {
+        Assertions.assertEquals(new JsonArray(), roundTrip(new JsonArray()));
+    }
+
+    @Test
+    void testMalformed() throws IOException {
+        JsonArray records = new JsonArray();
+        records.add(createCauldron(WORLD, 1, 2, 3, 100L, true, true));
+        byte[] bytes = CauldronBinaryFormat.toByteArray(records);
+
+        byte[] wrongMagic = bytes.clone();
+        wrongMagic[0] ^= 1;
+        Assertions.assertThrows(IOException.class, () -> CauldronBinaryFormat.fromByteArray(wrongMagic, record -> { }));
+
+        byte[] wrongVersion = bytes.clone();
+        wrongVersion[4] = (byte) (CauldronBinaryFormat.VERSION + 1);
+        Assertions.assertThrows(IOException.class, () -> CauldronBinaryFormat.fromByteArray(wrongVersion, record -> { }));
+
+        byte[] truncated = Arrays.copyOf(bytes, bytes.length - 1);
+        Assertions.assertThrows(IOException.class, () -> CauldronBinaryFormat.fromByteArray(truncated, record -> { }));
+
+        // The string table length follows the version. Replace it with the largest possible length
+        byte[] oversized = Arrays.copyOf(bytes, bytes.length + 4);
+        System.arraycopy(bytes, 6, oversized, 10, bytes.length - 6);
+        System.arraycopy(new byte[] { (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07 }, 0, oversized, 5, 5);
+        Assertions.assertThrows(IOException.class, () -> CauldronBinaryFormat.fromByteArray(oversized, record -> { }));
+
+        JsonArray malformedWorld = new JsonArray();
+        malformedWorld.add(createCauldron("not a uuid", 1, 2, 3, -1L, false, false));
+        Assertions.assertThrows(IOException.class, () -> CauldronBinaryFormat.toByteArray(malformedWorld));
+    }
+
+    @NotNull
+    private static JsonArray roundTrip(@NotNull JsonArray records) throws IOException {
+        JsonArray read = new JsonArray();
+        CauldronBinaryFormat.fromByteArray(CauldronBinaryFormat.toByteArray(records), read::add);
+        return read;
+    }
+
+    @NotNull
+    private static JsonObject createCauldron(@NotNull String world, int x, int y, int z, long heatingStartTime, boolean heatingUp, boolean bubbling) {
+        JsonObject object = new JsonObject();
+        object.addProperty("heatingStartTime", heatingStartTime);
+        object.addProperty("heatingUp", heatingUp);
+        object.addProperty("bubbling", bubbling);
+        object.addProperty("world", world);
+
+        JsonObject cauldronBlockObject = new JsonObject();
+        cauldronBlockObject.addProperty("x", x);
+        cauldronBlockObject.addProperty("y", y);
+        cauldronBlockObject.addProperty("z", z);
+        object.add("cauldron", cauldronBlockObject);
+
+        return object;
+    }
+
+    @NotNull
+    private static JsonObject createItemIngredient(@NotNull String item) {
+        JsonObject ingredient = new JsonObject();
+        ingredient.addProperty("type", "alchema:item");
+        ingredient.addProperty("item_base64", item);
+        return ingredient;
+    }
+
+}
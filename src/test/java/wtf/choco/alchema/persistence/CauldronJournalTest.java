@@ -0,0 +1,143 @@
+package wtf.choco.alchema.persistence;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/*
+ * Tests:
+ * - testApply(): Ensure that add, heat, ingredients and remove entries are applied to the cauldrons they identify
+ * - testApplyUnknownCauldron(): Ensure that changes to cauldrons that do not exist are ignored
+ * - testApplyMalformed(): Ensure that entries without an op or position are rejected
+ * - testRecover(): Ensure that entries are recovered in order and that an incomplete trailing entry is cut off once started
+ */
+class CauldronJournalTest {
+
+    private static final String WORLD = UUID.randomUUID().toString();
+
+    @TempDir
+    File directory;
+
+    @Test
+    void testApply() {
+        Map<@NotNull String, @NotNull JsonObject> cauldrons = new HashMap<>();
+
+        JsonObject add = createEntry("add", 1, 64, -1);
+        add.addProperty("heatingStartTime", -1L);
+        add.addProperty("heatingUp", false);
+        add.addProperty("bubbling", false);
+        CauldronJournal.apply(cauldrons, add);
+
+        String key = WORLD + ":1,64,-1";
+        Assertions.assertEquals(1, cauldrons.size());
+        Assertions.assertTrue(cauldrons.containsKey(key));
+        Assertions.assertFalse(cauldrons.get(key).has("op"));
+
+        JsonObject heat = createEntry("heat", 1, 64, -1);
+        heat.addProperty("heatingStartTime", 100L);
+        heat.addProperty("heatingUp", true);
+        heat.addProperty("bubbling", false);
+        CauldronJournal.apply(cauldrons, heat);
+        Assertions.assertEquals(100L, cauldrons.get(key).get("heatingStartTime").getAsLong());
+        Assertions.assertTrue(cauldrons.get(key).get("heatingUp").getAsBoolean());
+
+        JsonArray ingredientsArray = new JsonArray();
+        JsonObject ingredient = new JsonObject();
+        ingredient.addProperty("type", "alchema:material");
+        ingredient.addProperty("material", "DIAMOND");
+        ingredientsArray.add(ingredient);
+
+        JsonObject ingredients = createEntry("ingredients", 1, 64, -1);
+        ingredients.add("ingredients", ingredientsArray);
+        CauldronJournal.apply(cauldrons, ingredients);
+        Assertions.assertEquals(ingredientsArray, cauldrons.get(key).get("ingredients"));
+
+        // Ingredients entries without ingredients clear them
+        CauldronJournal.apply(cauldrons, createEntry("ingredients", 1, 64, -1));
+        Assertions.assertFalse(cauldrons.get(key).has("ingredients"));
+
+        CauldronJournal.apply(cauldrons, createEntry("remove", 1, 64, -1));
+        Assertions.assertTrue(cauldrons.isEmpty());
+    }
+
+    @Test
+    void testApplyUnknownCauldron() {
+        Map<@NotNull String, @NotNull JsonObject> cauldrons = new HashMap<>();
+
+        JsonObject heat = createEntry("heat", 0, 0, 0);
+        heat.addProperty("heatingStartTime", 100L);
+        heat.addProperty("heatingUp", true);
+        heat.addProperty("bubbling", true);
+
+        CauldronJournal.apply(cauldrons, heat);
+        CauldronJournal.apply(cauldrons, createEntry("ingredients", 0, 0, 0));
+        CauldronJournal.apply(cauldrons, createEntry("remove", 0, 0, 0));
+        Assertions.assertTrue(cauldrons.isEmpty());
+    }
+
+    @Test
+    void testApplyMalformed() {
+        Map<@NotNull String, @NotNull JsonObject> cauldrons = new HashMap<>();
+
+        JsonObject withoutOp = createEntry("add", 0, 0, 0);
+        withoutOp.remove("op");
+        Assertions.assertThrows(JsonParseException.class, () -> CauldronJournal.apply(cauldrons, withoutOp));
+
+        JsonObject withoutPosition = createEntry("add", 0, 0, 0);
+        withoutPosition.remove("cauldron");
+        Assertions.assertThrows(JsonParseException.class, () -> CauldronJournal.apply(cauldrons, withoutPosition));
+
+        Assertions.assertTrue(cauldrons.isEmpty());
+    }
+
+    @Test
+    void testRecover() throws IOException {
+        File journalFile = new File(directory, "cauldrons.journal");
+        String complete = createEntry("add", 1, 2, 3) + "\n" + createEntry("add", 4, 5, 6) + "\n\n" + createEntry("remove", 1, 2, 3) + "\n";
+        Files.writeString(journalFile.toPath(), complete + "{\"op\":\"heat\",\"wor", StandardCharsets.UTF_8);
+
+        CauldronJournal journal = new CauldronJournal(journalFile, Logger.getLogger(CauldronJournalTest.class.getName()));
+        List<@NotNull JsonObject> entries = journal.recover();
+        Assertions.assertEquals(3, entries.size());
+
+        Map<@NotNull String, @NotNull JsonObject> cauldrons = new HashMap<>();
+        entries.forEach(entry -> CauldronJournal.apply(cauldrons, entry));
+        Assertions.assertEquals(1, cauldrons.size());
+        Assertions.assertTrue(cauldrons.containsKey(WORLD + ":4,5,6"));
+
+        // Starting the journal cuts off the incomplete entry such that new entries follow the last complete one
+        journal.start();
+        journal.close();
+        Assertions.assertEquals(complete, Files.readString(journalFile.toPath(), StandardCharsets.UTF_8));
+    }
+
+    @NotNull
+    private static JsonObject createEntry(@NotNull String op, int x, int y, int z) {
+        JsonObject entry = new JsonObject();
+        entry.addProperty("op", op);
+        entry.addProperty("world", WORLD);
+
+        JsonObject cauldronBlockObject = new JsonObject();
+        cauldronBlockObject.addProperty("x", x);
+        cauldronBlockObject.addProperty("y", y);
+        cauldronBlockObject.addProperty("z", z);
+        entry.add("cauldron", cauldronBlockObject);
+
+        return entry;
+    }
+
+}
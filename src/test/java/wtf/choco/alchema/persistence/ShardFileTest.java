@@ -0,0 +1,203 @@
+package wtf.choco.alchema.persistence;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.util.UUID;
+
+/*
+ * Tests:
+ * - testWriteAlternatesSlots(): Ensure that writes alternate between both slots and that the slot with the highest sequence number is read
+ * - testChecksumMismatch(): Ensure that the older slot is read if the cauldrons of the newest slot do not match its checksum
+ * - testWriteOverCorruptSlot(): Ensure that a write overwrites the newest slot if its cauldrons are corrupt, keeping the older intact copy
+ * - testTruncatedSlot(): Ensure that the older slot is read if the newest slot is truncated
+ * - testNoValidSlot(): Ensure that reading fails if neither slot is valid, and that a missing shard file is not read
+ * - testWriteEmpty(): Ensure that writing no cauldrons deletes the shard file
+ * - testGetShardFile(): Ensure that slot files are mapped to the shard file to which they belong, and other files to none
+ */
+class ShardFileTest {
+
+    private static final String WORLD = UUID.randomUUID().toString();
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES + Long.BYTES + Integer.BYTES;
+
+    @TempDir
+    File directory;
+
+    @Test
+    void testWriteAlternatesSlots() throws IOException {
+        File file = new File(directory, "r.0.0.dat");
+        File slotA = new File(directory, "r.0.0.a.dat"), slotB = new File(directory, "r.0.0.b.dat");
+        Assertions.assertFalse(ShardFile.exists(file));
+
+        ShardFile.write(file, createRecords(1));
+        Assertions.assertTrue(ShardFile.exists(file));
+        Assertions.assertTrue(slotA.exists() ^ slotB.exists());
+        File firstSlot = slotA.exists() ? slotA : slotB, secondSlot = (firstSlot == slotA) ? slotB : slotA;
+        Assertions.assertEquals(1, readSequence(firstSlot));
+
+        ShardFile.write(file, createRecords(2));
+        Assertions.assertEquals(2, readSequence(secondSlot));
+        Assertions.assertEquals(createRecords(2), read(file));
+
+        // The third write overwrites the oldest copy, the first slot
+        ShardFile.write(file, createRecords(3));
+        Assertions.assertEquals(3, readSequence(firstSlot));
+        Assertions.assertEquals(2, readSequence(secondSlot));
+        Assertions.assertEquals(createRecords(3), read(file));
+        Assertions.assertFalse(file.exists());
+    }
+
+    @Test
+    void testChecksumMismatch() throws IOException {
+        File file = new File(directory, "r.0.0.dat");
+        ShardFile.write(file, createRecords(1));
+        ShardFile.write(file, createRecords(2));
+
+        // Flip a bit in the cauldrons of the newest slot. Its header remains intact
+        flipLastBit(getNewestSlot(file));
+        Assertions.assertEquals(createRecords(1), read(file));
+    }
+
+    @Test
+    void testWriteOverCorruptSlot() throws IOException {
+        File file = new File(directory, "r.0.0.dat");
+        ShardFile.write(file, createRecords(1));
+        ShardFile.write(file, createRecords(2));
+
+        File corrupt = getNewestSlot(file);
+        flipLastBit(corrupt);
+        Assertions.assertEquals(createRecords(1), read(file));
+
+        ShardFile.write(file, createRecords(3));
+        Assertions.assertEquals(corrupt, getNewestSlot(file));
+        Assertions.assertEquals(3, readSequence(corrupt));
+        Assertions.assertEquals(createRecords(3), read(file));
+
+        // The intact copy survived the write and remains available should the new one be lost
+        flipLastBit(corrupt);
+        Assertions.assertEquals(createRecords(1), read(file));
+    }
+
+    @Test
+    void testTruncatedSlot() throws IOException {
+        File file = new File(directory, "r.0.0.dat");
+        ShardFile.write(file, createRecords(1));
+        ShardFile.write(file, createRecords(2));
+
+        File newest = getNewestSlot(file);
+        try (RandomAccessFile slot = new RandomAccessFile(newest, "rw")) {
+            slot.setLength(slot.length() - 1);
+        }
+
+        Assertions.assertEquals(createRecords(1), read(file));
+
+        // A slot truncated within its header is invalid all the same
+        try (RandomAccessFile slot = new RandomAccessFile(newest, "rw")) {
+            slot.setLength(HEADER_SIZE / 2);
+        }
+
+        Assertions.assertEquals(createRecords(1), read(file));
+    }
+
+    @Test
+    void testNoValidSlot() throws IOException {
+        File file = new File(directory, "r.0.0.dat");
+        Assertions.assertFalse(ShardFile.read(file, record -> Assertions.fail("Read a cauldron from a missing shard file")));
+
+        ShardFile.write(file, createRecords(1));
+        ShardFile.write(file, createRecords(2));
+
+        for (String slotName : new String[] { "a", "b" }) {
+            File slot = new File(directory, "r.0.0." + slotName + ".dat");
+            byte[] bytes = Files.readAllBytes(slot.toPath());
+            bytes[bytes.length - 1] ^= 1;
+            Files.write(slot.toPath(), bytes);
+        }
+
+        Assertions.assertThrows(IOException.class, () -> ShardFile.read(file, record -> Assertions.fail("Read a cauldron from a corrupt shard file")));
+    }
+
+    @Test
+    void testWriteEmpty() throws IOException {
+        File file = new File(directory, "r.0.0.dat");
+        ShardFile.write(file, createRecords(2));
+        ShardFile.write(file, createRecords(3));
+        Assertions.assertTrue(ShardFile.exists(file));
+
+        ShardFile.write(file, new JsonArray());
+        Assertions.assertFalse(ShardFile.exists(file));
+        Assertions.assertFalse(ShardFile.read(file, record -> Assertions.fail("Read a cauldron from a deleted shard file")));
+    }
+
+    @Test
+    void testGetShardFile() {
+        File file = new File(directory, "r.-1.2.dat");
+
+        Assertions.assertEquals(file, ShardFile.getShardFile(new File(directory, "r.-1.2.a.dat"), ".dat"));
+        Assertions.assertEquals(file, ShardFile.getShardFile(new File(directory, "r.-1.2.b.dat"), ".dat"));
+        Assertions.assertNull(ShardFile.getShardFile(new File(directory, "r.-1.2.a.json"), ".dat"));
+        Assertions.assertNull(ShardFile.getShardFile(file, ".dat"));
+    }
+
+    @NotNull
+    private static JsonArray read(@NotNull File file) throws IOException {
+        JsonArray records = new JsonArray();
+        Assertions.assertTrue(ShardFile.read(file, records::add));
+        return records;
+    }
+
+    private static void flipLastBit(@NotNull File slotFile) throws IOException {
+        try (RandomAccessFile slot = new RandomAccessFile(slotFile, "rw")) {
+            long position = slot.length() - 1;
+            slot.seek(position);
+            int value = slot.read();
+            slot.seek(position);
+            slot.write(value ^ 1);
+        }
+    }
+
+    @NotNull
+    private static File getNewestSlot(@NotNull File file) throws IOException {
+        File slotA = new File(file.getParentFile(), "r.0.0.a.dat"), slotB = new File(file.getParentFile(), "r.0.0.b.dat");
+        return (readSequence(slotA) > readSequence(slotB)) ? slotA : slotB;
+    }
+
+    // The sequence number follows the magic number at the start of the header
+    private static long readSequence(@NotNull File slot) throws IOException {
+        byte[] bytes = Files.readAllBytes(slot.toPath());
+        return ByteBuffer.wrap(bytes).getLong(Integer.BYTES);
+    }
+
+    // A distinct array of cauldrons per amount, such that each write of a different amount is distinguishable
+    @NotNull
+    private static JsonArray createRecords(int amount) {
+        JsonArray records = new JsonArray();
+        for (int i = 0; i < amount; i++) {
+            JsonObject object = new JsonObject();
+            object.addProperty("heatingStartTime", -1L);
+            object.addProperty("heatingUp", false);
+            object.addProperty("bubbling", i % 2 == 0);
+            object.addProperty("world", WORLD);
+
+            JsonObject cauldronBlockObject = new JsonObject();
+            cauldronBlockObject.addProperty("x", i * 16);
+            cauldronBlockObject.addProperty("y", 64);
+            cauldronBlockObject.addProperty("z", -i);
+            object.add("cauldron", cauldronBlockObject);
+
+            records.add(object);
+        }
+
+        return records;
+    }
+
+}
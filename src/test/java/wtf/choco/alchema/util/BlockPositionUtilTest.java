@@ -0,0 +1,94 @@
+package wtf.choco.alchema.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/*
+ * Tests:
+ * - testPackUnpack(): Ensure that coordinates survive being packed and unpacked, including negative coordinates
+ * - testPackBounds(): Ensure that coordinates at the bounds of their 26 bit (x, z) and 12 bit (y) fields survive being packed and unpacked
+ * - testPackUnique(): Ensure that neighbouring positions across the sign boundary of each axis pack to distinct values
+ * - testPackChunk(): Ensure that chunk coordinates, including negative coordinates, pack to distinct values
+ */
+class BlockPositionUtilTest {
+
+    // The bounds of a signed 26 bit and 12 bit field respectively
+    private static final int MIN_HORIZONTAL = -(1 << 25), MAX_HORIZONTAL = (1 << 25) - 1;
+    private static final int MIN_VERTICAL = -(1 << 11), MAX_VERTICAL = (1 << 11) - 1;
+
+    @Test
+    void testPackUnpack() {
+        int[][] positions = {
+            { 0, 0, 0 },
+            { 1, 2, 3 },
+            { -1, -1, -1 },
+            { -30_000_000, -64, 30_000_000 },
+            { 30_000_000, 319, -30_000_000 },
+            { 123_456, -17, -654_321 }
+        };
+
+        for (int[] position : positions) {
+            this.assertRoundTrip(position[0], position[1], position[2]);
+        }
+    }
+
+    @Test
+    void testPackBounds() {
+        int[] horizontal = { MIN_HORIZONTAL, MIN_HORIZONTAL + 1, -1, 0, MAX_HORIZONTAL - 1, MAX_HORIZONTAL };
+        int[] vertical = { MIN_VERTICAL, MIN_VERTICAL + 1, -1, 0, MAX_VERTICAL - 1, MAX_VERTICAL };
+
+        for (int x : horizontal) {
+            for (int y : vertical) {
+                for (int z : horizontal) {
+                    this.assertRoundTrip(x, y, z);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testPackUnique() {
+        long origin = BlockPositionUtil.pack(0, 0, 0);
+
+        Assertions.assertNotEquals(origin, BlockPositionUtil.pack(-1, 0, 0));
+        Assertions.assertNotEquals(origin, BlockPositionUtil.pack(0, -1, 0));
+        Assertions.assertNotEquals(origin, BlockPositionUtil.pack(0, 0, -1));
+
+        // A negative coordinate must not bleed into the fields of the others
+        Assertions.assertNotEquals(BlockPositionUtil.pack(0, -1, 0), BlockPositionUtil.pack(0, MAX_VERTICAL, 0));
+        Assertions.assertNotEquals(BlockPositionUtil.pack(0, 0, -1), BlockPositionUtil.pack(-1, 0, MAX_HORIZONTAL));
+    }
+
+    @Test
+    void testPackChunk() {
+        Set<@NotNull Long> keys = new HashSet<>();
+        for (int chunkX = -3; chunkX <= 3; chunkX++) {
+            for (int chunkZ = -3; chunkZ <= 3; chunkZ++) {
+                Assertions.assertTrue(keys.add(BlockPositionUtil.packChunk(chunkX, chunkZ)), "(" + chunkX + ", " + chunkZ + ")");
+            }
+        }
+
+        int[] bounds = { Integer.MIN_VALUE, -1, 0, Integer.MAX_VALUE };
+        for (int chunkX : bounds) {
+            for (int chunkZ : bounds) {
+                long key = BlockPositionUtil.packChunk(chunkX, chunkZ);
+                Assertions.assertEquals(chunkX, (int) (key >> 32));
+                Assertions.assertEquals(chunkZ, (int) key);
+            }
+        }
+    }
+
+    private void assertRoundTrip(int x, int y, int z) {
+        long position = BlockPositionUtil.pack(x, y, z);
+        String message = "(" + x + ", " + y + ", " + z + ")";
+
+        Assertions.assertEquals(x, BlockPositionUtil.unpackX(position), message);
+        Assertions.assertEquals(y, BlockPositionUtil.unpackY(position), message);
+        Assertions.assertEquals(z, BlockPositionUtil.unpackZ(position), message);
+    }
+
+}
@@ -0,0 +1,149 @@
+package wtf.choco.alchema.util;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/*
+ * Tests:
+ * - testPutGetRemove(): Ensure that values can be put, replaced, retrieved and removed by their key
+ * - testRemoveByValue(): Ensure that a key is only removed by value if it is mapped to that exact value
+ * - testCollisions(): Ensure that keys probing from the same bucket remain reachable as others are removed (backward shift deletion)
+ * - testResize(): Ensure that all entries remain reachable after the table has been resized several times
+ * - testValuesView(): Ensure that the values view reflects the map and fails fast when modified during iteration
+ */
+class LongObjectHashMapTest {
+
+    // The default capacity of a LongObjectHashMap, in which the colliding keys below share a bucket
+    private static final int DEFAULT_CAPACITY = 16;
+
+    @Test
+    void testPutGetRemove() {
+        LongObjectHashMap<@NotNull String> map = new LongObjectHashMap<>();
+
+        Assertions.assertTrue(map.isEmpty());
+        Assertions.assertNull(map.put(1L, "one"));
+        Assertions.assertNull(map.put(-1L, "minus one"));
+        Assertions.assertNull(map.put(0L, "zero"));
+        Assertions.assertEquals("one", map.put(1L, "uno"));
+        Assertions.assertEquals(3, map.size());
+
+        Assertions.assertEquals("uno", map.get(1L));
+        Assertions.assertEquals("minus one", map.get(-1L));
+        Assertions.assertEquals("zero", map.get(0L));
+        Assertions.assertNull(map.get(2L));
+        Assertions.assertTrue(map.containsKey(0L));
+        Assertions.assertFalse(map.containsKey(2L));
+
+        Assertions.assertEquals("uno", map.remove(1L));
+        Assertions.assertNull(map.remove(1L));
+        Assertions.assertNull(map.get(1L));
+        Assertions.assertEquals(2, map.size());
+
+        map.clear();
+        Assertions.assertTrue(map.isEmpty());
+        Assertions.assertNull(map.get(-1L));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> map.put(3L, null));
+    }
+
+    @Test
+    void testRemoveByValue() {
+        LongObjectHashMap<@NotNull String> map = new LongObjectHashMap<>();
+        String value = new String("value");
+
+        map.put(5L, value);
+        Assertions.assertFalse(map.remove(5L, new String("value")));
+        Assertions.assertFalse(map.remove(6L, value));
+        Assertions.assertTrue(map.containsKey(5L));
+
+        Assertions.assertTrue(map.remove(5L, value));
+        Assertions.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void testCollisions() {
+        List<@NotNull Long> keys = findCollidingKeys(6);
+        LongObjectHashMap<@NotNull Long> map = new LongObjectHashMap<>();
+        keys.forEach(key -> map.put(key, key));
+
+        // Remove from the front and the middle of the probe sequence, then from its end
+        int[] removalOrder = { 0, 3, 5, 1, 4, 2 };
+        Set<@NotNull Long> remaining = new HashSet<>(keys);
+        for (int index : removalOrder) {
+            Long key = keys.get(index);
+            Assertions.assertEquals(key, map.remove(key));
+            remaining.remove(key);
+
+            Assertions.assertEquals(remaining.size(), map.size());
+            for (Long other : keys) {
+                Assertions.assertEquals(remaining.contains(other) ? other : null, map.get(other), "Key " + other + " after removing " + key);
+            }
+        }
+    }
+
+    @Test
+    void testResize() {
+        LongObjectHashMap<@NotNull Long> map = new LongObjectHashMap<>(1);
+
+        for (long i = 0; i < 10_000; i++) {
+            long key = BlockPositionUtil.pack((int) (i % 100) - 50, (int) (i % 7), (int) (i / 100) - 50);
+            map.put(key, i);
+        }
+
+        Assertions.assertEquals(10_000, map.size());
+        for (long i = 0; i < 10_000; i++) {
+            long key = BlockPositionUtil.pack((int) (i % 100) - 50, (int) (i % 7), (int) (i / 100) - 50);
+            Assertions.assertEquals(i, map.get(key));
+        }
+
+        // Removing every other entry must not lose any of the rest
+        for (long i = 0; i < 10_000; i += 2) {
+            map.remove(BlockPositionUtil.pack((int) (i % 100) - 50, (int) (i % 7), (int) (i / 100) - 50));
+        }
+
+        Assertions.assertEquals(5_000, map.size());
+        for (long i = 0; i < 10_000; i++) {
+            long key = BlockPositionUtil.pack((int) (i % 100) - 50, (int) (i % 7), (int) (i / 100) - 50);
+            Assertions.assertEquals((i % 2 == 0) ? null : i, map.get(key));
+        }
+    }
+
+    @Test
+    void testValuesView() {
+        LongObjectHashMap<@NotNull Long> map = new LongObjectHashMap<>();
+        for (long i = 0; i < 100; i++) {
+            map.put(i, i);
+        }
+
+        Set<@NotNull Long> values = new HashSet<>(map.values());
+        Assertions.assertEquals(100, map.values().size());
+        Assertions.assertEquals(100, values.size());
+
+        Iterator<@NotNull Long> iterator = map.values().iterator();
+        iterator.next();
+        map.remove(50L);
+        Assertions.assertThrows(ConcurrentModificationException.class, iterator::next);
+    }
+
+    // Find keys whose ideal bucket is the same in a table of the default capacity
+    @NotNull
+    private static List<@NotNull Long> findCollidingKeys(int amount) {
+        List<@NotNull Long> keys = new ArrayList<>(amount);
+        for (long key = 0; keys.size() < amount; key++) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            if (((int) (hash ^ (hash >>> 32)) & (DEFAULT_CAPACITY - 1)) == 0) {
+                keys.add(key);
+            }
+        }
+
+        return keys;
+    }
+
+}